@@ -14,6 +14,11 @@ package org.fife.rtext;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
@@ -22,7 +27,9 @@ import java.beans.PropertyChangeListener;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
+import java.util.List;
 import java.util.Timer;
+import java.util.regex.Pattern;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.event.EventListenerList;
@@ -30,6 +37,7 @@ import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Caret;
+import javax.swing.text.Document;
 
 import org.fife.io.UnicodeWriter;
 import org.fife.rsta.ui.GoToDialog;
@@ -96,6 +104,22 @@ public abstract class AbstractMainView extends JPanel
 	public static final String TEXT_AREA_ADDED_PROPERTY		= "MainView.textAreaAdded";
 	public static final String TEXT_AREA_REMOVED_PROPERTY	= "MainView.textAreaRemoved";
 
+	/**
+	 * The number of closed text areas torn down per event when closing many
+	 * documents at once.
+	 */
+	private static final int TEARDOWN_CHUNK_SIZE				= 20;
+
+	/**
+	 * Client property on a scroll pane referencing its document panel.
+	 */
+	private static final String DOCUMENT_PANEL			= "MainView.documentPanel";
+
+	/**
+	 * Client property on a scroll pane referencing its minimap.
+	 */
+	private static final String MINIMAP					= "MainView.minimap";
+
 	private RTextEditorPane currentTextArea;			// Currently active text area.
 
 	public FindInFilesSearchContext searchContext;
@@ -103,6 +127,7 @@ public abstract class AbstractMainView extends JPanel
 
 	private boolean lineNumbersEnabled;			// If true, line numbers are visible on the documents.
 	private boolean lineWrapEnabled;				// If true, word wrap is enabled for all documents.
+	private boolean minimapEnabled;				// If true, minimaps are visible on the documents.
 	private String defaultLineTerminator;			// Line terminator of new text files.
 	private String defaultEncoding;				// Encoding of new text files.
 	private boolean guessFileContentType;
@@ -124,6 +149,8 @@ public abstract class AbstractMainView extends JPanel
 	private Object backgroundObject;				// Object used to draw text areas' backgrounds.
 	private float imageAlpha;					// Alpha value used to make the bg image translucent.
 	private String backgroundImageFileName;			// Background image, or null if background is a color.
+	private BackgroundImageCache backgroundImageCache;
+	private ComponentListener backgroundResizer;
 
 	protected RText owner;						// The owner of this tabbed panel.
 
@@ -176,6 +203,12 @@ public abstract class AbstractMainView extends JPanel
 	private boolean doFileSizeCheck;
 	private float maxFileSize;				// In MB.
 
+	private int followMaxLines;				// 0 => unlimited.
+
+	private float reducedProfileFileSize;	// In MB.
+	private float minimalProfileFileSize;	// In MB.
+	private int reducedProfileLineLength;
+
 	private boolean ignoreBackupExtensions;
 
 	private Font textAreaFont;
@@ -195,6 +228,17 @@ public abstract class AbstractMainView extends JPanel
 
 	private SpellingSupport spellingSupport;
 
+	private BackgroundSaver backgroundSaver;
+	private DormantTabManager dormantTabManager;
+	private OpenDocumentIndex documentIndex;
+	private boolean copyingData;
+
+	private SyntaxScheme syntaxScheme;
+	private int settingsTransactionDepth;
+	private Set<EditorSetting> transactionSettings;
+	private Map<RTextEditorPane, Set<EditorSetting>> deferredSettings;
+	private HierarchyListener deferredSettingsApplier;
+
 	private ToggleTextModeAction toggleTextModeAction;
 	private CapsLockAction capsLockAction;
 
@@ -212,6 +256,33 @@ public abstract class AbstractMainView extends JPanel
 	public AbstractMainView() {
 
 		listenerList = new EventListenerList();
+		documentIndex = new OpenDocumentIndex(this);
+
+		transactionSettings = EnumSet.noneOf(EditorSetting.class);
+		// Weak so closed documents don't linger here.
+		deferredSettings =
+			new WeakHashMap<RTextEditorPane, Set<EditorSetting>>();
+		deferredSettingsApplier = new HierarchyListener() {
+			public void hierarchyChanged(HierarchyEvent e) {
+				if ((e.getChangeFlags()&HierarchyEvent.SHOWING_CHANGED)!=0 &&
+						e.getComponent().isShowing()) {
+					applyDeferredSettings(
+							(RTextEditorPane)e.getComponent());
+				}
+			}
+		};
+		backgroundResizer = new ComponentAdapter() {
+			@Override
+			public void componentResized(ComponentEvent e) {
+				// Go through the owner, since scroll panes are kept when
+				// the view style changes.
+				Component view = ((JViewport)e.getComponent()).getView();
+				if (view instanceof RTextEditorPane) {
+					owner.getMainView().refreshBackground(
+										(RTextEditorPane)view);
+				}
+			}
+		};
 
 		ClassLoader cl = getClass().getClassLoader();
 		URL url = cl.getResource("org/fife/rtext/graphics/bookmark.png");
@@ -301,6 +372,7 @@ public abstract class AbstractMainView extends JPanel
 		// Add new text file to tabbed pane.
 		RTextScrollPane scrollPane = createScrollPane(currentTextArea);
 		currentTextArea.applyComponentOrientation(getTextAreaOrientation());
+		documentIndex.textAreaAdded(currentTextArea);
 		addTextAreaImpl(currentTextArea.getFileName(), scrollPane,
 								currentTextArea.getFileFullPath());
 
@@ -338,6 +410,7 @@ public abstract class AbstractMainView extends JPanel
 		// This sets currentTextArea==tempTextArea.
 		RTextScrollPane scrollPane = createScrollPane(textArea);
 		textArea.applyComponentOrientation(getTextAreaOrientation());
+		documentIndex.textAreaAdded(textArea);
 		addTextAreaImpl(textArea.getFileName(), scrollPane,
 						textArea.getFileFullPath());
 
@@ -381,6 +454,302 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Applies any editor settings that changed while a text area was not
+	 * visible.
+	 *
+	 * @param textArea The text area.
+	 */
+	private void applyDeferredSettings(RTextEditorPane textArea) {
+		Set<EditorSetting> settings = deferredSettings.remove(textArea);
+		if (settings!=null) {
+			applySettings(textArea, settings);
+		}
+	}
+
+
+	/**
+	 * Applies a single editor setting to a text area.
+	 *
+	 * @param textArea The text area.
+	 * @param setting The setting to apply.
+	 */
+	private void applySetting(RTextEditorPane textArea,
+							EditorSetting setting) {
+
+		RTextScrollPane sp = (RTextScrollPane)SwingUtilities.
+				getAncestorOfClass(RTextScrollPane.class, textArea);
+		Gutter gutter = sp!=null ? sp.getGutter() : null;
+		PerformanceProfile profile = textArea.getPerformanceProfile();
+
+		switch (setting) {
+			case ANTI_ALIAS:
+				textArea.setAntiAliasingEnabled(aaEnabled);
+				break;
+			case AUTO_INSERT_CLOSING_CURLYS:
+				textArea.setCloseCurlyBraces(autoInsertClosingCurlys);
+				break;
+			case BACKGROUND:
+				if (gutter!=null) {
+					gutter.setBackground(backgroundObject instanceof Color ?
+							(Color)backgroundObject : Color.WHITE);
+				}
+				textArea.setBackgroundObject(getTextAreaBackground(textArea));
+				break;
+			case BOOKMARKS:
+				if (gutter!=null) {
+					gutter.setBookmarkingEnabled(bookmarksEnabled);
+				}
+				break;
+			case BRACKET_MATCHING:
+				textArea.setBracketMatchingEnabled(bracketMatchingEnabled &&
+						profile.isBracketMatchingAllowed());
+				break;
+			case CARET_BLINK_RATE:
+				Caret c = textArea.getCaret();
+				if (c!=null) {
+					c.setBlinkRate(caretBlinkRate);
+				}
+				break;
+			case CARET_COLOR:
+				textArea.setCaretColor(caretColor);
+				break;
+			case CARET_STYLE:
+				textArea.setCaretStyle(RTextArea.INSERT_MODE,
+						carets[RTextArea.INSERT_MODE]);
+				textArea.setCaretStyle(RTextArea.OVERWRITE_MODE,
+						carets[RTextArea.OVERWRITE_MODE]);
+				break;
+			case CODE_FOLDING:
+				boolean fold = isCodeFoldingEnabledFor(
+						textArea.getSyntaxEditingStyle()) &&
+						profile.isCodeFoldingAllowed();
+				if (fold!=textArea.isCodeFoldingEnabled()) {
+					if (gutter!=null) {
+						gutter.setFoldIndicatorEnabled(fold);
+					}
+					textArea.setCodeFoldingEnabled(fold);
+				}
+				break;
+			case CURRENT_LINE_HIGHLIGHT:
+				textArea.setHighlightCurrentLine(highlightCurrentLine);
+				break;
+			case CURRENT_LINE_HIGHLIGHT_COLOR:
+				textArea.setCurrentLineHighlightColor(currentLineColor);
+				break;
+			case FRACTIONAL_METRICS:
+				textArea.setFractionalFontMetricsEnabled(
+											fractionalMetricsEnabled);
+				break;
+			case GUESSED_SYNTAX_STYLE:
+				setSyntaxStyle(textArea,
+						getSyntaxStyleForFile(textArea.getFileName()));
+				break;
+			case GUTTER_BORDER_COLOR:
+				if (gutter!=null) {
+					gutter.setBorderColor(gutterBorderColor);
+				}
+				break;
+			case HIGHLIGHT_SECONDARY_LANGUAGES:
+				textArea.setHighlightSecondaryLanguages(
+											highlightSecondaryLanguages);
+				break;
+			case HYPERLINK_COLOR:
+				textArea.setHyperlinkForeground(hyperlinkColor);
+				break;
+			case HYPERLINK_MODIFIER_KEY:
+				textArea.setLinkScanningMask(hyperlinkModifierKey);
+				break;
+			case HYPERLINKS_ENABLED:
+				textArea.setHyperlinksEnabled(hyperlinksEnabled);
+				break;
+			case LINE_NUMBER_COLOR:
+				if (gutter!=null) {
+					gutter.setLineNumberColor(lineNumberColor);
+				}
+				break;
+			case LINE_NUMBER_FONT:
+				if (gutter!=null) {
+					gutter.setLineNumberFont(lineNumberFont);
+				}
+				break;
+			case LINE_NUMBERS:
+				if (sp!=null) {
+					sp.setLineNumbersEnabled(lineNumbersEnabled);
+				}
+				break;
+			case LINE_WRAP:
+				textArea.setLineWrap(lineWrapEnabled &&
+						profile.isLineWrapAllowed());
+				break;
+			case MARGIN_LINE_COLOR:
+				textArea.setMarginLineColor(marginLineColor);
+				break;
+			case MARGIN_LINE_ENABLED:
+				textArea.setMarginLineEnabled(marginLineEnabled);
+				break;
+			case MARGIN_LINE_POSITION:
+				textArea.setMarginLinePosition(marginLinePosition);
+				break;
+			case MARK_ALL_COLOR:
+				textArea.setMarkAllHighlightColor(markAllHighlightColor);
+				break;
+			case MARK_OCCURRENCES:
+				textArea.setMarkOccurrences(markOccurrences &&
+						profile.isMarkOccurrencesAllowed());
+				break;
+			case MARK_OCCURRENCES_COLOR:
+				textArea.setMarkOccurrencesColor(markOccurrencesColor);
+				break;
+			case MATCH_BOTH_BRACKETS:
+				textArea.setPaintMatchedBracketPair(matchBothBrackets);
+				break;
+			case MATCHED_BRACKET_BG_COLOR:
+				// Will repaint if necessary.
+				textArea.setMatchedBracketBGColor(matchedBracketBGColor);
+				break;
+			case MATCHED_BRACKET_BORDER_COLOR:
+				// Will repaint if necessary.
+				textArea.setMatchedBracketBorderColor(
+											matchedBracketBorderColor);
+				break;
+			case MINIMAP:
+				Minimap minimap = sp!=null ?
+						(Minimap)sp.getClientProperty(MINIMAP) : null;
+				if (minimap!=null) {
+					minimap.setUserVisible(minimapEnabled);
+				}
+				break;
+			case REMEMBER_WHITESPACE_LINES:
+				textArea.setClearWhitespaceLinesEnabled(
+											!rememberWhitespaceLines);
+				break;
+			case ROUNDED_SELECTION_EDGES:
+				textArea.setRoundedSelectionEdges(roundedSelectionEdges);
+				break;
+			case SECONDARY_LANGUAGE_COLORS:
+				for (int i=0; i<secondaryLanguageColors.length; i++) {
+					textArea.setSecondaryLanguageBackground(i+1,
+											secondaryLanguageColors[i]);
+				}
+				break;
+			case SELECTED_TEXT_COLOR:
+				textArea.setSelectedTextColor(selectedTextColor);
+				break;
+			case SELECTION_COLOR:
+				textArea.setSelectionColor(selectionColor);
+				break;
+			case SHOW_EOL_MARKERS:
+				textArea.setEOLMarkersVisible(showEOLMarkers);
+				break;
+			case SHOW_TAB_LINES:
+				textArea.setPaintTabLines(showTabLines);
+				break;
+			case SYNTAX_SCHEME:
+				if (syntaxScheme!=null) {
+					textArea.setSyntaxScheme(syntaxScheme);
+				}
+				else {
+					textArea.restoreDefaultSyntaxScheme();
+				}
+				break;
+			case SYNTAX_STYLE:
+				String oldStyle = textArea.getSyntaxEditingStyle();
+				String newStyle = getSyntaxStyleForFile(textArea.getFileName());
+				if (!oldStyle.equals(newStyle)) {
+					setSyntaxStyle(textArea, newStyle);
+					if (textArea==currentTextArea) {
+						textArea.repaint();
+					}
+				}
+				break;
+			case TAB_LINES_COLOR:
+				textArea.setTabLineColor(tabLinesColor);
+				break;
+			case TAB_SIZE:
+				textArea.setTabSize(tabSize);
+				break;
+			case TABS_EMULATED:
+				textArea.setTabsEmulated(emulateTabsWithWhitespace);
+				break;
+			case TEXT_AREA_FONT:
+				textArea.setFont(textAreaFont);
+				//textArea.setUnderline(textAreaUnderline);
+				break;
+			case TEXT_AREA_FOREGROUND:
+				textArea.setForeground(textAreaForeground);
+				break;
+			case TEXT_AREA_ORIENTATION:
+				textArea.applyComponentOrientation(textAreaOrientation);
+				break;
+			case TEXT_MODE:
+				textArea.setTextMode(textMode);
+				break;
+			case USE_SELECTED_TEXT_COLOR:
+				textArea.setUseSelectedTextColor(useSelectedTextColor);
+				break;
+			case WHITESPACE_VISIBLE:
+				textArea.setWhitespaceVisible(whitespaceVisible);
+				break;
+		}
+
+	}
+
+
+	/**
+	 * Applies editor settings to all open text areas.  Visual settings are
+	 * only applied to text areas that are not currently visible when they are
+	 * next shown, so e.g. changing the color scheme with 100 files open only
+	 * repaints the visible ones.  Settings that are part of a text area's
+	 * model state, such as its syntax style, are always applied right away,
+	 * since code working with hidden documents relies on them.
+	 *
+	 * @param settings The settings to apply.
+	 * @see EditorSetting#isModelState()
+	 */
+	private void applySettings(Set<EditorSetting> settings) {
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			if (textArea.isShowing()) {
+				applySettings(textArea, settings);
+			}
+			else {
+				for (EditorSetting setting : settings) {
+					if (setting.isModelState()) {
+						applySetting(textArea, setting);
+					}
+					else {
+						deferSetting(textArea, setting);
+					}
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Applies editor settings to a single text area.  Since each setting's
+	 * value is read from this view, a setting changed several times is still
+	 * only applied once.
+	 *
+	 * @param textArea The text area.
+	 * @param settings The settings to apply.
+	 */
+	private void applySettings(RTextEditorPane textArea,
+							Set<EditorSetting> settings) {
+		// Any settings deferred earlier must be applied too, in case this
+		// text area is showing but never got a hierarchy event.
+		Set<EditorSetting> deferred = deferredSettings.remove(textArea);
+		if (deferred!=null) {
+			deferred.addAll(settings);
+			settings = deferred;
+		}
+		for (EditorSetting setting : settings) {
+			applySetting(textArea, setting);
+		}
+	}
+
+
 	/**
 	 * Returns whether or not tabs are emulated with spaces.
 	 *
@@ -391,6 +760,20 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Starts a batch of editor setting changes.  Until the matching call to
+	 * {@link #commitSettingsTransaction()}, setters such as
+	 * {@link #setTabSize(int)} and {@link #setTextAreaFont(Font, boolean)}
+	 * only record their new values; the changes are then applied to each
+	 * open text area in a single pass.  Transactions may be nested.
+	 *
+	 * @see #commitSettingsTransaction()
+	 */
+	public void beginSettingsTransaction() {
+		settingsTransactionDepth++;
+	}
+
+
 	/**
 	 * Checks the "modified" timestamps for open files against the last known
 	 * "modified" timestamps to see if any files have been modified outside of
@@ -413,7 +796,10 @@ public abstract class AbstractMainView extends JPanel
 			StringBuilder sb = new StringBuilder();
 			for (int i=0; i<getNumDocuments(); i++) {
 				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				if (textArea.isModifiedOutsideEditor()) {
+				// Files being saved in the background, or followed, are
+				// expected to have a changing timestamp.
+				if (!textArea.isSaving() && !textArea.isFollowing() &&
+						textArea.isModifiedOutsideEditor()) {
 					sb.append(' ').append(i);
 				}
 			}
@@ -459,38 +845,33 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public boolean closeAllDocumentsExcept(int except) {
 
+		// Prompt for all dirty documents first, back to front, so canceling
+		// doesn't leave only some of the documents closed.
 		int numDocuments = getNumDocuments();
-		setSelectedIndex(numDocuments-1); // Start at the back.
-
-		// Cycle through each document, one by one.
+		List<RTextEditorPane> toClose =
+				new ArrayList<RTextEditorPane>(numDocuments);
 		for (int i=numDocuments-1; i>=0; i--) {
-
 			if (i==except) {
-				// Instead of removing this document, set focus to the
-				// "first" document, and continue closing documents with the
-				// next iteration.  Since we're only keeping around 1
-				// document, this keeps it open.
-				if (i>0) {
-					setSelectedIndex(0);
-				}
+				continue;
 			}
-			else {
-
-				// Try to close the document.
-				boolean closed = closeCurrentDocument();
-
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			backgroundSaver.waitFor(textArea);
+			if (textArea.isDirty()) {
+				setSelectedIndex(i);
+				int rc = promptToSaveBeforeClosingIfDirty();
 				// If the user cancels out of it, quit the whole schibang.
-				if (!closed) {
+				if (rc==JOptionPane.CANCEL_OPTION) {
 					// If the newly-active file is read-only, say so in the status bar.
 					owner.setStatusBarReadOnlyIndicatorEnabled(
 						currentTextArea==null ? false
 										: currentTextArea.isReadOnly());
 					return false;
 				}
-
 			}
+			toClose.add(textArea);
+		}
 
-		} // End of for (int i=tabCount-1; i>=0; i--).
+		closeTextAreas(toClose);
 
 		// If we got this far, then all documents were closed.
 		// We'll just have an empty default-named file out there.
@@ -499,6 +880,77 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Closes many text areas at once, without prompting to save them.  All
+	 * text areas are removed before display names, the current text area,
+	 * etc. are updated just once, so this is much faster than closing them
+	 * one at a time.  Tearing down their parsers (and any language support
+	 * listening for removed text areas) is deferred and done a few at a
+	 * time, so the UI stays responsive.
+	 *
+	 * @param textAreas The text areas to close.
+	 */
+	private synchronized void closeTextAreas(
+							final List<RTextEditorPane> textAreas) {
+
+		if (textAreas.isEmpty()) {
+			return;
+		}
+
+		int[] indices = new int[textAreas.size()];
+		for (int i=0; i<indices.length; i++) {
+			RTextEditorPane textArea = textAreas.get(i);
+			indices[i] = getIndexOf(textArea);
+			// Closed text areas shouldn't notify us of anything.
+			textArea.removeCaretListener(owner);
+			textArea.removePropertyChangeListener(owner);
+			textArea.removePropertyChangeListener(
+									(StatusBar)owner.getStatusBar());
+			textArea.removePropertyChangeListener(this);
+			textArea.removeHyperlinkListener(this);
+			textArea.removeHierarchyListener(deferredSettingsApplier);
+			textArea.stopFollowing();
+			textArea.stopImporting();
+		}
+		Arrays.sort(indices);
+		removeComponentsAt(indices);
+
+		if (getNumDocuments()>0) {
+			renumberDisplayNames();
+			setSelectedIndex(0);
+		}
+		else {
+			addNewEmptyUntitledFile();
+		}
+
+		updateStatusBar();
+		RTextEditorPane editor = getCurrentTextArea();
+		String title = editor.getFileFullPath();
+		if (editor.isDirty()) {
+			title += "*";
+		}
+		owner.setMessages(title, owner.getString("Ready"));
+
+		SwingUtilities.invokeLater(new Runnable() {
+			private int next;
+			public void run() {
+				int end = Math.min(next + TEARDOWN_CHUNK_SIZE,
+									textAreas.size());
+				for (; next<end; next++) {
+					RTextEditorPane textArea = textAreas.get(next);
+					textArea.clearParsers();
+					firePropertyChange(TEXT_AREA_REMOVED_PROPERTY, null,
+										textArea);
+				}
+				if (next<textAreas.size()) {
+					SwingUtilities.invokeLater(this);
+				}
+			}
+		});
+
+	}
+
+
 	/**
 	 * Attempts to close the current document.
 	 *
@@ -512,6 +964,8 @@ public abstract class AbstractMainView extends JPanel
 		boolean closed = closeCurrentDocumentImpl();
 
 		if (closed) {
+			old.stopFollowing();
+			old.stopImporting();
 			old.clearParsers();
 			firePropertyChange(TEXT_AREA_REMOVED_PROPERTY, null, old);
 		}
@@ -533,26 +987,47 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Converts all instances of a number of spaces equal to a tab in all open
-	 * documents into tabs.
+	 * Ends a batch of editor setting changes.  If this ends the outermost
+	 * transaction, all settings changed since it began are applied to the
+	 * visible text areas.  Text areas that aren't visible are updated when
+	 * they are next shown.
+	 *
+	 * @see #beginSettingsTransaction()
+	 */
+	public void commitSettingsTransaction() {
+		if (settingsTransactionDepth==0) {
+			throw new IllegalStateException("No transaction in progress");
+		}
+		if (--settingsTransactionDepth==0 && !transactionSettings.isEmpty()) {
+			Set<EditorSetting> settings =
+					EnumSet.copyOf(transactionSettings);
+			transactionSettings.clear();
+			applySettings(settings);
+		}
+	}
+
+
+	/**
+	 * Converts spaces in the leading whitespace of lines in all open
+	 * documents into tabs.  This is done in the background.
 	 *
 	 * @see #convertOpenFilesTabsToSpaces
+	 * @see #transformOpenFiles(TextTransformer.Operation, Pattern)
 	 */
 	public void convertOpenFilesSpacesToTabs() {
-		for (int i=0; i<getNumDocuments(); i++)
-			getRTextEditorPaneAt(i).convertSpacesToTabs();
+		transformOpenFiles(TextTransformer.Operation.SPACES_TO_TABS, null);
 	}
 
 
 	/**
 	 * Converts all tabs in all open documents into an equivalent number of
-	 * spaces.
+	 * spaces.  This is done in the background.
 	 *
 	 * @see #convertOpenFilesSpacesToTabs
+	 * @see #transformOpenFiles(TextTransformer.Operation, Pattern)
 	 */
 	public void convertOpenFilesTabsToSpaces() {
-		for (int i=0; i<getNumDocuments(); i++)
-			getRTextEditorPaneAt(i).convertTabsToSpaces();
+		transformOpenFiles(TextTransformer.Operation.TABS_TO_SPACES, null);
 	}
 
 
@@ -564,6 +1039,7 @@ public abstract class AbstractMainView extends JPanel
 		searchContext		= fromPanel.searchContext;
 		lineNumbersEnabled	= fromPanel.lineNumbersEnabled;
 		lineWrapEnabled	= fromPanel.lineWrapEnabled;
+		minimapEnabled		= fromPanel.minimapEnabled;
 
 		findInFilesDialog	= fromPanel.findInFilesDialog;
 		if (findInFilesDialog!=null) {
@@ -590,6 +1066,7 @@ public abstract class AbstractMainView extends JPanel
 		backgroundObject	= fromPanel.backgroundObject;
 		imageAlpha		= fromPanel.imageAlpha;
 		backgroundImageFileName	= fromPanel.backgroundImageFileName;
+		backgroundImageCache	= fromPanel.backgroundImageCache;
 
 		owner			= fromPanel.owner;
 		syntaxFilters		= fromPanel.syntaxFilters;
@@ -643,6 +1120,12 @@ public abstract class AbstractMainView extends JPanel
 		doFileSizeCheck = fromPanel.doFileSizeCheck;
 		maxFileSize = fromPanel.maxFileSize;
 
+		followMaxLines = fromPanel.followMaxLines;
+
+		reducedProfileFileSize = fromPanel.reducedProfileFileSize;
+		minimalProfileFileSize = fromPanel.minimalProfileFileSize;
+		reducedProfileLineLength = fromPanel.reducedProfileLineLength;
+
 		ignoreBackupExtensions = fromPanel.ignoreBackupExtensions;
 
 		textAreaFont = fromPanel.textAreaFont;
@@ -669,35 +1152,73 @@ public abstract class AbstractMainView extends JPanel
 		lineNumberColor = fromPanel.lineNumberColor;
 		gutterBorderColor = fromPanel.gutterBorderColor;
 
+		syntaxScheme = fromPanel.syntaxScheme;
+		deferredSettings = fromPanel.deferredSettings;
+
 		setPreferredSize(fromPanel.getPreferredSize());
 
+		// Move the existing scroll panes (and their document panels) over,
+		// rather than re-creating anything.  Documents aren't selected one
+		// by one as they're added, so dormant documents stay dormant.
 		int numDocuments = fromPanel.getNumDocuments();
 		int fromSelectedIndex = fromPanel.getSelectedIndex();
 		ArrayList<RTextScrollPane> scrollPanes =
 				new ArrayList<RTextScrollPane>(numDocuments);
+		int[] indices = new int[numDocuments];
 		for (int i=0; i<numDocuments; i++) {
-			scrollPanes.add(fromPanel.getRTextScrollPaneAt(0));
-			fromPanel.removeComponentAt(0);
+			scrollPanes.add(fromPanel.getRTextScrollPaneAt(i));
+			indices[i] = i;
 		}
-		for (int i=0; i<numDocuments; i++) {
-			RTextScrollPane scrollPane = scrollPanes.get(i);
-			RTextEditorPane editorPane = (RTextEditorPane)scrollPane.getTextArea();
-			addTextAreaImpl(editorPane.getFileName(), scrollPane,
-							editorPane.getFileFullPath());
-			editorPane.removePropertyChangeListener(fromPanel);
-			editorPane.removeHyperlinkListener(fromPanel);
-			editorPane.addPropertyChangeListener(this);
-			editorPane.addHyperlinkListener(this);
-		}
-		removeComponentAt(0);	// Remove the default-named file.
+		fromPanel.removeComponentsAt(indices);
+		copyingData = true;
+		try {
+			for (int i=0; i<numDocuments; i++) {
+				RTextScrollPane scrollPane = scrollPanes.get(i);
+				RTextEditorPane editorPane = (RTextEditorPane)scrollPane.getTextArea();
+				documentIndex.textAreaAdded(editorPane);
+				addTextAreaImpl(editorPane.getFileName(), scrollPane,
+								editorPane.getFileFullPath());
+				editorPane.removePropertyChangeListener(fromPanel);
+				editorPane.removeHyperlinkListener(fromPanel);
+				editorPane.removeHierarchyListener(
+						fromPanel.deferredSettingsApplier);
+				editorPane.addPropertyChangeListener(this);
+				editorPane.addHyperlinkListener(this);
+				editorPane.addHierarchyListener(deferredSettingsApplier);
+			}
+		} finally {
+			copyingData = false;
+		}
+		// Select the document to show before removing the default-named
+		// file, so no other document is shown (and rehydrated) in between.
+		setSelectedIndex(fromSelectedIndex+1);
+		removeComponentsAt(new int[] { 0 });
 		renumberDisplayNames();	// In case the same document is opened multiple times.
 		setSelectedIndex(fromSelectedIndex);
 
 		spellingSupport = fromPanel.spellingSupport;
+		dormantTabManager = fromPanel.dormantTabManager;
+
+		// If the view is switched while settings are being changed, e.g.
+		// from the Options dialog, the old view's transaction will never
+		// apply them to our text areas, so we do it ourselves.
+		if (!fromPanel.transactionSettings.isEmpty()) {
+			Set<EditorSetting> settings =
+					EnumSet.copyOf(fromPanel.transactionSettings);
+			fromPanel.transactionSettings.clear();
+			applySettings(settings);
+		}
 
 	}
 
 
+	/**
+	 * Creates the error strip for a text area.
+	 *
+	 * @param textArea The text area.
+	 * @return The error strip.
+	 * @see #getDocumentPanel(RTextScrollPane)
+	 */
 	protected ErrorStrip createErrorStrip(RTextEditorPane textArea) {
 		ErrorStrip strip = new ErrorStrip(textArea);
 		strip.setLevelThreshold(ParserNotice.Level.WARNING);
@@ -705,6 +1226,21 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Creates the minimap for a text area.
+	 *
+	 * @param textArea The text area.
+	 * @return The minimap.
+	 * @see #getDocumentPanel(RTextScrollPane)
+	 * @see #setMinimapEnabled(boolean)
+	 */
+	Minimap createMinimap(RTextEditorPane textArea) {
+		Minimap minimap = new Minimap(textArea);
+		minimap.setUserVisible(minimapEnabled);
+		return minimap;
+	}
+
+
 	/**
 	 * Returns an editor pane to add to this main view.
 	 *
@@ -723,105 +1259,17 @@ public abstract class AbstractMainView extends JPanel
 	 * Returns an editor pane to add to this main view.
 	 *
 	 * @param loc The location of the file to add.
-	 * @param encoding The encoding of the file.
+	 * @param encoding The encoding of the file.  If this is
+	 *        <code>null</code> and the file is local, its encoding is
+	 *        guessed.
 	 * @return An editor pane.
 	 * @throws IOException If an IO error occurs reading the file to load.
 	 */
 	private RTextEditorPane createRTextEditorPane(FileLocation loc,
 				String encoding) throws IOException {
-
-		String style = getSyntaxStyleForFile(loc.getFileName());
-		RTextEditorPane pane = new RTextEditorPane(owner, lineWrapEnabled,
-												textMode, loc, encoding);
-
-		// Set some properties.
-		pane.setFont(getTextAreaFont());
-		//pane.setUnderline(textAreaUnderline);
-		pane.setForeground(getTextAreaForeground());
-		pane.setBackgroundObject(getBackgroundObject());
-		pane.setTabSize(getTabSize());
-		pane.setHighlightCurrentLine(highlightCurrentLine);
-		pane.setCurrentLineHighlightColor(getCurrentLineHighlightColor());
-		pane.setMarginLineEnabled(marginLineEnabled);
-		pane.setMarginLinePosition(getMarginLinePosition());
-		pane.setMarginLineColor(getMarginLineColor());
-		pane.setHighlightSecondaryLanguages(getHighlightSecondaryLanguages());
-		for (int i=0; i<secondaryLanguageColors.length; i++) {
-			pane.setSecondaryLanguageBackground(i+1, getSecondaryLanguageColor(i));
-		}
-		pane.setMarkAllHighlightColor(getMarkAllHighlightColor());
-		pane.setMarkOccurrences(getMarkOccurrences());
-		pane.setMarkOccurrencesColor(getMarkOccurrencesColor());
-		setSyntaxStyle(pane, style);
-		pane.setBracketMatchingEnabled(isBracketMatchingEnabled());
-		pane.setPaintMatchedBracketPair(getMatchBothBrackets());
-		pane.setMatchedBracketBGColor(getMatchedBracketBGColor());
-		pane.setMatchedBracketBorderColor(getMatchedBracketBorderColor());
-		if (defaultLineTerminator!=null &&
-				pane.getDocument().getLength()==0) {
-			// Empty (or new) file => use default line terminator.
-			pane.setLineSeparator(defaultLineTerminator, false);
-		}
-		pane.setWhitespaceVisible(isWhitespaceVisible());
-		pane.setPaintTabLines(getShowTabLines());
-		pane.setTabLineColor(getTabLinesColor());
-		pane.setEOLMarkersVisible(getShowEOLMarkers());
-		pane.setClearWhitespaceLinesEnabled(!rememberWhitespaceLines);
-		pane.setCloseCurlyBraces(autoInsertClosingCurlys);
-		pane.setCaretColor(getCaretColor());
-		pane.setSelectionColor(getSelectionColor());
-		pane.setSelectedTextColor(getSelectedTextColor());
-		pane.setUseSelectedTextColor(getUseSelectedTextColor());
-		pane.setSyntaxScheme(owner.getSyntaxScheme());
-		pane.setHyperlinksEnabled(getHyperlinksEnabled());
-		pane.setHyperlinkForeground(getHyperlinkColor());
-		pane.setLinkScanningMask(getHyperlinkModifierKey());
-		pane.setRoundedSelectionEdges(getRoundedSelectionEdges());
-		pane.setCaretStyle(RTextEditorPane.INSERT_MODE,
-							carets[RTextEditorPane.INSERT_MODE]);
-		pane.setCaretStyle(RTextEditorPane.OVERWRITE_MODE,
-							carets[RTextEditorPane.OVERWRITE_MODE]);
-		pane.getCaret().setBlinkRate(getCaretBlinkRate());
-		//pane.setFadeCurrentLineHighlight(fadeCurrentLineHighlight);
-
-		// If we're in the middle of recording a macro, make the cursor
-		// appropriate on this guy.
-		if (RTextEditorPane.isRecordingMacro()) {
-			pane.setCursor(getMacroCursor());
-		}
-
-		// Other properties.
-		pane.setTabsEmulated(emulateTabsWithWhitespace);
-		pane.setAntiAliasingEnabled(aaEnabled);
-		pane.setFractionalFontMetricsEnabled(isFractionalFontMetricsEnabled());
-		// orientation is done later to override scrollpane's
-		// applyComponentOrientation(...).
-		//pane.applyComponentOrientation(getTextAreaOrientation());
-
-		pane.setCodeFoldingEnabled(isCodeFoldingEnabledFor(style));
-
-		// Listeners.
-		pane.addPropertyChangeListener(owner);
-		pane.addPropertyChangeListener((StatusBar)owner.getStatusBar());
-		pane.addPropertyChangeListener(this);
-		pane.addHyperlinkListener(this);
-
-		// Add any parsers.
-		if (spellingSupport.isSpellCheckingEnabled()) {
-			pane.addParser(spellingSupport.getSpellingParser());
-		}
-
-		// Override the default Insert key action to one that toggles the text
-		// mode for all text editors.
-		InputMap im = pane.getInputMap();
-		ActionMap am = pane.getActionMap();
-		am.put(RTextAreaEditorKit.rtaToggleTextModeAction, toggleTextModeAction);
-		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_CAPS_LOCK, 0), "OnCapsLock");
-		am.put("OnCapsLock", capsLockAction);
-
-		// Return him.
+		RTextEditorPane pane = loadRTextEditorPane(loc, encoding);
+		initRTextEditorPane(pane);
 		return pane;
-
 	}
 
 
@@ -843,6 +1291,7 @@ public abstract class AbstractMainView extends JPanel
 		gutter.setBorderColor(gutterBorderColor);
 		// Always visible, makes life easier
 		scrollPane.setIconRowHeaderEnabled(true);
+		scrollPane.getViewport().addComponentListener(backgroundResizer);
 
 		Color activeLineRangeColor = getAppropriateActiveLineRangeColor();
 		gutter.setActiveLineRangeColor(activeLineRangeColor);
@@ -852,6 +1301,25 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Remembers to apply a setting to a text area when it is next shown.
+	 *
+	 * @param textArea The text area, which is not currently visible.
+	 * @param setting The setting.
+	 */
+	private void deferSetting(RTextEditorPane textArea,
+							EditorSetting setting) {
+		Set<EditorSetting> deferred = deferredSettings.get(textArea);
+		if (deferred==null) {
+			deferred = EnumSet.of(setting);
+			deferredSettings.put(textArea, deferred);
+		}
+		else {
+			deferred.add(setting);
+		}
+	}
+
+
 	/**
 	 * Disposes of this view.  This is called when the user changes the main
 	 * view style.  The default implementation does nothing; subclasses can
@@ -861,6 +1329,21 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Notifies the user that an error occurred saving a file.
+	 *
+	 * @param textArea The text area that could not be saved.
+	 * @param e The error that occurred.
+	 */
+	void displaySaveError(RTextEditorPane textArea, Exception e) {
+		String temp = owner.getString("ErrorWritingFile",
+				textArea.getFileFullPath(), e.getMessage());
+		JOptionPane.showMessageDialog(this, temp,
+			owner.getString("ErrorDialogTitle"), JOptionPane.ERROR_MESSAGE);
+		owner.setMessages(null, "ERROR:  Could not save file!");
+	}
+
+
 	/**
 	 * Ensures at least 1 file is open.
 	 */
@@ -1143,6 +1626,35 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the memory budget for open documents.  Documents that haven't
+	 * been viewed in a while are only compacted if the text of all open
+	 * documents takes up more memory than this.
+	 *
+	 * @return The memory budget, in MB.  <code>0</code> means dormant
+	 *         documents are always compacted.
+	 * @see #setDormantTabMemoryBudget(int)
+	 * @see #getDormantTabMinutes()
+	 */
+	public int getDormantTabMemoryBudget() {
+		return dormantTabManager.getMemoryBudget();
+	}
+
+
+	/**
+	 * Returns the number of minutes a document must go without being viewed
+	 * before it is compacted to save memory.
+	 *
+	 * @return The number of minutes.  <code>0</code> means documents are
+	 *         never compacted.
+	 * @see #setDormantTabMinutes(int)
+	 * @see #getDormantTabMemoryBudget()
+	 */
+	public int getDormantTabMinutes() {
+		return dormantTabManager.getIdleMinutes();
+	}
+
+
 	/**
 	 * Returns the name being displayed for the document.  For example, in a
 	 * tabbed pane subclass, this could be the text on the tab for this
@@ -1155,6 +1667,34 @@ public abstract class AbstractMainView extends JPanel
 	public abstract String getDocumentDisplayNameAt(int index);
 
 
+	/**
+	 * Returns the panel holding a document's scroll pane, minimap and error
+	 * strip, creating it if necessary.  Subclasses add this panel to their
+	 * containers.  A document keeps its panel when the view style changes,
+	 * so its minimap and error strip aren't re-created.
+	 *
+	 * @param scrollPane The document's scroll pane.
+	 * @return The panel.
+	 */
+	protected JPanel getDocumentPanel(RTextScrollPane scrollPane) {
+		JPanel panel = (JPanel)scrollPane.getClientProperty(DOCUMENT_PANEL);
+		if (panel==null) {
+			panel = new JPanel(new BorderLayout());
+			panel.add(scrollPane);
+			RTextEditorPane textArea =
+					(RTextEditorPane)scrollPane.getTextArea();
+			JPanel overview = new JPanel(new BorderLayout());
+			Minimap minimap = createMinimap(textArea);
+			overview.add(minimap);
+			overview.add(createErrorStrip(textArea), BorderLayout.LINE_END);
+			panel.add(overview, BorderLayout.LINE_END);
+			scrollPane.putClientProperty(DOCUMENT_PANEL, panel);
+			scrollPane.putClientProperty(MINIMAP, minimap);
+		}
+		return panel;
+	}
+
+
 	/**
 	 * Returns the location of the document selection area of this component.
 	 *
@@ -1163,6 +1703,27 @@ public abstract class AbstractMainView extends JPanel
 	public abstract int getDocumentSelectionPlacement();
 
 
+	/**
+	 * Returns the tool tip to display for a document.  This is its full
+	 * path, along with whether it is being saved in the background or its
+	 * last save failed.
+	 *
+	 * @param textArea The document.
+	 * @return The tool tip text.
+	 */
+	protected String getDocumentToolTipText(RTextEditorPane textArea) {
+		String path = textArea.getFileFullPath();
+		if (textArea.isSaving()) {
+			return owner.getString("SavingFileToolTip", path);
+		}
+		Exception e = textArea.getLastSaveError();
+		if (e!=null) {
+			return owner.getString("SaveFailedToolTip", path, e.getMessage());
+		}
+		return path;
+	}
+
+
 	/**
 	 * Returns the index of the specified document.
 	 *
@@ -1171,11 +1732,7 @@ public abstract class AbstractMainView extends JPanel
 	 *         is not being edited.
 	 */
 	public int getFileIndex(String fileFullPath) {
-		for (int i=0; i<getNumDocuments(); i++) {
-			if (getRTextEditorPaneAt(i).getFileFullPath().equals(fileFullPath))
-				return i;
-		}
-		return -1;
+		return documentIndex.getFileIndex(fileFullPath);
 	}
 
 
@@ -1184,20 +1741,25 @@ public abstract class AbstractMainView extends JPanel
 	 * whether they are "sure" they want to open the file if it is over
 	 * their set size.
 	 *
-	 * @param fileName The file to check.
+	 * @param loc The local file to check.  For compressed files, the size
+	 *        of the decompressed content is checked.
 	 * @return If they do not want to check files of a certain size, this
 	 *         method will return <code>false</code>.  Otherwise, it will
 	 *         return <code>true</code> if and only if this file is larger
 	 *         than their threshold and they chose not to open it.
+	 * @throws IOException If an IO error occurs determining the size of a
+	 *         compressed file.
 	 */
-	private boolean getFileIsTooLarge(String fileName) {
+	private boolean getFileIsTooLarge(FileLocation loc) throws IOException {
 		if (getDoFileSizeCheck()) {
-			File file = new File(fileName);
-			float fileSizeMB = file.length() / 1000000.0f;
+			long size = loc instanceof CompressedFileLocation ?
+					((CompressedFileLocation)loc).getContentLength() :
+					new File(loc.getFileFullPath()).length();
+			float fileSizeMB = size / 1000000.0f;
 			float maxFileSizeMB = getMaxFileSize();
 			if (fileSizeMB>maxFileSizeMB) {
 				String desc = owner.getString("OpeningLargeFile",
-										file.getAbsolutePath());
+										loc.getFileFullPath());
 				int rc = JOptionPane.showConfirmDialog(this, desc,
 					owner.getString("ConfDialogTitle"),
 					JOptionPane.YES_NO_OPTION);
@@ -1212,6 +1774,18 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the index of the specified text area in this view.
+	 *
+	 * @param textArea The text area.
+	 * @return The index of the text area, or <code>-1</code> if it is not
+	 *         contained in this view.
+	 */
+	public int getIndexOf(RTextEditorPane textArea) {
+		return documentIndex.getIndexOf(textArea);
+	}
+
+
 	/**
 	 * Returns the Find in Files dialog, lazily creating it if necessary.
 	 *
@@ -1229,6 +1803,32 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the maximum number of lines kept in documents that follow
+	 * their files.
+	 *
+	 * @return The maximum number of lines.  <code>0</code> means there is
+	 *         no maximum.
+	 * @see #setFollowMaxLines(int)
+	 * @see #setFollowingFile(RTextEditorPane, boolean)
+	 */
+	public int getFollowMaxLines() {
+		return followMaxLines;
+	}
+
+
+	/**
+	 * Returns whether files are synced to disk before they replace the
+	 * original file when saved.
+	 *
+	 * @return Whether files are synced to disk when saved.
+	 * @see #setFsyncOnSave(boolean)
+	 */
+	public boolean getFsyncOnSave() {
+		return backgroundSaver.isFsyncEnabled();
+	}
+
+
 	/**
 	 * Returns whether files with no extension have their content type guessed
 	 * at via whether they have a "<code>#!</code>" in their first line.
@@ -1534,6 +2134,33 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the size above which files are opened with the
+	 * {@link PerformanceProfile#MINIMAL} performance profile.
+	 *
+	 * @return The size, in MB.  <code>0</code> means this profile is never
+	 *         used.
+	 * @see #setMinimalProfileFileSize(float)
+	 * @see #getReducedProfileFileSize()
+	 */
+	public float getMinimalProfileFileSize() {
+		return minimalProfileFileSize;
+	}
+
+
+	/**
+	 * Returns whether minimaps are visible on the documents.  Minimaps are
+	 * still hidden for documents whose performance profile doesn't allow
+	 * them.
+	 *
+	 * @return Whether minimaps are visible.
+	 * @see #setMinimapEnabled(boolean)
+	 */
+	public boolean getMinimapEnabled() {
+		return minimapEnabled;
+	}
+
+
 	/**
 	 * Gets the color used to highlight modified documents' display names.
 	 *
@@ -1578,6 +2205,36 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the performance profile to use for a file, based on its size
+	 * and, if its content is known, its longest line.
+	 *
+	 * @param fileSize The size of the file, in bytes.
+	 * @param doc The file's content, or <code>null</code> if it hasn't been
+	 *        loaded yet.
+	 * @return The performance profile.
+	 * @see #getReducedProfileFileSize()
+	 * @see #getMinimalProfileFileSize()
+	 * @see #getReducedProfileLineLength()
+	 */
+	public PerformanceProfile getPerformanceProfile(long fileSize,
+											Document doc) {
+		float fileSizeMB = fileSize / 1000000.0f;
+		if (minimalProfileFileSize>0 && fileSizeMB>minimalProfileFileSize) {
+			return PerformanceProfile.MINIMAL;
+		}
+		if (reducedProfileFileSize>0 && fileSizeMB>reducedProfileFileSize) {
+			return PerformanceProfile.REDUCED;
+		}
+		if (doc!=null && reducedProfileLineLength>0 &&
+				PerformanceProfile.getLongestLineLength(doc)>
+										reducedProfileLineLength) {
+			return PerformanceProfile.REDUCED;
+		}
+		return PerformanceProfile.FULL;
+	}
+
+
 	/**
 	 * Returns the <code>java.awt.Font</code> currently used to print documents.
 	 *
@@ -1591,6 +2248,33 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the size above which files are opened with the
+	 * {@link PerformanceProfile#REDUCED} performance profile.
+	 *
+	 * @return The size, in MB.  <code>0</code> means files are never opened
+	 *         with this profile because of their size.
+	 * @see #setReducedProfileFileSize(float)
+	 * @see #getMinimalProfileFileSize()
+	 */
+	public float getReducedProfileFileSize() {
+		return reducedProfileFileSize;
+	}
+
+
+	/**
+	 * Returns the line length above which files are opened with the
+	 * {@link PerformanceProfile#REDUCED} performance profile.
+	 *
+	 * @return The line length.  <code>0</code> means files are never opened
+	 *         with this profile because of long lines.
+	 * @see #setReducedProfileLineLength(int)
+	 */
+	public int getReducedProfileLineLength() {
+		return reducedProfileLineLength;
+	}
+
+
 	/**
 	 * Returns whether whitespace lines are remembered (as opposed to cleared
 	 * on Enter presses).
@@ -1727,6 +2411,32 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns whether a file's syntax style should be guessed from its
+	 * content.  This is done when the user has enabled it, and the file
+	 * name has no extension and isn't otherwise recognized (e.g.
+	 * "<code>makefile</code>").
+	 *
+	 * @param fileName The name of the file.
+	 * @param style The syntax style determined from the file name.
+	 * @return Whether to guess the syntax style from the file's content.
+	 */
+	private boolean getShouldGuessContentType(String fileName, String style) {
+
+		// Ignore extensions that mean "this is a backup", but don't
+		// denote the actual file type.
+		fileName = fileName.toLowerCase();
+		if (getIgnoreBackupExtensions()) {
+			fileName = RTextUtilities.stripBackupExtensions(fileName);
+		}
+
+		return getGuessFileContentType() &&
+				fileName.indexOf('.')==-1 &&
+				SyntaxConstants.SYNTAX_STYLE_NONE.equals(style);
+
+	}
+
+
 	/**
 	 * Returns whether tab lines are visible in the text areas.
 	 *
@@ -1797,6 +2507,33 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the background to give a text area.  If the background is an
+	 * image, this is the image scaled to the size of the text area's
+	 * viewport, from a cache shared by all text areas.
+	 *
+	 * @param textArea The text area.
+	 * @return The background; either a <code>Color</code> or an
+	 *         <code>Image</code>.
+	 * @see #refreshBackground(RTextEditorPane)
+	 */
+	private Object getTextAreaBackground(RTextEditorPane textArea) {
+		if (!(backgroundObject instanceof Image)) {
+			return backgroundObject;
+		}
+		Dimension size = getViewportSize(textArea);
+		if (size==null && currentTextArea!=null) {
+			// Not laid out yet, but it'll most likely be the same size as
+			// the other text areas.
+			size = getViewportSize(currentTextArea);
+		}
+		if (size==null) {
+			return backgroundObject; // The text area will scale it.
+		}
+		return backgroundImageCache.getImage(size.width, size.height);
+	}
+
+
 	/**
 	 * Returns the default font to use in text areas.
 	 *
@@ -1855,6 +2592,32 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the maximum amount of memory the undo history of all documents
+	 * together can use.
+	 *
+	 * @return The budget, in MB.
+	 * @see #setUndoGlobalMemoryBudget(int)
+	 * @see #getUndoMemoryBudget()
+	 */
+	public int getUndoGlobalMemoryBudget() {
+		return (int)(BoundedUndoManager.getGlobalBudget()/(1024*1024));
+	}
+
+
+	/**
+	 * Returns the maximum amount of memory each document's undo history can
+	 * use.  When this is exceeded, the oldest edits are discarded.
+	 *
+	 * @return The budget, in MB.
+	 * @see #setUndoMemoryBudget(int)
+	 * @see #getUndoGlobalMemoryBudget()
+	 */
+	public int getUndoMemoryBudget() {
+		return (int)(BoundedUndoManager.getDocumentBudget()/(1024*1024));
+	}
+
+
 	/**
 	 * Returns whether text areas are honoring their "selected text color", as
 	 * opposed to just rendering token styles even for selected tokens.
@@ -1868,6 +2631,25 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the size of a text area's viewport.
+	 *
+	 * @param textArea The text area.
+	 * @return The size, or <code>null</code> if the text area isn't in a
+	 *         viewport or hasn't been laid out yet.
+	 */
+	private static Dimension getViewportSize(RTextEditorPane textArea) {
+		if (textArea.getParent() instanceof JViewport) {
+			Dimension size = ((JViewport)textArea.getParent()).
+											getExtentSize();
+			if (size.width>0 && size.height>0) {
+				return size;
+			}
+		}
+		return null;
+	}
+
+
 	/**
 	 * Returns whether BOM's are written for UTF-8 files.
 	 *
@@ -1880,71 +2662,27 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Sets the pane's highlighting style based on its content (e.g. whether
-	 * it contains "<code>#!</code>" at the top).
-	 *
-	 * @param pane The pane to examine.
-	 */
-	private static final void guessContentType(RTextEditorPane pane) {
-
-		String style = SyntaxConstants.SYNTAX_STYLE_NONE;
-
-		String firstLine = null;
-		try {
-			int endOffs = pane.getLineEndOffset(0);
-			if (pane.getLineCount()>1) {
-				endOffs--;
-			}
-			firstLine = pane.getText(0, endOffs);
-		} catch (BadLocationException ble) { // Never happens
-			ble.printStackTrace();
-			return;
-		}
-
-		if (firstLine.startsWith("#!")) {
-
-			// Determine the program name.  Take special care for
-			// the case of "#!/usr/bin/env progname".
-			int space = firstLine.indexOf(' ', 2);
-			if (space>-1) {
-				if (firstLine.startsWith("#!/usr/bin/env")) {
-					int space2 = firstLine.indexOf(' ', space+1);
-					if (space2==-1) { // Never happens in "correct" #!'s
-						space2 = firstLine.length();
-					}
-					firstLine = firstLine.substring(space+1, space2);	
-				}
-				else {
-					firstLine = firstLine.substring(2, space);
-				}
-			}
-
-			if (firstLine.endsWith("sh")) { // ksh, bash, sh, ...
-				style = SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL;
-			}
-			else if (firstLine.endsWith("perl")) {
-				style = SyntaxConstants.SYNTAX_STYLE_PERL;
-			}
-			else if (firstLine.endsWith("php")) {
-				style = SyntaxConstants.SYNTAX_STYLE_PHP;
-			}
-			else if (firstLine.endsWith("python")) {
-				style = SyntaxConstants.SYNTAX_STYLE_PYTHON;
-			}
-			else if (firstLine.endsWith("lua")) {
-				style = SyntaxConstants.SYNTAX_STYLE_LUA;
-			}
-			else if (firstLine.endsWith("ruby")) {
-				style = SyntaxConstants.SYNTAX_STYLE_RUBY;
-			}
-
-		}
+	 * Sets the pane's highlighting style based on its content (e.g. whether
+	 * it contains "<code>#!</code>" at the top).
+	 *
+	 * @param pane The pane to examine.
+	 * @see ContentTypeDetector
+	 */
+	private static final void guessContentType(RTextEditorPane pane) {
 
-		else if (firstLine.startsWith("<?xml") && firstLine.endsWith("?>")) {
-			style = SyntaxConstants.SYNTAX_STYLE_XML;
+		Document doc = pane.getDocument();
+		int len = Math.min(doc.getLength(), ContentTypeDetector.PREFIX_SIZE);
+		String prefix = null;
+		try {
+			prefix = doc.getText(0, len);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return;
 		}
 
-		pane.setSyntaxEditingStyle(style);
+		boolean complete = len==doc.getLength();
+		pane.setSyntaxEditingStyle(
+					ContentTypeDetector.detect(prefix, complete));
 
 	}
 
@@ -2053,11 +2791,14 @@ public abstract class AbstractMainView extends JPanel
 					if (f.isFile()) { // Should always be true.
 						int line = currentTextArea.getLineOfOffset(
 								currentTextArea.getCaretPosition());
-						currentTextArea.reload();
-						int lineCount = currentTextArea.getLineCount();
-						line = Math.min(line, lineCount-1);
-						int offs = currentTextArea.getLineStartOffset(line);
-						currentTextArea.setCaretPosition(offs);
+						// If only the changes were applied, the caret
+						// has stayed where it was.
+						if (!currentTextArea.reloadIncrementally()) {
+							int lineCount = currentTextArea.getLineCount();
+							line = Math.min(line, lineCount-1);
+							int offs = currentTextArea.getLineStartOffset(line);
+							currentTextArea.setCaretPosition(offs);
+						}
 					}
 					else {
 						JOptionPane.showMessageDialog(owner,
@@ -2150,6 +2891,7 @@ public abstract class AbstractMainView extends JPanel
 		emulateTabsWithWhitespace = prefs.emulateTabsWithSpaces;
 		setDocumentSelectionPlacement(prefs.tabPlacement);
 		lineNumbersEnabled = prefs.lineNumbersVisible;
+		minimapEnabled = prefs.minimapVisible;
 		setBackgroundImageAlpha(prefs.imageAlpha);
 		Object prefsBackgroundObject = prefs.backgroundObject;
 		if (prefsBackgroundObject instanceof String) {
@@ -2219,6 +2961,10 @@ public abstract class AbstractMainView extends JPanel
 		setGuessFileContentType(prefs.guessFileContentType);
 		setDoFileSizeCheck(prefs.doFileSizeCheck);
 		setMaxFileSize(prefs.maxFileSize);
+		setFollowMaxLines(prefs.followMaxLines);
+		setReducedProfileFileSize(prefs.reducedProfileFileSize);
+		setMinimalProfileFileSize(prefs.minimalProfileFileSize);
+		setReducedProfileLineLength(prefs.reducedProfileLineLength);
 		setIgnoreBackupExtensions(prefs.ignoreBackupExtensions);
 		setTextAreaFont(prefs.textAreaFont, prefs.textAreaUnderline);
 		setTextAreaForeground(prefs.textAreaForeground);
@@ -2230,6 +2976,18 @@ public abstract class AbstractMainView extends JPanel
 		setGutterBorderColor(prefs.gutterBorderColor);
 		spellingSupport = new SpellingSupport(owner);
 		spellingSupport.configure(prefs); // Do this BEFORE opening any files!
+		// When the view style changes, share the previous view's save pool
+		// and dormant tab manager (and its timer).
+		AbstractMainView fromView = owner.getMainView();
+		backgroundSaver = fromView!=null ? fromView.backgroundSaver :
+										new BackgroundSaver(owner);
+		setFsyncOnSave(prefs.fsyncOnSave);
+		dormantTabManager = fromView!=null ? fromView.dormantTabManager :
+										new DormantTabManager(owner);
+		setDormantTabMinutes(prefs.dormantTabMinutes);
+		setDormantTabMemoryBudget(prefs.dormantTabMemoryBudget);
+		setUndoMemoryBudget(prefs.undoMemoryBudget);
+		setUndoGlobalMemoryBudget(prefs.undoGlobalMemoryBudget);
 
 		toggleTextModeAction = new ToggleTextModeAction(owner);
 		capsLockAction = new CapsLockAction(owner);
@@ -2265,6 +3023,108 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Configures a newly loaded editor pane for this main view.
+	 *
+	 * @param pane The editor pane.
+	 * @see #loadRTextEditorPane(FileLocation, String)
+	 */
+	private void initRTextEditorPane(RTextEditorPane pane) {
+
+		PerformanceProfile profile = pane.getPerformanceProfile();
+
+		// Set some properties.
+		pane.setFont(getTextAreaFont());
+		//pane.setUnderline(textAreaUnderline);
+		pane.setForeground(getTextAreaForeground());
+		pane.setBackgroundObject(getTextAreaBackground(pane));
+		pane.setTabSize(getTabSize());
+		pane.setHighlightCurrentLine(highlightCurrentLine);
+		pane.setCurrentLineHighlightColor(getCurrentLineHighlightColor());
+		pane.setMarginLineEnabled(marginLineEnabled);
+		pane.setMarginLinePosition(getMarginLinePosition());
+		pane.setMarginLineColor(getMarginLineColor());
+		pane.setHighlightSecondaryLanguages(getHighlightSecondaryLanguages());
+		for (int i=0; i<secondaryLanguageColors.length; i++) {
+			pane.setSecondaryLanguageBackground(i+1, getSecondaryLanguageColor(i));
+		}
+		pane.setMarkAllHighlightColor(getMarkAllHighlightColor());
+		pane.setMarkOccurrences(getMarkOccurrences() &&
+								profile.isMarkOccurrencesAllowed());
+		pane.setMarkOccurrencesColor(getMarkOccurrencesColor());
+		pane.setBracketMatchingEnabled(isBracketMatchingEnabled() &&
+								profile.isBracketMatchingAllowed());
+		pane.setPaintMatchedBracketPair(getMatchBothBrackets());
+		pane.setMatchedBracketBGColor(getMatchedBracketBGColor());
+		pane.setMatchedBracketBorderColor(getMatchedBracketBorderColor());
+		if (defaultLineTerminator!=null &&
+				pane.getDocument().getLength()==0) {
+			// Empty (or new) file => use default line terminator.
+			pane.setLineSeparator(defaultLineTerminator, false);
+		}
+		pane.setWhitespaceVisible(isWhitespaceVisible());
+		pane.setPaintTabLines(getShowTabLines());
+		pane.setTabLineColor(getTabLinesColor());
+		pane.setEOLMarkersVisible(getShowEOLMarkers());
+		pane.setClearWhitespaceLinesEnabled(!rememberWhitespaceLines);
+		pane.setCloseCurlyBraces(autoInsertClosingCurlys);
+		pane.setCaretColor(getCaretColor());
+		pane.setSelectionColor(getSelectionColor());
+		pane.setSelectedTextColor(getSelectedTextColor());
+		pane.setUseSelectedTextColor(getUseSelectedTextColor());
+		pane.setSyntaxScheme(owner.getSyntaxScheme());
+		pane.setHyperlinksEnabled(getHyperlinksEnabled());
+		pane.setHyperlinkForeground(getHyperlinkColor());
+		pane.setLinkScanningMask(getHyperlinkModifierKey());
+		pane.setRoundedSelectionEdges(getRoundedSelectionEdges());
+		pane.setCaretStyle(RTextEditorPane.INSERT_MODE,
+							carets[RTextEditorPane.INSERT_MODE]);
+		pane.setCaretStyle(RTextEditorPane.OVERWRITE_MODE,
+							carets[RTextEditorPane.OVERWRITE_MODE]);
+		pane.getCaret().setBlinkRate(getCaretBlinkRate());
+		//pane.setFadeCurrentLineHighlight(fadeCurrentLineHighlight);
+
+		// If we're in the middle of recording a macro, make the cursor
+		// appropriate on this guy.
+		if (RTextEditorPane.isRecordingMacro()) {
+			pane.setCursor(getMacroCursor());
+		}
+
+		// Other properties.
+		pane.setTabsEmulated(emulateTabsWithWhitespace);
+		pane.setAntiAliasingEnabled(aaEnabled);
+		pane.setFractionalFontMetricsEnabled(isFractionalFontMetricsEnabled());
+		// orientation is done later to override scrollpane's
+		// applyComponentOrientation(...).
+		//pane.applyComponentOrientation(getTextAreaOrientation());
+
+		pane.setCodeFoldingEnabled(isCodeFoldingEnabledFor(
+										pane.getSyntaxEditingStyle()) &&
+								profile.isCodeFoldingAllowed());
+
+		// Listeners.
+		pane.addPropertyChangeListener(owner);
+		pane.addPropertyChangeListener((StatusBar)owner.getStatusBar());
+		pane.addPropertyChangeListener(this);
+		pane.addHyperlinkListener(this);
+		pane.addHierarchyListener(deferredSettingsApplier);
+
+		// Add any parsers.
+		if (spellingSupport.isSpellCheckingEnabled()) {
+			pane.addParser(spellingSupport.getSpellingParser());
+		}
+
+		// Override the default Insert key action to one that toggles the text
+		// mode for all text editors.
+		InputMap im = pane.getInputMap();
+		ActionMap am = pane.getActionMap();
+		am.put(RTextAreaEditorKit.rtaToggleTextModeAction, toggleTextModeAction);
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_CAPS_LOCK, 0), "OnCapsLock");
+		am.put("OnCapsLock", capsLockAction);
+
+	}
+
+
 	/**
 	 * Returns whether text is anti-aliased in text areas.
 	 *
@@ -2313,6 +3173,20 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns whether documents are being moved into this view from the
+	 * previous one, after the view style changed.  While this is the case,
+	 * implementations of {@link #addTextAreaImpl(String, Component, String)}
+	 * shouldn't select each document or renumber display names; that is done
+	 * once all documents are moved.
+	 *
+	 * @return Whether documents are being moved into this view.
+	 */
+	protected boolean isCopyingData() {
+		return copyingData;
+	}
+
+
 	/**
 	 * Returns whether fractional font-metrics is enabled.
 	 *
@@ -2364,6 +3238,73 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Creates an editor pane and loads a file into it, but doesn't
+	 * configure it for this main view yet.  Since the editor pane isn't
+	 * shown yet, this may be called on a thread other than the EDT.
+	 *
+	 * @param loc The location of the file to load.
+	 * @param encoding The encoding of the file.  If this is
+	 *        <code>null</code> and the file is local, its encoding is
+	 *        guessed.
+	 * @return The editor pane.
+	 * @throws IOException If an IO error occurs reading the file to load.
+	 * @see #initRTextEditorPane(RTextEditorPane)
+	 */
+	private RTextEditorPane loadRTextEditorPane(FileLocation loc,
+				String encoding) throws IOException {
+
+		// Compressed files are sniffed after decompression rather than on
+		// disk.
+		CompressedFileLocation compressed = loc instanceof
+				CompressedFileLocation ? (CompressedFileLocation)loc : null;
+
+		if (encoding==null && compressed!=null) {
+			encoding = compressed.detectEncoding(getDefaultEncoding());
+		}
+		else if (encoding==null && loc.isLocalAndExists()) {
+			encoding = CharsetDetector.detect(
+					new File(loc.getFileFullPath()), getDefaultEncoding());
+		}
+
+		// Guess the syntax style of local files before loading them, so
+		// they aren't re-tokenized afterward.
+		String fileName = compressed!=null ? compressed.getContentName() :
+										loc.getFileName();
+		String style = getSyntaxStyleForFile(fileName);
+		boolean guessStyle = getShouldGuessContentType(fileName, style);
+		if (guessStyle && loc.isLocalAndExists() && compressed==null) {
+			style = ContentTypeDetector.detect(
+						new File(loc.getFileFullPath()), encoding);
+			guessStyle = false;
+		}
+
+		// Big files get fewer features, so typing in them doesn't lag.
+		long fileSize = 0;
+		if (compressed!=null) {
+			fileSize = Math.max(0, compressed.getContentLength());
+		}
+		else if (loc.isLocalAndExists()) {
+			fileSize = new File(loc.getFileFullPath()).length();
+		}
+		PerformanceProfile profile = getPerformanceProfile(fileSize, null);
+
+		RTextEditorPane pane = new RTextEditorPane(owner,
+				lineWrapEnabled && profile.isLineWrapAllowed(),
+				textMode, loc, encoding, style);
+		profile = getPerformanceProfile(fileSize, pane.getDocument());
+		pane.setPerformanceProfile(profile);
+		if (compressed!=null && compressed.isReadOnly()) {
+			pane.setReadOnly(true);
+		}
+		if (guessStyle) { // e.g. remote files
+			guessContentType(pane);
+		}
+		return pane;
+
+	}
+
+
 	/**
 	 * Scrolls to the top of the current document, and places the cursor there.
 	 */
@@ -2379,9 +3320,8 @@ public abstract class AbstractMainView extends JPanel
 	 *
 	 * @param loc The location of the file to add.
 	 * @param charSet The encoding to use when reading/writing this file.
-	 *        If this value is <code>null</code>, the file is checked for
-	 *        Unicode; if it is Unicode, it is opened properly.  If it is not
-	 *        Unicode, a system default encoding is used.
+	 *        If this value is <code>null</code>, the encoding is guessed
+	 *        from the file's contents, falling back on the default encoding.
 	 * @param reuse If the file is already open, whether to simply switch
 	 *        focus to that old copy (vs. opening a new copy).
 	 * @return <code>true</code> if the file was opened (or switched to),
@@ -2390,39 +3330,66 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public boolean openFile(FileLocation loc, String charSet, boolean reuse) {
 
-		// If the only document open is untitled and empty, remove
-		// (and thus replace) replace it.
-		if (getNumDocuments()==1 &&
-			currentTextArea.getFileName().equals(owner.getNewFileName()) &&
-			currentTextArea.getDocument().getLength()==0 &&
-				currentTextArea.isDirty()==false) {
-				removeComponentAt(0);
-		}
+		removeEmptyUntitledFile();
 
 		// If desired, reuse a text area already opened to this file if
 		// there is one.
 		if (reuse) {
-			String fileNameAndPath = loc.getFileFullPath();
-			int count = getNumDocuments(); // May have changed from above.
-			for (int i=0; i<count; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				if (textArea.getFileFullPath().equals(fileNameAndPath)) {
-					setSelectedIndex(i);
-					return true;
-				}
+			int index = getFileIndex(loc.getFileFullPath());
+			if (index>-1) {
+				setSelectedIndex(index);
+				return true;
 			}
 		}
 
 		String fileFullPath = loc.getFileFullPath();
 
-		// If opening a local file that exists, or a remote file...
-		if (loc.isLocalAndExists() || loc.isRemote()) {
+		// Gzipped files and zip entries are decompressed as they're read,
+		// on a background thread.  For zip files, the user picks the entries
+		// to open.
+		if (!(loc instanceof CompressedFileLocation) &&
+				CompressedFileLocation.isCompressed(loc)) {
+			CompressedFileLocation compressed =
+					CompressedFileLocation.create(loc);
+			if (compressed==null) {
+				boolean opened = openZipEntries(loc, charSet);
+				ensureFilesAreOpened();
+				return opened;
+			}
+			loc = compressed;
+		}
 
-			if (loc.isLocal() && getFileIsTooLarge(fileFullPath)) {
+		// Binary files are shown in the hex viewer, unless the user asked
+		// for a specific encoding.  They aren't subject to the size check
+		// since they aren't loaded into memory.
+		if (charSet==null && loc.isLocalAndExists() &&
+				!(loc instanceof CompressedFileLocation)) {
+			File file = new File(fileFullPath);
+			try {
+				if (CharsetDetector.isBinary(file)) {
+					owner.openInHexViewer(file);
+					ensureFilesAreOpened();
+					return true;
+				}
+			} catch (IOException ioe) {
+				handleAddTextFileIOException(loc, ioe, true);
+				ensureFilesAreOpened();
 				return false;
 			}
+		}
+
+		// If opening a local file that exists, or a remote file...
+		if (loc.isLocalAndExists() || loc.isRemote()) {
 
 			try {
+				if (loc.isLocal() && getFileIsTooLarge(loc)) {
+					return false;
+				}
+				if (loc instanceof CompressedFileLocation) {
+					openCompressedFile((CompressedFileLocation)loc, charSet);
+					ensureFilesAreOpened();
+					return true;
+				}
 				RTextEditorPane tempTextArea = createRTextEditorPane(
 								loc, charSet);
 				addTextArea(tempTextArea);
@@ -2462,9 +3429,8 @@ public abstract class AbstractMainView extends JPanel
 	 *
 	 * @param fileNameAndPath The full path and name of the file to add.
 	 * @param charSet The encoding to use when reading/writing this file.
-	 *        If this value is <code>null</code>, the file is checked for
-	 *        Unicode; if it is Unicode, it is opened properly.  If it is not
-	 *        Unicode, a system default encoding is used.
+	 *        If this value is <code>null</code>, the encoding is guessed
+	 *        from the file's contents, falling back on the default encoding.
 	 * @return <code>true</code> if the file was opened (or switched to),
 	 *         <code>false</code> otherwise (if the file does not exist and
 	 *         the user chose NOT to create it, for example).
@@ -2481,9 +3447,8 @@ public abstract class AbstractMainView extends JPanel
 	 *
 	 * @param fileNameAndPath The full path and name of the file to add.
 	 * @param charSet The encoding to use when reading/writing this file.
-	 *        If this value is <code>null</code>, the file is checked for
-	 *        Unicode; if it is Unicode, it is opened properly.  If it is not
-	 *        Unicode, a system default encoding is used.
+	 *        If this value is <code>null</code>, the encoding is guessed
+	 *        from the file's contents, falling back on the default encoding.
 	 * @param reuse If the file is already open, whether to simply switch
 	 *        focus to that old copy (vs. opening a new copy).
 	 * @return <code>true</code> if the file was opened (or switched to),
@@ -2497,6 +3462,122 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Opens a gzipped file or zip entry.  Its content is decompressed into
+	 * a new editor pane on a background thread, since that can take a
+	 * while.  A progress monitor, which lets the user cancel, is shown for
+	 * large files, and the editor pane is added once it is loaded.
+	 *
+	 * @param loc The location of the compressed file.
+	 * @param charSet The encoding of the file, or <code>null</code> if it
+	 *        should be guessed.
+	 * @see CompressedFileLocation
+	 */
+	private void openCompressedFile(final CompressedFileLocation loc,
+									final String charSet) {
+
+		loc.setProgressMonitor(owner, owner.getString("DecompressingFile",
+										loc.getFileFullPath()));
+
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				RTextEditorPane pane = null;
+				IOException error = null;
+				OutOfMemoryError oome = null;
+				try {
+					pane = loadRTextEditorPane(loc, charSet);
+				} catch (IOException ioe) {
+					error = ioe;
+				} catch (OutOfMemoryError e) {
+					oome = e;
+				} finally {
+					// Reloading later happens on the EDT.
+					loc.setProgressMonitor(null, null);
+				}
+				final RTextEditorPane textArea = pane;
+				final IOException ioe = error;
+				final OutOfMemoryError outOfMemory = oome;
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if (ioe instanceof InterruptedIOException) {
+							return; // User canceled
+						}
+						else if (ioe!=null) {
+							handleAddTextFileIOException(loc, ioe, true);
+							return;
+						}
+						else if (outOfMemory!=null) {
+							owner.displayException(outOfMemory);
+							return;
+						}
+						initRTextEditorPane(textArea);
+						removeEmptyUntitledFile();
+						addTextArea(textArea);
+					}
+				});
+			}
+		}, "RTextDecompressor");
+		t.setDaemon(true);
+		t.start();
+
+	}
+
+
+	/**
+	 * Asks the user which entries of a zip file to open, and opens them.
+	 *
+	 * @param loc The location of the zip file.
+	 * @param charSet The encoding of the entries, or <code>null</code> if
+	 *        it should be guessed.
+	 * @return Whether any entries were opened.
+	 * @see CompressedFileLocation
+	 */
+	private boolean openZipEntries(FileLocation loc, String charSet) {
+
+		List<CompressedFileLocation> entries = null;
+		try {
+			entries = CompressedFileLocation.getEntries(
+									new File(loc.getFileFullPath()));
+		} catch (IOException ioe) {
+			handleAddTextFileIOException(loc, ioe, true);
+			return false;
+		}
+		if (entries.isEmpty()) {
+			JOptionPane.showMessageDialog(this,
+					owner.getString("ZipFileEmpty", loc.getFileFullPath()),
+					owner.getString("InfoDialogHeader"),
+					JOptionPane.INFORMATION_MESSAGE);
+			return false;
+		}
+
+		String[] names = new String[entries.size()];
+		for (int i=0; i<names.length; i++) {
+			names[i] = entries.get(i).getEntryName();
+		}
+		JList list = new JList(names);
+		list.setVisibleRowCount(Math.min(names.length, 15));
+		list.setSelectedIndex(0);
+		JPanel panel = new JPanel(new BorderLayout(0, 5));
+		panel.add(new JLabel(owner.getString("SelectZipEntries",
+							loc.getFileName())), BorderLayout.NORTH);
+		panel.add(new JScrollPane(list));
+		int rc = JOptionPane.showConfirmDialog(this, panel,
+							owner.getString("OpenZipEntriesTitle"),
+							JOptionPane.OK_CANCEL_OPTION,
+							JOptionPane.PLAIN_MESSAGE);
+		if (rc!=JOptionPane.OK_OPTION) {
+			return false;
+		}
+
+		boolean opened = false;
+		for (int index : list.getSelectedIndices()) {
+			opened |= openFile(entries.get(index), charSet, true);
+		}
+		return opened;
+
+	}
+
+
 	/**
 	 * If the current editor is dirty, the user is prompted whether they want
 	 * to save it.  If they choose "yes", the file is saved, otherwise it is
@@ -2511,6 +3592,10 @@ public abstract class AbstractMainView extends JPanel
 
 		int rc = JOptionPane.YES_OPTION;
 
+		// If the file is being saved in the background, let that finish
+		// first; the user may not even need to be prompted.
+		backgroundSaver.waitFor(currentTextArea);
+
 		// If the current document has been modified, prompt them to save it.
 		if (currentTextArea.isDirty()) {
 
@@ -2527,7 +3612,7 @@ public abstract class AbstractMainView extends JPanel
 				// If they decide to save...
 				case JOptionPane.YES_OPTION:
 					// false on IO error or user cancels saving changes
-					if (!saveCurrentFile()) {
+					if (!saveFile(currentTextArea, true)) {
 						return JOptionPane.CANCEL_OPTION;
 					}
 					break;
@@ -2556,6 +3641,7 @@ public abstract class AbstractMainView extends JPanel
 		// If the file's path is changing (must be caused by the file being
 		// saved(?))...
 		if (propertyName.equals(RTextEditorPane.FULL_PATH_PROPERTY)) {
+			documentIndex.pathChanged((RTextEditorPane)e.getSource());
 			setDocumentDisplayNameAt(getSelectedIndex(), currentTextArea.getFileName());
 			fireCurrentTextAreaEvent(CurrentTextAreaEvent.FILE_NAME_CHANGED,
 								e.getOldValue(), e.getNewValue());
@@ -2563,17 +3649,33 @@ public abstract class AbstractMainView extends JPanel
 
 		// If the file's modification status is changing...
 		else if (propertyName.equals(RTextEditorPane.DIRTY_PROPERTY)) {
-			int selectedIndex = getSelectedIndex();
-			String oldTitle = getDocumentDisplayNameAt(selectedIndex);
+			// Background saves can complete for documents other than the
+			// current one.
+			int index = getIndexOf((RTextEditorPane)e.getSource());
+			if (index==-1) {
+				return;
+			}
+			String oldTitle = getDocumentDisplayNameAt(index);
 			if ( ((Boolean)e.getNewValue()).booleanValue()==true )
-				setDocumentDisplayNameAt(selectedIndex, oldTitle+"*");
+				setDocumentDisplayNameAt(index, oldTitle+"*");
 			else {
-				setDocumentDisplayNameAt(selectedIndex,
+				setDocumentDisplayNameAt(index,
 						oldTitle.substring(0,oldTitle.length()-1));	// Get rid of the "*".
 			}
-			fireCurrentTextAreaEvent(
+			if (e.getSource()==currentTextArea) {
+				fireCurrentTextAreaEvent(
 							CurrentTextAreaEvent.IS_MODIFIED_CHANGED,
 							e.getOldValue(), e.getNewValue());
+			}
+		}
+
+		// If a background save started or finished, possibly for a document
+		// other than the current one, update its icon.
+		else if (propertyName.equals(RTextEditorPane.SAVE_STATE_PROPERTY)) {
+			int index = getIndexOf((RTextEditorPane)e.getSource());
+			if (index>-1) {
+				setDocumentDisplayNameAt(index, getDocumentDisplayNameAt(index));
+			}
 		}
 
 		// If the highlighting style of the current file changed...
@@ -2600,6 +3702,22 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Gives a text area the background image for its current size.  This is
+	 * called when the text area's viewport is resized.
+	 *
+	 * @param textArea The text area.
+	 */
+	void refreshBackground(RTextEditorPane textArea) {
+		if (backgroundObject instanceof Image) {
+			Object bg = getTextAreaBackground(textArea);
+			if (textArea.getBackgroundObject()!=bg) {
+				textArea.setBackgroundObject(bg);
+			}
+		}
+	}
+
+
 	/**
 	 * Repaints the display names for open documents.
 	 */
@@ -2615,43 +3733,43 @@ public abstract class AbstractMainView extends JPanel
 
 		// Go through and renumber any tab headings, if necessary.
 		int numDocuments = getNumDocuments();
-		if (numDocuments>0) {
-
-			boolean[] doneYet = new boolean[numDocuments];
+		for (int i=0; i<numDocuments; i++) {
+			RTextEditorPane pane = getRTextEditorPaneAt(i);
+			List<RTextEditorPane> panes = documentIndex.getTextAreasFor(
+												pane.getFileFullPath());
+			String title = pane.getFileName();
+			if (panes.size()>1) {
+				title += " (" + (panes.indexOf(pane)+1) + ")";
+			}
+			if (pane.isDirty()) {
+				title = title + "*";
+			}
+			setDocumentDisplayNameAt(i, title);
+		}
 
-			for (int i=0; i<numDocuments; i++) {
-				if (doneYet[i]==true)
-					continue;
-				RTextEditorPane pane_I = getRTextEditorPaneAt(i);
-				String fileFullPath = pane_I.getFileFullPath();
-				int count = 1;
-				for (int j=i+1; j<numDocuments; j++) {
-					RTextEditorPane pane = getRTextEditorPaneAt(j);
-					if (!doneYet[j] && pane.getFileFullPath().equals(fileFullPath)) {
-						String title = pane.getFileName() + " (" + (++count) + ")";
-						if (pane.isDirty()==true)
-							title = title + "*";
-						setDocumentDisplayNameAt(j, title);
-						doneYet[j] = true;
-					}
-				}
-				if (count>1) {
-					String title = pane_I.getFileName() + " (1)";
-					if (pane_I.isDirty()==true)
-						title = title + "*";
-					setDocumentDisplayNameAt(i, title);
-				}
-				else {
-					String title = pane_I.getFileName();
-					if (pane_I.isDirty()==true)
-						title = title + "*";
-					setDocumentDisplayNameAt(i, title);
-				}
-				doneYet[i] = true;
-			} // End of for (int i=0; i<numDocuments; i++).
+	}
 
-		} // End of if (numDocuments>0).
 
+	/**
+	 * Numbers the display names of all documents editing a file, if it is
+	 * open more than once.  This is called by view implementations when a
+	 * document is added.
+	 *
+	 * @param fileFullPath The file.
+	 */
+	protected void renumberDisplayNames(String fileFullPath) {
+		List<RTextEditorPane> panes = documentIndex.getTextAreasFor(
+												fileFullPath);
+		if (panes.size()>1) {
+			int count = 0;
+			for (RTextEditorPane pane : panes) {
+				String title = pane.getFileName() + " (" + (++count) + ")";
+				if (pane.isDirty()) {
+					title = title + "*";
+				}
+				setDocumentDisplayNameAt(getIndexOf(pane), title);
+			}
+		}
 	}
 
 
@@ -2671,13 +3789,31 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Removes a component from this container.
+	 * Removes a component from this container.  Implementations must call
+	 * {@link #removingComponentAt(int)} before removing it.
 	 *
 	 * @param index The index of the component to remove.
 	 */
 	protected abstract void removeComponentAt(int index);
 
 
+	/**
+	 * Removes several components from this container.  The default
+	 * implementation removes them one at a time; subclasses can override
+	 * this to do so more efficiently.  Implementations don't have to keep
+	 * the current text area up to date; the caller selects a document
+	 * afterward.
+	 *
+	 * @param indices The indices of the components to remove, in ascending
+	 *        order.
+	 */
+	protected void removeComponentsAt(int[] indices) {
+		for (int i=indices.length-1; i>=0; i--) {
+			removeComponentAt(indices[i]);
+		}
+	}
+
+
 	/**
 	 * Removes a current text area listener.
 	 *
@@ -2690,30 +3826,65 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Attempts to save all currently-opened files.  If any files have unsaved
-	 * changes, the user is prompted whether to save them.
+	 * If the only document open is untitled and empty, removes it, so a
+	 * file being opened replaces it.
+	 */
+	private void removeEmptyUntitledFile() {
+		if (getNumDocuments()==1 &&
+			currentTextArea.getFileName().equals(owner.getNewFileName()) &&
+			currentTextArea.getDocument().getLength()==0 &&
+				currentTextArea.isDirty()==false) {
+				removeComponentAt(0);
+		}
+	}
+
+
+	/**
+	 * Called by subclasses just before they remove a document, so lookups of
+	 * open documents stay fast.
+	 *
+	 * @param index The index of the document about to be removed.
+	 * @see #removeComponentAt(int)
+	 */
+	protected void removingComponentAt(int index) {
+		documentIndex.textAreaRemoved(index);
+	}
+
+
+	/**
+	 * Attempts to save all currently-opened files that have unsaved changes.
+	 * Local files are written concurrently in the background; untitled files
+	 * are selected in turn so the user can be prompted for a file name.
 	 *
-	 * @return Whether all files were successfully saved.  This will be
-	 *         <code>false</code> if an IO error occurs, or if a file has
-	 *         unsaved changes and the user selects "Cancel" when prompted
-	 *         to save them.
+	 * @return Whether all files were successfully saved (or scheduled to be
+	 *         saved).  This will be <code>false</code> if an IO error occurs
+	 *         saving a remote file, or if the user cancels naming an untitled
+	 *         file.  Errors saving local files are reported to the user when
+	 *         the background save completes.
 	 * @see #saveCurrentFile()
 	 * @see #saveCurrentFileAs()
 	 * @see #saveCurrentFileAs(FileLocation)
 	 */
-	public synchronized boolean saveAllFiles() {
+	public boolean saveAllFiles() {
 
 		boolean allSaved = true;
 
 		// Remember the number for the tab they are currently working on.
 		int currentTab = getSelectedIndex();
+		String newFileName = owner.getNewFileName();
 
 		// Cycle through each document, one by one.
 		for (int i=0; i<getNumDocuments(); i++) {
 			// Save this document, if it is not read-only
-			if (getRTextEditorPaneAt(i).isReadOnly()==false) {
-				setSelectedIndex(i);
-				allSaved |= saveCurrentFile();
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			if (textArea.isReadOnly()==false && textArea.isDirty()) {
+				if (textArea.getFileName().equals(newFileName)) {
+					setSelectedIndex(i);
+					allSaved &= saveCurrentFileAs();
+				}
+				else {
+					allSaved &= saveFile(textArea, false);
+				}
 			}
 		}
 
@@ -2737,23 +3908,46 @@ public abstract class AbstractMainView extends JPanel
 	 * @see #saveCurrentFileAs()
 	 * @see #saveCurrentFileAs(FileLocation)
 	 */
-	public synchronized boolean saveCurrentFile() {
+	public boolean saveCurrentFile() {
 
 		// If this file is named "Untitled.txt", prompt them for a new name.
 		if (currentTextArea.getFileName().equals(owner.getNewFileName())) {
 			return saveCurrentFileAs();
 		}
 
+		return saveFile(currentTextArea, false);
+
+	}
+
+
+	/**
+	 * Saves a text area to its current location.  Local files are written in
+	 * the background; remote files are written synchronously.
+	 *
+	 * @param textArea The text area to save.
+	 * @param wait Whether to wait for a background save to complete.  This
+	 *        should be <code>true</code> if the caller must know whether the
+	 *        save succeeded, e.g. before closing the file.
+	 * @return Whether the save was successful.  If <code>wait</code> is
+	 *         <code>false</code>, local files always return <code>true</code>
+	 *         and any error is reported to the user when the save completes.
+	 */
+	private boolean saveFile(RTextEditorPane textArea, boolean wait) {
+
+		if (backgroundSaver.isSupported(textArea)) {
+			if (wait) {
+				return backgroundSaver.saveAndWait(textArea);
+			}
+			backgroundSaver.save(textArea);
+			return true;
+		}
+
 		// Try and write output to the current filename.
 		try {
-			currentTextArea.save();
+			textArea.save();
 			return true;
 		} catch (Exception e) {
-			String temp = owner.getString("ErrorWritingFile",
-					currentTextArea.getFileFullPath(), e.getMessage());
-			JOptionPane.showMessageDialog(this, temp,
-				owner.getString("ErrorDialogTitle"), JOptionPane.ERROR_MESSAGE);
-			owner.setMessages(null, "ERROR:  Could not save file!");
+			displaySaveError(textArea, e);
 			return false;
 		}
 
@@ -2861,6 +4055,15 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public synchronized boolean saveCurrentFileAs(FileLocation loc) {
 
+		// Don't let a pending save to the old location finish after this one.
+		backgroundSaver.waitFor(currentTextArea);
+
+		// Saving as "*.gz" compresses the file.
+		CompressedFileLocation compressed = CompressedFileLocation.create(loc);
+		if (compressed!=null) {
+			loc = compressed;
+		}
+
 		// Try and write output to the current filename.
 		try {
 			currentTextArea.saveAs(loc);
@@ -2880,7 +4083,8 @@ public abstract class AbstractMainView extends JPanel
 		String newStyle = getSyntaxStyleForFile(loc.getFileName());
 		setSyntaxStyle(currentTextArea, newStyle);
 		currentTextArea.setCodeFoldingEnabled(
-				isCodeFoldingEnabledFor(newStyle));
+				isCodeFoldingEnabledFor(newStyle) && currentTextArea.
+						getPerformanceProfile().isCodeFoldingAllowed());
 
 		// If they had the same file opened twice (i.e., the "foo (1)"
 		// and "foo (2)"), and did "Save As..." on one of them, the other
@@ -2927,9 +4131,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setAntiAliasEnabled(boolean enabled) {
 		if (enabled!=aaEnabled) {
 			aaEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setAntiAliasingEnabled(aaEnabled);
-			}
+			settingChanged(EditorSetting.ANTI_ALIAS);
 			firePropertyChange(SMOOTH_TEXT_PROPERTY, !aaEnabled, aaEnabled);
 		}
 	}
@@ -2946,10 +4148,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setAutoInsertClosingCurlys(boolean autoInsert) {
 		if (autoInsert!=autoInsertClosingCurlys) {
 			autoInsertClosingCurlys = autoInsert;
-			for (int i=0; i<getNumDocuments(); i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setCloseCurlyBraces(autoInsert);
-			}
+			settingChanged(EditorSetting.AUTO_INSERT_CLOSING_CURLYS);
 			firePropertyChange(AUTO_INSERT_CLOSING_CURLYS,
 					!autoInsert, autoInsert);
 		}
@@ -2972,7 +4171,13 @@ public abstract class AbstractMainView extends JPanel
 			alpha = 0.0f;
 		else if (alpha>1.0f)
 			alpha = 1.0f;
-		imageAlpha = alpha;
+		if (alpha!=imageAlpha) {
+			imageAlpha = alpha;
+			if (backgroundObject instanceof Image) {
+				backgroundImageCache.setImage((Image)backgroundObject, alpha);
+				settingChanged(EditorSetting.BACKGROUND);
+			}
+		}
 	}
 
 
@@ -3008,8 +4213,13 @@ public abstract class AbstractMainView extends JPanel
 			backgroundObject = newBackground;
 		}
 		else if (newBackground instanceof Image) {
-			backgroundObject = RTextUtilities.getTranslucentImage(owner,
-										(Image)newBackground, imageAlpha);
+			// Text areas get the image scaled to their size and made
+			// translucent, from a cache shared by all of them.
+			backgroundObject = newBackground;
+			if (backgroundImageCache==null) {
+				backgroundImageCache = new BackgroundImageCache(owner);
+			}
+			backgroundImageCache.setImage((Image)newBackground, imageAlpha);
 		}
 
 		// If they didn't pass in a valid type...
@@ -3027,12 +4237,7 @@ public abstract class AbstractMainView extends JPanel
 		}
 
 		// Now, implement that background.
-		Color gutterBG = backgroundObject instanceof Color ?
-				(Color)backgroundObject : Color.WHITE;
-		for (int i=0; i<getNumDocuments(); i++) {
-			getRTextScrollPaneAt(i).getGutter().setBackground(gutterBG);
-			getRTextEditorPaneAt(i).setBackgroundObject(backgroundObject);
-		}
+		settingChanged(EditorSetting.BACKGROUND);
 	}
 
 
@@ -3044,13 +4249,8 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void setBookmarksEnabled(boolean enabled) {
 		if (enabled!=bookmarksEnabled) {
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				Gutter g = getRTextScrollPaneAt(i).getGutter();
-				g.setBookmarkingEnabled(enabled);
-				//g.setIconRowHeaderVisible(enabled);
-			}
 			bookmarksEnabled = enabled;
+			settingChanged(EditorSetting.BOOKMARKS);
 		}
 	}
 
@@ -3064,10 +4264,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setBracketMatchingEnabled(boolean enabled) {
 		if (enabled!=bracketMatchingEnabled) {
 			bracketMatchingEnabled = enabled;
-			int num = getNumDocuments();
-			for (int i=0; i<num; i++)
-				getRTextEditorPaneAt(i).setBracketMatchingEnabled(
-											bracketMatchingEnabled);
+			settingChanged(EditorSetting.BRACKET_MATCHING);
 		}
 	}
 
@@ -3082,12 +4279,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setCaretBlinkRate(int blinkRate) {
 		if (blinkRate>=0 && blinkRate!=caretBlinkRate) {
 			caretBlinkRate = blinkRate;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				Caret c = getRTextEditorPaneAt(i).getCaret();
-				if (c!=null)
-					c.setBlinkRate(caretBlinkRate);
-			}
+			settingChanged(EditorSetting.CARET_BLINK_RATE);
 		}
 	}
 
@@ -3101,8 +4293,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setCaretColor(final Color color) {
 		if (color!=null && color!=caretColor) {
 			caretColor = color;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setCaretColor(color);
+			settingChanged(EditorSetting.CARET_COLOR);
 		}
 	}
 
@@ -3122,8 +4313,7 @@ public abstract class AbstractMainView extends JPanel
 			return;
 		if (carets[mode]!=style) {
 			carets[mode] = style;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setCaretStyle(mode, style);
+			settingChanged(EditorSetting.CARET_STYLE);
 		}
 	}
 
@@ -3139,14 +4329,7 @@ public abstract class AbstractMainView extends JPanel
 		boolean prev = isCodeFoldingEnabledFor(language);
 		if (enabled!=prev) {
 			codeFoldingEnabledStates.put(language, Boolean.valueOf(enabled));
-			for (int i=0; i<getNumDocuments(); i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				if (language.equals(textArea.getSyntaxEditingStyle())) {
-					RTextScrollPane sp = getRTextScrollPaneAt(i);
-					sp.getGutter().setFoldIndicatorEnabled(enabled);
-					textArea.setCodeFoldingEnabled(enabled);
-				}
-			}
+			settingChanged(EditorSetting.CODE_FOLDING);
 		}
 	}
 
@@ -3166,10 +4349,7 @@ public abstract class AbstractMainView extends JPanel
 		if (color==null)
 			throw new NullPointerException();
 		currentLineColor = color;
-		for (int i=0; i<getNumDocuments(); i++) {
-			RTextEditorPane textArea = getRTextEditorPaneAt(i);
-			textArea.setCurrentLineHighlightColor(currentLineColor);
-		}
+		settingChanged(EditorSetting.CURRENT_LINE_HIGHLIGHT_COLOR);
 	}
 
 
@@ -3183,10 +4363,7 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void setCurrentLineHighlightEnabled(boolean enabled) {
 		highlightCurrentLine = enabled;
-		for (int i=0; i<getNumDocuments(); i++) {
-			RTextEditorPane textArea = getRTextEditorPaneAt(i);
-			textArea.setHighlightCurrentLine(highlightCurrentLine);
-		}
+		settingChanged(EditorSetting.CURRENT_LINE_HIGHLIGHT);
 	}
 
 
@@ -3204,6 +4381,9 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	protected void setCurrentTextArea(RTextEditorPane textArea) {
 		currentTextArea = textArea;
+		if (textArea!=null) {
+			textArea.rehydrate();
+		}
 	}
 
 
@@ -3249,6 +4429,31 @@ public abstract class AbstractMainView extends JPanel
 	 public abstract void setDocumentSelectionPlacement(int location);
 
 
+	/**
+	 * Sets the memory budget for open documents.
+	 *
+	 * @param budget The memory budget, in MB.  <code>0</code> means dormant
+	 *        documents are always compacted.
+	 * @see #getDormantTabMemoryBudget()
+	 */
+	public void setDormantTabMemoryBudget(int budget) {
+		dormantTabManager.setMemoryBudget(budget);
+	}
+
+
+	/**
+	 * Sets the number of minutes a document must go without being viewed
+	 * before it is compacted to save memory.
+	 *
+	 * @param minutes The number of minutes.  <code>0</code> means documents
+	 *        are never compacted.
+	 * @see #getDormantTabMinutes()
+	 */
+	public void setDormantTabMinutes(int minutes) {
+		dormantTabManager.setIdleMinutes(minutes);
+	}
+
+
 	/**
 	 * Sets whether a file's size is checked before it is opened.  This
 	 * method fires a property change event of type
@@ -3275,16 +4480,94 @@ public abstract class AbstractMainView extends JPanel
 	public void setFractionalFontMetricsEnabled(boolean enabled) {
 		if (fractionalMetricsEnabled!=enabled) {
 			fractionalMetricsEnabled = enabled;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++)
-				getRTextEditorPaneAt(i).setFractionalFontMetricsEnabled(
-														enabled);
+			settingChanged(EditorSetting.FRACTIONAL_METRICS);
 			firePropertyChange(FRACTIONAL_METRICS_PROPERTY,
 												!enabled, enabled);
 		}
 	}
 
 
+	/**
+	 * Sets the maximum number of lines kept in documents that follow their
+	 * files.  This only affects documents that start following their files
+	 * afterward.
+	 *
+	 * @param lines The maximum number of lines.  <code>0</code> means there
+	 *        is no maximum.
+	 * @see #getFollowMaxLines()
+	 */
+	public void setFollowMaxLines(int lines) {
+		followMaxLines = lines;
+	}
+
+
+	/**
+	 * Starts or stops following a text area's file, like
+	 * <code>tail -f</code>.  While following, content appended to the file
+	 * is added to the document, and the oldest lines are removed if there
+	 * are more than {@link #getFollowMaxLines()}.  The user is told if the
+	 * file can't be followed, e.g. it has unsaved changes.
+	 *
+	 * @param textArea The text area.
+	 * @param follow Whether to follow the file.
+	 * @see RTextEditorPane#isFollowing()
+	 */
+	public void setFollowingFile(RTextEditorPane textArea, boolean follow) {
+
+		if (!follow) {
+			textArea.stopFollowing();
+			return;
+		}
+		else if (textArea.isFollowing()) {
+			return;
+		}
+
+		String error = null;
+		if (!textArea.isLocal()) {
+			error = owner.getString("FollowFileRemote");
+		}
+		else if (textArea.isCompressed()) {
+			error = owner.getString("FollowFileCompressed");
+		}
+		else if (textArea.isDirty()) {
+			error = owner.getString("FollowFileDirty",
+									textArea.getFileName());
+		}
+		else if (!new File(textArea.getFileFullPath()).isFile()) {
+			error = owner.getString("ErrorReloadFNF");
+		}
+		if (error!=null) {
+			JOptionPane.showMessageDialog(owner, error,
+						owner.getString("ErrorDialogTitle"),
+						JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+
+		try {
+			if (textArea.isModifiedOutsideEditor()) {
+				textArea.reloadIncrementally();
+			}
+			textArea.startFollowing(getFollowMaxLines());
+		} catch (IOException ioe) {
+			owner.displayException(ioe);
+		}
+
+	}
+
+
+	/**
+	 * Sets whether files are synced to disk before they replace the original
+	 * file when saved.  This is slower, but guarantees a file's new contents
+	 * are on disk before the old version is removed.
+	 *
+	 * @param fsync Whether to sync files to disk when saved.
+	 * @see #getFsyncOnSave()
+	 */
+	public void setFsyncOnSave(boolean fsync) {
+		backgroundSaver.setFsyncEnabled(fsync);
+	}
+
+
 	/**
 	 * Sets whether files with no extension have their content type guessed
 	 * at via whether they have a "<code>#!</code>" in their first line.
@@ -3296,12 +4579,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setGuessFileContentType(boolean guess) {
 		if (guess!=guessFileContentType) {
 			guessFileContentType = guess;
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				String style = getSyntaxStyleForFile(textArea.getFileName());
-				setSyntaxStyle(textArea, style);
-			}
+			settingChanged(EditorSetting.GUESSED_SYNTAX_STYLE);
 		}
 	}
 
@@ -3313,12 +4591,8 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void setGutterBorderColor(Color c) {
 		if (c!=null && !c.equals(gutterBorderColor)) {
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				Gutter g = getRTextScrollPaneAt(i).getGutter();
-				g.setBorderColor(c);
-			}
 			gutterBorderColor = c;
+			settingChanged(EditorSetting.GUTTER_BORDER_COLOR);
 		}
 	}
 
@@ -3350,9 +4624,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setHighlightSecondaryLanguages(boolean highlight) {
 		if (highlight!=highlightSecondaryLanguages) {
 			highlightSecondaryLanguages = highlight;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setHighlightSecondaryLanguages(highlight);
-			}
+			settingChanged(EditorSetting.HIGHLIGHT_SECONDARY_LANGUAGES);
 		}
 	}
 
@@ -3366,9 +4638,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setHyperlinkColor(Color c) {
 		if (c!=null && !c.equals(getHyperlinkColor())) {
 			this.hyperlinkColor = c;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setHyperlinkForeground(c);
-			}
+			settingChanged(EditorSetting.HYPERLINK_COLOR);
 		}
 	}
 
@@ -3394,10 +4664,7 @@ public abstract class AbstractMainView extends JPanel
 		}
 		if (key!=hyperlinkModifierKey) {
 			hyperlinkModifierKey = key;
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				getRTextEditorPaneAt(i).setLinkScanningMask(key);
-			}
+			settingChanged(EditorSetting.HYPERLINK_MODIFIER_KEY);
 		}
 	}
 
@@ -3411,9 +4678,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setHyperlinksEnabled(boolean enabled) {
 		if (enabled!=hyperlinksEnabled) {
 			hyperlinksEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setHyperlinksEnabled(enabled);
-			}
+			settingChanged(EditorSetting.HYPERLINKS_ENABLED);
 		}
 	}
 
@@ -3432,17 +4697,7 @@ public abstract class AbstractMainView extends JPanel
 			ignoreBackupExtensions = ignore;
 
 			// Reset all open files' color schemes if necessary.
-			for (int i=0; i<getNumDocuments(); i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				String oldStyle = textArea.getSyntaxEditingStyle();
-				String newStyle = getSyntaxStyleForFile(textArea.getFileName());
-				if (!oldStyle.equals(newStyle)) {
-					setSyntaxStyle(textArea, newStyle);
-					if (textArea==currentTextArea) {
-						textArea.repaint();
-					}
-				}
-			}
+			settingChanged(EditorSetting.SYNTAX_STYLE);
 
 		}
 
@@ -3457,12 +4712,8 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void setLineNumberColor(Color c) {
 		if (c!=null && !c.equals(lineNumberColor)) {
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				Gutter g = getRTextScrollPaneAt(i).getGutter();
-				g.setLineNumberColor(c);
-			}
 			lineNumberColor = c;
+			settingChanged(EditorSetting.LINE_NUMBER_COLOR);
 		}
 	}
 
@@ -3475,12 +4726,8 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void setLineNumberFont(Font f) {
 		if (f!=null && !f.equals(lineNumberFont)) {
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				Gutter g = getRTextScrollPaneAt(i).getGutter();
-				g.setLineNumberFont(f);
-			}
 			lineNumberFont = f;
+			settingChanged(EditorSetting.LINE_NUMBER_FONT);
 		}
 	}
 
@@ -3493,9 +4740,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setLineNumbersEnabled(boolean enabled) {
 		if (enabled!=lineNumbersEnabled) {
 			lineNumbersEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextScrollPaneAt(i).setLineNumbersEnabled(enabled);
-			}
+			settingChanged(EditorSetting.LINE_NUMBERS);
 		}
 	}
 
@@ -3523,8 +4768,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setLineWrap(boolean enabled) {
 		if (enabled!=lineWrapEnabled) {
 			lineWrapEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setLineWrap(enabled);
+			settingChanged(EditorSetting.LINE_WRAP);
 		}
 	}
 
@@ -3539,8 +4783,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMarginLineColor(Color color) {
 		if (!color.equals(marginLineColor)) {
 			marginLineColor = color;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setMarginLineColor(marginLineColor);
+			settingChanged(EditorSetting.MARGIN_LINE_COLOR);
 		}
 	}
 
@@ -3555,8 +4798,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMarginLineEnabled(boolean enabled) {
 		if (marginLineEnabled != enabled) {
 			marginLineEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setMarginLineEnabled(enabled);
+			settingChanged(EditorSetting.MARGIN_LINE_ENABLED);
 		}
 	}
 
@@ -3571,8 +4813,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMarginLinePosition(int position) {
 		if (marginLinePosition!=position) {
 			marginLinePosition = position;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setMarginLinePosition(marginLinePosition);
+			settingChanged(EditorSetting.MARGIN_LINE_POSITION);
 		}
 	}
 
@@ -3586,11 +4827,9 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void setMarkAllHighlightColor(Color color) {
 		if (color!=null && !color.equals(markAllHighlightColor)) {
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++)
-				getRTextEditorPaneAt(i).setMarkAllHighlightColor(color);
 			Color oldColor = markAllHighlightColor;
 			markAllHighlightColor = color;
+			settingChanged(EditorSetting.MARK_ALL_COLOR);
 			firePropertyChange(MARK_ALL_COLOR_PROPERTY, oldColor, color);
 		}
 	}
@@ -3606,10 +4845,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMarkOccurrences(boolean markOccurrences) {
 		if (markOccurrences!=this.markOccurrences) {
 			this.markOccurrences = markOccurrences;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				getRTextEditorPaneAt(i).setMarkOccurrences(markOccurrences);
-			}
+			settingChanged(EditorSetting.MARK_OCCURRENCES);
 			firePropertyChange(MARK_OCCURRENCES_PROPERTY,
 							!markOccurrences, markOccurrences);
 		}
@@ -3628,10 +4864,7 @@ public abstract class AbstractMainView extends JPanel
 		if (color!=null && markOccurrencesColor!=color) {
 			Color old = markOccurrencesColor;
 			markOccurrencesColor = color;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				getRTextEditorPaneAt(i).setMarkOccurrencesColor(color);
-			}
+			settingChanged(EditorSetting.MARK_OCCURRENCES_COLOR);
 			firePropertyChange(MARK_OCCURRENCES_COLOR_PROPERTY, old, color);
 		}
 	}
@@ -3647,9 +4880,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMatchBothBrackets(boolean matchBoth) {
 		if (matchBothBrackets!=matchBoth) {
 			matchBothBrackets = matchBoth;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setPaintMatchedBracketPair(matchBoth);
-			}
+			settingChanged(EditorSetting.MATCH_BOTH_BRACKETS);
 		}
 	}
 
@@ -3663,12 +4894,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMatchedBracketBGColor(Color color) {
 		if (color!=matchedBracketBGColor) {
 			matchedBracketBGColor = color;
-			int num = getNumDocuments();
-			for (int i=0; i<num; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				// Will repaint if necessary.
-				textArea.setMatchedBracketBGColor(matchedBracketBGColor);
-			}
+			settingChanged(EditorSetting.MATCHED_BRACKET_BG_COLOR);
 		}
 	}
 
@@ -3682,12 +4908,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMatchedBracketBorderColor(Color color) {
 		if (color!=matchedBracketBorderColor) {
 			matchedBracketBorderColor = color;
-			int num = getNumDocuments();
-			for (int i=0; i<num; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				// Will repaint if necessary.
-				textArea.setMatchedBracketBorderColor(matchedBracketBorderColor);
-			}
+			settingChanged(EditorSetting.MATCHED_BRACKET_BORDER_COLOR);
 		}
 	}
 
@@ -3712,6 +4933,35 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Sets the size above which files are opened with the
+	 * {@link PerformanceProfile#MINIMAL} performance profile.  This only
+	 * affects files opened afterward.
+	 *
+	 * @param size The size, in MB.  <code>0</code> means this profile is
+	 *        never used.
+	 * @see #getMinimalProfileFileSize()
+	 * @see #setReducedProfileFileSize(float)
+	 */
+	public void setMinimalProfileFileSize(float size) {
+		minimalProfileFileSize = size;
+	}
+
+
+	/**
+	 * Shows or hides the minimaps on the documents.
+	 *
+	 * @param enabled Whether minimaps should be visible.
+	 * @see #getMinimapEnabled()
+	 */
+	public void setMinimapEnabled(boolean enabled) {
+		if (enabled!=minimapEnabled) {
+			minimapEnabled = enabled;
+			settingChanged(EditorSetting.MINIMAP);
+		}
+	}
+
+
 	/**
 	 * Sets the color used to highlight modified documents' display names.
 	 *
@@ -3729,6 +4979,24 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Changes which of the more expensive editor features are enabled for a
+	 * text area, e.g. when the user asks for all features in a large file.
+	 *
+	 * @param textArea The text area.
+	 * @param profile The new performance profile.
+	 * @see RTextEditorPane#getPerformanceProfile()
+	 */
+	public void setPerformanceProfile(RTextEditorPane textArea,
+								PerformanceProfile profile) {
+		textArea.setPerformanceProfile(profile);
+		applySetting(textArea, EditorSetting.BRACKET_MATCHING);
+		applySetting(textArea, EditorSetting.CODE_FOLDING);
+		applySetting(textArea, EditorSetting.LINE_WRAP);
+		applySetting(textArea, EditorSetting.MARK_OCCURRENCES);
+	}
+
+
 	/**
 	 * Sets the font to use when printing documents.
 	 *
@@ -3758,6 +5026,35 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Sets the size above which files are opened with the
+	 * {@link PerformanceProfile#REDUCED} performance profile.  This only
+	 * affects files opened afterward.
+	 *
+	 * @param size The size, in MB.  <code>0</code> means files are never
+	 *        opened with this profile because of their size.
+	 * @see #getReducedProfileFileSize()
+	 * @see #setMinimalProfileFileSize(float)
+	 */
+	public void setReducedProfileFileSize(float size) {
+		reducedProfileFileSize = size;
+	}
+
+
+	/**
+	 * Sets the line length above which files are opened with the
+	 * {@link PerformanceProfile#REDUCED} performance profile.  This only
+	 * affects files opened afterward.
+	 *
+	 * @param length The line length.  <code>0</code> means files are never
+	 *        opened with this profile because of long lines.
+	 * @see #getReducedProfileLineLength()
+	 */
+	public void setReducedProfileLineLength(int length) {
+		reducedProfileLineLength = length;
+	}
+
+
 	/**
 	 * Toggles whether whitespace lines should be remembered (vs. cleared out
 	 * on Enter presses).  This method fires a property change event of type
@@ -3769,10 +5066,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setRememberWhitespaceLines(boolean remember) {
 		if (remember!=rememberWhitespaceLines) {
 			rememberWhitespaceLines = remember;
-			for (int i=0; i<getNumDocuments(); i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setClearWhitespaceLinesEnabled(!rememberWhitespaceLines);
-			}
+			settingChanged(EditorSetting.REMEMBER_WHITESPACE_LINES);
 			firePropertyChange(REMEMBER_WS_LINES_PROPERTY, !remember, remember);
 		}
 	}
@@ -3789,11 +5083,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setRoundedSelectionEdges(boolean rounded) {
 		if (rounded!=roundedSelectionEdges) {
 			roundedSelectionEdges = rounded;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setRoundedSelectionEdges(rounded);
-			}
+			settingChanged(EditorSetting.ROUNDED_SELECTION_EDGES);
 			firePropertyChange(ROUNDED_SELECTION_PROPERTY, !rounded, rounded);
 		}
 	}
@@ -3809,10 +5099,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setSecondaryLanguageColor(int index, Color color) {
 		if (color!=null && !color.equals(secondaryLanguageColors[index])) {
 			secondaryLanguageColors[index] = color;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).
-						setSecondaryLanguageBackground(index+1, color);
-			}
+			settingChanged(EditorSetting.SECONDARY_LANGUAGE_COLORS);
 		}
 	}
 
@@ -3836,12 +5123,10 @@ public abstract class AbstractMainView extends JPanel
 	 * @see #setSelectedIndex(int)
 	 */
 	public boolean setSelectedTextArea(RTextEditorPane textArea) {
-		for (int i=0; i<getNumDocuments(); i++) {
-			RTextEditorPane ta2 = getRTextEditorPaneAt(i);
-			if (ta2!=null && ta2==textArea) {
-				setSelectedIndex(i);
-				return true;
-			}
+		int index = getIndexOf(textArea);
+		if (index>-1) {
+			setSelectedIndex(index);
+			return true;
 		}
 		return false;
 	}
@@ -3861,8 +5146,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setSelectedTextColor(Color color) {
 		if (color!=null && color!=selectedTextColor) {
 			selectedTextColor = color;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setSelectedTextColor(color);
+			settingChanged(EditorSetting.SELECTED_TEXT_COLOR);
 		}
 	}
 
@@ -3880,8 +5164,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setSelectionColor(Color color) {
 		if (color!=null && color!=selectionColor) {
 			selectionColor = color;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setSelectionColor(color);
+			settingChanged(EditorSetting.SELECTION_COLOR);
 		}
 	}
 
@@ -3896,9 +5179,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setShowEOLMarkers(boolean show) {
 		if (show!=showEOLMarkers) {
 			showEOLMarkers = show;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setEOLMarkersVisible(showEOLMarkers);
-			}
+			settingChanged(EditorSetting.SHOW_EOL_MARKERS);
 		}
 	}
 
@@ -3912,9 +5193,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setShowTabLines(boolean show) {
 		if (show!=showTabLines) {
 			showTabLines = show;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setPaintTabLines(showTabLines);
-			}
+			settingChanged(EditorSetting.SHOW_TAB_LINES);
 		}
 	}
 
@@ -3933,17 +5212,7 @@ public abstract class AbstractMainView extends JPanel
 		this.syntaxFilters.setPreservingPluginAdded(syntaxFilters);
 
 		// Reset all open files' color schemes if necessary.
-		for (int i=0; i<getNumDocuments(); i++) {
-			RTextEditorPane textArea = getRTextEditorPaneAt(i);
-			String oldStyle = textArea.getSyntaxEditingStyle();
-			String newStyle = getSyntaxStyleForFile(textArea.getFileName());
-			if (!oldStyle.equals(newStyle)) {
-				setSyntaxStyle(textArea, newStyle);
-				if (textArea==currentTextArea) {
-					textArea.repaint();
-				}
-			}
-		}
+		settingChanged(EditorSetting.SYNTAX_STYLE);
 
 	}
 
@@ -3958,17 +5227,8 @@ public abstract class AbstractMainView extends JPanel
 		if (currentTextArea==null) {
 			addNewEmptyUntitledFile();
 		}
-		int numDocuments = getNumDocuments();
-		if (colorScheme!=null) {
-			for (int i=0; i<numDocuments; i++) {
-				getRTextEditorPaneAt(i).setSyntaxScheme(colorScheme);
-			}
-		}
-		else {
-			for (int i=0; i<numDocuments; i++) {
-				getRTextEditorPaneAt(i).restoreDefaultSyntaxScheme();
-			}
-		}
+		syntaxScheme = colorScheme;
+		settingChanged(EditorSetting.SYNTAX_SCHEME);
 	}
 
 
@@ -3981,19 +5241,7 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	private void setSyntaxStyle(RTextEditorPane pane, String style) {
 
-		// Ignore extensions that mean "this is a backup", but don't
-		// denote the actual file type.
-		String fileName = pane.getFileName().toLowerCase();
-		if (getIgnoreBackupExtensions()) {
-			fileName = RTextUtilities.stripBackupExtensions(fileName);
-		}
-
-		// If there was no extension on the file name, guess the content
-		// type for highlighting (but don't override content type if already
-		// assigned, e.g. "makefile" does this).
-		if (getGuessFileContentType() &&
-				fileName.indexOf('.')==-1 &&
-				SyntaxConstants.SYNTAX_STYLE_NONE.equals(style)) {
+		if (getShouldGuessContentType(pane.getFileName(), style)) {
 			guessContentType(pane);
 		}
 
@@ -4018,9 +5266,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setTabsEmulated(boolean areEmulated) {
 		if (areEmulated!=emulateTabsWithWhitespace) {
 			emulateTabsWithWhitespace = areEmulated;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setTabsEmulated(areEmulated);
-			}
+			settingChanged(EditorSetting.TABS_EMULATED);
 		}
 	}
 
@@ -4035,9 +5281,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setTabLinesColor(Color color) {
 		if (color!=null && !color.equals(tabLinesColor)) {
 			tabLinesColor = color;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setTabLineColor(tabLinesColor);
-			}
+			settingChanged(EditorSetting.TAB_LINES_COLOR);
 		}
 	}
 
@@ -4057,9 +5301,7 @@ public abstract class AbstractMainView extends JPanel
 		// If the new tab size is different from the current one...
 		if (newSize!=tabSize) {
 			tabSize = newSize;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setTabSize(newSize);
-
+			settingChanged(EditorSetting.TAB_SIZE);
 		}
 
 	}
@@ -4079,19 +5321,17 @@ public abstract class AbstractMainView extends JPanel
 			font = RTextEditorPane.getDefaultFont();
 		}
 
-		if (!font.equals(textAreaFont) || underline!=textAreaUnderline) {
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setFont(font);
-				//textArea.setUnderline(underline);
-			}
-		}
+		boolean changed = !font.equals(textAreaFont) ||
+							underline!=textAreaUnderline;
 
 		// Always set our values so text areas created later have them.
 		textAreaFont = font;
 		textAreaUnderline = underline;
 
+		if (changed) {
+			settingChanged(EditorSetting.TEXT_AREA_FONT);
+		}
+
 	}
 
 
@@ -4104,11 +5344,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setTextAreaForeground(Color fg) {
 		if (fg!=null && !fg.equals(textAreaForeground)) {
 			textAreaForeground = fg;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setForeground(textAreaForeground);
-			}
+			settingChanged(EditorSetting.TEXT_AREA_FOREGROUND);
 		}
 	}
 
@@ -4126,11 +5362,7 @@ public abstract class AbstractMainView extends JPanel
 		if (textAreaOrientation==null ||
 				o.isLeftToRight()!=textAreaOrientation.isLeftToRight()) {
 			textAreaOrientation = o;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.applyComponentOrientation(textAreaOrientation);
-			}
+			settingChanged(EditorSetting.TEXT_AREA_ORIENTATION);
 		}
 	}
 
@@ -4149,10 +5381,32 @@ public abstract class AbstractMainView extends JPanel
 			throw new IllegalArgumentException("Invalid mode: " + mode);
 		}
 		textMode = mode;
-		for (int i=0; i<getNumDocuments(); i++) {
-			getRTextEditorPaneAt(i).setTextMode(mode);
-		}
+		settingChanged(EditorSetting.TEXT_MODE);
+
+	}
+
+
+	/**
+	 * Sets the maximum amount of memory the undo history of all documents
+	 * together can use.
+	 *
+	 * @param budget The budget, in MB.
+	 * @see #getUndoGlobalMemoryBudget()
+	 */
+	public void setUndoGlobalMemoryBudget(int budget) {
+		BoundedUndoManager.setGlobalBudget(Math.max(1, budget)*1024L*1024);
+	}
+
 
+	/**
+	 * Sets the maximum amount of memory each document's undo history can
+	 * use.
+	 *
+	 * @param budget The budget, in MB.
+	 * @see #getUndoMemoryBudget()
+	 */
+	public void setUndoMemoryBudget(int budget) {
+		BoundedUndoManager.setDocumentBudget(Math.max(1, budget)*1024L*1024);
 	}
 
 
@@ -4167,9 +5421,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setUseSelectedTextColor(boolean use) {
 		if (use!=useSelectedTextColor) {
 			useSelectedTextColor = use;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setUseSelectedTextColor(use);
-			}
+			settingChanged(EditorSetting.USE_SELECTED_TEXT_COLOR);
 		}
 	}
 
@@ -4184,9 +5436,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setWhitespaceVisible(boolean visible) {
 		if (whitespaceVisible != visible) {
 			whitespaceVisible = visible;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++)
-				getRTextEditorPaneAt(i).setWhitespaceVisible(visible);
+			settingChanged(EditorSetting.WHITESPACE_VISIBLE);
 		}
 	}
 
@@ -4202,6 +5452,45 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Called whenever an editor setting changes.  The change is applied to
+	 * all text areas, unless a settings transaction is in progress, in which
+	 * case it is applied when the transaction is committed.
+	 *
+	 * @param setting The setting that changed.
+	 * @see #beginSettingsTransaction()
+	 */
+	private void settingChanged(EditorSetting setting) {
+		if (settingsTransactionDepth>0) {
+			transactionSettings.add(setting);
+		}
+		else {
+			applySettings(EnumSet.of(setting));
+		}
+	}
+
+
+	/**
+	 * Transforms the lines of all open documents.  Documents are transformed
+	 * in parallel in the background, and each is updated as a single
+	 * undoable edit when its transformation completes.
+	 *
+	 * @param operation The transformation.
+	 * @param pattern The regular expression for operations that need one,
+	 *        otherwise <code>null</code>.
+	 * @see TextTransformer
+	 */
+	public void transformOpenFiles(TextTransformer.Operation operation,
+								Pattern pattern) {
+		int count = getNumDocuments();
+		List<RTextEditorPane> textAreas = new ArrayList<RTextEditorPane>(count);
+		for (int i=0; i<count; i++) {
+			textAreas.add(getRTextEditorPaneAt(i));
+		}
+		new TextTransformer(owner, operation, pattern).transform(textAreas);
+	}
+
+
 	/**
 	 * Updates the look and feel of objects that the parent <code>RText</code>
 	 * can't get to.  This should be called whenever the look and feel is
@@ -4231,8 +5520,10 @@ public abstract class AbstractMainView extends JPanel
 		// background.  We need to do this because in RText's
 		// updateLookAndFeel(), each text area's updateUI() is called, which
 		// resets their background to white, evidently.
-		for (int i=0; i<getNumDocuments(); i++)
-			getRTextEditorPaneAt(i).setBackgroundObject(backgroundObject);
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			textArea.setBackgroundObject(getTextAreaBackground(textArea));
+		}
 		if (currentTextArea != null)
 			currentTextArea.repaint();
 
@@ -4255,4 +5546,81 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Editor settings that are applied to every open text area.
+	 *
+	 * @see AbstractMainView#settingChanged(EditorSetting)
+	 */
+	private enum EditorSetting {
+		ANTI_ALIAS,
+		AUTO_INSERT_CLOSING_CURLYS,
+		BACKGROUND,
+		BOOKMARKS,
+		BRACKET_MATCHING,
+		CARET_BLINK_RATE,
+		CARET_COLOR,
+		CARET_STYLE,
+		CODE_FOLDING,
+		CURRENT_LINE_HIGHLIGHT,
+		CURRENT_LINE_HIGHLIGHT_COLOR,
+		FRACTIONAL_METRICS,
+		GUESSED_SYNTAX_STYLE,
+		GUTTER_BORDER_COLOR,
+		HIGHLIGHT_SECONDARY_LANGUAGES,
+		HYPERLINK_COLOR,
+		HYPERLINK_MODIFIER_KEY,
+		HYPERLINKS_ENABLED,
+		LINE_NUMBER_COLOR,
+		LINE_NUMBER_FONT,
+		LINE_NUMBERS,
+		LINE_WRAP,
+		MARGIN_LINE_COLOR,
+		MARGIN_LINE_ENABLED,
+		MARGIN_LINE_POSITION,
+		MARK_ALL_COLOR,
+		MARK_OCCURRENCES,
+		MARK_OCCURRENCES_COLOR,
+		MATCH_BOTH_BRACKETS,
+		MATCHED_BRACKET_BG_COLOR,
+		MATCHED_BRACKET_BORDER_COLOR,
+		MINIMAP,
+		REMEMBER_WHITESPACE_LINES,
+		ROUNDED_SELECTION_EDGES,
+		SECONDARY_LANGUAGE_COLORS,
+		SELECTED_TEXT_COLOR,
+		SELECTION_COLOR,
+		SHOW_EOL_MARKERS,
+		SHOW_TAB_LINES,
+		SYNTAX_SCHEME,
+		SYNTAX_STYLE,
+		TAB_LINES_COLOR,
+		TAB_SIZE,
+		TABS_EMULATED,
+		TEXT_AREA_FONT,
+		TEXT_AREA_FOREGROUND,
+		TEXT_AREA_ORIENTATION,
+		TEXT_MODE,
+		USE_SELECTED_TEXT_COLOR,
+		WHITESPACE_VISIBLE;
+
+		/**
+		 * Returns whether this setting is part of a text area's model
+		 * state, rather than only affecting how it is painted.  Such
+		 * settings are applied to hidden text areas immediately, since code
+		 * working with hidden documents reads them:  searching and parsing
+		 * depend on the syntax style, transforming tabs and spaces on the
+		 * tab settings, and the compare dialog shows documents in their
+		 * font and tab size.
+		 *
+		 * @return Whether this setting is model state.
+		 */
+		boolean isModelState() {
+			return this==GUESSED_SYNTAX_STYLE || this==SYNTAX_STYLE ||
+					this==TAB_SIZE || this==TABS_EMULATED ||
+					this==TEXT_AREA_FONT;
+		}
+
+	}
+
+
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+/*
+ * 10/19/2026
+ *
+ * BackgroundImageCache.java - Scaled background images shared by editors.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Dimension;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Caches the background image of text areas, already scaled to the size of
+ * their viewports and made translucent.<p>
+ *
+ * Text areas scale their background image to their visible size themselves,
+ * but each does so separately, from the full-size image, whenever it is
+ * resized.  Since all text areas in a main view usually have the same size,
+ * this cache lets them share a single image per size, so the expensive
+ * scaling and compositing is done once per size, and text areas only ever
+ * copy an image of their own size.<p>
+ *
+ * The images are compatible with the screen, so Java2D can keep them in
+ * video memory.  This class should only be used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see AbstractMainView#setBackgroundObject(Object)
+ */
+class BackgroundImageCache {
+
+	/**
+	 * The number of sizes to keep images for.  There is usually just one
+	 * (or two, in the split pane view).
+	 */
+	private static final int MAX_SIZES		= 4;
+
+	private RText rtext;
+	private Image image;
+	private float alpha;
+	private Map<Dimension, BufferedImage> images;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rtext The parent application.
+	 */
+	public BackgroundImageCache(RText rtext) {
+		this.rtext = rtext;
+		images = new LinkedHashMap<Dimension, BufferedImage>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(
+							Map.Entry<Dimension, BufferedImage> eldest) {
+				return size()>MAX_SIZES;
+			}
+		};
+	}
+
+
+	/**
+	 * Returns the background image for a specific size, creating it if
+	 * necessary.
+	 *
+	 * @param width The width of the image.
+	 * @param height The height of the image.
+	 * @return The image, or <code>null</code> if no image has been set.
+	 * @see #setImage(Image, float)
+	 */
+	public Image getImage(int width, int height) {
+		if (image==null) {
+			return null;
+		}
+		Dimension size = new Dimension(width, height);
+		BufferedImage scaled = images.get(size);
+		if (scaled==null) {
+			scaled = RTextUtilities.getTranslucentImage(rtext, image, alpha,
+													width, height);
+			images.put(size, scaled);
+		}
+		return scaled;
+	}
+
+
+	/**
+	 * Sets the image to scale.  This clears the cache.
+	 *
+	 * @param image The full-size image, or <code>null</code> for none.
+	 * @param alpha How translucent to make the image, from
+	 *        <code>0.0f</code> to <code>1.0f</code>.
+	 */
+	public void setImage(Image image, float alpha) {
+		this.image = image;
+		this.alpha = alpha;
+		images.clear();
+	}
+
+
+}
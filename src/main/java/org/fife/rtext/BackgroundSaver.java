@@ -0,0 +1,447 @@
+/*
+ * 10/19/2026
+ *
+ * BackgroundSaver.java - Writes editor contents to disk off of the EDT.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.GZIPOutputStream;
+import javax.swing.SwingUtilities;
+
+import org.fife.io.UnicodeWriter;
+
+
+/**
+ * Saves local files in the background.  A snapshot of the document is taken
+ * on the EDT (which is cheap compared to disk I/O, and free if the document
+ * hasn't changed since its last snapshot), then written by a small
+ * pool of worker threads, so saving many files at once (e.g. "Save All")
+ * both runs concurrently and never blocks the UI.<p>
+ *
+ * Each file is written to a temporary file in the same directory, optionally
+ * <code>fsync</code>'d, and then renamed over the original.  This way a crash
+ * or full disk in the middle of a save never leaves a truncated file behind.
+ * <p>
+ *
+ * All public methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class BackgroundSaver {
+
+	private RText owner;
+	private ExecutorService executor;
+	private Map<RTextEditorPane, SaveJob> pending;
+	private boolean fsyncEnabled;
+
+	/**
+	 * The number of concurrent writes.  Saving is I/O bound, so we don't
+	 * bother scaling this with the number of processors.
+	 */
+	private static final int THREAD_COUNT		= 4;
+
+	/**
+	 * Reflective access to <code>File.canExecute()</code> and
+	 * <code>File.setExecutable(boolean)</code>, which are only available in
+	 * Java 6 and later.  Used to preserve a script's executable bit when it's
+	 * replaced by its temporary copy.
+	 */
+	private static Method canExecuteMethod;
+	private static Method setExecutableMethod;
+
+	static {
+		try {
+			canExecuteMethod = File.class.getMethod("canExecute");
+			setExecutableMethod = File.class.getMethod("setExecutable",
+											boolean.class);
+		} catch (Exception e) { // Java 5
+			canExecuteMethod = setExecutableMethod = null;
+		}
+	}
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent application.
+	 */
+	public BackgroundSaver(RText owner) {
+		this.owner = owner;
+		pending = new HashMap<RTextEditorPane, SaveJob>();
+		executor = Executors.newFixedThreadPool(THREAD_COUNT,
+				new ThreadFactory() {
+					private int count;
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "RText Saver " + (++count));
+						t.setDaemon(true);
+						return t;
+					}
+				});
+	}
+
+
+	/**
+	 * Called on the EDT when a save operation completes, whether successfully
+	 * or not.
+	 *
+	 * @param job The save job.
+	 * @param error The error that occurred, or <code>null</code> if the save
+	 *        was successful.
+	 */
+	private void finish(SaveJob job, IOException error) {
+
+		if (job.finished) {
+			return; // Already handled by waitFor().
+		}
+		job.finished = true;
+
+		RTextEditorPane textArea = job.textArea;
+		if (pending.get(textArea)==job) {
+			pending.remove(textArea);
+			textArea.setSaving(false);
+		}
+
+		if (error==null) {
+			// Only mark the document clean if it wasn't edited while we were
+			// writing it out.
+			if (textArea.getModificationStamp()==job.stamp) {
+				textArea.setDirty(false);
+			}
+			textArea.syncLastSaveOrLoadTimeToActualFile();
+			textArea.setLastSaveError(null);
+			owner.getRecoveryJournal().documentSaved(textArea);
+		}
+		else {
+			textArea.setLastSaveError(error);
+			owner.getMainView().displaySaveError(textArea, error);
+		}
+
+		updateStatusMessage();
+
+	}
+
+
+	/**
+	 * Returns the number of saves not yet completed.
+	 *
+	 * @return The number of pending saves.
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+
+	/**
+	 * Returns whether files are <code>fsync</code>'d before being moved into
+	 * place.
+	 *
+	 * @return Whether to sync files to disk.
+	 * @see #setFsyncEnabled(boolean)
+	 */
+	public boolean isFsyncEnabled() {
+		return fsyncEnabled;
+	}
+
+
+	/**
+	 * Returns whether the specified text area can be saved by this class.
+	 * Remote files and zip entries are still saved synchronously via
+	 * <code>TextEditorPane.save()</code>.  Gzipped files are supported, and
+	 * are re-compressed.
+	 *
+	 * @param textArea The text area.
+	 * @return Whether the text area can be saved in the background.
+	 */
+	public boolean isSupported(RTextEditorPane textArea) {
+		return textArea.isLocal() && (!textArea.isCompressed() ||
+				CompressedFileLocation.isGzip(textArea.getFileFullPath()));
+	}
+
+
+	/**
+	 * Schedules the contents of a text area to be saved.  The text area's
+	 * dirty flag is cleared when the write completes, provided the text area
+	 * has not been edited in the meantime.
+	 *
+	 * @param textArea The text area to save.
+	 * @see #saveAndWait(RTextEditorPane)
+	 */
+	public void save(RTextEditorPane textArea) {
+
+		DocumentSnapshot text = textArea.getSnapshot();
+
+		SaveJob job = new SaveJob();
+		job.textArea = textArea;
+		job.stamp = text.getModificationStamp();
+		job.text = text;
+		job.file = new File(textArea.getFileFullPath());
+		job.encoding = textArea.getEncoding();
+		job.compress = textArea.isCompressed();
+		job.lineSeparator = (String)textArea.getLineSeparator();
+		job.fsync = fsyncEnabled;
+		job.previous = pending.get(textArea);
+
+		pending.put(textArea, job);
+		textArea.setSaving(true);
+		job.future = executor.submit(job);
+		updateStatusMessage();
+
+	}
+
+
+	/**
+	 * Saves a text area and blocks until the save completes.  This is used
+	 * when the caller needs to know the save succeeded before continuing,
+	 * for example before closing a document.
+	 *
+	 * @param textArea The text area to save.
+	 * @return Whether the save was successful.
+	 * @see #save(RTextEditorPane)
+	 */
+	public boolean saveAndWait(RTextEditorPane textArea) {
+		save(textArea);
+		return waitFor(textArea);
+	}
+
+
+	/**
+	 * Toggles whether files are <code>fsync</code>'d before being moved into
+	 * place.  This is slower, but guarantees the new contents are on disk
+	 * before the original file is replaced.
+	 *
+	 * @param enabled Whether to sync files to disk.
+	 * @see #isFsyncEnabled()
+	 */
+	public void setFsyncEnabled(boolean enabled) {
+		fsyncEnabled = enabled;
+	}
+
+
+	/**
+	 * Shuts down the worker threads after any pending saves complete.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+
+	private void updateStatusMessage() {
+		int count = getPendingCount();
+		if (count>0) {
+			owner.setMessages(null, owner.getString("SavingFiles",
+									Integer.toString(count)));
+		}
+		else {
+			owner.setMessages(null, owner.getString("Ready"));
+		}
+	}
+
+
+	/**
+	 * Blocks until any pending save for a text area completes.  If no save
+	 * is pending, this method returns immediately.
+	 *
+	 * @param textArea The text area.
+	 * @return Whether the last pending save (if any) was successful.
+	 */
+	public boolean waitFor(RTextEditorPane textArea) {
+		SaveJob job = pending.get(textArea);
+		if (job==null) {
+			return textArea.getLastSaveError()==null;
+		}
+		IOException error = null;
+		try {
+			error = job.future.get();
+		} catch (InterruptedException ie) {
+			error = new IOException(ie.getMessage());
+		} catch (ExecutionException ee) {
+			error = new IOException(ee.getCause().toString());
+		}
+		finish(job, error);
+		return error==null;
+	}
+
+
+	/**
+	 * Writes the specified text to a file.  The text is first written to a
+	 * temporary file in the same directory, which is then renamed to the
+	 * destination file.
+	 *
+	 * @param job The save job.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private static void write(SaveJob job) throws IOException {
+
+		// Write through symlinks rather than replacing them.
+		File file = job.file.getCanonicalFile();
+		File dir = file.getParentFile();
+		boolean executable = file.isFile() && isExecutable(file);
+
+		File temp = File.createTempFile("." + file.getName(), ".tmp", dir);
+		boolean success = false;
+		try {
+
+			FileOutputStream out = new FileOutputStream(temp);
+			GZIPOutputStream gzip = job.compress ?
+					new GZIPOutputStream(out, 64*1024) : null;
+			Writer w = new BufferedWriter(new UnicodeWriter(
+							gzip!=null ? gzip : out, job.encoding));
+			try {
+				writeText(w, job.text, job.lineSeparator);
+				w.flush();
+				if (gzip!=null) {
+					gzip.finish();
+				}
+				if (job.fsync) {
+					out.getFD().sync();
+				}
+			} finally {
+				w.close();
+			}
+
+			if (executable) {
+				setExecutable(temp);
+			}
+
+			// On Windows, renameTo() fails if the destination exists.
+			if (!temp.renameTo(file)) {
+				if (!file.delete() || !temp.renameTo(file)) {
+					throw new IOException("Cannot replace " +
+							file.getAbsolutePath());
+				}
+			}
+			success = true;
+
+		} finally {
+			if (!success) {
+				temp.delete();
+			}
+		}
+
+	}
+
+
+	private static boolean isExecutable(File file) {
+		if (canExecuteMethod!=null) {
+			try {
+				return ((Boolean)canExecuteMethod.invoke(file)).booleanValue();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		return false;
+	}
+
+
+	private static void setExecutable(File file) {
+		try {
+			setExecutableMethod.invoke(file, Boolean.TRUE);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Writes text, converting the <code>'\n'</code> newlines used in
+	 * documents to the specified line separator.
+	 *
+	 * @param w The writer to write to.
+	 * @param text The text to write.
+	 * @param lineSeparator The line separator to use.  If this is
+	 *        <code>null</code>, the system default is used.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private static void writeText(Writer w, DocumentSnapshot text,
+							String lineSeparator) throws IOException {
+		if (lineSeparator==null) {
+			lineSeparator = System.getProperty("line.separator");
+		}
+		if ("\n".equals(lineSeparator)) {
+			text.write(w, 0, text.length());
+			return;
+		}
+		int start = 0;
+		int newline = 0;
+		while ((newline=text.indexOf('\n', start))>-1) {
+			text.write(w, start, newline);
+			w.write(lineSeparator);
+			start = newline + 1;
+		}
+		text.write(w, start, text.length());
+	}
+
+
+	/**
+	 * A single save operation.
+	 */
+	private class SaveJob implements Callable<IOException> {
+
+		private RTextEditorPane textArea;
+		private long stamp;
+		private DocumentSnapshot text;
+		private File file;
+		private String encoding;
+		private boolean compress;
+		private String lineSeparator;
+		private boolean fsync;
+		private SaveJob previous;
+		private Future<IOException> future;
+		private boolean finished;
+
+		public IOException call() {
+
+			// If this document was saved again before its previous save
+			// completed, wait for that one first so the newer content wins.
+			if (previous!=null) {
+				try {
+					previous.future.get();
+				} catch (Exception e) {
+					// Ignore, we overwrite the file anyway.
+				}
+				previous = null;
+			}
+
+			IOException error = null;
+			try {
+				write(this);
+			} catch (IOException ioe) {
+				error = ioe;
+			} catch (RuntimeException re) {
+				error = new IOException(re.toString());
+			}
+			text = null; // Free memory early
+
+			final IOException result = error;
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					finish(SaveJob.this, result);
+				}
+			});
+			return result;
+
+		}
+
+	}
+
+
+}
@@ -0,0 +1,294 @@
+/*
+ * 10/19/2026
+ *
+ * BoundedUndoManager.java - An undo manager with a memory budget.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.UndoableEditEvent;
+import javax.swing.undo.UndoableEdit;
+
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.RUndoManager;
+
+
+/**
+ * An undo manager that limits the memory used by undo history.  Each edit's
+ * size is estimated from the amount of text it inserted or removed.  When a
+ * document's undo history exceeds its budget, or the undo history of all
+ * documents exceeds a global budget, the oldest edits are discarded.<p>
+ *
+ * Swing documents keep the text of an edit in private undo records, so old
+ * edits cannot be compressed or written to disk; they can only be dropped.
+ * The most recent edit is always kept, so a single huge edit (e.g. "Replace
+ * All" in a large file) can still be undone.<p>
+ *
+ * This class should only be used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class BoundedUndoManager extends RUndoManager {
+
+	/**
+	 * The estimated size of each top-level edit, in bytes.
+	 */
+	private Map<UndoableEdit, EditSize> sizes;
+
+	/**
+	 * The estimated size of all of this manager's edits, in bytes.
+	 */
+	private long size;
+
+	/**
+	 * Live undo managers, used to enforce the global budget.
+	 */
+	private static Map<BoundedUndoManager, Boolean> managers =
+			new WeakHashMap<BoundedUndoManager, Boolean>();
+
+	/**
+	 * An upper bound on the size of all undo managers' edits.  This is
+	 * recomputed when it goes over the global budget, since managers of
+	 * closed documents are simply garbage collected.
+	 */
+	private static long globalSize;
+
+	private static long documentBudget = 32 * 1024 * 1024;
+	private static long globalBudget = 256 * 1024 * 1024;
+	private static long nextSequence;
+
+	/**
+	 * Rough per-edit overhead (event, element changes, etc.), in bytes.
+	 */
+	private static final int EDIT_OVERHEAD		= 128;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area whose edits we're managing.
+	 */
+	public BoundedUndoManager(RTextArea textArea) {
+		super(textArea);
+		sizes = new IdentityHashMap<UndoableEdit, EditSize>();
+		managers.put(this, Boolean.TRUE);
+	}
+
+
+	/**
+	 * Overridden to reset our memory accounting.
+	 */
+	@Override
+	public synchronized void discardAllEdits() {
+		super.discardAllEdits();
+		if (sizes!=null) { // Can be called from our super constructor
+			globalSize -= size;
+			size = 0;
+			sizes.clear();
+		}
+	}
+
+
+	/**
+	 * Discards this manager's oldest edit.
+	 */
+	private void dropOldestEdit() {
+		trimEdits(0, 0);
+	}
+
+
+	/**
+	 * Discards edits until this document, and all documents together, are
+	 * within their budgets.
+	 */
+	private void enforceBudgets() {
+
+		while (size>documentBudget && getOldestDroppableEdit()!=null) {
+			dropOldestEdit();
+		}
+
+		if (globalSize>globalBudget) {
+			globalSize = 0;
+			for (BoundedUndoManager manager : managers.keySet()) {
+				globalSize += manager.size;
+			}
+			while (globalSize>globalBudget) {
+				BoundedUndoManager oldest = null;
+				long oldestSequence = Long.MAX_VALUE;
+				for (BoundedUndoManager manager : managers.keySet()) {
+					UndoableEdit edit = manager.getOldestDroppableEdit();
+					if (edit!=null) {
+						EditSize editSize = manager.sizes.get(edit);
+						long sequence = editSize!=null ? editSize.sequence : -1;
+						if (sequence<oldestSequence) {
+							oldest = manager;
+							oldestSequence = sequence;
+						}
+					}
+				}
+				if (oldest==null) {
+					break;
+				}
+				oldest.dropOldestEdit();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Returns an estimate of the memory used by an edit.
+	 *
+	 * @param edit The edit.
+	 * @return The estimated size of the edit, in bytes.
+	 */
+	private static long estimateSize(UndoableEdit edit) {
+		long size = EDIT_OVERHEAD;
+		if (edit instanceof DocumentEvent) {
+			// Inserted text is saved when an insert is undone, removed text
+			// is saved right away.  Either way, 2 bytes per char.
+			size += 2L * ((DocumentEvent)edit).getLength();
+		}
+		return size;
+	}
+
+
+	/**
+	 * Returns the oldest edit, if it can be discarded.  We only discard
+	 * edits older than the next edit to be undone, so the order of undo and
+	 * redo is never broken, and we always keep at least one undoable edit.
+	 *
+	 * @return The oldest edit, or <code>null</code> if it can't be
+	 *         discarded.
+	 */
+	private UndoableEdit getOldestDroppableEdit() {
+		if (edits.size()<2) {
+			return null;
+		}
+		UndoableEdit toBeUndone = editToBeUndone();
+		if (toBeUndone==null || edits.indexOf(toBeUndone)<1) {
+			return null;
+		}
+		return edits.get(0);
+	}
+
+
+	/**
+	 * Returns the budget for undo history for each document.
+	 *
+	 * @return The budget, in bytes.
+	 * @see #setDocumentBudget(long)
+	 */
+	public static long getDocumentBudget() {
+		return documentBudget;
+	}
+
+
+	/**
+	 * Returns the budget for undo history for all documents.
+	 *
+	 * @return The budget, in bytes.
+	 * @see #setGlobalBudget(long)
+	 */
+	public static long getGlobalBudget() {
+		return globalBudget;
+	}
+
+
+	/**
+	 * Sets the budget for undo history for each document.  This takes effect
+	 * on each document's next edit.
+	 *
+	 * @param budget The budget, in bytes.
+	 * @see #getDocumentBudget()
+	 */
+	public static void setDocumentBudget(long budget) {
+		documentBudget = budget;
+	}
+
+
+	/**
+	 * Sets the budget for undo history for all documents.  This takes effect
+	 * on the next edit in any document.
+	 *
+	 * @param budget The budget, in bytes.
+	 * @see #getGlobalBudget()
+	 */
+	public static void setGlobalBudget(long budget) {
+		globalBudget = budget;
+	}
+
+
+	/**
+	 * Overridden to stop tracking the sizes of discarded edits.
+	 *
+	 * @param from The index of the first edit to discard.
+	 * @param to The index of the last edit to discard, inclusive.
+	 */
+	@Override
+	protected void trimEdits(int from, int to) {
+		for (int i=from; i<=to && i<edits.size(); i++) {
+			EditSize editSize = sizes.remove(edits.get(i));
+			if (editSize!=null) {
+				size -= editSize.bytes;
+				globalSize -= editSize.bytes;
+			}
+		}
+		super.trimEdits(from, to);
+	}
+
+
+	/**
+	 * Overridden to track the size of each edit, and discard old edits
+	 * when over budget.
+	 *
+	 * @param e The edit event.
+	 */
+	@Override
+	public void undoableEditHappened(UndoableEditEvent e) {
+
+		long bytes = estimateSize(e.getEdit());
+		super.undoableEditHappened(e);
+
+		// RUndoManager groups edits into compound edits; account for this
+		// one in the top-level edit it was added to.
+		UndoableEdit top = lastEdit();
+		if (top!=null) {
+			EditSize editSize = sizes.get(top);
+			if (editSize==null) {
+				editSize = new EditSize(nextSequence++);
+				sizes.put(top, editSize);
+			}
+			editSize.bytes += bytes;
+			size += bytes;
+			globalSize += bytes;
+			enforceBudgets();
+		}
+
+	}
+
+
+	/**
+	 * The estimated size of a top-level edit.
+	 */
+	private static class EditSize {
+
+		private long sequence;
+		private long bytes;
+
+		public EditSize(long sequence) {
+			this.sequence = sequence;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,368 @@
+/*
+ * 10/19/2026
+ *
+ * CharsetDetector.java - Guesses the encoding of a file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Guesses the encoding of a file by looking at a bounded prefix of it.  In
+ * order, this checks for:
+ *
+ * <ol>
+ *    <li>A Unicode BOM.
+ *    <li>The <code>NUL</code> byte pattern of BOM-less UTF-16 text.
+ *    <li>Plain ASCII, which is decoded identically by the default encoding.
+ *    <li>Valid UTF-8 containing multi-byte sequences.
+ *    <li>Otherwise, an 8-bit encoding.  If the default encoding is UTF-8
+ *        (which can't decode such a file), <code>windows-1252</code> or
+ *        <code>ISO-8859-1</code> is used instead.
+ * </ol>
+ *
+ * The same prefix is used to decide whether a file is binary rather than
+ * text; see {@link #isBinary(File)}.<p>
+ *
+ * Results are cached by file path, size and modification time, so opening a
+ * file, searching it and replacing in it all only sniff it once.<p>
+ *
+ * This class is thread safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class CharsetDetector {
+
+	/**
+	 * The number of bytes examined at the start of each file.
+	 */
+	private static final int PREFIX_SIZE		= 64*1024;
+
+	/**
+	 * The maximum number of cached verdicts.
+	 */
+	private static final int CACHE_SIZE		= 512;
+
+	/**
+	 * The fraction of control characters (other than whitespace) above
+	 * which a file is considered binary.
+	 */
+	private static final float MAX_CONTROL_RATIO	= 0.1f;
+
+	private static final String UTF_8			= "UTF-8";
+
+	private static final Map<String, Verdict> cache =
+		new LinkedHashMap<String, Verdict>(CACHE_SIZE, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Verdict> e) {
+				return size()>CACHE_SIZE;
+			}
+		};
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private CharsetDetector() {
+	}
+
+
+	/**
+	 * Guesses the encoding of the specified bytes.
+	 *
+	 * @param b The bytes, usually the start of a file.
+	 * @param len The number of valid bytes in <code>b</code>.
+	 * @param atEof Whether <code>b</code> contains the entire file (so a
+	 *        multi-byte sequence cut off at the end is an error).
+	 * @param defaultEncoding The encoding to use if nothing better can be
+	 *        determined.
+	 * @return The encoding.
+	 */
+	static String detect(byte[] b, int len, boolean atEof,
+						String defaultEncoding) {
+
+		String bomEncoding = getBomEncoding(b, len);
+		if (bomEncoding!=null) {
+			return bomEncoding;
+		}
+
+		String utf16 = guessUtf16(b, len);
+		if (utf16!=null) {
+			return utf16;
+		}
+
+		boolean sawMultiByte = false;
+		boolean sawC1 = false; // 0x80-0x9f, only printable in windows-1252
+		boolean validUtf8 = true;
+
+		for (int i=0; i<len; ) {
+			int ch = b[i] & 0xff;
+			if (ch<0x80) {
+				i++;
+				continue;
+			}
+			if (ch<0xa0) {
+				sawC1 = true;
+			}
+			if (validUtf8) {
+				int trailing = ch>=0xc2 && ch<=0xdf ? 1 :
+						(ch>=0xe0 && ch<=0xef ? 2 :
+						(ch>=0xf0 && ch<=0xf4 ? 3 : -1));
+				if (trailing==-1) {
+					validUtf8 = false;
+				}
+				else if (i+trailing>=len) {
+					// Sequence cut off by the end of our prefix.
+					validUtf8 = !atEof;
+					break;
+				}
+				else {
+					for (int j=1; j<=trailing; j++) {
+						if ((b[i+j]&0xc0)!=0x80) {
+							validUtf8 = false;
+							break;
+						}
+					}
+					if (validUtf8) {
+						sawMultiByte = true;
+						i += trailing + 1;
+						continue;
+					}
+				}
+			}
+			i++;
+		}
+
+		if (!sawMultiByte && validUtf8) {
+			return defaultEncoding; // Plain ASCII
+		}
+		if (validUtf8) {
+			return UTF_8;
+		}
+		if (UTF_8.equalsIgnoreCase(defaultEncoding) ||
+				"UTF8".equalsIgnoreCase(defaultEncoding)) {
+			return sawC1 ? "windows-1252" : "ISO-8859-1";
+		}
+		return defaultEncoding;
+
+	}
+
+
+	/**
+	 * Guesses the encoding of a file.
+	 *
+	 * @param file The file.
+	 * @param defaultEncoding The encoding to use if nothing better can be
+	 *        determined.  If this is <code>null</code>, the system default
+	 *        encoding is used.
+	 * @return The encoding.  This will never be <code>null</code>.
+	 * @throws IOException If an I/O error occurs reading the file.
+	 */
+	public static String detect(File file, String defaultEncoding)
+								throws IOException {
+		if (defaultEncoding==null) {
+			defaultEncoding = Charset.defaultCharset().name();
+		}
+		return getVerdict(file, defaultEncoding, true).encoding;
+	}
+
+
+	/**
+	 * Returns the encoding specified by a Unicode BOM, if any.
+	 *
+	 * @param b The bytes.
+	 * @param len The number of valid bytes.
+	 * @return The encoding, or <code>null</code> if there is no BOM.
+	 */
+	private static String getBomEncoding(byte[] b, int len) {
+		if (len>=4 && b[0]==0 && b[1]==0 &&
+				(b[2]&0xff)==0xfe && (b[3]&0xff)==0xff) {
+			return "UTF-32BE";
+		}
+		if (len>=4 && (b[0]&0xff)==0xff && (b[1]&0xff)==0xfe &&
+				b[2]==0 && b[3]==0) {
+			return "UTF-32LE";
+		}
+		if (len>=3 && (b[0]&0xff)==0xef && (b[1]&0xff)==0xbb &&
+				(b[2]&0xff)==0xbf) {
+			return UTF_8;
+		}
+		if (len>=2 && (b[0]&0xff)==0xfe && (b[1]&0xff)==0xff) {
+			return "UTF-16BE";
+		}
+		if (len>=2 && (b[0]&0xff)==0xff && (b[1]&0xff)==0xfe) {
+			return "UTF-16LE";
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns the cached verdict for a file, sniffing it if there is no
+	 * up to date one.
+	 *
+	 * @param file The file.
+	 * @param defaultEncoding The encoding to use if nothing better can be
+	 *        determined.
+	 * @param encodingNeeded Whether the returned verdict's encoding must
+	 *        have been computed for <code>defaultEncoding</code>.  If this is
+	 *        <code>false</code>, only the verdict's binary flag is needed.
+	 * @return The verdict.
+	 * @throws IOException If an I/O error occurs reading the file.
+	 */
+	private static Verdict getVerdict(File file, String defaultEncoding,
+						boolean encodingNeeded) throws IOException {
+
+		String key = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+
+		synchronized (cache) {
+			Verdict v = cache.get(key);
+			if (v!=null && v.lastModified==lastModified && v.length==length &&
+					(!encodingNeeded ||
+						v.defaultEncoding.equals(defaultEncoding))) {
+				return v;
+			}
+		}
+
+		byte[] b = new byte[(int)Math.min(PREFIX_SIZE, length)];
+		int len = 0;
+		InputStream in = new FileInputStream(file);
+		try {
+			int count = 0;
+			while (len<b.length && (count=in.read(b, len, b.length-len))>-1) {
+				len += count;
+			}
+		} finally {
+			in.close();
+		}
+
+		Verdict v = new Verdict();
+		v.lastModified = lastModified;
+		v.length = length;
+		v.defaultEncoding = defaultEncoding;
+		v.encoding = detect(b, len, len>=length, defaultEncoding);
+		v.binary = isBinary(b, len);
+		synchronized (cache) {
+			cache.put(key, v);
+		}
+		return v;
+
+	}
+
+
+	/**
+	 * Checks for BOM-less UTF-16.  Text that is mostly ASCII has a
+	 * <code>NUL</code> byte in every other position when encoded in UTF-16.
+	 *
+	 * @param b The bytes.
+	 * @param len The number of valid bytes.
+	 * @return <code>UTF-16BE</code>, <code>UTF-16LE</code>, or
+	 *         <code>null</code> if the bytes don't look like UTF-16.
+	 */
+	private static String guessUtf16(byte[] b, int len) {
+		len = Math.min(len, 4096) & ~1;
+		if (len<4) {
+			return null;
+		}
+		int evenNuls = 0;
+		int oddNuls = 0;
+		for (int i=0; i<len; i+=2) {
+			if (b[i]==0) {
+				evenNuls++;
+			}
+			if (b[i+1]==0) {
+				oddNuls++;
+			}
+		}
+		int pairs = len / 2;
+		if (evenNuls>pairs*0.7 && oddNuls<pairs*0.1) {
+			return "UTF-16BE";
+		}
+		if (oddNuls>pairs*0.7 && evenNuls<pairs*0.1) {
+			return "UTF-16LE";
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns whether the specified bytes look like binary data rather than
+	 * text.  Bytes with a BOM, or that look like UTF-16, are text.  Otherwise,
+	 * any <code>NUL</code> byte, or more than 10% control characters other
+	 * than whitespace, means binary.  Bytes above <code>0x7f</code> are not
+	 * considered, since they're valid in 8-bit encodings.
+	 *
+	 * @param b The bytes, usually the start of a file.
+	 * @param len The number of valid bytes in <code>b</code>.
+	 * @return Whether the bytes are binary.
+	 */
+	static boolean isBinary(byte[] b, int len) {
+
+		if (getBomEncoding(b, len)!=null || guessUtf16(b, len)!=null) {
+			return false;
+		}
+
+		int controlCount = 0;
+		for (int i=0; i<len; i++) {
+			switch (b[i]) {
+				case 0:
+					return true;
+				case '\t':
+				case '\n':
+				case '\f':
+				case '\r':
+				case 0x1b: // Escape, for ANSI color codes in logs
+					break;
+				default:
+					if ((b[i]>0 && b[i]<0x20) || b[i]==0x7f) {
+						controlCount++;
+					}
+					break;
+			}
+		}
+		return controlCount>len*MAX_CONTROL_RATIO;
+
+	}
+
+
+	/**
+	 * Returns whether a file looks like binary data rather than text, based
+	 * on a prefix of it.
+	 *
+	 * @param file The file.
+	 * @return Whether the file is binary.
+	 * @throws IOException If an I/O error occurs reading the file.
+	 * @see #isBinary(byte[], int)
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		return getVerdict(file, Charset.defaultCharset().name(), false).binary;
+	}
+
+
+	/**
+	 * A cached guess for a file.
+	 */
+	private static class Verdict {
+		private long lastModified;
+		private long length;
+		private String defaultEncoding;
+		private String encoding;
+		private boolean binary;
+	}
+
+
+}
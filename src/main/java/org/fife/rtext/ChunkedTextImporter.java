@@ -0,0 +1,290 @@
+/*
+ * 10/19/2026
+ *
+ * ChunkedTextImporter.java - Pastes very large text in chunks.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.swing.JOptionPane;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+
+/**
+ * Inserts very large text, such as a 50 MB clipboard, into a text area
+ * without blocking the UI.<p>
+ *
+ * The text is read on a background thread in chunks, and the chunks are
+ * inserted on the EDT a few at a time, so the UI stays responsive and only a
+ * few chunks are ever held in memory in addition to the document itself.
+ * Line terminators are normalized to <code>\n</code>, as Swing does for
+ * regular pastes.  The whole import is a single undoable edit, and the text
+ * area is read-only until it completes, or is canceled because the text
+ * area was closed.<p>
+ *
+ * Instances of this class should be created and started on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see RTextEditorPane
+ */
+class ChunkedTextImporter implements Runnable {
+
+	/**
+	 * The number of characters at which pasted text is imported in chunks.
+	 * Smaller text is simply inserted.
+	 */
+	static final int THRESHOLD				= 1024*1024;
+
+	/**
+	 * The size of each chunk, in characters.
+	 */
+	private static final int CHUNK_SIZE		= 64*1024;
+
+	/**
+	 * The maximum number of chunks read but not yet inserted.
+	 */
+	private static final int MAX_QUEUED		= 16;
+
+	/**
+	 * The longest we insert chunks on the EDT before letting other events
+	 * through, in milliseconds.
+	 */
+	private static final int SLICE_TIME		= 50;
+
+	/**
+	 * How often queued chunks are inserted, in milliseconds.
+	 */
+	private static final int INSERT_DELAY	= 10;
+
+	/**
+	 * Queued after the last chunk.
+	 */
+	private static final String END			= new String();
+
+	private RText rtext;
+	private RTextEditorPane textArea;
+	private Reader r;
+	private String firstChunk;
+	private BlockingQueue<String> queue;
+	private int offset;
+	private long inserted;
+	private boolean wasEditable;
+	private boolean lastWasCR;
+	private Timer timer;
+	private boolean done;
+	private volatile boolean canceled;
+	private volatile IOException error;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rtext The parent application.
+	 * @param textArea The text area to insert into, at its caret position
+	 *        (replacing its selection, if any).
+	 * @param firstChunk Text already read from <code>r</code>.
+	 * @param r The source of the rest of the text.  This is closed when the
+	 *        import completes.
+	 */
+	public ChunkedTextImporter(RText rtext, RTextEditorPane textArea,
+								String firstChunk, Reader r) {
+		this.rtext = rtext;
+		this.textArea = textArea;
+		this.firstChunk = firstChunk;
+		this.r = r;
+		queue = new ArrayBlockingQueue<String>(MAX_QUEUED);
+	}
+
+
+	/**
+	 * Stops the import, keeping the text inserted so far.  This should be
+	 * called if the text area is closed before the import completes.  If
+	 * the import already completed, this method does nothing.
+	 */
+	public void cancel() {
+		if (!done) {
+			canceled = true;
+			stop();
+			queue.clear(); // So the reading thread isn't blocked, and stops
+		}
+	}
+
+
+	/**
+	 * Called on the EDT when all text has been inserted.
+	 */
+	private void finish() {
+
+		stop();
+		textArea.setCaretPosition(offset);
+
+		if (error!=null) {
+			JOptionPane.showMessageDialog(rtext,
+					rtext.getString("PasteError", error.getMessage()),
+					rtext.getString("ErrorDialogTitle"),
+					JOptionPane.ERROR_MESSAGE);
+		}
+
+	}
+
+
+	/**
+	 * Inserts queued chunks on the EDT for up to {@link #SLICE_TIME}
+	 * milliseconds.  This is called periodically by a timer, so other
+	 * events are processed in between.
+	 */
+	private void insertChunks() {
+
+		if (done) { // An event queued before we were canceled
+			return;
+		}
+
+		Document doc = textArea.getDocument();
+		long end = System.currentTimeMillis() + SLICE_TIME;
+
+		try {
+			while (System.currentTimeMillis()<end) {
+				String chunk = queue.poll();
+				if (chunk==null) {
+					break;
+				}
+				else if (chunk==END) {
+					finish();
+					return;
+				}
+				doc.insertString(offset, chunk, null);
+				offset += chunk.length();
+				inserted += chunk.length();
+			}
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+
+		rtext.setMessages(null, rtext.getString("PastingText",
+									Long.toString(inserted/1024)));
+
+	}
+
+
+	/**
+	 * Normalizes the line terminators in a chunk of text and queues it for
+	 * insertion, waiting if too many chunks are already queued.
+	 *
+	 * @param text The text.
+	 * @param count The number of characters in <code>text</code>.
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	private void queueChunk(CharSequence text, int count)
+								throws InterruptedException {
+		StringBuilder sb = new StringBuilder(count);
+		for (int i=0; i<count; i++) {
+			char ch = text.charAt(i);
+			if (ch=='\r') {
+				sb.append('\n');
+			}
+			else if (ch!='\n' || !lastWasCR) {
+				sb.append(ch);
+			}
+			lastWasCR = ch=='\r';
+		}
+		if (sb.length()>0) {
+			queue.put(sb.toString());
+		}
+	}
+
+
+	/**
+	 * Reads the text on a worker thread and queues it for insertion.
+	 */
+	public void run() {
+
+		char[] buf = new char[CHUNK_SIZE];
+		CharBuffer cb = CharBuffer.wrap(buf);
+
+		try {
+			try {
+				for (int i=0; i<firstChunk.length() && !canceled;
+						i+=CHUNK_SIZE) {
+					int end = Math.min(i+CHUNK_SIZE, firstChunk.length());
+					queueChunk(firstChunk.substring(i, end), end-i);
+				}
+				firstChunk = null;
+				int count = 0;
+				while (!canceled && (count=r.read(buf))>-1) {
+					queueChunk(cb, count);
+				}
+			} finally {
+				r.close();
+			}
+		} catch (IOException ioe) {
+			// Keep what we've inserted so far; it can be undone.
+			error = ioe;
+		} catch (InterruptedException ie) { // Never happens
+			ie.printStackTrace();
+		} finally {
+			// Even if something unexpected went wrong, so the text area is
+			// made editable again.
+			try {
+				queue.put(END);
+			} catch (InterruptedException ie) { // Never happens
+				ie.printStackTrace();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Starts the import.  The selection is replaced immediately, and the text
+	 * is inserted over the next several moments.
+	 */
+	public void start() {
+
+		wasEditable = textArea.isEditable();
+		textArea.beginAtomicEdit();
+		textArea.replaceSelection(null);
+		offset = textArea.getCaretPosition();
+		// Keep the user from editing before we're done, since that would
+		// both move our insertion point and become part of our undoable edit.
+		textArea.setEditable(false);
+
+		Thread t = new Thread(this, "RText Paste");
+		t.setDaemon(true);
+		t.start();
+
+		timer = new Timer(INSERT_DELAY, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				insertChunks();
+			}
+		});
+		timer.start();
+
+	}
+
+
+	/**
+	 * Stops inserting chunks, and makes the text area editable again.
+	 */
+	private void stop() {
+		done = true;
+		timer.stop();
+		textArea.endAtomicEdit();
+		textArea.setEditable(wasEditable);
+		rtext.setMessages(null, rtext.getString("Ready"));
+	}
+
+
+}
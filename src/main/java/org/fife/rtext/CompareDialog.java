@@ -0,0 +1,566 @@
+/*
+ * 10/19/2026
+ *
+ * CompareDialog.java - Shows the differences between two documents.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSplitPane;
+import javax.swing.JToolBar;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Highlighter;
+import javax.swing.text.JTextComponent;
+
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rtextarea.RTextScrollPane;
+
+
+/**
+ * Shows two documents side by side, with the lines that differ between
+ * them highlighted.  The two sides scroll together, keeping matching lines
+ * aligned, and the user can step through the differences.<p>
+ *
+ * The text areas in this dialog share their documents with the editors
+ * being compared, so the comparison stays current as those editors are
+ * edited.  Differences are computed by {@link LineDiff} on a background
+ * thread, from snapshots of the two documents.  After an edit, only the
+ * region around the edited lines is diffed again.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class CompareDialog extends EscapableDialog {
+
+	/**
+	 * How long to wait after an edit before updating the differences, in
+	 * milliseconds.
+	 */
+	private static final int REDIFF_DELAY			= 500;
+
+	private static final Color CHANGED_COLOR		= new Color(255,235,190);
+	private static final Color MARKER_COLOR			= new Color(230,150,60);
+
+	private RText rtext;
+	private RTextEditorPane[] editors;
+	private RSyntaxTextArea[] textAreas;
+	private RTextScrollPane[] scrollPanes;
+	private JLabel countLabel;
+	private Listener listener;
+	private Timer timer;
+	private Highlighter.HighlightPainter painter;
+
+	/**
+	 * The lines the current differences were computed from, one per side.
+	 */
+	private LineDiff.Lines[] lines;
+
+	/**
+	 * The current differences.  See {@link LineDiff} for their format.
+	 */
+	private List<int[]> hunks;
+
+	/**
+	 * Identifies the latest diff started.  Results from older ones are
+	 * discarded.
+	 */
+	private volatile int diffId;
+
+	/**
+	 * Whether we're scrolling one side to match the other.
+	 */
+	private boolean syncing;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rtext The parent application.
+	 * @param left The editor to show on the left.
+	 * @param right The editor to show on the right.
+	 */
+	public CompareDialog(RText rtext, RTextEditorPane left,
+						RTextEditorPane right) {
+
+		super(rtext, rtext.getString("Compare.Title", left.getFileName(),
+										right.getFileName()), false);
+		this.rtext = rtext;
+		editors = new RTextEditorPane[] { left, right };
+		hunks = Collections.emptyList();
+		listener = new Listener();
+		painter = new DiffPainter();
+
+		for (int i=0; i<editors.length; i++) {
+			editors[i].rehydrate();
+			editors[i].addPropertyChangeListener("document", listener);
+			editors[i].getDocument().addDocumentListener(listener);
+		}
+
+		createUI();
+		timer = new Timer(REDIFF_DELAY, listener);
+		timer.setRepeats(false);
+		startDiff(true);
+
+		setSize(1000, 700);
+		setLocationRelativeTo(rtext);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+	}
+
+
+	private JButton createButton(String key, String command) {
+		JButton button = new JButton(rtext.getString(key));
+		button.setActionCommand(command);
+		button.addActionListener(listener);
+		button.setFocusable(false); // Keep focus in the text areas
+		return button;
+	}
+
+
+	/**
+	 * Creates one side of the comparison.
+	 *
+	 * @param side The side, <code>0</code> or <code>1</code>.
+	 * @return The panel for that side.
+	 */
+	private JPanel createSide(int side) {
+
+		RTextEditorPane editor = editors[side];
+		RSyntaxTextArea textArea = new RSyntaxTextArea();
+		textArea.setDocument(editor.getDocument());
+		textArea.setSyntaxEditingStyle(editor.getSyntaxEditingStyle());
+		textArea.setFont(editor.getFont());
+		textArea.setTabSize(editor.getTabSize());
+		// Editing is done in the editors themselves, so they own the undo
+		// history.
+		textArea.setEditable(false);
+		textArea.setHighlightCurrentLine(false);
+		textArea.setCodeFoldingEnabled(false);
+		textAreas[side] = textArea;
+
+		RTextScrollPane sp = new RTextScrollPane(textArea);
+		sp.getViewport().addChangeListener(listener);
+		scrollPanes[side] = sp;
+
+		JPanel panel = new JPanel(new BorderLayout());
+		JLabel label = new JLabel(editor.getFileFullPath());
+		label.setBorder(BorderFactory.createEmptyBorder(0,0,5,0));
+		panel.add(label, BorderLayout.NORTH);
+		panel.add(sp);
+		return panel;
+
+	}
+
+
+	/**
+	 * Creates the content of this dialog.
+	 */
+	private void createUI() {
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+		setContentPane(cp);
+
+		JToolBar toolbar = new JToolBar();
+		toolbar.setFloatable(false);
+		toolbar.add(createButton("Compare.Previous", "Previous"));
+		toolbar.add(createButton("Compare.Next", "Next"));
+		toolbar.addSeparator();
+		countLabel = new JLabel();
+		toolbar.add(countLabel);
+		cp.add(toolbar, BorderLayout.NORTH);
+
+		textAreas = new RSyntaxTextArea[2];
+		scrollPanes = new RTextScrollPane[2];
+		JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+									createSide(0), createSide(1));
+		splitPane.setResizeWeight(0.5);
+		cp.add(splitPane);
+
+	}
+
+
+	/**
+	 * Overridden to stop listening to the editors being compared.
+	 */
+	@Override
+	public void dispose() {
+		timer.stop();
+		diffId++; // Discard any diff in progress
+		for (int i=0; i<editors.length; i++) {
+			editors[i].removePropertyChangeListener("document", listener);
+			editors[i].getDocument().removeDocumentListener(listener);
+			// Detach from the editor's document.
+			textAreas[i].setDocument(new RSyntaxDocument(
+									SyntaxConstants.SYNTAX_STYLE_NONE));
+		}
+		super.dispose();
+	}
+
+
+	/**
+	 * Returns the side the user is working in.
+	 *
+	 * @return The side, <code>0</code> or <code>1</code>.
+	 */
+	private int getFocusedSide() {
+		return textAreas[1].isFocusOwner() ? 1 : 0;
+	}
+
+
+	/**
+	 * Returns the line in one side that corresponds to a line in the other.
+	 *
+	 * @param line The line.
+	 * @param side The side <code>line</code> is in.
+	 * @return The corresponding line in the other side.
+	 */
+	private int mapLine(int line, int side) {
+
+		int other = 1 - side;
+
+		// Find the last hunk starting at or before the line.
+		int low = 0;
+		int high = hunks.size() - 1;
+		while (low<=high) {
+			int mid = (low+high) >>> 1;
+			if (hunks.get(mid)[2*side]<=line) {
+				low = mid + 1;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		if (high<0) {
+			return line;
+		}
+
+		int[] hunk = hunks.get(high);
+		int offset = line - hunk[2*side];
+		if (line<hunk[2*side+1]) { // Inside the hunk
+			int otherLen = hunk[2*other+1] - hunk[2*other];
+			return hunk[2*other] + Math.min(offset, Math.max(0, otherLen-1));
+		}
+		return hunk[2*other+1] + line - hunk[2*side+1];
+
+	}
+
+
+	/**
+	 * Moves to the next or previous difference, relative to the caret in
+	 * the side the user is working in.
+	 *
+	 * @param forward Whether to move to the next difference.
+	 */
+	private void navigate(boolean forward) {
+
+		int side = getFocusedSide();
+		RSyntaxTextArea textArea = textAreas[side];
+		int line = textArea.getCaretLineNumber();
+
+		int index = -1;
+		if (forward) {
+			for (int i=0; i<hunks.size(); i++) {
+				if (hunks.get(i)[2*side]>line) {
+					index = i;
+					break;
+				}
+			}
+		}
+		else {
+			for (int i=hunks.size()-1; i>=0; i--) {
+				if (hunks.get(i)[2*side]<line) {
+					index = i;
+					break;
+				}
+			}
+		}
+
+		if (index==-1) {
+			UIManager.getLookAndFeel().provideErrorFeedback(textArea);
+			return;
+		}
+
+		int[] hunk = hunks.get(index);
+		syncing = true;
+		try {
+			for (int i=0; i<textAreas.length; i++) {
+				RSyntaxTextArea ta = textAreas[i];
+				Element root = ta.getDocument().getDefaultRootElement();
+				int l = Math.min(hunk[2*i], root.getElementCount()-1);
+				ta.setCaretPosition(root.getElement(l).getStartOffset());
+				// Show the difference a little below the top of the view.
+				JViewport viewport = scrollPanes[i].getViewport();
+				int y = Math.max(0, (l-3)*ta.getLineHeight());
+				y = Math.min(y, Math.max(0,
+						ta.getHeight()-viewport.getExtentSize().height));
+				viewport.setViewPosition(
+						new Point(viewport.getViewPosition().x, y));
+			}
+		} finally {
+			syncing = false;
+		}
+		textArea.requestFocusInWindow();
+
+	}
+
+
+	/**
+	 * Refreshes the highlights and difference count for the current
+	 * differences.
+	 */
+	private void refreshHighlights() {
+
+		for (int i=0; i<textAreas.length; i++) {
+
+			RSyntaxTextArea textArea = textAreas[i];
+			Highlighter h = textArea.getHighlighter();
+			h.removeAllHighlights();
+			Element root = textArea.getDocument().getDefaultRootElement();
+			int lineCount = root.getElementCount();
+			int length = textArea.getDocument().getLength();
+
+			for (int[] hunk : hunks) {
+				int start = hunk[2*i];
+				int end = hunk[2*i+1];
+				int p0 = start<lineCount ?
+						root.getElement(start).getStartOffset() : length;
+				int p1 = p0;
+				if (end>start) {
+					// Up to the last char (i.e. newline) of the last line.
+					int last = Math.min(end, lineCount) - 1;
+					p1 = Math.max(p0, root.getElement(last).getEndOffset()-1);
+				}
+				try {
+					h.addHighlight(p0, p1, painter);
+				} catch (BadLocationException ble) { // Never happens
+					ble.printStackTrace();
+				}
+			}
+
+		}
+
+		countLabel.setText(rtext.getString("Compare.Differences",
+									Integer.toString(hunks.size())));
+
+	}
+
+
+	/**
+	 * Computes the differences between the two documents on a background
+	 * thread.
+	 *
+	 * @param full Whether to diff the documents in full, as opposed to only
+	 *        the regions that changed since the last diff.
+	 */
+	private void startDiff(boolean full) {
+
+		final DocumentSnapshot a = editors[0].getSnapshot();
+		final DocumentSnapshot b = editors[1].getSnapshot();
+		final LineDiff.Lines[] oldLines = full ? null : lines;
+		final List<int[]> oldHunks = hunks;
+		final int id = ++diffId;
+		if (full) {
+			countLabel.setText(rtext.getString("Compare.Comparing"));
+		}
+
+		Thread t = new Thread("RTextCompare") {
+			@Override
+			public void run() {
+				final LineDiff.Lines[] newLines = new LineDiff.Lines[] {
+						new LineDiff.Lines(a), new LineDiff.Lines(b) };
+				final List<int[]> newHunks = oldLines==null ?
+						LineDiff.diff(newLines[0], newLines[1]) :
+						LineDiff.rediff(oldLines[0], oldLines[1], oldHunks,
+										newLines[0], newLines[1]);
+				if (id!=diffId) {
+					return;
+				}
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if (id==diffId) {
+							lines = newLines;
+							hunks = newHunks;
+							refreshHighlights();
+						}
+					}
+				});
+			}
+		};
+		t.setDaemon(true);
+		t.setPriority(Thread.MIN_PRIORITY);
+		t.start();
+
+	}
+
+
+	/**
+	 * Scrolls one side to keep it aligned with the other.
+	 *
+	 * @param side The side that was scrolled.
+	 */
+	private void syncScroll(int side) {
+
+		RSyntaxTextArea textArea = textAreas[side];
+		RSyntaxTextArea otherArea = textAreas[1-side];
+		JViewport viewport = scrollPanes[side].getViewport();
+		JViewport otherViewport = scrollPanes[1-side].getViewport();
+
+		// Neither side wraps lines or folds, so lines are evenly spaced.
+		Point pos = viewport.getViewPosition();
+		int lineHeight = textArea.getLineHeight();
+		int line = pos.y / lineHeight;
+		int otherHeight = otherArea.getLineHeight();
+		int y = mapLine(line, side)*otherHeight +
+				(pos.y%lineHeight)*otherHeight/lineHeight;
+		int maxY = otherArea.getHeight() -
+				otherViewport.getExtentSize().height;
+		y = Math.max(0, Math.min(y, maxY));
+
+		Point otherPos = otherViewport.getViewPosition();
+		if (otherPos.x!=pos.x || otherPos.y!=y) {
+			syncing = true;
+			try {
+				otherViewport.setViewPosition(new Point(pos.x, y));
+			} finally {
+				syncing = false;
+			}
+		}
+
+	}
+
+
+	/**
+	 * Highlights differences by filling the full width of the lines
+	 * involved.  Where one side has no lines for a difference, a marker is
+	 * drawn between lines instead.
+	 */
+	private static class DiffPainter implements Highlighter.HighlightPainter {
+
+		public void paint(Graphics g, int p0, int p1, Shape bounds,
+							JTextComponent c) {
+			Rectangle alloc = bounds.getBounds();
+			try {
+				Rectangle r0 = c.modelToView(p0);
+				if (r0==null) {
+					return;
+				}
+				if (p0==p1) {
+					g.setColor(MARKER_COLOR);
+					g.fillRect(alloc.x, r0.y-1, alloc.width, 2);
+					return;
+				}
+				Rectangle r1 = c.modelToView(p1);
+				if (r1!=null) {
+					g.setColor(CHANGED_COLOR);
+					g.fillRect(alloc.x, r0.y, alloc.width,
+								r1.y+r1.height-r0.y);
+				}
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Listens for events in this dialog and the editors being compared.
+	 */
+	private class Listener implements ActionListener, ChangeListener,
+							DocumentListener, PropertyChangeListener {
+
+		public void actionPerformed(ActionEvent e) {
+			Object source = e.getSource();
+			if (source==timer) {
+				startDiff(false);
+			}
+			else if ("Next".equals(e.getActionCommand())) {
+				navigate(true);
+			}
+			else if ("Previous".equals(e.getActionCommand())) {
+				navigate(false);
+			}
+		}
+
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		public void insertUpdate(DocumentEvent e) {
+			timer.restart();
+		}
+
+		public void propertyChange(PropertyChangeEvent e) {
+			// An editor's document was replaced, e.g. it was reloaded or
+			// compacted.
+			final RTextEditorPane editor = (RTextEditorPane)e.getSource();
+			int side = editor==editors[0] ? 0 : 1;
+			((Document)e.getOldValue()).removeDocumentListener(this);
+			if (editor.isCompacted()) {
+				// Keep showing the old document until it's rehydrated.
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if (isDisplayable()) {
+							editor.rehydrate();
+						}
+					}
+				});
+				return;
+			}
+			editor.getDocument().addDocumentListener(this);
+			textAreas[side].setDocument(editor.getDocument());
+			textAreas[side].setSyntaxEditingStyle(
+									editor.getSyntaxEditingStyle());
+			timer.stop();
+			startDiff(true);
+		}
+
+		public void removeUpdate(DocumentEvent e) {
+			timer.restart();
+		}
+
+		public void stateChanged(ChangeEvent e) {
+			if (!syncing) {
+				syncScroll(e.getSource()==scrollPanes[0].getViewport() ?
+										0 : 1);
+			}
+		}
+
+	}
+
+
+}
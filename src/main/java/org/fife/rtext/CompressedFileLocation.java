@@ -0,0 +1,407 @@
+/*
+ * 10/19/2026
+ *
+ * CompressedFileLocation.java - A gzipped file, or an entry in a zip file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Component;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.swing.ProgressMonitorInputStream;
+
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+
+
+/**
+ * The location of a local file that is decompressed when read: either a
+ * gzipped file (<code>*.gz</code>), or an entry in a zip file, whose path
+ * is the zip file's path followed by "<code>!/</code>" and the entry's
+ * name.  Content is streamed through the decompressor straight into the
+ * text area, so neither temporary files nor an in-memory copy of the
+ * decompressed content are created.  Since decompressing a large file
+ * takes a while, a progress monitor can be shown while the content is read
+ * on a background thread.<p>
+ *
+ * Gzipped files are re-compressed when saved.  Zip entries are read-only,
+ * since saving one would mean rewriting the entire archive.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class CompressedFileLocation extends FileLocation {
+
+	/**
+	 * Separates a zip file's path from the name of an entry in it.
+	 */
+	private static final String ENTRY_SEPARATOR	= "!/";
+
+	private static final int BUFFER_SIZE			= 64*1024;
+
+	/**
+	 * The amount of decompressed content examined to guess its encoding.
+	 */
+	private static final int PREFIX_SIZE			= 64*1024;
+
+	private File file;
+	private String entry;
+	private Component progressParent;
+	private String progressMessage;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file The compressed file.
+	 * @param entry The name of the entry in the zip file, or
+	 *        <code>null</code> if <code>file</code> is gzipped.
+	 */
+	private CompressedFileLocation(File file, String entry) {
+		this.file = file;
+		this.entry = entry;
+	}
+
+
+	/**
+	 * Returns a location for a file, if it is compressed.
+	 *
+	 * @param loc The file's location.
+	 * @return The location of the compressed file, or <code>null</code> if
+	 *         <code>loc</code> isn't a local gzipped file or zip entry.  If
+	 *         <code>loc</code> is already a compressed location, it is
+	 *         returned.
+	 * @see #isCompressed(FileLocation)
+	 */
+	public static CompressedFileLocation create(FileLocation loc) {
+		if (loc instanceof CompressedFileLocation) {
+			return (CompressedFileLocation)loc;
+		}
+		if (!loc.isLocal()) {
+			return null;
+		}
+		String path = loc.getFileFullPath();
+		int sep = path.indexOf(ENTRY_SEPARATOR);
+		if (sep>-1 && isZip(path.substring(0, sep))) {
+			return new CompressedFileLocation(new File(path.substring(0, sep)),
+								path.substring(sep+ENTRY_SEPARATOR.length()));
+		}
+		if (isGzip(path)) {
+			return new CompressedFileLocation(new File(path), null);
+		}
+		return null;
+	}
+
+
+	/**
+	 * Guesses the encoding of the decompressed content.  Only the start of
+	 * the content is decompressed to do so.
+	 *
+	 * @param defaultEncoding The encoding to use if nothing better can be
+	 *        determined.
+	 * @return The encoding.
+	 * @throws IOException If an I/O error occurs.
+	 * @see CharsetDetector
+	 */
+	public String detectEncoding(String defaultEncoding) throws IOException {
+		byte[] b = new byte[PREFIX_SIZE];
+		int len = 0;
+		InputStream in = getInputStream();
+		try {
+			int count = 0;
+			while (len<b.length && (count=in.read(b, len, b.length-len))>-1) {
+				len += count;
+			}
+		} finally {
+			in.close();
+		}
+		return CharsetDetector.detect(b, len, len<b.length, defaultEncoding);
+	}
+
+
+	@Override
+	protected long getActualLastModified() {
+		return file.lastModified();
+	}
+
+
+	/**
+	 * Returns the length of the decompressed content, without decompressing
+	 * it.  For gzipped files this is read from the end of the file, and is
+	 * only accurate for files smaller than 4 GB.
+	 *
+	 * @return The length, or <code>-1</code> if it isn't known.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public long getContentLength() throws IOException {
+
+		if (entry!=null) {
+			ZipFile zipFile = new ZipFile(file);
+			try {
+				ZipEntry ze = zipFile.getEntry(entry);
+				return ze!=null ? ze.getSize() : -1;
+			} finally {
+				zipFile.close();
+			}
+		}
+
+		// The last 4 bytes of a gzipped file are the uncompressed size,
+		// modulo 2^32, in little-endian order.
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			if (raf.length()<4) {
+				return -1;
+			}
+			raf.seek(raf.length()-4);
+			long length = 0;
+			for (int i=0; i<4; i++) {
+				length |= ((long)raf.read()) << (8*i);
+			}
+			return length;
+		} finally {
+			raf.close();
+		}
+
+	}
+
+
+	/**
+	 * Returns the name of the decompressed file, for example
+	 * "<code>server.log</code>" for "<code>server.log.gz</code>".  This is
+	 * used to determine its syntax style.
+	 *
+	 * @return The name.
+	 */
+	public String getContentName() {
+		String name = getFileName();
+		if (entry==null) {
+			name = name.substring(0, name.lastIndexOf('.'));
+		}
+		return name;
+	}
+
+
+	/**
+	 * Returns the locations of the files in a zip file.
+	 *
+	 * @param file The zip file.
+	 * @return The locations of its entries, other than directories.
+	 * @throws IOException If an I/O error occurs.
+	 * @see #getEntryName()
+	 */
+	public static List<CompressedFileLocation> getEntries(File file)
+												throws IOException {
+		List<CompressedFileLocation> locs =
+				new ArrayList<CompressedFileLocation>();
+		ZipFile zipFile = new ZipFile(file);
+		try {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry ze = entries.nextElement();
+				if (!ze.isDirectory()) {
+					locs.add(new CompressedFileLocation(file, ze.getName()));
+				}
+			}
+		} finally {
+			zipFile.close();
+		}
+		return locs;
+	}
+
+
+	/**
+	 * Returns the name of this location's entry in its zip file.
+	 *
+	 * @return The entry's name, or <code>null</code> if this is a gzipped
+	 *         file.
+	 */
+	public String getEntryName() {
+		return entry;
+	}
+
+
+	@Override
+	public String getFileFullPath() {
+		String path = file.getAbsolutePath();
+		return entry==null ? path : (path + ENTRY_SEPARATOR + entry);
+	}
+
+
+	@Override
+	public String getFileName() {
+		if (entry==null) {
+			return file.getName();
+		}
+		return entry.substring(entry.lastIndexOf('/')+1);
+	}
+
+
+	/**
+	 * Returns a stream over the decompressed content.
+	 *
+	 * @return The stream.
+	 * @throws IOException If an I/O error occurs, or this is a zip entry
+	 *         that doesn't exist.
+	 */
+	@Override
+	protected InputStream getInputStream() throws IOException {
+
+		if (entry==null) {
+			InputStream in = new FileInputStream(file);
+			boolean success = false;
+			try {
+				// Progress is measured in compressed bytes read, since the
+				// decompressed length isn't known up front.
+				if (progressParent!=null) {
+					in = new ProgressMonitorInputStream(progressParent,
+											progressMessage, in);
+				}
+				InputStream gzin = new GZIPInputStream(in, BUFFER_SIZE);
+				success = true;
+				return gzin;
+			} finally {
+				if (!success) {
+					in.close();
+				}
+			}
+		}
+
+		final ZipFile zipFile = new ZipFile(file);
+		boolean success = false;
+		try {
+			ZipEntry ze = zipFile.getEntry(entry);
+			if (ze==null) {
+				throw new FileNotFoundException(getFileFullPath());
+			}
+			// An entry's stream knows how much decompressed content remains,
+			// so its progress can be monitored directly.
+			InputStream in = zipFile.getInputStream(ze);
+			if (progressParent!=null) {
+				in = new ProgressMonitorInputStream(progressParent,
+											progressMessage, in);
+			}
+			in = new FilterInputStream(in) {
+				@Override
+				public void close() throws IOException {
+					zipFile.close(); // Closes the entry's stream too.
+				}
+			};
+			success = true;
+			return in;
+		} finally {
+			if (!success) {
+				zipFile.close();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Returns a stream that compresses its content into the file.
+	 *
+	 * @return The stream.
+	 * @throws IOException If this is a zip entry, or an I/O error occurs.
+	 */
+	@Override
+	protected OutputStream getOutputStream() throws IOException {
+		if (entry!=null) {
+			throw new IOException("Entries in zip files are read-only: " +
+								getFileFullPath());
+		}
+		return new GZIPOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+	}
+
+
+	/**
+	 * Returns whether a file is compressed, either gzipped, a zip file or
+	 * an entry in a zip file.
+	 *
+	 * @param loc The file's location.
+	 * @return Whether the file is compressed.
+	 */
+	public static boolean isCompressed(FileLocation loc) {
+		return create(loc)!=null ||
+				(loc.isLocal() && isZip(loc.getFileFullPath()));
+	}
+
+
+	/**
+	 * Returns whether a file is gzipped, judging by its name.
+	 *
+	 * @param path The file's path.
+	 * @return Whether the file is gzipped.
+	 */
+	public static boolean isGzip(String path) {
+		String lower = path.toLowerCase();
+		return lower.endsWith(".gz") && lower.length()>".gz".length();
+	}
+
+
+	@Override
+	public boolean isLocal() {
+		return true;
+	}
+
+
+	@Override
+	public boolean isLocalAndExists() {
+		return file.isFile();
+	}
+
+
+	/**
+	 * Returns whether this location can't be saved to.
+	 *
+	 * @return Whether this location is read-only.
+	 */
+	public boolean isReadOnly() {
+		return entry!=null || !file.canWrite();
+	}
+
+
+	/**
+	 * Returns whether a file is a zip file, judging by its name.
+	 *
+	 * @param path The file's path.
+	 * @return Whether the file is a zip file.
+	 */
+	public static boolean isZip(String path) {
+		return path.toLowerCase().endsWith(".zip");
+	}
+
+
+	/**
+	 * Sets whether a progress monitor is shown while the content is read.
+	 * The monitor lets the user cancel reading, in which case reading fails
+	 * with an <code>InterruptedIOException</code>.  This should only be
+	 * enabled while the content is read on a thread other than the EDT.
+	 *
+	 * @param parent The parent component of the progress monitor, or
+	 *        <code>null</code> for no progress monitor.
+	 * @param message The message to display in the progress monitor.
+	 */
+	public void setProgressMonitor(Component parent, String message) {
+		progressParent = parent;
+		progressMessage = message;
+	}
+
+
+}
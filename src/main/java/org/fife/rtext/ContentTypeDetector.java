@@ -0,0 +1,400 @@
+/*
+ * 10/19/2026
+ *
+ * ContentTypeDetector.java - Guesses the syntax style of a file from its
+ * content.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+
+
+/**
+ * Guesses the syntax style of a file from the first few KB of its content.
+ * This is used for files whose names don't identify their type, such as
+ * extension-less scripts.  Since only a bounded prefix is examined, this
+ * can be done before a file is loaded, so its editor is created with the
+ * right syntax style from the start.<p>
+ *
+ * Content is matched against a list of {@link Signature}s.  Signatures
+ * added via {@link #addSignature(Signature)} are checked first, followed
+ * by the built-in ones, which recognize:
+ *
+ * <ul>
+ *    <li>"<code>#!</code>" lines.
+ *    <li>Vim (<code>vim: ft=python</code>) and Emacs
+ *        (<code>-*- mode: python -*-</code>) modelines.
+ *    <li>XML and PHP prologs, and HTML doctypes.
+ *    <li>JSON.
+ * </ul>
+ *
+ * This class is thread safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class ContentTypeDetector {
+
+	/**
+	 * The maximum number of characters examined.
+	 */
+	public static final int PREFIX_SIZE			= 4096;
+
+	/**
+	 * The number of lines at the start (and end) of a file searched for
+	 * modelines.
+	 */
+	private static final int MODELINE_LINE_COUNT	= 5;
+
+	private static final List<Signature> signatures =
+									new CopyOnWriteArrayList<Signature>();
+
+	private static final Signature[] BUILT_IN_SIGNATURES = {
+		new ShebangSignature(),
+		new ModelineSignature(),
+		new MarkupSignature(),
+		new JsonSignature(),
+	};
+
+	/**
+	 * Maps program and mode names used in "<code>#!</code>" lines and
+	 * modelines to syntax styles.
+	 */
+	private static final Map<String, String> NAMED_STYLES;
+
+	static {
+		NAMED_STYLES = new HashMap<String, String>();
+		String[] shells = { "sh", "bash", "csh", "dash", "ksh", "tcsh", "zsh",
+							"shell-script" };
+		for (String shell : shells) {
+			NAMED_STYLES.put(shell, SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL);
+		}
+		NAMED_STYLES.put("bat", SyntaxConstants.SYNTAX_STYLE_WINDOWS_BATCH);
+		NAMED_STYLES.put("c", SyntaxConstants.SYNTAX_STYLE_C);
+		NAMED_STYLES.put("c++", SyntaxConstants.SYNTAX_STYLE_CPLUSPLUS);
+		NAMED_STYLES.put("clojure", SyntaxConstants.SYNTAX_STYLE_CLOJURE);
+		NAMED_STYLES.put("cpp", SyntaxConstants.SYNTAX_STYLE_CPLUSPLUS);
+		NAMED_STYLES.put("cperl", SyntaxConstants.SYNTAX_STYLE_PERL);
+		NAMED_STYLES.put("cs", SyntaxConstants.SYNTAX_STYLE_CSHARP);
+		NAMED_STYLES.put("csharp", SyntaxConstants.SYNTAX_STYLE_CSHARP);
+		NAMED_STYLES.put("css", SyntaxConstants.SYNTAX_STYLE_CSS);
+		NAMED_STYLES.put("dosbatch", SyntaxConstants.SYNTAX_STYLE_WINDOWS_BATCH);
+		NAMED_STYLES.put("dtd", SyntaxConstants.SYNTAX_STYLE_DTD);
+		NAMED_STYLES.put("fortran", SyntaxConstants.SYNTAX_STYLE_FORTRAN);
+		NAMED_STYLES.put("groovy", SyntaxConstants.SYNTAX_STYLE_GROOVY);
+		NAMED_STYLES.put("html", SyntaxConstants.SYNTAX_STYLE_HTML);
+		NAMED_STYLES.put("java", SyntaxConstants.SYNTAX_STYLE_JAVA);
+		NAMED_STYLES.put("javascript", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+		NAMED_STYLES.put("js", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+		NAMED_STYLES.put("json", SyntaxConstants.SYNTAX_STYLE_JSON);
+		NAMED_STYLES.put("jsp", SyntaxConstants.SYNTAX_STYLE_JSP);
+		NAMED_STYLES.put("latex", SyntaxConstants.SYNTAX_STYLE_LATEX);
+		NAMED_STYLES.put("lisp", SyntaxConstants.SYNTAX_STYLE_LISP);
+		NAMED_STYLES.put("lua", SyntaxConstants.SYNTAX_STYLE_LUA);
+		NAMED_STYLES.put("make", SyntaxConstants.SYNTAX_STYLE_MAKEFILE);
+		NAMED_STYLES.put("makefile", SyntaxConstants.SYNTAX_STYLE_MAKEFILE);
+		NAMED_STYLES.put("node", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+		NAMED_STYLES.put("nodejs", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+		NAMED_STYLES.put("nxml", SyntaxConstants.SYNTAX_STYLE_XML);
+		NAMED_STYLES.put("perl", SyntaxConstants.SYNTAX_STYLE_PERL);
+		NAMED_STYLES.put("php", SyntaxConstants.SYNTAX_STYLE_PHP);
+		NAMED_STYLES.put("properties", SyntaxConstants.SYNTAX_STYLE_PROPERTIES_FILE);
+		NAMED_STYLES.put("python", SyntaxConstants.SYNTAX_STYLE_PYTHON);
+		NAMED_STYLES.put("ruby", SyntaxConstants.SYNTAX_STYLE_RUBY);
+		NAMED_STYLES.put("scala", SyntaxConstants.SYNTAX_STYLE_SCALA);
+		NAMED_STYLES.put("sql", SyntaxConstants.SYNTAX_STYLE_SQL);
+		NAMED_STYLES.put("tcl", SyntaxConstants.SYNTAX_STYLE_TCL);
+		NAMED_STYLES.put("tclsh", SyntaxConstants.SYNTAX_STYLE_TCL);
+		NAMED_STYLES.put("tex", SyntaxConstants.SYNTAX_STYLE_LATEX);
+		NAMED_STYLES.put("typescript", SyntaxConstants.SYNTAX_STYLE_TYPESCRIPT);
+		NAMED_STYLES.put("vb", SyntaxConstants.SYNTAX_STYLE_VISUAL_BASIC);
+		NAMED_STYLES.put("wish", SyntaxConstants.SYNTAX_STYLE_TCL);
+		NAMED_STYLES.put("xml", SyntaxConstants.SYNTAX_STYLE_XML);
+	}
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private ContentTypeDetector() {
+	}
+
+
+	/**
+	 * Adds a signature.  Signatures added via this method are checked
+	 * before the built-in ones, in the order they were added.
+	 *
+	 * @param signature The signature to add.
+	 * @see #removeSignature(Signature)
+	 */
+	public static void addSignature(Signature signature) {
+		signatures.add(signature);
+	}
+
+
+	/**
+	 * Guesses the syntax style of a file by looking at the start of it.
+	 *
+	 * @param file The file.
+	 * @param encoding The encoding of the file.
+	 * @return The syntax style, or
+	 *         {@link SyntaxConstants#SYNTAX_STYLE_NONE} if it can't be
+	 *         determined.
+	 * @throws IOException If an I/O error occurs reading the file.
+	 */
+	public static String detect(File file, String encoding)
+								throws IOException {
+
+		// Enough bytes for PREFIX_SIZE chars, even in UTF-16.
+		byte[] b = new byte[(int)Math.min(PREFIX_SIZE*2, file.length())];
+		int len = 0;
+		InputStream in = new FileInputStream(file);
+		try {
+			int count = 0;
+			while (len<b.length && (count=in.read(b, len, b.length-len))>-1) {
+				len += count;
+			}
+		} finally {
+			in.close();
+		}
+
+		String prefix = new String(b, 0, len, encoding);
+		if (prefix.length()>0 && prefix.charAt(0)=='\uFEFF') {
+			prefix = prefix.substring(1); // Java doesn't strip UTF-8 BOM's
+		}
+		boolean complete = len==file.length();
+		if (prefix.length()>PREFIX_SIZE) {
+			prefix = prefix.substring(0, PREFIX_SIZE);
+			complete = false;
+		}
+		return detect(prefix, complete);
+
+	}
+
+
+	/**
+	 * Guesses the syntax style of text.
+	 *
+	 * @param prefix The start of the text.  This should be no longer than
+	 *        {@link #PREFIX_SIZE} characters.
+	 * @param complete Whether <code>prefix</code> contains all of the text.
+	 * @return The syntax style, or
+	 *         {@link SyntaxConstants#SYNTAX_STYLE_NONE} if it can't be
+	 *         determined.
+	 */
+	public static String detect(String prefix, boolean complete) {
+		for (Signature signature : signatures) {
+			String style = signature.getSyntaxStyle(prefix, complete);
+			if (style!=null) {
+				return style;
+			}
+		}
+		for (Signature signature : BUILT_IN_SIGNATURES) {
+			String style = signature.getSyntaxStyle(prefix, complete);
+			if (style!=null) {
+				return style;
+			}
+		}
+		return SyntaxConstants.SYNTAX_STYLE_NONE;
+	}
+
+
+	/**
+	 * Returns the syntax style for a program or mode name.
+	 *
+	 * @param name The name, e.g. "<code>python</code>".
+	 * @return The syntax style, or <code>null</code> if the name isn't
+	 *         recognized.
+	 */
+	private static String getStyleForName(String name) {
+		return NAMED_STYLES.get(name.toLowerCase());
+	}
+
+
+	/**
+	 * Removes a signature added via {@link #addSignature(Signature)}.
+	 *
+	 * @param signature The signature to remove.
+	 * @see #addSignature(Signature)
+	 */
+	public static void removeSignature(Signature signature) {
+		signatures.remove(signature);
+	}
+
+
+	/**
+	 * Identifies the syntax style of text from its content.
+	 */
+	public interface Signature {
+
+		/**
+		 * Returns the syntax style of text, if it is recognized.
+		 *
+		 * @param prefix The start of the text, at most
+		 *        {@link ContentTypeDetector#PREFIX_SIZE} characters.
+		 * @param complete Whether <code>prefix</code> contains all of the
+		 *        text.
+		 * @return The syntax style, or <code>null</code> if this signature
+		 *         doesn't recognize the text.
+		 */
+		String getSyntaxStyle(String prefix, boolean complete);
+
+	}
+
+
+	/**
+	 * Recognizes JSON objects and arrays.
+	 */
+	private static class JsonSignature implements Signature {
+
+		private static final Pattern PATTERN =
+			Pattern.compile("^\\s*(?:\\{\\s*[\"}]|\\[\\s*[\\[{\"\\]])");
+
+		public String getSyntaxStyle(String prefix, boolean complete) {
+			return PATTERN.matcher(prefix).find() ?
+					SyntaxConstants.SYNTAX_STYLE_JSON : null;
+		}
+
+	}
+
+
+	/**
+	 * Recognizes XML and PHP prologs, and HTML.
+	 */
+	private static class MarkupSignature implements Signature {
+
+		public String getSyntaxStyle(String prefix, boolean complete) {
+			String start = prefix.trim();
+			if (start.startsWith("<?xml")) {
+				return SyntaxConstants.SYNTAX_STYLE_XML;
+			}
+			if (start.startsWith("<?php")) {
+				return SyntaxConstants.SYNTAX_STYLE_PHP;
+			}
+			start = start.substring(0, Math.min(14, start.length())).
+														toLowerCase();
+			if (start.startsWith("<!doctype html") ||
+					start.startsWith("<html")) {
+				return SyntaxConstants.SYNTAX_STYLE_HTML;
+			}
+			return null;
+		}
+
+	}
+
+
+	/**
+	 * Recognizes Vim and Emacs modelines in the first and last few lines of
+	 * text.
+	 */
+	private static class ModelineSignature implements Signature {
+
+		private static final Pattern VIM_PATTERN = Pattern.compile(
+			"\\b(?:vi|vim|ex):.*?\\b(?:ft|filetype|syntax)=([\\w+-]+)");
+		private static final Pattern EMACS_PATTERN =
+			Pattern.compile("-\\*-(.*?)-\\*-");
+		private static final Pattern EMACS_MODE_PATTERN =
+			Pattern.compile("(?:^|;)\\s*mode\\s*:\\s*([\\w+-]+)");
+
+		private static String checkLine(String line) {
+
+			Matcher m = VIM_PATTERN.matcher(line);
+			if (m.find()) {
+				return getStyleForName(m.group(1));
+			}
+
+			m = EMACS_PATTERN.matcher(line);
+			if (m.find()) {
+				String vars = m.group(1).trim();
+				if (vars.indexOf(':')==-1) {
+					return getStyleForName(vars);
+				}
+				m = EMACS_MODE_PATTERN.matcher(vars);
+				if (m.find()) {
+					return getStyleForName(m.group(1));
+				}
+			}
+
+			return null;
+
+		}
+
+		public String getSyntaxStyle(String prefix, boolean complete) {
+
+			String[] lines = prefix.split("\r?\n|\r");
+			int count = Math.min(MODELINE_LINE_COUNT, lines.length);
+			for (int i=0; i<count; i++) {
+				String style = checkLine(lines[i]);
+				if (style!=null) {
+					return style;
+				}
+			}
+
+			// Vim also looks at the last few lines.
+			if (complete) {
+				for (int i=Math.max(count, lines.length-MODELINE_LINE_COUNT);
+						i<lines.length; i++) {
+					String style = checkLine(lines[i]);
+					if (style!=null) {
+						return style;
+					}
+				}
+			}
+
+			return null;
+
+		}
+
+	}
+
+
+	/**
+	 * Recognizes "<code>#!</code>" lines.
+	 */
+	private static class ShebangSignature implements Signature {
+
+		public String getSyntaxStyle(String prefix, boolean complete) {
+
+			if (!prefix.startsWith("#!")) {
+				return null;
+			}
+			int eol = prefix.indexOf('\n');
+			String line = (eol>-1 ? prefix.substring(2, eol) :
+									prefix.substring(2)).trim();
+			String[] words = line.split("\\s+");
+
+			// Take special care for "#!/usr/bin/env [-S] progname".
+			String program = words[0];
+			int index = 1;
+			while (program.endsWith("/env") && index<words.length) {
+				program = words[index++];
+				if (program.startsWith("-")) {
+					program = "/env";
+				}
+			}
+
+			program = program.substring(program.lastIndexOf('/')+1);
+			program = program.replaceFirst("[\\d.]+$", ""); // python3.11
+			return getStyleForName(program);
+
+		}
+
+	}
+
+
+}
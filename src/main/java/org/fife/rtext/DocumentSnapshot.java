@@ -0,0 +1,178 @@
+/*
+ * 10/19/2026
+ *
+ * DocumentSnapshot.java - An immutable copy of a text area's content.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * An immutable copy of the content of a text area, as of a given
+ * modification stamp.  Snapshots are obtained via
+ * {@link RTextEditorPane#getSnapshot()}, which only copies the document
+ * when it has changed since the last snapshot was taken, so any number of
+ * background readers (saving, journaling, searching, etc.) share a single
+ * copy of each version of a document.<p>
+ *
+ * A snapshot can be read from any thread without holding the document's
+ * lock.  Readers can check {@link #isStale()} to find out whether the text
+ * area has been modified since the snapshot was taken.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see RTextEditorPane#getSnapshot()
+ */
+public final class DocumentSnapshot implements CharSequence {
+
+	private RTextEditorPane textArea;
+	private long stamp;
+	private char[] text;
+	private int offset;
+	private int length;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area this is a snapshot of.
+	 * @param stamp The text area's modification stamp when the snapshot
+	 *        was taken.
+	 * @param text The text.  This array is not copied, and must never be
+	 *        modified.
+	 */
+	DocumentSnapshot(RTextEditorPane textArea, long stamp, char[] text) {
+		this(textArea, stamp, text, 0, text.length);
+	}
+
+
+	private DocumentSnapshot(RTextEditorPane textArea, long stamp,
+						char[] text, int offset, int length) {
+		this.textArea = textArea;
+		this.stamp = stamp;
+		this.text = text;
+		this.offset = offset;
+		this.length = length;
+	}
+
+
+	public char charAt(int index) {
+		if (index<0 || index>=length) {
+			throw new IndexOutOfBoundsException("index: " + index +
+										", length: " + length);
+		}
+		return text[offset+index];
+	}
+
+
+	/**
+	 * Returns the modification stamp of the text area when this snapshot
+	 * was taken.
+	 *
+	 * @return The modification stamp.
+	 * @see RTextEditorPane#getModificationStamp()
+	 */
+	public long getModificationStamp() {
+		return stamp;
+	}
+
+
+	/**
+	 * Returns the text area this is a snapshot of.
+	 *
+	 * @return The text area.
+	 */
+	public RTextEditorPane getTextArea() {
+		return textArea;
+	}
+
+
+	/**
+	 * Returns the index of the first occurrence of a character at or after
+	 * the specified index.
+	 *
+	 * @param ch The character to look for.
+	 * @param fromIndex The index to start looking at.
+	 * @return The index of the character, or <code>-1</code> if it does not
+	 *         occur.
+	 */
+	public int indexOf(char ch, int fromIndex) {
+		int end = offset + length;
+		for (int i=offset+Math.max(0, fromIndex); i<end; i++) {
+			if (text[i]==ch) {
+				return i - offset;
+			}
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns whether the text area has been modified since this snapshot
+	 * was taken.
+	 *
+	 * @return Whether this snapshot is stale.
+	 */
+	public boolean isStale() {
+		return textArea.getModificationStamp()!=stamp;
+	}
+
+
+	public int length() {
+		return length;
+	}
+
+
+	/**
+	 * Returns a portion of this snapshot.  The text is not copied.
+	 *
+	 * @param start The start index, inclusive.
+	 * @param end The end index, exclusive.
+	 * @return The subsequence, which is also a snapshot.
+	 */
+	public CharSequence subSequence(int start, int end) {
+		if (start<0 || end>length || start>end) {
+			throw new IndexOutOfBoundsException("start: " + start +
+							", end: " + end + ", length: " + length);
+		}
+		return new DocumentSnapshot(textArea, stamp, text, offset+start,
+									end-start);
+	}
+
+
+	/**
+	 * Returns this snapshot's text as a string.  This copies the text, so
+	 * it should be avoided for large documents.
+	 *
+	 * @return The text.
+	 */
+	@Override
+	public String toString() {
+		return new String(text, offset, length);
+	}
+
+
+	/**
+	 * Writes a portion of this snapshot without copying it.
+	 *
+	 * @param w The writer to write to.
+	 * @param start The start index, inclusive.
+	 * @param end The end index, exclusive.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public void write(Writer w, int start, int end) throws IOException {
+		if (start<0 || end>length || start>end) {
+			throw new IndexOutOfBoundsException("start: " + start +
+							", end: " + end + ", length: " + length);
+		}
+		w.write(text, offset+start, end-start);
+	}
+
+
+}
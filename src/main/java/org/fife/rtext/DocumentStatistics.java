@@ -0,0 +1,451 @@
+/*
+ * 10/19/2026
+ *
+ * DocumentStatistics.java - Incrementally maintained counts for a document.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.EventListenerList;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.Segment;
+
+
+/**
+ * Line, word and character counts for a text area's document.  Lines and
+ * characters are known by the document itself.  Words are counted per
+ * block of lines; when the document changes, only the blocks touching the
+ * changed lines are recounted.  Prefix sums over the blocks are kept (and
+ * lazily extended after a change) so the words in a selection can be found
+ * by scanning at most the two partial blocks at its ends.<p>
+ *
+ * Words are counted like <code>wc</code> does, as runs of non-whitespace
+ * characters.  Nothing is counted until the first query, so documents whose
+ * statistics are never shown cost nothing.<p>
+ *
+ * This class should only be used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class DocumentStatistics {
+
+	/**
+	 * The number of lines in a block, when blocks are created.
+	 */
+	private static final int BLOCK_LINES		= 256;
+
+	private JTextComponent textArea;
+	private Document doc;
+	private Listener listener;
+	private EventListenerList listenerList;
+
+	/**
+	 * The blocks of lines, or <code>null</code> if the words haven't been
+	 * counted yet.
+	 */
+	private List<Block> blocks;
+	private int wordCount;
+	private int lineCount;
+
+	/**
+	 * The first line of each block, and the words in all prior blocks.
+	 * Only the first <code>validPrefixes</code> entries are up to date.
+	 */
+	private int[] blockStartLines;
+	private int[] wordsBefore;
+	private int validPrefixes;
+
+	private Segment s;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area whose document to count.  This follows
+	 *        the text area to new documents.
+	 */
+	public DocumentStatistics(JTextComponent textArea) {
+		this.textArea = textArea;
+		listener = new Listener();
+		listenerList = new EventListenerList();
+		s = new Segment();
+		s.setPartialReturn(true);
+		textArea.addPropertyChangeListener("document", listener);
+		setDocument(textArea.getDocument());
+	}
+
+
+	/**
+	 * Adds a listener notified whenever these statistics change.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	public void addChangeListener(ChangeListener l) {
+		listenerList.add(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Counts the words in all lines from <code>startLine</code> on, splitting
+	 * them into blocks.
+	 *
+	 * @param startLine The first line to count.
+	 * @param lines The number of lines to count.
+	 * @return The new blocks.
+	 */
+	private List<Block> countBlocks(int startLine, int lines) {
+		Element root = doc.getDefaultRootElement();
+		int blockCount = Math.max(1, lines/BLOCK_LINES);
+		List<Block> newBlocks = new ArrayList<Block>(blockCount);
+		int line = startLine;
+		for (int i=0; i<blockCount; i++) {
+			Block block = new Block();
+			// The last block takes any leftover lines.
+			block.lines = i<blockCount-1 ? BLOCK_LINES :
+											startLine+lines-line;
+			int start = root.getElement(line).getStartOffset();
+			int end = root.getElement(line+block.lines-1).getEndOffset();
+			block.words = countWords(start, Math.min(end, doc.getLength()));
+			newBlocks.add(block);
+			line += block.lines;
+		}
+		return newBlocks;
+	}
+
+
+	/**
+	 * Counts the words in a range of the document.  A word cut off by the
+	 * start of the range still counts.
+	 *
+	 * @param start The start offset.
+	 * @param end The end offset.
+	 * @return The number of words.
+	 */
+	private int countWords(int start, int end) {
+		int words = 0;
+		boolean inWord = false;
+		try {
+			while (start<end) {
+				doc.getText(start, end-start, s);
+				char[] array = s.array;
+				int last = s.offset + s.count;
+				for (int i=s.offset; i<last; i++) {
+					boolean ws = Character.isWhitespace(array[i]);
+					if (!ws && !inWord) {
+						words++;
+					}
+					inWord = !ws;
+				}
+				start += s.count;
+			}
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+		return words;
+	}
+
+
+	/**
+	 * Counts all words in the document, if they haven't been counted yet.
+	 */
+	private void ensureCounted() {
+		if (blocks==null) {
+			lineCount = doc.getDefaultRootElement().getElementCount();
+			blocks = countBlocks(0, lineCount);
+			wordCount = 0;
+			for (Block block : blocks) {
+				wordCount += block.words;
+			}
+			validPrefixes = 0;
+		}
+	}
+
+
+	/**
+	 * Notifies listeners that these statistics changed.
+	 */
+	private void fireStateChanged() {
+		Object[] listeners = listenerList.getListenerList();
+		ChangeEvent e = null;
+		for (int i=listeners.length-2; i>=0; i-=2) {
+			if (listeners[i]==ChangeListener.class) {
+				if (e==null) {
+					e = new ChangeEvent(this);
+				}
+				((ChangeListener)listeners[i+1]).stateChanged(e);
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the index of the block containing a line, extending the prefix
+	 * sums as far as necessary.
+	 *
+	 * @param line The line.
+	 * @return The index of the block.
+	 */
+	private int getBlockIndex(int line) {
+
+		// Most lookups are near the last edit, and so are already valid.
+		int low = 0;
+		int high = validPrefixes - 1;
+		if (high>=0 && line<blockStartLines[high]+blocks.get(high).lines) {
+			while (low<high) {
+				int mid = (low+high+1) >>> 1;
+				if (blockStartLines[mid]<=line) {
+					low = mid;
+				}
+				else {
+					high = mid - 1;
+				}
+			}
+			return low;
+		}
+
+		if (blockStartLines==null || blockStartLines.length<blocks.size()) {
+			int size = Math.max(blocks.size(), 16) * 3 / 2;
+			blockStartLines = grow(blockStartLines, size);
+			wordsBefore = grow(wordsBefore, size);
+		}
+		int i = validPrefixes;
+		int startLine = i==0 ? 0 : blockStartLines[i-1] + blocks.get(i-1).lines;
+		int words = i==0 ? 0 : wordsBefore[i-1] + blocks.get(i-1).words;
+		for (; i<blocks.size(); i++) {
+			Block block = blocks.get(i);
+			blockStartLines[i] = startLine;
+			wordsBefore[i] = words;
+			validPrefixes = i + 1;
+			if (line<startLine+block.lines) {
+				break;
+			}
+			startLine += block.lines;
+			words += block.words;
+		}
+		return Math.min(i, blocks.size()-1);
+
+	}
+
+
+	/**
+	 * Returns the number of characters in the document.
+	 *
+	 * @return The number of characters.
+	 */
+	public int getCharCount() {
+		return doc.getLength();
+	}
+
+
+	/**
+	 * Returns the number of lines in the document.
+	 *
+	 * @return The number of lines.
+	 */
+	public int getLineCount() {
+		return doc.getDefaultRootElement().getElementCount();
+	}
+
+
+	/**
+	 * Returns the number of lines in a range of the document.
+	 *
+	 * @param start The start offset of the range.
+	 * @param end The end offset of the range.
+	 * @return The number of lines the range touches.
+	 */
+	public int getLineCount(int start, int end) {
+		Element root = doc.getDefaultRootElement();
+		return root.getElementIndex(end) - root.getElementIndex(start) + 1;
+	}
+
+
+	/**
+	 * Returns the number of words in the document.  The first call to this
+	 * method (or {@link #getWordCount(int, int)}) counts the entire
+	 * document; after that, this is constant time.
+	 *
+	 * @return The number of words.
+	 */
+	public int getWordCount() {
+		ensureCounted();
+		return wordCount;
+	}
+
+
+	/**
+	 * Returns the number of words in a range of the document, e.g. the
+	 * selection.  Words partially in the range are counted.  Only the
+	 * partial blocks at either end of the range are scanned.
+	 *
+	 * @param start The start offset of the range.
+	 * @param end The end offset of the range.
+	 * @return The number of words.
+	 */
+	public int getWordCount(int start, int end) {
+
+		ensureCounted();
+		start = Math.max(0, Math.min(start, doc.getLength()));
+		end = Math.max(start, Math.min(end, doc.getLength()));
+
+		Element root = doc.getDefaultRootElement();
+		int startBlock = getBlockIndex(root.getElementIndex(start));
+		int endBlock = getBlockIndex(root.getElementIndex(end));
+		if (startBlock==endBlock) {
+			return countWords(start, end);
+		}
+
+		int startBlockEnd = root.getElement(blockStartLines[startBlock+1]).
+												getStartOffset();
+		int endBlockStart = root.getElement(blockStartLines[endBlock]).
+												getStartOffset();
+		return countWords(start, startBlockEnd) +
+				wordsBefore[endBlock] - wordsBefore[startBlock+1] +
+				countWords(endBlockStart, end);
+
+	}
+
+
+	private static int[] grow(int[] array, int size) {
+		int[] newArray = new int[size];
+		if (array!=null) {
+			System.arraycopy(array, 0, newArray, 0, array.length);
+		}
+		return newArray;
+	}
+
+
+	/**
+	 * Removes a listener notified whenever these statistics change.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	public void removeChangeListener(ChangeListener l) {
+		listenerList.remove(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Starts counting a new document.  Its words aren't counted until
+	 * they're asked for.
+	 *
+	 * @param doc The document.
+	 */
+	private void setDocument(Document doc) {
+		if (this.doc!=null) {
+			this.doc.removeDocumentListener(listener);
+		}
+		this.doc = doc;
+		doc.addDocumentListener(listener);
+		blocks = null;
+		validPrefixes = 0;
+	}
+
+
+	/**
+	 * Recounts the blocks touched by an insertion or removal.
+	 *
+	 * @param e The document event.
+	 */
+	private void update(DocumentEvent e) {
+
+		Element root = doc.getDefaultRootElement();
+		int newLineCount = root.getElementCount();
+		int delta = newLineCount - lineCount;
+		lineCount = newLineCount;
+
+		// All lines before the change, and their blocks, are unaffected.
+		int firstLine = root.getElementIndex(e.getOffset());
+		int oldLastLine = firstLine + (delta<0 ? -delta : 0);
+		int firstBlock = getBlockIndex(firstLine);
+		int lastBlock = getBlockIndex(oldLastLine);
+
+		int oldLines = 0;
+		int oldWords = 0;
+		for (int i=firstBlock; i<=lastBlock; i++) {
+			Block block = blocks.get(i);
+			oldLines += block.lines;
+			oldWords += block.words;
+		}
+		// Absorb the following block if we've shrunk to almost nothing, so
+		// many edits don't leave behind many tiny blocks.
+		if (oldLines+delta<BLOCK_LINES/4 && lastBlock<blocks.size()-1) {
+			Block block = blocks.get(++lastBlock);
+			oldLines += block.lines;
+			oldWords += block.words;
+		}
+
+		List<Block> newBlocks = countBlocks(blockStartLines[firstBlock],
+											oldLines+delta);
+		List<Block> replaced = blocks.subList(firstBlock, lastBlock+1);
+		replaced.clear();
+		replaced.addAll(newBlocks);
+		for (Block block : newBlocks) {
+			wordCount += block.words;
+		}
+		wordCount -= oldWords;
+
+		// Prefixes up to and including the first block are still valid.
+		validPrefixes = Math.min(validPrefixes, firstBlock+1);
+
+	}
+
+
+	/**
+	 * A block of lines.
+	 */
+	private static class Block {
+		private int lines;
+		private int words;
+	}
+
+
+	/**
+	 * Listens for changes to the document, and for the text area getting a
+	 * new document.
+	 */
+	private class Listener implements DocumentListener, PropertyChangeListener {
+
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		public void insertUpdate(DocumentEvent e) {
+			if (blocks!=null) {
+				update(e);
+			}
+			fireStateChanged();
+		}
+
+		public void propertyChange(PropertyChangeEvent e) {
+			setDocument(textArea.getDocument());
+			fireStateChanged();
+		}
+
+		public void removeUpdate(DocumentEvent e) {
+			if (blocks!=null) {
+				update(e);
+			}
+			fireStateChanged();
+		}
+
+	}
+
+
+}
@@ -0,0 +1,181 @@
+/*
+ * 10/19/2026
+ *
+ * DormantTabManager.java - Compacts documents that haven't been viewed in a
+ * while.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import javax.swing.Timer;
+
+
+/**
+ * Periodically compacts open documents that haven't been viewed for a
+ * configurable number of minutes.  A compacted document only keeps its text,
+ * compressed, which lets users keep hundreds of files open without needing
+ * an enormous heap.  Documents are rehydrated when they are next shown.<p>
+ *
+ * Compaction only happens when the text of all open documents exceeds a
+ * memory budget, and the least recently viewed documents are compacted
+ * first.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see RTextEditorPane#compact()
+ */
+class DormantTabManager implements ActionListener {
+
+	private RText owner;
+	private Timer timer;
+	private int idleMinutes;
+	private int memoryBudget;
+
+	/**
+	 * How often to look for dormant documents, in milliseconds.
+	 */
+	private static final int CHECK_INTERVAL		= 60*1000;
+
+	/**
+	 * Documents smaller than this (in characters) aren't worth compacting.
+	 */
+	private static final int MIN_COMPACT_LENGTH	= 8*1024;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent application.
+	 */
+	public DormantTabManager(RText owner) {
+		this.owner = owner;
+		timer = new Timer(CHECK_INTERVAL, this);
+	}
+
+
+	/**
+	 * Called periodically to compact dormant documents.
+	 *
+	 * @param e The event.
+	 */
+	public void actionPerformed(ActionEvent e) {
+		compactDormantDocuments();
+	}
+
+
+	/**
+	 * Compacts documents that haven't been viewed in the idle time, least
+	 * recently viewed first, until the open documents fit in the memory
+	 * budget.
+	 */
+	public void compactDormantDocuments() {
+
+		AbstractMainView mainView = owner.getMainView();
+		if (idleMinutes<=0 || mainView==null) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		long idleMillis = idleMinutes * 60L * 1000;
+		long total = 0;
+		List<RTextEditorPane> candidates = new ArrayList<RTextEditorPane>();
+
+		for (int i=0; i<mainView.getNumDocuments(); i++) {
+			RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
+			total += textArea.getEstimatedTextMemory();
+			if (!textArea.isCompacted() && !textArea.isShowing() &&
+					!textArea.isDirty() && !textArea.isSaving() &&
+					textArea.getDocument().getLength()>=MIN_COMPACT_LENGTH &&
+					now-textArea.getLastShownTime()>=idleMillis) {
+				candidates.add(textArea);
+			}
+		}
+
+		Collections.sort(candidates, new Comparator<RTextEditorPane>() {
+			public int compare(RTextEditorPane a, RTextEditorPane b) {
+				long diff = a.getLastShownTime() - b.getLastShownTime();
+				return diff<0 ? -1 : (diff>0 ? 1 : 0);
+			}
+		});
+
+		long budget = memoryBudget * 1024L * 1024;
+		for (RTextEditorPane textArea : candidates) {
+			if (total<=budget) {
+				break;
+			}
+			long before = textArea.getEstimatedTextMemory();
+			if (textArea.compact()) {
+				total -= before - textArea.getEstimatedTextMemory();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Returns the number of minutes a document must go without being viewed
+	 * before it is compacted.
+	 *
+	 * @return The number of minutes.  <code>0</code> means documents are
+	 *         never compacted.
+	 * @see #setIdleMinutes(int)
+	 */
+	public int getIdleMinutes() {
+		return idleMinutes;
+	}
+
+
+	/**
+	 * Returns the amount of memory open documents can use before dormant
+	 * ones are compacted.
+	 *
+	 * @return The memory budget, in MB.
+	 * @see #setMemoryBudget(int)
+	 */
+	public int getMemoryBudget() {
+		return memoryBudget;
+	}
+
+
+	/**
+	 * Sets the number of minutes a document must go without being viewed
+	 * before it is compacted.
+	 *
+	 * @param minutes The number of minutes.  If this is <code>0</code> or
+	 *        less, documents are never compacted.
+	 * @see #getIdleMinutes()
+	 */
+	public void setIdleMinutes(int minutes) {
+		idleMinutes = Math.max(0, minutes);
+		if (idleMinutes>0) {
+			timer.start();
+		}
+		else {
+			timer.stop();
+		}
+	}
+
+
+	/**
+	 * Sets the amount of memory open documents can use before dormant ones
+	 * are compacted.
+	 *
+	 * @param budget The memory budget, in MB.  If this is <code>0</code>,
+	 *        dormant documents are always compacted.
+	 * @see #getMemoryBudget()
+	 */
+	public void setMemoryBudget(int budget) {
+		memoryBudget = Math.max(0, budget);
+	}
+
+
+}
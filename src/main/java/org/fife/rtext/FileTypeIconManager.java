@@ -9,8 +9,11 @@
  */
 package org.fife.rtext;
 
+import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.HashMap;
@@ -91,6 +94,8 @@ public class FileTypeIconManager {
 
 	/**
 	 * Returns the icon for a view type to use for the specified text area.
+	 * If the text area is being saved in the background, or its last save
+	 * failed, the icon is marked as such.
 	 *
 	 * @param textArea The text area.
 	 * @return The icon to use for the text area.
@@ -126,6 +131,13 @@ public class FileTypeIconManager {
 
 		}
 
+		if (textArea.isSaving()) {
+			icon = new SaveStateIcon(icon, SaveStateIcon.SAVING);
+		}
+		else if (textArea.getLastSaveError()!=null) {
+			icon = new SaveStateIcon(icon, SaveStateIcon.FAILED);
+		}
+
 		return icon;//new TextAreaAwareIcon(textArea, icon);
 
 	}
@@ -155,6 +167,52 @@ public class FileTypeIconManager {
 	}
 
 
+	/**
+	 * Marks an icon with a small dot in its lower right-hand corner, denoting
+	 * a document being saved, or whose last save failed.
+	 */
+	private static class SaveStateIcon implements Icon {
+
+		private Icon icon;
+		private Color color;
+
+		private static final Color SAVING	= new Color(0x3070e0);
+		private static final Color FAILED	= new Color(0xe02020);
+		private static final int SIZE		= 7;
+
+		public SaveStateIcon(Icon icon, Color color) {
+			this.icon = icon;
+			this.color = color;
+		}
+
+		public int getIconHeight() {
+			return icon.getIconHeight();
+		}
+
+		public int getIconWidth() {
+			return icon.getIconWidth();
+		}
+
+		public void paintIcon(Component c, Graphics g, int x, int y) {
+			icon.paintIcon(c, g, x, y);
+			Graphics2D g2d = (Graphics2D)g.create();
+			try {
+				g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+									RenderingHints.VALUE_ANTIALIAS_ON);
+				int dotX = x + getIconWidth() - SIZE;
+				int dotY = y + getIconHeight() - SIZE;
+				g2d.setColor(Color.WHITE);
+				g2d.fillOval(dotX-1, dotY-1, SIZE+1, SIZE+1);
+				g2d.setColor(color);
+				g2d.fillOval(dotX, dotY, SIZE-1, SIZE-1);
+			} finally {
+				g2d.dispose();
+			}
+		}
+
+	}
+
+
 	/**
 	 * An icon capable of displaying informational "sub-icons" in the corners
 	 * of a main icon.
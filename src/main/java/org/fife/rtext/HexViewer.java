@@ -0,0 +1,489 @@
+/*
+ * 10/19/2026
+ *
+ * HexViewer.java - Displays a binary file as hex and ASCII.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.AdjustmentEvent;
+import java.awt.event.AdjustmentListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import javax.swing.AbstractAction;
+import javax.swing.ActionMap;
+import javax.swing.InputMap;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JScrollBar;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+
+/**
+ * Displays a file as rows of hex bytes with their ASCII equivalents.  The
+ * file is memory-mapped rather than read, and only the rows that are visible
+ * are rendered, so the heap used is the same no matter how large the file
+ * is.<p>
+ *
+ * Rows are scrolled with a scroll bar whose units are rows rather than
+ * pixels, so files of up to 32 GB (2<sup>31</sup> rows of 16 bytes) can be
+ * viewed entirely.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see HexViewerWindow
+ */
+class HexViewer extends JPanel {
+
+	private static final int BYTES_PER_ROW		= 16;
+
+	/**
+	 * The size of each mapped region of the file.  A single buffer can only
+	 * map up to 2 GB.
+	 */
+	private static final long SEGMENT_SIZE		= 1L<<30;
+
+	private static final char[] HEX_DIGITS		= "0123456789ABCDEF".toCharArray();
+
+	private File file;
+	private long length;
+	private MappedByteBuffer[] segments;
+
+	private RowView rowView;
+	private JScrollBar scrollBar;
+
+	private long selStart;
+	private long selEnd;
+
+	/**
+	 * Identifies the current search; a search stops when this changes.
+	 */
+	private volatile int searchId;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file The file to display.
+	 * @throws IOException If an I/O error occurs mapping the file.
+	 */
+	public HexViewer(File file) throws IOException {
+
+		this.file = file;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			// The mappings stay valid after the channel is closed.
+			FileChannel channel = raf.getChannel();
+			length = channel.size();
+			int count = (int)((length+SEGMENT_SIZE-1)/SEGMENT_SIZE);
+			segments = new MappedByteBuffer[count];
+			for (int i=0; i<count; i++) {
+				long start = i*SEGMENT_SIZE;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+						start, Math.min(SEGMENT_SIZE, length-start));
+			}
+		} finally {
+			raf.close();
+		}
+		selStart = selEnd = -1;
+
+		rowView = new RowView();
+		scrollBar = new JScrollBar(JScrollBar.VERTICAL);
+		scrollBar.addAdjustmentListener(rowView);
+		setLayout(new BorderLayout());
+		add(rowView);
+		add(scrollBar, BorderLayout.LINE_END);
+
+	}
+
+
+	/**
+	 * Stops any search in progress and releases the file's mappings.
+	 * The mapped memory is freed once the buffers are garbage collected.
+	 */
+	public void close() {
+		searchId++;
+		segments = new MappedByteBuffer[0];
+		length = 0;
+		selStart = selEnd = -1;
+		rowView.updateScrollBar();
+		rowView.repaint();
+	}
+
+
+	/**
+	 * Scrolls so that a row is visible, if it isn't already.
+	 *
+	 * @param row The row.
+	 */
+	private void ensureRowVisible(long row) {
+		int top = scrollBar.getValue();
+		int visible = scrollBar.getVisibleAmount();
+		if (row<top || row>=top+visible) {
+			scrollBar.setValue((int)Math.max(0, row-visible/2));
+		}
+	}
+
+
+	/**
+	 * Searches for a byte pattern, starting just after the current
+	 * selection.  The search runs on a background thread; if the pattern
+	 * is found, it is selected and scrolled to.  Starting another search, or
+	 * closing the viewer, cancels this one.
+	 *
+	 * @param pattern The bytes to search for.
+	 * @param notFound Run on the EDT if the pattern is not found.
+	 */
+	public void find(final byte[] pattern, final Runnable notFound) {
+
+		if (pattern.length==0) {
+			return;
+		}
+		final int id = ++searchId;
+		final long from = selStart>-1 ? selStart+1 : 0;
+		final MappedByteBuffer[] segments = this.segments;
+		final long length = this.length;
+
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				final long offs = indexOf(segments, length, pattern, from, id);
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if (id!=searchId) {
+							return; // Canceled
+						}
+						if (offs>-1) {
+							setSelection(offs, offs+pattern.length);
+						}
+						else {
+							notFound.run();
+						}
+					}
+				});
+			}
+		}, "RTextHexViewerSearch");
+		t.setDaemon(true);
+		t.start();
+
+	}
+
+
+	/**
+	 * Returns the file being displayed.
+	 *
+	 * @return The file.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+
+	/**
+	 * Returns the length of the file being displayed.
+	 *
+	 * @return The length of the file, in bytes.
+	 */
+	public long getFileLength() {
+		return length;
+	}
+
+
+	private static byte getByte(MappedByteBuffer[] segments, long offs) {
+		return segments[(int)(offs/SEGMENT_SIZE)].get(
+										(int)(offs%SEGMENT_SIZE));
+	}
+
+
+	/**
+	 * Returns the offset of the next occurrence of a byte pattern, using the
+	 * Boyer-Moore-Horspool algorithm.
+	 *
+	 * @param segments The mapped file.
+	 * @param length The length of the file.
+	 * @param pattern The bytes to search for.
+	 * @param from The offset to start searching at.
+	 * @param id The search's ID.  If it's no longer the current search's ID,
+	 *        this method returns early.
+	 * @return The offset of the pattern, or <code>-1</code> if it isn't
+	 *         found (or the search was canceled).
+	 */
+	private long indexOf(MappedByteBuffer[] segments, long length,
+						byte[] pattern, long from, int id) {
+
+		int last = pattern.length - 1;
+		int[] skip = new int[256];
+		for (int i=0; i<skip.length; i++) {
+			skip[i] = pattern.length;
+		}
+		for (int i=0; i<last; i++) {
+			skip[pattern[i]&0xff] = last - i;
+		}
+
+		long pos = from;
+		int iteration = 0;
+		while (pos+last<length) {
+			if ((++iteration&0xffff)==0 && id!=searchId) {
+				return -1;
+			}
+			int i = last;
+			while (getByte(segments, pos+i)==pattern[i]) {
+				if (i==0) {
+					return pos;
+				}
+				i--;
+			}
+			pos += skip[getByte(segments, pos+last)&0xff];
+		}
+		return -1;
+
+	}
+
+
+	/**
+	 * Selects a range of bytes and scrolls to it.
+	 *
+	 * @param start The start offset, inclusive.
+	 * @param end The end offset, exclusive.
+	 */
+	public void setSelection(long start, long end) {
+		selStart = Math.max(0, Math.min(start, length));
+		selEnd = Math.max(selStart, Math.min(end, length));
+		ensureRowVisible(selStart/BYTES_PER_ROW);
+		rowView.repaint();
+	}
+
+
+	/**
+	 * The component the rows are painted on.
+	 */
+	private class RowView extends JComponent implements AdjustmentListener,
+											MouseWheelListener {
+
+		private int charWidth;
+		private int rowHeight;
+		private int ascent;
+		private int offsetDigits;
+
+		public RowView() {
+
+			setFont(new Font("Monospaced", Font.PLAIN, 12));
+			setOpaque(true);
+			setFocusable(true);
+			updateUI();
+			offsetDigits = length>0xffffffffL ? 16 : 8;
+
+			addComponentListener(new ComponentAdapter() {
+				@Override
+				public void componentResized(ComponentEvent e) {
+					updateScrollBar();
+				}
+			});
+			addMouseListener(new MouseAdapter() {
+				@Override
+				public void mousePressed(MouseEvent e) {
+					requestFocusInWindow();
+					long offs = viewToOffset(e.getX(), e.getY());
+					if (offs>-1) {
+						setSelection(offs, offs+1);
+					}
+				}
+			});
+			addMouseWheelListener(this);
+
+			InputMap im = getInputMap();
+			ActionMap am = getActionMap();
+			im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "up");
+			am.put("up", new ScrollAction(-1, false));
+			im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "down");
+			am.put("down", new ScrollAction(1, false));
+			im.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_UP, 0), "pageUp");
+			am.put("pageUp", new ScrollAction(-1, true));
+			im.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_DOWN, 0), "pageDown");
+			am.put("pageDown", new ScrollAction(1, true));
+			im.put(KeyStroke.getKeyStroke(KeyEvent.VK_HOME,
+					KeyEvent.CTRL_MASK), "home");
+			am.put("home", new ScrollAction(Integer.MIN_VALUE, false));
+			im.put(KeyStroke.getKeyStroke(KeyEvent.VK_END,
+					KeyEvent.CTRL_MASK), "end");
+			am.put("end", new ScrollAction(Integer.MAX_VALUE, false));
+
+		}
+
+		public void adjustmentValueChanged(AdjustmentEvent e) {
+			repaint();
+		}
+
+		private int getAsciiX() {
+			return getHexX() + (BYTES_PER_ROW*3 + 2)*charWidth;
+		}
+
+		private int getHexX() {
+			return (offsetDigits+2) * charWidth;
+		}
+
+		@Override
+		public Dimension getPreferredSize() {
+			updateMetrics();
+			int chars = offsetDigits + 2 + BYTES_PER_ROW*4 + 2;
+			return new Dimension(chars*charWidth, 20*rowHeight);
+		}
+
+		private long getRowCount() {
+			return (length+BYTES_PER_ROW-1) / BYTES_PER_ROW;
+		}
+
+		public void mouseWheelMoved(MouseWheelEvent e) {
+			scrollBar.setValue(scrollBar.getValue() + e.getUnitsToScroll());
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+
+			updateMetrics();
+			Rectangle clip = g.getClipBounds();
+			g.setColor(getBackground());
+			g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+			Color fg = getForeground();
+			Color selBG = UIManager.getColor("TextArea.selectionBackground");
+			if (selBG==null) {
+				selBG = Color.LIGHT_GRAY;
+			}
+			int hexX = getHexX();
+			int asciiX = getAsciiX();
+			char[] hex = new char[3];
+			char[] ascii = new char[1];
+
+			long firstRow = scrollBar.getValue() + clip.y/rowHeight;
+			long lastRow = Math.min(getRowCount()-1, scrollBar.getValue() +
+								(clip.y+clip.height)/rowHeight);
+			for (long row=firstRow; row<=lastRow; row++) {
+
+				int y = (int)(row-scrollBar.getValue()) * rowHeight;
+				long rowStart = row * BYTES_PER_ROW;
+
+				g.setColor(fg);
+				char[] offs = new char[offsetDigits];
+				for (int i=0; i<offsetDigits; i++) {
+					offs[i] = HEX_DIGITS[(int)(rowStart>>>(4*(offsetDigits-1-i)))&0xf];
+				}
+				g.drawChars(offs, 0, offs.length, 0, y+ascent);
+
+				int count = (int)Math.min(BYTES_PER_ROW, length-rowStart);
+				for (int i=0; i<count; i++) {
+					long pos = rowStart + i;
+					int b = getByte(segments, pos) & 0xff;
+					int x = hexX + (i*3 + (i>=BYTES_PER_ROW/2 ? 1 : 0))*charWidth;
+					if (pos>=selStart && pos<selEnd) {
+						g.setColor(selBG);
+						g.fillRect(x, y, 2*charWidth, rowHeight);
+						g.fillRect(asciiX+i*charWidth, y, charWidth, rowHeight);
+						g.setColor(fg);
+					}
+					hex[0] = HEX_DIGITS[b>>4];
+					hex[1] = HEX_DIGITS[b&0xf];
+					g.drawChars(hex, 0, 2, x, y+ascent);
+					ascii[0] = b>=0x20 && b<0x7f ? (char)b : '.';
+					g.drawChars(ascii, 0, 1, asciiX+i*charWidth, y+ascent);
+				}
+
+			}
+
+		}
+
+		private void updateMetrics() {
+			FontMetrics fm = getFontMetrics(getFont());
+			charWidth = fm.charWidth('0');
+			rowHeight = fm.getHeight();
+			ascent = fm.getAscent();
+		}
+
+		@Override
+		public void updateUI() {
+			super.updateUI();
+			Color bg = UIManager.getColor("TextArea.background");
+			setBackground(bg!=null ? bg : Color.WHITE);
+			Color fg = UIManager.getColor("TextArea.foreground");
+			setForeground(fg!=null ? fg : Color.BLACK);
+		}
+
+		private void updateScrollBar() {
+			updateMetrics();
+			int visibleRows = Math.max(1, getHeight()/rowHeight);
+			int rows = (int)Math.min(getRowCount(), Integer.MAX_VALUE);
+			int value = Math.min(scrollBar.getValue(),
+								Math.max(0, rows-visibleRows));
+			scrollBar.setValues(value, visibleRows, 0, rows);
+			scrollBar.setBlockIncrement(visibleRows);
+		}
+
+		private long viewToOffset(int x, int y) {
+			long row = scrollBar.getValue() + y/rowHeight;
+			int col = -1;
+			int hexX = getHexX();
+			int asciiX = getAsciiX();
+			if (x>=asciiX) {
+				col = (x-asciiX) / charWidth;
+			}
+			else if (x>=hexX) {
+				int cell = (x-hexX) / charWidth;
+				if (cell>=(BYTES_PER_ROW/2)*3) {
+					cell--;
+				}
+				col = cell / 3;
+			}
+			long offs = row*BYTES_PER_ROW + col;
+			return col>-1 && col<BYTES_PER_ROW && offs<length ? offs : -1;
+		}
+
+	}
+
+
+	/**
+	 * Scrolls by a number of rows or pages.
+	 */
+	private class ScrollAction extends AbstractAction {
+
+		private int amount;
+		private boolean pages;
+
+		public ScrollAction(int amount, boolean pages) {
+			this.amount = amount;
+			this.pages = pages;
+		}
+
+		public void actionPerformed(ActionEvent e) {
+			long delta = pages ? (long)amount*scrollBar.getVisibleAmount() :
+								amount;
+			long value = scrollBar.getValue() + delta;
+			scrollBar.setValue((int)Math.max(0,
+								Math.min(value, Integer.MAX_VALUE)));
+		}
+
+	}
+
+
+}
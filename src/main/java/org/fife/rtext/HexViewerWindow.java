@@ -0,0 +1,235 @@
+/*
+ * 10/19/2026
+ *
+ * HexViewerWindow.java - A dockable window showing binary files.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import javax.swing.Box;
+import javax.swing.ImageIcon;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTextField;
+import javax.swing.JToolBar;
+import javax.swing.UIManager;
+
+import org.fife.ui.dockablewindows.DockableWindow;
+
+
+/**
+ * A dockable window that displays binary files in {@link HexViewer}s, one
+ * tab per file.  A toolbar lets the user search the selected file for a byte
+ * pattern (given as hex digits or as text), and jump to an offset in it.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see RText#openInHexViewer(File)
+ */
+class HexViewerWindow extends DockableWindow implements ActionListener {
+
+	private RText rtext;
+	private JTabbedPane tabbedPane;
+	private JTextField findField;
+	private JCheckBox hexCheckBox;
+	private JTextField offsetField;
+
+
+	public HexViewerWindow(RText rtext) {
+
+		this.rtext = rtext;
+		setLayout(new BorderLayout());
+
+		JToolBar toolbar = new JToolBar();
+		toolbar.setFloatable(false);
+		toolbar.add(new JLabel(rtext.getString("HexViewer.Find")));
+		toolbar.add(Box.createHorizontalStrut(5));
+		findField = new JTextField(20);
+		findField.setActionCommand("Find");
+		findField.addActionListener(this);
+		toolbar.add(findField);
+		hexCheckBox = new JCheckBox(rtext.getString("HexViewer.Hex"), true);
+		toolbar.add(hexCheckBox);
+		toolbar.add(createButton("HexViewer.FindNext", "Find"));
+		toolbar.addSeparator();
+		toolbar.add(new JLabel(rtext.getString("HexViewer.GoToOffset")));
+		toolbar.add(Box.createHorizontalStrut(5));
+		offsetField = new JTextField(12);
+		offsetField.setActionCommand("GoTo");
+		offsetField.addActionListener(this);
+		toolbar.add(offsetField);
+		toolbar.add(Box.createHorizontalGlue());
+		toolbar.add(createButton("HexViewer.Close", "Close"));
+		add(toolbar, BorderLayout.NORTH);
+
+		tabbedPane = new JTabbedPane();
+		add(tabbedPane);
+
+		setPosition(BOTTOM);
+		setActive(true);
+		setDockableWindowName(rtext.getString("HexViewer.Title"));
+		URL url = getClass().getResource("graphics/file_icons/unknown.gif");
+		setIcon(new ImageIcon(url));
+
+	}
+
+
+	public void actionPerformed(ActionEvent e) {
+
+		HexViewer viewer = (HexViewer)tabbedPane.getSelectedComponent();
+		if (viewer==null) {
+			return;
+		}
+		String command = e.getActionCommand();
+
+		if ("Find".equals(command)) {
+			byte[] pattern = getPattern();
+			if (pattern==null) {
+				showError("HexViewer.InvalidPattern", findField.getText());
+			}
+			else {
+				viewer.find(pattern, new Runnable() {
+					public void run() {
+						UIManager.getLookAndFeel().provideErrorFeedback(
+												findField);
+					}
+				});
+			}
+		}
+
+		else if ("GoTo".equals(command)) {
+			long offs = getOffset();
+			if (offs<0 || offs>=viewer.getFileLength()) {
+				showError("HexViewer.InvalidOffset", offsetField.getText());
+			}
+			else {
+				viewer.setSelection(offs, offs+1);
+			}
+		}
+
+		else if ("Close".equals(command)) {
+			viewer.close();
+			tabbedPane.remove(viewer);
+			if (tabbedPane.getTabCount()==0) {
+				setActive(false);
+			}
+		}
+
+	}
+
+
+	private JButton createButton(String key, String command) {
+		JButton button = new JButton(rtext.getString(key));
+		button.setActionCommand(command);
+		button.addActionListener(this);
+		return button;
+	}
+
+
+	/**
+	 * Returns the offset entered by the user.  Offsets starting with
+	 * "<code>0x</code>" are hex, others are decimal.
+	 *
+	 * @return The offset, or <code>-1</code> if it is invalid.
+	 */
+	private long getOffset() {
+		String text = offsetField.getText().trim();
+		try {
+			if (text.startsWith("0x") || text.startsWith("0X")) {
+				return Long.parseLong(text.substring(2), 16);
+			}
+			return Long.parseLong(text);
+		} catch (NumberFormatException nfe) {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Returns the byte pattern entered by the user.  In hex mode, this is
+	 * pairs of hex digits, optionally separated by whitespace; otherwise it
+	 * is the text's bytes in UTF-8.
+	 *
+	 * @return The pattern, or <code>null</code> if it is invalid.
+	 */
+	private byte[] getPattern() {
+
+		String text = findField.getText();
+		if (!hexCheckBox.isSelected()) {
+			if (text.length()==0) {
+				return null;
+			}
+			try {
+				return text.getBytes("UTF-8");
+			} catch (UnsupportedEncodingException uee) { // Never happens
+				uee.printStackTrace();
+				return null;
+			}
+		}
+
+		text = text.replaceAll("\\s+", "");
+		if (text.length()==0 || (text.length()&1)!=0) {
+			return null;
+		}
+		byte[] pattern = new byte[text.length()/2];
+		for (int i=0; i<pattern.length; i++) {
+			int hi = Character.digit(text.charAt(2*i), 16);
+			int lo = Character.digit(text.charAt(2*i+1), 16);
+			if (hi==-1 || lo==-1) {
+				return null;
+			}
+			pattern[i] = (byte)((hi<<4) | lo);
+		}
+		return pattern;
+
+	}
+
+
+	/**
+	 * Shows a file, opening a new tab for it if it isn't already being
+	 * viewed.
+	 *
+	 * @param file The file to show.
+	 * @throws IOException If an I/O error occurs mapping the file.
+	 */
+	public void open(File file) throws IOException {
+
+		for (int i=0; i<tabbedPane.getTabCount(); i++) {
+			HexViewer viewer = (HexViewer)tabbedPane.getComponentAt(i);
+			if (viewer.getFile().equals(file)) {
+				tabbedPane.setSelectedIndex(i);
+				return;
+			}
+		}
+
+		HexViewer viewer = new HexViewer(file);
+		tabbedPane.addTab(file.getName(), null, viewer,
+							file.getAbsolutePath());
+		tabbedPane.setSelectedComponent(viewer);
+
+	}
+
+
+	private void showError(String key, String param) {
+		UIManager.getLookAndFeel().provideErrorFeedback(this);
+		JOptionPane.showMessageDialog(rtext,
+				rtext.getString(key, param),
+				rtext.getString("ErrorDialogTitle"),
+				JOptionPane.ERROR_MESSAGE);
+	}
+
+
+}
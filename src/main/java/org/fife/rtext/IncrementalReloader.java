@@ -0,0 +1,274 @@
+/*
+ * 10/19/2026
+ *
+ * IncrementalReloader.java - Applies external changes to a file as edits.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+import org.fife.io.UnicodeReader;
+
+
+/**
+ * Brings a text area up to date with its file on disk by editing only the
+ * lines that changed, rather than replacing the entire document.  This
+ * keeps the caret, scroll position, folds, bookmarks and token caches of
+ * unchanged lines intact.<p>
+ *
+ * There are two strategies:
+ *
+ * <ol>
+ *    <li>If the file only grew, and the bytes just before the old end of
+ *        the file still match the end of the document, only the new bytes
+ *        are read and appended.  This is the common case for log files.
+ *    <li>Otherwise, the file is read and compared to the document line by
+ *        line with {@link LineDiff}, and only the differing lines are
+ *        replaced.
+ * </ol>
+ *
+ * If the file changed so much that diffing would be slow, the caller should
+ * fall back to a regular reload.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see RTextEditorPane#reloadIncrementally()
+ */
+final class IncrementalReloader {
+
+	/**
+	 * The number of characters at the end of the document compared to the
+	 * file, to verify the file was only appended to.
+	 */
+	private static final int TAIL_CHECK_SIZE		= 256;
+
+	/**
+	 * The maximum number of changed lines before we fall back to a regular
+	 * reload.
+	 */
+	private static final int MAX_EDIT_DISTANCE		= 5000;
+
+	/**
+	 * The maximum number of line comparisons before the diff stops looking
+	 * for a minimal result.
+	 */
+	private static final long MAX_WORK				= 50000000L;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private IncrementalReloader() {
+	}
+
+
+	/**
+	 * Appends the new content of a file that was only appended to.
+	 *
+	 * @param textArea The text area.
+	 * @param file The file.
+	 * @param oldLength The length of the file when it was last loaded or
+	 *        saved.
+	 * @return Whether the file was only appended to, and its new content
+	 *         was added to the text area.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private static boolean append(RTextEditorPane textArea, File file,
+							long oldLength) throws IOException {
+
+		String encoding = textArea.getEncoding();
+		Charset cs = Charset.forName(encoding);
+		long length = file.length();
+		if (oldLength<=0 || length<=oldLength || length-oldLength>Integer.MAX_VALUE ||
+				!isAsciiCompatible(cs)) {
+			return false;
+		}
+
+		// Verify that the end of the document is what's on disk just before
+		// the new bytes.
+		Document doc = textArea.getDocument();
+		int tailLength = Math.min(TAIL_CHECK_SIZE, doc.getLength());
+		String tail = null;
+		try {
+			tail = doc.getText(doc.getLength()-tailLength, tailLength);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return false;
+		}
+		String lineSeparator = (String)textArea.getLineSeparator();
+		if (lineSeparator!=null && !"\n".equals(lineSeparator)) {
+			tail = tail.replace("\n", lineSeparator);
+		}
+		byte[] expected = tail.getBytes(encoding);
+		if (expected.length>oldLength) {
+			return false;
+		}
+
+		byte[] actual = new byte[expected.length];
+		byte[] added = new byte[(int)(length-oldLength)];
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			raf.seek(oldLength-expected.length);
+			raf.readFully(actual);
+			raf.readFully(added);
+		} finally {
+			raf.close();
+		}
+		if (!Arrays.equals(expected, actual)) {
+			return false;
+		}
+
+		String text = new String(added, encoding);
+		// A CRLF may be split across the old and new content.
+		if (text.startsWith("\n") && expected.length>0 &&
+				expected[expected.length-1]=='\r') {
+			text = text.substring(1);
+		}
+		text = normalizeLineEndings(text);
+
+		try {
+			doc.insertString(doc.getLength(), text, null);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+		return true;
+
+	}
+
+
+	/**
+	 * Applies the differences between the document and the new file content
+	 * to the document.
+	 *
+	 * @param doc The document.
+	 * @param oldText The document's current text.
+	 * @param newText The new text.
+	 * @return Whether the differences were applied.  This is
+	 *         <code>false</code> if there were too many differences.
+	 */
+	private static boolean applyDiff(Document doc, CharSequence oldText,
+									String newText) {
+
+		LineDiff.Lines a = new LineDiff.Lines(oldText);
+		LineDiff.Lines b = new LineDiff.Lines(newText);
+		List<int[]> hunks = LineDiff.diff(a, b, MAX_WORK);
+
+		int changedLines = 0;
+		for (int[] hunk : hunks) {
+			changedLines += hunk[1]-hunk[0] + hunk[3]-hunk[2];
+		}
+		if (changedLines>MAX_EDIT_DISTANCE) {
+			return false;
+		}
+
+		try {
+			LineDiff.apply(doc, hunks, a, b);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+		return true;
+
+	}
+
+
+	/**
+	 * Returns whether newlines are encoded as single ASCII bytes in an
+	 * encoding, so files in it can be split at arbitrary newlines.
+	 *
+	 * @param cs The encoding.
+	 * @return Whether the encoding is ASCII-compatible.
+	 */
+	private static boolean isAsciiCompatible(Charset cs) {
+		byte[] b = null;
+		try {
+			b = "\r\n".getBytes(cs.name());
+		} catch (UnsupportedEncodingException uee) { // Never happens
+			return false;
+		}
+		return b.length==2 && b[0]=='\r' && b[1]=='\n';
+	}
+
+
+	/**
+	 * Converts <code>"\r\n"</code> and <code>"\r"</code> newlines to
+	 * <code>"\n"</code>, as documents use.
+	 *
+	 * @param text The text.
+	 * @return The text with normalized line endings.
+	 */
+	private static String normalizeLineEndings(String text) {
+		if (text.indexOf('\r')==-1) {
+			return text;
+		}
+		return text.replace("\r\n", "\n").replace('\r', '\n');
+	}
+
+
+	/**
+	 * Reads a file into a string with normalized line endings.
+	 *
+	 * @param file The file.
+	 * @param encoding The file's encoding.
+	 * @return The file's content.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private static String read(File file, String encoding)
+								throws IOException {
+		StringBuilder sb = new StringBuilder((int)Math.min(file.length(),
+												Integer.MAX_VALUE));
+		Reader r = new UnicodeReader(file, encoding);
+		try {
+			char[] buf = new char[8192];
+			int count = 0;
+			while ((count=r.read(buf))>-1) {
+				sb.append(buf, 0, count);
+			}
+		} finally {
+			r.close();
+		}
+		return normalizeLineEndings(sb.toString());
+	}
+
+
+	/**
+	 * Updates a text area to match its file on disk, changing only what
+	 * differs.  The text area is left dirty, with undo history for the
+	 * changes; callers should clean that up as appropriate.
+	 *
+	 * @param textArea The text area.  This should be a local file.
+	 * @param oldLength The length of the file when it was last loaded or
+	 *        saved, or <code>-1</code> if unknown.
+	 * @return Whether the text area was updated.  If this is
+	 *         <code>false</code>, the file changed too much, and the text
+	 *         area was not modified.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public static boolean reload(RTextEditorPane textArea, long oldLength)
+								throws IOException {
+
+		File file = new File(textArea.getFileFullPath());
+		if (!textArea.isDirty() && append(textArea, file, oldLength)) {
+			return true;
+		}
+
+		String newText = read(file, textArea.getEncoding());
+		return applyDiff(textArea.getDocument(), textArea.getSnapshot(),
+						newText);
+
+	}
+
+
+}
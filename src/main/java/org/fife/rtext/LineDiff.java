@@ -0,0 +1,482 @@
+/*
+ * 10/19/2026
+ *
+ * LineDiff.java - Computes the differences between two texts by line.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+
+/**
+ * Computes the differences between two texts, line by line.  Lines are
+ * hashed first, so most comparisons are of two <code>int</code>s.  The
+ * differences are found with the linear-space variant of Myers' algorithm
+ * (divide and conquer on the "middle snake"), so memory use is proportional
+ * to the number of lines, not to their product or to the number of
+ * differences.<p>
+ *
+ * If the texts differ so much that finding a minimal diff would be slow,
+ * the remaining unmatched regions are reported as changed as a whole, so
+ * the result is always a valid diff, just not necessarily the smallest
+ * one.<p>
+ *
+ * Differences are reported as "hunks", each an <code>int[]</code> of the
+ * start and end (exclusive) lines in the first text, then the start and
+ * end lines in the second text.  Hunks are in ascending order and never
+ * adjacent to each other.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see CompareDialog
+ */
+final class LineDiff {
+
+	/**
+	 * The default maximum number of line comparisons made by a single diff
+	 * before it stops looking for a minimal result.
+	 */
+	private static final long MAX_WORK		= 200000000L;
+
+	private Lines a;
+	private Lines b;
+	private long work;
+	private long maxWork;
+	private List<int[]> hunks;
+
+
+	private LineDiff(Lines a, Lines b, long maxWork) {
+		this.a = a;
+		this.b = b;
+		this.maxWork = maxWork;
+		hunks = new ArrayList<int[]>();
+	}
+
+
+	/**
+	 * Adds a hunk, merging it with the previous one if they're adjacent.
+	 */
+	private void addHunk(int aStart, int aEnd, int bStart, int bEnd) {
+		if (!hunks.isEmpty()) {
+			int[] last = hunks.get(hunks.size()-1);
+			if (last[1]==aStart && last[3]==bStart) {
+				last[1] = aEnd;
+				last[3] = bEnd;
+				return;
+			}
+		}
+		hunks.add(new int[] { aStart, aEnd, bStart, bEnd });
+	}
+
+
+	/**
+	 * Applies differences to a document, so that its text changes from the
+	 * first text to the second.  Only the lines in the hunks are touched.
+	 *
+	 * @param doc The document, whose text should be <code>a</code>.
+	 * @param hunks The differences between <code>a</code> and
+	 *        <code>b</code>.
+	 * @param a The document's current text.
+	 * @param b The new text.
+	 * @throws BadLocationException If the document's text isn't
+	 *         <code>a</code>.
+	 */
+	public static void apply(Document doc, List<int[]> hunks, Lines a,
+							Lines b) throws BadLocationException {
+		// Apply from the end, so earlier offsets stay valid.
+		for (int i=hunks.size()-1; i>=0; i--) {
+			int[] hunk = hunks.get(i);
+			int offs = a.getStart(hunk[0]);
+			int oldEnd = a.getStart(hunk[1]);
+			if (oldEnd>offs) {
+				doc.remove(offs, oldEnd-offs);
+			}
+			int newStart = b.getStart(hunk[2]);
+			int newEnd = b.getStart(hunk[3]);
+			if (newEnd>newStart) {
+				doc.insertString(offs,
+					b.text.subSequence(newStart, newEnd).toString(), null);
+			}
+		}
+	}
+
+
+	/**
+	 * Finds the "middle snake" of the shortest edit script between two
+	 * ranges of lines, by searching forward from their start and backward
+	 * from their end at the same time until the two searches overlap.
+	 * Only two vectors, each the size of the ranges, are used.
+	 *
+	 * @return The point to split the ranges at, as the number of lines into
+	 *         the <code>a</code> and <code>b</code> ranges, or
+	 *         <code>null</code> if the search was too expensive.
+	 */
+	private int[] bisect(int aStart, int aEnd, int bStart, int bEnd) {
+
+		int n = aEnd - aStart;
+		int m = bEnd - bStart;
+		int maxD = (n + m + 1) / 2;
+		int offset = maxD;
+		int length = 2 * maxD + 2;
+		int[] v1 = new int[length];
+		int[] v2 = new int[length];
+		Arrays.fill(v1, -1);
+		Arrays.fill(v2, -1);
+		v1[offset+1] = 0;
+		v2[offset+1] = 0;
+		int delta = n - m;
+		boolean front = (delta&1)!=0;
+		int k1Start = 0;
+		int k1End = 0;
+		int k2Start = 0;
+		int k2End = 0;
+
+		for (int d=0; d<maxD; d++) {
+
+			if (work>maxWork) {
+				return null;
+			}
+
+			// Walk the forward path one step.
+			for (int k1=-d+k1Start; k1<=d-k1End; k1+=2) {
+				int k1Offset = offset + k1;
+				int x1 = k1==-d || (k1!=d && v1[k1Offset-1]<v1[k1Offset+1]) ?
+						v1[k1Offset+1] : v1[k1Offset-1]+1;
+				int y1 = x1 - k1;
+				int snakeStart = x1;
+				while (x1<n && y1<m && a.equals(aStart+x1, b, bStart+y1)) {
+					x1++;
+					y1++;
+				}
+				work += x1 - snakeStart + 1;
+				v1[k1Offset] = x1;
+				if (x1>n) {
+					k1End += 2; // Ran off the right of the graph
+				}
+				else if (y1>m) {
+					k1Start += 2; // Ran off the bottom of the graph
+				}
+				else if (front) {
+					int k2Offset = offset + delta - k1;
+					if (k2Offset>=0 && k2Offset<length && v2[k2Offset]!=-1 &&
+							x1>=n-v2[k2Offset]) {
+						return new int[] { x1, y1 };
+					}
+				}
+			}
+
+			// Walk the reverse path one step.
+			for (int k2=-d+k2Start; k2<=d-k2End; k2+=2) {
+				int k2Offset = offset + k2;
+				int x2 = k2==-d || (k2!=d && v2[k2Offset-1]<v2[k2Offset+1]) ?
+						v2[k2Offset+1] : v2[k2Offset-1]+1;
+				int y2 = x2 - k2;
+				int snakeStart = x2;
+				while (x2<n && y2<m &&
+						a.equals(aEnd-x2-1, b, bEnd-y2-1)) {
+					x2++;
+					y2++;
+				}
+				work += x2 - snakeStart + 1;
+				v2[k2Offset] = x2;
+				if (x2>n) {
+					k2End += 2;
+				}
+				else if (y2>m) {
+					k2Start += 2;
+				}
+				else if (!front) {
+					int k1Offset = offset + delta - k2;
+					if (k1Offset>=0 && k1Offset<length && v1[k1Offset]!=-1) {
+						int x1 = v1[k1Offset];
+						int y1 = offset + x1 - k1Offset;
+						if (x1>=n-x2) {
+							return new int[] { x1, y1 };
+						}
+					}
+				}
+			}
+
+		}
+
+		return null; // The ranges have no lines in common
+
+	}
+
+
+	/**
+	 * Returns the differences between two texts.
+	 *
+	 * @param a The first text.
+	 * @param b The second text.
+	 * @return The hunks.
+	 */
+	public static List<int[]> diff(Lines a, Lines b) {
+		return diff(a, b, MAX_WORK);
+	}
+
+
+	/**
+	 * Returns the differences between two texts, giving up on finding a
+	 * minimal result after a given amount of work.
+	 *
+	 * @param a The first text.
+	 * @param b The second text.
+	 * @param maxWork The maximum number of line comparisons to make before
+	 *        reporting the remaining unmatched regions as changed as a
+	 *        whole.
+	 * @return The hunks.
+	 */
+	public static List<int[]> diff(Lines a, Lines b, long maxWork) {
+		LineDiff diff = new LineDiff(a, b, maxWork);
+		diff.diff(0, a.size(), 0, b.size());
+		return diff.hunks;
+	}
+
+
+	/**
+	 * Diffs two ranges of lines, adding the hunks found.
+	 */
+	private void diff(int aStart, int aEnd, int bStart, int bEnd) {
+
+		// Trim common leading and trailing lines.
+		while (aStart<aEnd && bStart<bEnd && a.equals(aStart, b, bStart)) {
+			aStart++;
+			bStart++;
+		}
+		while (aStart<aEnd && bStart<bEnd && a.equals(aEnd-1, b, bEnd-1)) {
+			aEnd--;
+			bEnd--;
+		}
+
+		if (aStart==aEnd || bStart==bEnd) {
+			if (aStart<aEnd || bStart<bEnd) {
+				addHunk(aStart, aEnd, bStart, bEnd);
+			}
+			return;
+		}
+
+		int[] split = bisect(aStart, aEnd, bStart, bEnd);
+		if (split==null) {
+			addHunk(aStart, aEnd, bStart, bEnd);
+			return;
+		}
+		diff(aStart, aStart+split[0], bStart, bStart+split[1]);
+		diff(aStart+split[0], aEnd, bStart+split[1], bEnd);
+
+	}
+
+
+	/**
+	 * Updates the differences between two texts after one or both of them
+	 * changed.  Only the region affected by the changes is diffed again;
+	 * hunks before it are kept, and hunks after it are shifted.
+	 *
+	 * @param oldA The previous version of the first text.
+	 * @param oldB The previous version of the second text.
+	 * @param oldHunks The differences between <code>oldA</code> and
+	 *        <code>oldB</code>.  This list is not modified.
+	 * @param a The new version of the first text.
+	 * @param b The new version of the second text.
+	 * @return The differences between <code>a</code> and <code>b</code>.
+	 */
+	public static List<int[]> rediff(Lines oldA, Lines oldB,
+						List<int[]> oldHunks, Lines a, Lines b) {
+
+		// Find the lines that changed in each text.  A text that didn't
+		// change is treated as having an empty changed range at its end for
+		// the search from the start, and at its start for the search from
+		// the end, so only the other text limits the region diffed again.
+		int aPrefix = oldA.getCommonPrefix(a);
+		int aSuffix = oldA.getCommonSuffix(a, aPrefix);
+		if (aPrefix==oldA.size() && aPrefix==a.size()) {
+			aSuffix = aPrefix;
+		}
+		int bPrefix = oldB.getCommonPrefix(b);
+		int bSuffix = oldB.getCommonSuffix(b, bPrefix);
+		if (bPrefix==oldB.size() && bPrefix==b.size()) {
+			bSuffix = bPrefix;
+		}
+
+		// Find the last point before the changes where the old texts were
+		// in sync, i.e. not in the middle of a hunk.
+		int startA = 0;
+		int startB = 0;
+		int first = 0; // The first hunk that may be affected
+		int count = oldHunks.size();
+		while (first<count) {
+			int[] hunk = oldHunks.get(first);
+			if (hunk[1]>aPrefix || hunk[3]>bPrefix) {
+				break;
+			}
+			startA = hunk[1];
+			startB = hunk[3];
+			first++;
+		}
+		int unchanged = first<count ? oldHunks.get(first)[0]-startA :
+										Integer.MAX_VALUE;
+		int t = Math.min(unchanged, Math.min(aPrefix-startA, bPrefix-startB));
+		startA += t;
+		startB += t;
+
+		// Likewise, the first point after the changes.
+		int endA = oldA.size();
+		int endB = oldB.size();
+		int changedEndA = oldA.size() - aSuffix;
+		int changedEndB = oldB.size() - bSuffix;
+		int last = count - 1; // The last hunk that may be affected
+		while (last>=first) {
+			int[] hunk = oldHunks.get(last);
+			if (hunk[0]<changedEndA || hunk[2]<changedEndB) {
+				break;
+			}
+			endA = hunk[0];
+			endB = hunk[2];
+			last--;
+		}
+		unchanged = last>=first ? endA-oldHunks.get(last)[1] :
+										endA-startA;
+		t = Math.min(unchanged, Math.min(endA-changedEndA, endB-changedEndB));
+		endA -= t;
+		endB -= t;
+
+		// Diff the affected region of the new texts.
+		LineDiff diff = new LineDiff(a, b, MAX_WORK);
+		for (int i=0; i<first; i++) {
+			diff.hunks.add(oldHunks.get(i).clone());
+		}
+		int aDelta = a.size() - oldA.size();
+		int bDelta = b.size() - oldB.size();
+		diff.diff(startA, endA+aDelta, startB, endB+bDelta);
+		for (int i=last+1; i<count; i++) {
+			int[] hunk = oldHunks.get(i);
+			diff.addHunk(hunk[0]+aDelta, hunk[1]+aDelta,
+						hunk[2]+bDelta, hunk[3]+bDelta);
+		}
+		return diff.hunks;
+
+	}
+
+
+	/**
+	 * The lines of some text, with their hashes.  Each line includes its
+	 * trailing newline, if any.
+	 */
+	static final class Lines {
+
+		private CharSequence text;
+		private int[] starts;
+		private int[] hashes;
+		private int size;
+
+		public Lines(CharSequence text) {
+			this.text = text;
+			starts = new int[64];
+			hashes = new int[64];
+			int len = text.length();
+			int start = 0;
+			int hash = 0;
+			for (int i=0; i<len; i++) {
+				char ch = text.charAt(i);
+				hash = 31*hash + ch;
+				if (ch=='\n') {
+					add(start, hash);
+					start = i + 1;
+					hash = 0;
+				}
+			}
+			if (start<len) {
+				add(start, hash);
+			}
+			ensureCapacity(size+1);
+			starts[size] = len;
+		}
+
+		private void add(int start, int hash) {
+			ensureCapacity(size+1);
+			starts[size] = start;
+			hashes[size] = hash;
+			size++;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity>starts.length) {
+				int newSize = Math.max(capacity, starts.length*2);
+				int[] temp = new int[newSize];
+				System.arraycopy(starts, 0, temp, 0, size);
+				starts = temp;
+				temp = new int[newSize];
+				System.arraycopy(hashes, 0, temp, 0, size);
+				hashes = temp;
+			}
+		}
+
+		public boolean equals(int line, Lines other, int otherLine) {
+			if (hashes[line]!=other.hashes[otherLine]) {
+				return false;
+			}
+			int start = starts[line];
+			int len = starts[line+1] - start;
+			int otherStart = other.starts[otherLine];
+			if (len!=other.starts[otherLine+1]-otherStart) {
+				return false;
+			}
+			for (int i=0; i<len; i++) {
+				if (text.charAt(start+i)!=other.text.charAt(otherStart+i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the number of leading lines this and another text have in
+		 * common.
+		 */
+		public int getCommonPrefix(Lines other) {
+			int max = Math.min(size, other.size);
+			int prefix = 0;
+			while (prefix<max && equals(prefix, other, prefix)) {
+				prefix++;
+			}
+			return prefix;
+		}
+
+		/**
+		 * Returns the number of trailing lines this and another text have in
+		 * common, not counting lines in their common prefix.
+		 */
+		public int getCommonSuffix(Lines other, int prefix) {
+			int max = Math.min(size, other.size) - prefix;
+			int suffix = 0;
+			while (suffix<max &&
+					equals(size-suffix-1, other, other.size-suffix-1)) {
+				suffix++;
+			}
+			return suffix;
+		}
+
+		/**
+		 * Returns the offset of the start of a line.  Passing
+		 * <code>size()</code> returns the length of the text.
+		 */
+		public int getStart(int line) {
+			return starts[line];
+		}
+
+		public int size() {
+			return size;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,547 @@
+/*
+ * 10/19/2026
+ *
+ * LineFilter.java - The lines of a document matching a regular expression.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+
+/**
+ * A list model of the lines in a document that match a regular expression,
+ * like <code>less</code>'s <code>&amp;pattern</code> command.  The document
+ * itself isn't modified.  Each row maps back to its line in the document
+ * via {@link #getLine(int)}.<p>
+ *
+ * Lines are matched on a background thread, from a copy of the
+ * document, and are added to the model in chunks as they are found, so
+ * the first matches of a huge document show up right away.<p>
+ *
+ * The model is kept up to date as the document is edited.  Small edits
+ * are handled on the EDT by shifting the line numbers of the matches after
+ * them and re-testing only the edited lines.  Text appended to the end of
+ * the document (e.g. in follow mode), and large edits, are matched in the
+ * background.<p>
+ *
+ * This class should only be used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see LineFilterWindow
+ */
+class LineFilter extends AbstractListModel implements ActionListener,
+						DocumentListener, PropertyChangeListener {
+
+	/**
+	 * The number of lines matched between updates of the model.
+	 */
+	private static final int CHUNK_SIZE			= 20000;
+
+	/**
+	 * Edits touching more lines than this are matched in the background.
+	 */
+	private static final int MAX_SYNC_LINES		= 1000;
+
+	/**
+	 * How long to wait after an edit before matching in the background, in
+	 * milliseconds.  This lets consecutive appends be matched together.
+	 */
+	private static final int SCAN_DELAY			= 200;
+
+	/**
+	 * Lines longer than this are truncated when displayed.
+	 */
+	private static final int MAX_DISPLAYED_LENGTH	= 1000;
+
+	private RTextEditorPane textArea;
+	private Document doc;
+	private Pattern pattern;
+
+	/**
+	 * The matching lines, in ascending order.
+	 */
+	private int[] lines;
+	private int size;
+
+	/**
+	 * Lines before this one have been matched.  The last line of the
+	 * document is never counted, since it may still grow.
+	 */
+	private int scannedLines;
+
+	/**
+	 * The last line of the document when the current scan started.  Edits
+	 * at or after this line don't affect the scan.
+	 */
+	private int scanEnd;
+
+	private boolean scanning;
+	private volatile int scanId;
+	private Timer timer;
+
+
+	/**
+	 * Constructor.  Matching starts immediately.
+	 *
+	 * @param textArea The text area whose lines to filter.
+	 * @param pattern The pattern lines must contain.
+	 */
+	public LineFilter(RTextEditorPane textArea, Pattern pattern) {
+		this.textArea = textArea;
+		this.pattern = pattern;
+		lines = new int[64];
+		timer = new Timer(SCAN_DELAY, this);
+		timer.setRepeats(false);
+		textArea.addPropertyChangeListener("document", this);
+		setDocument(textArea.getDocument());
+	}
+
+
+	/**
+	 * Called when the timer fires, to match the lines added or changed since
+	 * the last scan.
+	 */
+	public void actionPerformed(ActionEvent e) {
+		if (scanning) { // Let it finish first
+			timer.restart();
+		}
+		else {
+			scan(scannedLines);
+		}
+	}
+
+
+	/**
+	 * Adds matching lines to the end of the model.
+	 */
+	private void append(int[] matches, int count) {
+		if (count>0) {
+			ensureCapacity(size+count);
+			System.arraycopy(matches, 0, lines, size, count);
+			size += count;
+			fireIntervalAdded(this, size-count, size-1);
+		}
+	}
+
+
+	/**
+	 * Returns the index of the first match at or after a line.
+	 */
+	private int ceilingIndex(int line) {
+		int low = 0;
+		int high = size - 1;
+		while (low<=high) {
+			int mid = (low+high) >>> 1;
+			if (lines[mid]<line) {
+				low = mid + 1;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+
+	public void changedUpdate(DocumentEvent e) {
+	}
+
+
+	/**
+	 * Stops filtering, releasing the document.
+	 */
+	public void dispose() {
+		timer.stop();
+		scanId++;
+		doc.removeDocumentListener(this);
+		textArea.removePropertyChangeListener("document", this);
+	}
+
+
+	/**
+	 * Handles an edit to the document.
+	 *
+	 * @param e The edit.
+	 */
+	private void documentChanged(DocumentEvent e) {
+
+		// The edit replaced lines [first, oldEnd) with [first, newEnd).
+		Element root = doc.getDefaultRootElement();
+		DocumentEvent.ElementChange change = e.getChange(root);
+		int first = change!=null ? change.getIndex() :
+								root.getElementIndex(e.getOffset());
+		int newEnd = first + 1;
+		int oldEnd = first + 1;
+		if (change!=null) {
+			newEnd = first + change.getChildrenAdded().length;
+			oldEnd = first + change.getChildrenRemoved().length;
+		}
+		int delta = newEnd - oldEnd;
+		int lastLine = root.getElementCount() - 1;
+
+		// A scan's results are numbered by the old lines, unless the edit
+		// is after everything it looks at, e.g. text was appended.
+		boolean resume = false;
+		if (scanning && first<scanEnd) {
+			scanId++;
+			scanning = false;
+			resume = true;
+		}
+
+		if (first>=scannedLines || newEnd-first>MAX_SYNC_LINES) {
+			removeFrom(first);
+			timer.restart();
+			return;
+		}
+
+		// Forget the matches in the edited lines, and renumber the ones
+		// after them.
+		int index = ceilingIndex(first);
+		int end = ceilingIndex(oldEnd);
+		System.arraycopy(lines, end, lines, index, size-end);
+		size -= end - index;
+		if (delta!=0) {
+			for (int i=index; i<size; i++) {
+				lines[i] += delta;
+			}
+		}
+		scannedLines = oldEnd<=scannedLines ? scannedLines+delta : newEnd;
+		scannedLines = Math.min(scannedLines, lastLine);
+
+		// Re-test the edited lines.
+		int last = Math.min(newEnd, scannedLines);
+		int[] matches = new int[Math.max(0, last-first)];
+		int matchCount = 0;
+		Matcher m = pattern.matcher("");
+		for (int line=first; line<last; line++) {
+			if (m.reset(getLineText(line)).find()) {
+				matches[matchCount++] = line;
+			}
+		}
+		ensureCapacity(size+matchCount);
+		System.arraycopy(lines, index, lines, index+matchCount, size-index);
+		System.arraycopy(matches, 0, lines, index, matchCount);
+		size += matchCount;
+
+		// Lines after the scanned ones are matched in the background.
+		if (resume || newEnd>scannedLines) {
+			removeFrom(scannedLines);
+			timer.restart();
+		}
+		fireContentsChanged(this, 0, Math.max(0, size-1));
+
+	}
+
+
+	private void ensureCapacity(int capacity) {
+		if (capacity>lines.length) {
+			int[] temp = new int[Math.max(capacity, lines.length*2)];
+			System.arraycopy(lines, 0, temp, 0, size);
+			lines = temp;
+		}
+	}
+
+
+	/**
+	 * Returns the text of a matching line, for display.  Very long lines
+	 * are truncated.
+	 *
+	 * @param index The index of the match.
+	 * @return The line's text.
+	 * @see #getLine(int)
+	 */
+	public Object getElementAt(int index) {
+		String text = getLineText(lines[index]);
+		if (text.length()>MAX_DISPLAYED_LENGTH) {
+			text = text.substring(0, MAX_DISPLAYED_LENGTH) + "...";
+		}
+		return text;
+	}
+
+
+	/**
+	 * Returns the line in the document of a match.
+	 *
+	 * @param index The index of the match.
+	 * @return The line, starting from <code>0</code>.
+	 */
+	public int getLine(int index) {
+		return lines[index];
+	}
+
+
+	/**
+	 * Returns the text of a line in the document, without its newline.
+	 */
+	private String getLineText(int line) {
+		Element root = doc.getDefaultRootElement();
+		if (line>=root.getElementCount()) {
+			return "";
+		}
+		Element elem = root.getElement(line);
+		int start = elem.getStartOffset();
+		int end = Math.min(elem.getEndOffset()-1, doc.getLength());
+		try {
+			return doc.getText(start, end-start);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return "";
+		}
+	}
+
+
+	/**
+	 * Returns the pattern lines must contain.
+	 *
+	 * @return The pattern.
+	 */
+	public Pattern getPattern() {
+		return pattern;
+	}
+
+
+	public int getSize() {
+		return size;
+	}
+
+
+	/**
+	 * Returns the text area whose lines are being filtered.
+	 *
+	 * @return The text area.
+	 */
+	public RTextEditorPane getTextArea() {
+		return textArea;
+	}
+
+
+	public void insertUpdate(DocumentEvent e) {
+		documentChanged(e);
+	}
+
+
+	/**
+	 * Returns the offset of the next newline in text.
+	 *
+	 * @param text The text.
+	 * @param offs The offset to start searching at.
+	 * @return The offset of the newline, or <code>-1</code> if there are
+	 *         none.
+	 */
+	private static int indexOfNewline(CharSequence text, int offs) {
+		int len = text.length();
+		for (int i=offs; i<len; i++) {
+			if (text.charAt(i)=='\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns whether lines are being matched in the background.
+	 *
+	 * @return Whether lines are being matched.
+	 */
+	public boolean isScanning() {
+		return scanning || timer.isRunning();
+	}
+
+
+	/**
+	 * Called when the text area's document is replaced, e.g. when it's
+	 * reloaded.
+	 */
+	public void propertyChange(PropertyChangeEvent e) {
+		if (textArea.isCompacted()) {
+			// Keep showing the old document until it's rehydrated.
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					textArea.rehydrate();
+				}
+			});
+		}
+		else {
+			setDocument(textArea.getDocument());
+		}
+	}
+
+
+	public void removeUpdate(DocumentEvent e) {
+		documentChanged(e);
+	}
+
+
+	/**
+	 * Removes the matches at or after a line.
+	 */
+	private void removeFrom(int line) {
+		int index = ceilingIndex(line);
+		if (index<size) {
+			int oldSize = size;
+			size = index;
+			fireIntervalRemoved(this, index, oldSize-1);
+		}
+		scannedLines = Math.min(scannedLines, line);
+	}
+
+
+	/**
+	 * Matches the lines from a line to the end of the document on a
+	 * background thread.  Any matches at or after that line are discarded
+	 * first.  Lines before it should have been matched already.
+	 *
+	 * @param from The line to start at.
+	 */
+	private void scan(final int from) {
+
+		removeFrom(from);
+		final int id = ++scanId;
+		scanning = true;
+
+		Element root = doc.getDefaultRootElement();
+		scanEnd = root.getElementCount() - 1;
+		int start = root.getElement(Math.min(from,
+								root.getElementCount()-1)).getStartOffset();
+
+		// Only copy the lines being matched, so matching text appended to a
+		// huge document is cheap.  A full scan uses the text area's
+		// snapshot instead, since other readers may have taken it already.
+		CharSequence temp = null;
+		if (start==0 && textArea.getDocument()==doc) {
+			temp = textArea.getSnapshot();
+		}
+		else {
+			try {
+				temp = doc.getText(start, doc.getLength()-start);
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+				temp = "";
+			}
+		}
+		final CharSequence text = temp;
+
+		Thread t = new Thread("RTextLineFilter") {
+			@Override
+			public void run() {
+
+				Matcher m = pattern.matcher(text);
+				int[] matches = new int[256];
+				int count = 0;
+				int line = from;
+				int offs = 0;
+				int len = text.length();
+
+				while (offs<len) {
+					int end = indexOfNewline(text, offs);
+					if (end==-1) { // The last line; it may still grow
+						break;
+					}
+					m.region(offs, end);
+					if (m.find()) {
+						if (count==matches.length) {
+							int[] temp = new int[count*2];
+							System.arraycopy(matches, 0, temp, 0, count);
+							matches = temp;
+						}
+						matches[count++] = line;
+					}
+					line++;
+					offs = end + 1;
+					if ((line-from)%CHUNK_SIZE==0) {
+						if (id!=scanId) {
+							return;
+						}
+						publish(id, matches, count, line, false);
+						matches = new int[256];
+						count = 0;
+					}
+				}
+
+				// The last line is matched, but not counted as scanned.
+				if (offs<len) {
+					m.region(offs, len);
+					if (m.find()) {
+						if (count==matches.length) {
+							int[] temp = new int[count+1];
+							System.arraycopy(matches, 0, temp, 0, count);
+							matches = temp;
+						}
+						matches[count++] = line;
+					}
+				}
+				publish(id, matches, count, line, true);
+
+			}
+		};
+		t.setDaemon(true);
+		t.setPriority(Thread.MIN_PRIORITY);
+		t.start();
+
+	}
+
+
+	/**
+	 * Adds matches found by a scan to the model, on the EDT.
+	 *
+	 * @param id The ID of the scan.
+	 * @param matches The matches found.
+	 * @param count The number of matches.
+	 * @param scanned Lines before this one have been matched.
+	 * @param done Whether the scan is complete.
+	 */
+	private void publish(final int id, final int[] matches, final int count,
+					final int scanned, final boolean done) {
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if (id==scanId) {
+					append(matches, count);
+					scannedLines = scanned;
+					if (done) {
+						scanning = false;
+						fireContentsChanged(LineFilter.this, 0,
+											Math.max(0, size-1));
+					}
+				}
+			}
+		});
+	}
+
+
+	/**
+	 * Sets the document to filter, and matches all its lines.
+	 *
+	 * @param doc The document.
+	 */
+	private void setDocument(Document doc) {
+		if (this.doc!=null) {
+			this.doc.removeDocumentListener(this);
+		}
+		this.doc = doc;
+		doc.addDocumentListener(this);
+		timer.stop();
+		scannedLines = 0;
+		scan(0);
+	}
+
+
+}
@@ -0,0 +1,280 @@
+/*
+ * 10/19/2026
+ *
+ * LineFilterWindow.java - A dockable window showing only matching lines.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.net.URL;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.AbstractAction;
+import javax.swing.Box;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.ImageIcon;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.JToolBar;
+import javax.swing.KeyStroke;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.text.Element;
+
+import org.fife.ui.dockablewindows.DockableWindow;
+
+
+/**
+ * A dockable window that shows only the lines of a document matching a
+ * regular expression, like <code>less</code>'s <code>&amp;pattern</code>
+ * command.  Each row shows its line number in the document; double-clicking
+ * a row (or pressing Enter) goes to that line.  The rows are kept up to date
+ * as the document changes, so this can be used to watch for particular lines
+ * in a file being followed.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see LineFilter
+ * @see RText#showLineFilterWindow()
+ */
+class LineFilterWindow extends DockableWindow implements ActionListener,
+									ListDataListener {
+
+	/**
+	 * The width of rows, in characters.  Rows have a fixed size so the list
+	 * doesn't measure every row, which would be slow for many matches.
+	 */
+	private static final int ROW_COLUMNS		= 256;
+
+	private RText rtext;
+	private JTextField patternField;
+	private JCheckBox matchCaseCheckBox;
+	private JLabel statusLabel;
+	private JList list;
+	private LineFilter filter;
+
+
+	public LineFilterWindow(RText rtext) {
+
+		this.rtext = rtext;
+		setLayout(new BorderLayout());
+
+		JToolBar toolbar = new JToolBar();
+		toolbar.setFloatable(false);
+		toolbar.add(new JLabel(rtext.getString("LineFilter.Pattern")));
+		toolbar.add(Box.createHorizontalStrut(5));
+		patternField = new JTextField(30);
+		patternField.setActionCommand("Filter");
+		patternField.addActionListener(this);
+		toolbar.add(patternField);
+		matchCaseCheckBox = new JCheckBox(
+								rtext.getString("LineFilter.MatchCase"));
+		toolbar.add(matchCaseCheckBox);
+		toolbar.add(createButton("LineFilter.Filter", "Filter"));
+		toolbar.addSeparator();
+		statusLabel = new JLabel();
+		toolbar.add(statusLabel);
+		toolbar.add(Box.createHorizontalGlue());
+		toolbar.add(createButton("LineFilter.Close", "Close"));
+		add(toolbar, BorderLayout.NORTH);
+
+		list = new JList(new DefaultListModel());
+		list.setCellRenderer(new LineRenderer());
+		list.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (e.getClickCount()==2) {
+					goToSelectedLine();
+				}
+			}
+		});
+		list.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0),
+								"goToLine");
+		list.getActionMap().put("goToLine", new AbstractAction() {
+			public void actionPerformed(ActionEvent e) {
+				goToSelectedLine();
+			}
+		});
+		add(new JScrollPane(list));
+
+		setPosition(BOTTOM);
+		setActive(true);
+		setDockableWindowName(rtext.getString("LineFilter.Title"));
+		URL url = getClass().getResource("graphics/file_icons/txt.gif");
+		setIcon(new ImageIcon(url));
+
+	}
+
+
+	public void actionPerformed(ActionEvent e) {
+
+		String command = e.getActionCommand();
+
+		if ("Filter".equals(command)) {
+			String text = patternField.getText();
+			if (text.length()==0) {
+				return;
+			}
+			Pattern pattern = null;
+			try {
+				int flags = matchCaseCheckBox.isSelected() ? 0 :
+									Pattern.CASE_INSENSITIVE;
+				pattern = Pattern.compile(text, flags);
+			} catch (PatternSyntaxException pse) {
+				JOptionPane.showMessageDialog(rtext,
+						rtext.getString("LineFilter.InvalidPattern",
+										pse.getMessage()),
+						rtext.getString("ErrorDialogTitle"),
+						JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			setFilter(new LineFilter(rtext.getMainView().getCurrentTextArea(),
+									pattern));
+		}
+
+		else if ("Close".equals(command)) {
+			setFilter(null);
+			setActive(false);
+		}
+
+	}
+
+
+	public void contentsChanged(ListDataEvent e) {
+		updateStatus();
+	}
+
+
+	private JButton createButton(String key, String command) {
+		JButton button = new JButton(rtext.getString(key));
+		button.setActionCommand(command);
+		button.addActionListener(this);
+		return button;
+	}
+
+
+	/**
+	 * Gives focus to the pattern field, e.g. when this window is shown.
+	 */
+	public void focusPatternField() {
+		patternField.requestFocusInWindow();
+		patternField.selectAll();
+	}
+
+
+	/**
+	 * Goes to the line in the document of the selected row.
+	 */
+	private void goToSelectedLine() {
+		int index = list.getSelectedIndex();
+		if (filter==null || index==-1) {
+			return;
+		}
+		RTextEditorPane textArea = filter.getTextArea();
+		if (rtext.getMainView().setSelectedTextArea(textArea)) {
+			Element root = textArea.getDocument().getDefaultRootElement();
+			int line = Math.min(filter.getLine(index),
+								root.getElementCount()-1);
+			textArea.setCaretPosition(root.getElement(line).getStartOffset());
+			textArea.requestFocusInWindow();
+		}
+	}
+
+
+	public void intervalAdded(ListDataEvent e) {
+		updateStatus();
+	}
+
+
+	public void intervalRemoved(ListDataEvent e) {
+		updateStatus();
+	}
+
+
+	/**
+	 * Sets the filter whose lines to display.
+	 *
+	 * @param filter The filter, or <code>null</code> for none.  The previous
+	 *        filter, if any, is disposed of.
+	 */
+	private void setFilter(LineFilter filter) {
+
+		if (this.filter!=null) {
+			this.filter.removeListDataListener(this);
+			this.filter.dispose();
+		}
+		this.filter = filter;
+
+		if (filter!=null) {
+			filter.addListDataListener(this);
+			list.setModel(filter);
+			Font font = filter.getTextArea().getFont();
+			list.setFont(font);
+			FontMetrics fm = list.getFontMetrics(font);
+			list.setFixedCellHeight(fm.getHeight());
+			list.setFixedCellWidth(fm.charWidth('m')*ROW_COLUMNS);
+		}
+		else {
+			list.setModel(new DefaultListModel());
+		}
+		updateStatus();
+
+	}
+
+
+	/**
+	 * Updates the label showing the number of matching lines.
+	 */
+	private void updateStatus() {
+		if (filter==null) {
+			statusLabel.setText(null);
+		}
+		else {
+			String key = filter.isScanning() ? "LineFilter.Searching" :
+											"LineFilter.MatchCount";
+			statusLabel.setText(rtext.getString(key,
+									Integer.toString(filter.getSize()),
+									filter.getTextArea().getFileName()));
+		}
+	}
+
+
+	/**
+	 * Renders a matching line, prefixed with its line number.
+	 */
+	private class LineRenderer extends DefaultListCellRenderer {
+
+		@Override
+		public Component getListCellRendererComponent(JList list,
+						Object value, int index, boolean selected,
+						boolean hasFocus) {
+			int line = filter!=null && index<filter.getSize() ?
+							filter.getLine(index)+1 : 0;
+			String text = String.valueOf(value).replace('\t', ' ');
+			super.getListCellRendererComponent(list, line + ": " + text,
+										index, selected, hasFocus);
+			return this;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,393 @@
+/*
+ * 10/19/2026
+ *
+ * LogFollower.java - Appends content added to a file to its text area.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Timer;
+import java.util.TimerTask;
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+
+/**
+ * Follows a growing file, like <code>tail -f</code>.  The file is polled
+ * on a background thread; only bytes appended since the last poll are read
+ * and decoded, and they are added to the end of the text area in a single
+ * insert on the EDT.  If the caret was at the end of the document, it stays
+ * there, so the text area scrolls to show new content.<p>
+ *
+ * The document can be limited to a maximum number of lines, in which case
+ * the oldest lines are removed as new ones arrive.<p>
+ *
+ * If the file shrinks (it was truncated), or the bytes just before the
+ * position read up to change (it was rotated, i.e. replaced by a new file),
+ * the document is cleared and the file is read again from its start.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see RTextEditorPane#startFollowing(int)
+ */
+class LogFollower {
+
+	/**
+	 * How often the file is checked for new content.
+	 */
+	private static final int POLL_MILLIS		= 500;
+
+	/**
+	 * The maximum number of bytes read in one poll.  More is read in
+	 * following polls, so a huge file doesn't become one huge insert.
+	 */
+	private static final int MAX_READ			= 4 * 1024 * 1024;
+
+	/**
+	 * The number of bytes before the read position remembered to detect
+	 * the file being replaced.
+	 */
+	private static final int SIGNATURE_SIZE		= 64;
+
+	private static Timer timer;
+
+	private RTextEditorPane textArea;
+	private File file;
+	private int maxLines;
+	private TimerTask task;
+
+	// Only accessed on the timer thread after start().
+	private long position;
+	private byte[] signature;
+	private CharsetDecoder decoder;
+	private byte[] leftover;
+	private boolean pendingCR;
+
+	// Guarded by "this".
+	private StringBuilder pending;
+	private boolean clearDocument;
+	private boolean updateScheduled;
+
+
+	/**
+	 * Constructor.  The text area's document should be up to date with the
+	 * file.
+	 *
+	 * @param textArea The text area of the file to follow.
+	 * @param maxLines The maximum number of lines to keep in the document,
+	 *        or <code>0</code> for no maximum.
+	 */
+	public LogFollower(RTextEditorPane textArea, int maxLines) {
+		this.textArea = textArea;
+		this.maxLines = maxLines;
+		file = new File(textArea.getFileFullPath());
+		pending = new StringBuilder();
+		String encoding = textArea.getEncoding();
+		Charset cs = encoding!=null ? Charset.forName(encoding) :
+										Charset.defaultCharset();
+		decoder = cs.newDecoder().
+				onMalformedInput(CodingErrorAction.REPLACE).
+				onUnmappableCharacter(CodingErrorAction.REPLACE);
+		leftover = new byte[0];
+		signature = new byte[0];
+	}
+
+
+	/**
+	 * Appends text read from the file to the document, and trims its oldest
+	 * lines if necessary.  Called on the EDT.
+	 */
+	private void applyPending() {
+
+		String text = null;
+		boolean clear = false;
+		synchronized (this) {
+			text = pending.toString();
+			pending.setLength(0);
+			clear = clearDocument;
+			clearDocument = false;
+			updateScheduled = false;
+		}
+		if (task==null) { // Stopped while this was queued
+			return;
+		}
+
+		Document doc = textArea.getDocument();
+		boolean follow = textArea.getCaretPosition()==doc.getLength();
+		try {
+			if (clear) {
+				doc.remove(0, doc.getLength());
+			}
+			doc.insertString(doc.getLength(), text, null);
+			if (maxLines>0) {
+				Element root = doc.getDefaultRootElement();
+				int excess = root.getElementCount() - maxLines;
+				if (excess>0) {
+					doc.remove(0, root.getElement(excess).getStartOffset());
+				}
+			}
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+
+		// The document mirrors the file, so there's nothing to save or undo.
+		textArea.setDirty(false);
+		textArea.discardAllEdits();
+		textArea.syncLastSaveOrLoadTimeToActualFile();
+		if (follow) {
+			textArea.setCaretPosition(doc.getLength());
+		}
+
+	}
+
+
+	/**
+	 * Decodes bytes read from the file, normalizing line endings, and queues
+	 * the text to be added to the document.
+	 *
+	 * @param buf The bytes.  Any bytes left over at the end (a partial
+	 *        character) are kept for the next read.
+	 * @param atStart Whether these are the first bytes of the file.
+	 */
+	private void decode(ByteBuffer buf, boolean atStart) {
+
+		CharBuffer out = CharBuffer.allocate(
+			(int)(buf.remaining()*(double)decoder.maxCharsPerByte()) + 1);
+		decoder.decode(buf, out, false);
+		leftover = new byte[buf.remaining()];
+		buf.get(leftover);
+		out.flip();
+
+		StringBuilder sb = new StringBuilder(out.remaining());
+		while (out.hasRemaining()) {
+			char ch = out.get();
+			if (ch=='\r') {
+				sb.append('\n');
+				pendingCR = true;
+				continue;
+			}
+			if (ch!='\n' || !pendingCR) {
+				sb.append(ch);
+			}
+			pendingCR = false;
+		}
+		if (atStart && sb.length()>0 && sb.charAt(0)=='\uFEFF') { // BOM
+			sb.deleteCharAt(0);
+		}
+
+		if (sb.length()>0) {
+			synchronized (this) {
+				pending.append(sb);
+				if (!updateScheduled) {
+					updateScheduled = true;
+					SwingUtilities.invokeLater(new Runnable() {
+						public void run() {
+							applyPending();
+						}
+					});
+				}
+			}
+		}
+
+	}
+
+
+	/**
+	 * Checks the file for new content.  Called on the timer thread.
+	 */
+	private void poll() {
+
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "r");
+		} catch (FileNotFoundException fnfe) {
+			return; // Rotated away and not yet re-created
+		}
+
+		try {
+			FileChannel channel = raf.getChannel();
+			long size = channel.size();
+			if (size<position || !signatureMatches(channel)) {
+				restart();
+			}
+			if (size>position) {
+				read(channel, size);
+			}
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		} finally {
+			try {
+				raf.close();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Reads bytes appended to the file and queues their text to be added to
+	 * the document.
+	 *
+	 * @param channel The file.
+	 * @param size The file's size.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private void read(FileChannel channel, long size) throws IOException {
+
+		boolean atStart = position==0;
+		int count = (int)Math.min(size-position, MAX_READ);
+		ByteBuffer buf = ByteBuffer.allocate(leftover.length + count);
+		buf.put(leftover);
+		readFully(channel, buf, position);
+		position += count;
+
+		// Remember the last bytes read, to detect the file being replaced.
+		byte[] bytes = buf.array();
+		byte[] newSignature = new byte[(int)Math.min(SIGNATURE_SIZE,
+												position)];
+		int fromBuf = Math.min(newSignature.length, count);
+		int fromOld = newSignature.length - fromBuf;
+		System.arraycopy(signature, signature.length-fromOld,
+							newSignature, 0, fromOld);
+		System.arraycopy(bytes, bytes.length-fromBuf, newSignature,
+							fromOld, fromBuf);
+		signature = newSignature;
+
+		buf.flip();
+		decode(buf, atStart);
+
+	}
+
+
+	/**
+	 * Fills a buffer with bytes from a channel.
+	 *
+	 * @param channel The channel.
+	 * @param buf The buffer.
+	 * @param pos The position in the channel to read from.
+	 * @throws IOException If an I/O error occurs, or the end of the channel
+	 *         is reached.
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buf,
+								long pos) throws IOException {
+		while (buf.hasRemaining()) {
+			int count = channel.read(buf, pos);
+			if (count<0) {
+				throw new IOException("Unexpected end of file");
+			}
+			pos += count;
+		}
+	}
+
+
+	/**
+	 * Starts reading the file from the beginning, since it was truncated
+	 * or replaced.  The document is cleared before the new content is added.
+	 */
+	private void restart() {
+		position = 0;
+		signature = new byte[0];
+		leftover = new byte[0];
+		pendingCR = false;
+		decoder.reset();
+		synchronized (this) {
+			pending.setLength(0);
+			clearDocument = true;
+			if (!updateScheduled) {
+				updateScheduled = true;
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						applyPending();
+					}
+				});
+			}
+		}
+	}
+
+
+	/**
+	 * Returns whether the bytes just before the read position are still the
+	 * ones read last time, i.e. the file wasn't replaced.
+	 *
+	 * @param channel The file.
+	 * @return Whether the file is the one we've been reading.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private boolean signatureMatches(FileChannel channel) throws IOException {
+		if (signature.length==0) {
+			return true;
+		}
+		if (channel.size()<position) {
+			return false;
+		}
+		ByteBuffer buf = ByteBuffer.allocate(signature.length);
+		readFully(channel, buf, position-signature.length);
+		return Arrays.equals(signature, buf.array());
+	}
+
+
+	/**
+	 * Starts following the file from its current end.  Should be called on
+	 * the EDT.
+	 *
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public void start() throws IOException {
+
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			position = channel.size();
+			signature = new byte[(int)Math.min(SIGNATURE_SIZE, position)];
+			ByteBuffer buf = ByteBuffer.wrap(signature);
+			readFully(channel, buf, position-signature.length);
+		} finally {
+			raf.close();
+		}
+
+		synchronized (LogFollower.class) {
+			if (timer==null) {
+				timer = new Timer("RTextLogFollower", true);
+			}
+		}
+		task = new TimerTask() {
+			@Override
+			public void run() {
+				poll();
+			}
+		};
+		timer.schedule(task, POLL_MILLIS, POLL_MILLIS);
+
+	}
+
+
+	/**
+	 * Stops following the file.  Should be called on the EDT.
+	 */
+	public void stop() {
+		if (task!=null) {
+			task.cancel();
+			task = null;
+		}
+	}
+
+
+}
@@ -0,0 +1,737 @@
+/*
+ * 10/19/2026
+ *
+ * Minimap.java - An overview of a document's text.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.Style;
+import org.fife.ui.rsyntaxtextarea.SyntaxScheme;
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+
+
+/**
+ * A small overview of a document, shown next to its text area.  Each line is
+ * drawn as a row of pixels in its tokens' colors, and the visible part of
+ * the document is outlined.  Clicking or dragging in the minimap scrolls
+ * the text area.<p>
+ *
+ * The minimap is divided into horizontal <em>bands</em>.  If the document is
+ * short enough, each line gets its own band; otherwise each band is a
+ * single pixel row showing a sample line.  Bands are rendered on a
+ * background thread into a cached image, and only bands whose lines were
+ * edited (or whose lines' syntax highlighting changed as a result, e.g. when
+ * a multi-line comment is opened) are re-rendered.  When lines are inserted
+ * or removed in a short document, the rows below are simply moved.<p>
+ *
+ * Minimaps are hidden for documents whose {@link PerformanceProfile} doesn't
+ * allow them, so large files never pay for one, and when the user hides
+ * them.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see AbstractMainView#createMinimap(RTextEditorPane)
+ */
+class Minimap extends JComponent implements ActionListener, ChangeListener,
+									DocumentListener, PropertyChangeListener {
+
+	/**
+	 * The width of the minimap, which is also the number of columns shown.
+	 */
+	private static final int WIDTH				= 80;
+
+	/**
+	 * The height of a line when each line gets its own band.
+	 */
+	private static final int LINE_HEIGHT		= 2;
+
+	/**
+	 * How long to wait after the document is edited before rendering, in
+	 * milliseconds.
+	 */
+	private static final int RENDER_DELAY		= 300;
+
+	/**
+	 * Renders minimaps for all documents.  A single thread is enough, since
+	 * only a few hundred lines are rendered at a time.
+	 */
+	private static ExecutorService executor;
+
+	private RTextEditorPane textArea;
+	private Document doc;
+	private JViewport viewport;
+	private Timer timer;
+
+	private BufferedImage image;
+	private int[] pixels;
+	private int lineCount;
+	private int bandCount;
+	private int bandHeight;
+
+	/**
+	 * The token type each band's line started in when it was last
+	 * rendered.  If this changes, the band is rendered again.
+	 */
+	private int[] bandInitialTokenTypes;
+	private BitSet dirty;
+
+	/**
+	 * Incremented whenever rendered bands may no longer be where they were
+	 * when the rendering started.
+	 */
+	private int generation;
+	private boolean rendering;
+	private boolean userVisible;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area to show an overview of.
+	 */
+	public Minimap(RTextEditorPane textArea) {
+
+		this.textArea = textArea;
+		dirty = new BitSet();
+		timer = new Timer(RENDER_DELAY, this);
+		timer.setRepeats(false);
+		userVisible = true;
+
+		setDocument(textArea.getDocument());
+		textArea.addPropertyChangeListener(this);
+		profileChanged();
+
+		MouseAdapter ma = new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent e) {
+				scrollTo(e.getY());
+			}
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				scrollTo(e.getY());
+			}
+		};
+		addMouseListener(ma);
+		addMouseMotionListener(ma);
+
+	}
+
+
+	/**
+	 * Called when the render timer fires.
+	 *
+	 * @param e The event.
+	 */
+	public void actionPerformed(ActionEvent e) {
+		render();
+	}
+
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		if (textArea.getParent() instanceof JViewport) {
+			viewport = (JViewport)textArea.getParent();
+			viewport.addChangeListener(this);
+		}
+	}
+
+
+	/**
+	 * Called on the EDT with the rows rendered for a set of bands.
+	 *
+	 * @param job The job that rendered the rows.
+	 * @param rows The rendered rows.
+	 */
+	private void apply(RenderJob job, int[][] rows) {
+
+		rendering = false;
+
+		if (image==null) {
+			// Hidden, or about to be laid out again.
+		}
+		else if (job.generation!=generation) {
+			// Lines moved or the layout changed while we were rendering;
+			// we no longer know which bands these rows belong to.
+			invalidate(0, bandCount);
+		}
+		else {
+			int bg = job.colors[job.colors.length-1];
+			for (int i=0; i<job.bands.length; i++) {
+				int row = job.bands[i] * bandHeight;
+				System.arraycopy(rows[i], 0, pixels, row*WIDTH, WIDTH);
+				if (bandHeight>1) {
+					// Leave a gap between lines.
+					Arrays.fill(pixels, (row+1)*WIDTH, (row+bandHeight)*WIDTH,
+								bg);
+				}
+			}
+			repaint();
+		}
+
+		if (!dirty.isEmpty()) {
+			timer.restart();
+		}
+
+	}
+
+
+	public void changedUpdate(DocumentEvent e) {
+	}
+
+
+	/**
+	 * Returns the thread that renders minimaps.
+	 *
+	 * @return The thread pool.
+	 */
+	private static synchronized ExecutorService getExecutor() {
+		if (executor==null) {
+			executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "RText Minimap");
+					t.setDaemon(true);
+					t.setPriority(Thread.MIN_PRIORITY);
+					return t;
+				}
+			});
+		}
+		return executor;
+	}
+
+
+	/**
+	 * Returns the first line of a band.
+	 *
+	 * @param band The band.
+	 * @return The line.
+	 */
+	private int getLineForBand(int band) {
+		return bandHeight==LINE_HEIGHT ? band :
+				(int)((long)band*lineCount/bandCount);
+	}
+
+
+	/**
+	 * Returns the y-coordinate in this minimap of a line.
+	 *
+	 * @param line The line.
+	 * @return The y-coordinate.
+	 */
+	private int getLineY(int line) {
+		if (bandHeight==LINE_HEIGHT) {
+			return line*LINE_HEIGHT;
+		}
+		return lineCount==0 ? 0 : (int)((long)line*bandCount/lineCount);
+	}
+
+
+	@Override
+	public Dimension getPreferredSize() {
+		return new Dimension(WIDTH, 0);
+	}
+
+
+	public void insertUpdate(DocumentEvent e) {
+		Element root = doc.getDefaultRootElement();
+		int offs = e.getOffset();
+		linesChanged(root.getElementIndex(offs),
+					root.getElementIndex(offs+e.getLength()));
+	}
+
+
+	/**
+	 * Marks a range of bands as needing to be rendered.
+	 *
+	 * @param start The first band.
+	 * @param end The band after the last one.
+	 */
+	private void invalidate(int start, int end) {
+		if (start<end) {
+			dirty.set(start, end);
+			timer.restart();
+		}
+	}
+
+
+	/**
+	 * Re-renders the entire minimap, e.g. when the document or colors
+	 * change.
+	 */
+	private void invalidateAll() {
+		image = null; // Forces a new layout
+		pixels = null;
+		generation++;
+		timer.restart();
+		repaint();
+	}
+
+
+	/**
+	 * Lays out the bands for the current size of this component and number
+	 * of lines, if they changed.
+	 *
+	 * @return Whether there is anything to render.
+	 */
+	private boolean layoutBands() {
+
+		int height = getHeight();
+		if (height==0) {
+			return false;
+		}
+		int lines = doc.getDefaultRootElement().getElementCount();
+		boolean fits = lines*LINE_HEIGHT<=height;
+
+		if (image==null || image.getHeight()!=height ||
+				fits!=(bandHeight==LINE_HEIGHT)) {
+			image = new BufferedImage(WIDTH, height,
+									BufferedImage.TYPE_INT_RGB);
+			pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).
+									getData();
+			Arrays.fill(pixels, textArea.getBackground().getRGB());
+			bandInitialTokenTypes = new int[height];
+			Arrays.fill(bandInitialTokenTypes, -1);
+			bandHeight = fits ? LINE_HEIGHT : 1;
+			dirty.clear();
+			generation++;
+		}
+
+		lineCount = lines;
+		bandCount = fits ? lines : height;
+		return true;
+
+	}
+
+
+	/**
+	 * Called when lines in the document are edited.
+	 *
+	 * @param first The first line edited.
+	 * @param last The last line edited, after the edit.
+	 */
+	private void linesChanged(int first, int last) {
+
+		if (image==null) {
+			timer.restart();
+			return;
+		}
+
+		int newLineCount = doc.getDefaultRootElement().getElementCount();
+		int delta = newLineCount - lineCount;
+
+		if (delta==0) {
+			if (bandHeight==LINE_HEIGHT) {
+				invalidate(first, last+1);
+			}
+			else {
+				invalidate(getLineY(first), getLineY(last)+1);
+			}
+		}
+
+		else if (bandHeight==LINE_HEIGHT &&
+				newLineCount*LINE_HEIGHT<=image.getHeight()) {
+			// Move the rows for lines below the edit, rather than
+			// rendering them again.
+			int src = first + 1 + Math.max(0, -delta);
+			int dst = src + delta;
+			int count = lineCount - src;
+			System.arraycopy(pixels, src*LINE_HEIGHT*WIDTH,
+					pixels, dst*LINE_HEIGHT*WIDTH, count*LINE_HEIGHT*WIDTH);
+			System.arraycopy(bandInitialTokenTypes, src,
+							bandInitialTokenTypes, dst, count);
+			if (delta<0) {
+				Arrays.fill(pixels, newLineCount*LINE_HEIGHT*WIDTH,
+						lineCount*LINE_HEIGHT*WIDTH,
+						textArea.getBackground().getRGB());
+			}
+			BitSet moved = new BitSet();
+			for (int i=dirty.nextSetBit(0); i>=0; i=dirty.nextSetBit(i+1)) {
+				if (i<src) {
+					moved.set(i);
+				}
+				else if (i+delta>=0) {
+					moved.set(i+delta);
+				}
+			}
+			dirty = moved;
+			lineCount = bandCount = newLineCount;
+			generation++;
+			invalidate(first, last+1);
+			repaint();
+		}
+
+		else {
+			// Every sample line below the edit has changed.
+			lineCount = newLineCount;
+			invalidate(getLineY(first), bandCount);
+		}
+
+	}
+
+
+	@Override
+	protected void paintComponent(Graphics g) {
+
+		Color bg = textArea.getBackground();
+		g.setColor(bg);
+		g.fillRect(0, 0, getWidth(), getHeight());
+
+		if (image==null || image.getHeight()!=getHeight() ||
+				!dirty.isEmpty()) {
+			// Render once we're visible; we don't bother while hidden.
+			timer.restart();
+		}
+		if (image!=null) {
+			g.drawImage(image, 0, 0, null);
+		}
+
+		// Outline the visible part of the document.
+		if (viewport!=null && image!=null) {
+			Rectangle visible = viewport.getViewRect();
+			Element root = doc.getDefaultRootElement();
+			int y1 = getLineY(root.getElementIndex(
+						textArea.viewToModel(new Point(0, visible.y))));
+			int y2 = getLineY(root.getElementIndex(textArea.viewToModel(
+						new Point(0, visible.y+visible.height))));
+			int h = Math.max(2, y2-y1);
+			Color fg = textArea.getForeground();
+			g.setColor(new Color(fg.getRed(), fg.getGreen(), fg.getBlue(),
+								32));
+			g.fillRect(0, y1, getWidth(), h);
+			g.setColor(new Color(fg.getRed(), fg.getGreen(), fg.getBlue(),
+								96));
+			g.drawRect(0, y1, getWidth()-1, h-1);
+		}
+
+	}
+
+
+	/**
+	 * Shows or hides this minimap, depending on whether the user wants it
+	 * and the text area's performance profile allows it.
+	 */
+	private void profileChanged() {
+		boolean allowed = userVisible &&
+				textArea.getPerformanceProfile().isMinimapAllowed();
+		setVisible(allowed);
+		if (allowed) {
+			invalidateAll();
+		}
+		else {
+			// Don't hold onto an image we won't be using.
+			image = null;
+			pixels = null;
+			generation++;
+		}
+	}
+
+
+	public void propertyChange(PropertyChangeEvent e) {
+
+		String prop = e.getPropertyName();
+
+		if ("document".equals(prop)) {
+			// Also happens when the text area is compacted or rehydrated.
+			setDocument(textArea.getDocument());
+			invalidateAll();
+		}
+
+		else if (RTextEditorPane.PERFORMANCE_PROFILE_PROPERTY.equals(prop)) {
+			profileChanged();
+		}
+
+		else if (RSyntaxTextArea.SYNTAX_SCHEME_PROPERTY.equals(prop) ||
+				RSyntaxTextArea.SYNTAX_STYLE_PROPERTY.equals(prop) ||
+				"background".equals(prop) || "foreground".equals(prop) ||
+				"tabSize".equals(prop)) {
+			invalidateAll();
+		}
+
+	}
+
+
+	@Override
+	public void removeNotify() {
+		super.removeNotify();
+		if (viewport!=null) {
+			viewport.removeChangeListener(this);
+			viewport = null;
+		}
+		timer.stop();
+	}
+
+
+	public void removeUpdate(DocumentEvent e) {
+		int line = doc.getDefaultRootElement().getElementIndex(e.getOffset());
+		linesChanged(line, line);
+	}
+
+
+	/**
+	 * Starts rendering the bands that need it, if this minimap is visible
+	 * and isn't already rendering.
+	 */
+	private void render() {
+
+		if (!isShowing() || rendering || !layoutBands()) {
+			return;
+		}
+
+		// Bands whose lines now start in a different token type, e.g.
+		// because a multi-line comment was opened above them, need to be
+		// rendered again, even though their text didn't change.
+		RSyntaxDocument rsd = doc instanceof RSyntaxDocument ?
+								(RSyntaxDocument)doc : null;
+		int[] initialTokenTypes = new int[bandCount];
+		for (int i=0; i<bandCount; i++) {
+			int line = getLineForBand(i);
+			initialTokenTypes[i] = line==0 || rsd==null ? Token.NULL :
+								rsd.getLastTokenTypeOnLine(line-1);
+			if (initialTokenTypes[i]!=bandInitialTokenTypes[i]) {
+				dirty.set(i);
+			}
+		}
+		if (dirty.length()>bandCount) {
+			dirty.clear(bandCount, dirty.length());
+		}
+		if (dirty.isEmpty()) {
+			return;
+		}
+
+		RenderJob job = new RenderJob();
+		int count = dirty.cardinality();
+		job.bands = new int[count];
+		job.initialTokenTypes = new int[count];
+		job.text = new char[count][];
+		Element root = doc.getDefaultRootElement();
+		Segment s = new Segment();
+		int i = 0;
+		try {
+			for (int b=dirty.nextSetBit(0); b>=0; b=dirty.nextSetBit(b+1)) {
+				Element elem = root.getElement(getLineForBand(b));
+				int start = elem.getStartOffset();
+				int len = Math.min(elem.getEndOffset()-1-start, WIDTH);
+				doc.getText(start, len, s);
+				job.bands[i] = b;
+				job.initialTokenTypes[i] = initialTokenTypes[b];
+				job.text[i] = s.toString().toCharArray();
+				bandInitialTokenTypes[b] = initialTokenTypes[b];
+				i++;
+			}
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return;
+		}
+		dirty.clear();
+
+		// The last color is the background.
+		SyntaxScheme scheme = textArea.getSyntaxScheme();
+		int styleCount = scheme.getStyleCount();
+		job.colors = new int[styleCount+1];
+		int fg = textArea.getForeground().getRGB();
+		for (int t=0; t<styleCount; t++) {
+			Style style = scheme.getStyle(t);
+			job.colors[t] = style!=null && style.foreground!=null ?
+								style.foreground.getRGB() : fg;
+		}
+		job.colors[styleCount] = textArea.getBackground().getRGB();
+		job.syntaxStyle = textArea.getSyntaxEditingStyle();
+		job.tabSize = textArea.getTabSize();
+		job.generation = generation;
+
+		rendering = true;
+		getExecutor().execute(job);
+
+	}
+
+
+	/**
+	 * Renders one line of text into a row of pixels.
+	 *
+	 * @param text The text of the line, without its newline.
+	 * @param token The tokens of the line.
+	 * @param colors The token colors, followed by the background color.
+	 * @param tabSize The tab size.
+	 * @return The row of pixels.
+	 */
+	private static int[] renderLine(char[] text, Token token, int[] colors,
+									int tabSize) {
+
+		int bg = colors[colors.length-1];
+		int[] row = new int[WIDTH];
+		Arrays.fill(row, bg);
+
+		int col = 0;
+		for (; token!=null && token.isPaintable() && col<WIDTH;
+				token=token.getNextToken()) {
+			int type = token.getType();
+			int color = type<colors.length-1 ? colors[type] : colors[0];
+			int end = token.getTextOffset() + token.length();
+			for (int i=token.getTextOffset(); i<end && col<WIDTH; i++) {
+				char ch = text[i];
+				if (ch=='\t') {
+					col += tabSize - (col%tabSize);
+				}
+				else {
+					if (!Character.isWhitespace(ch)) {
+						row[col] = color;
+					}
+					col++;
+				}
+			}
+		}
+
+		return row;
+
+	}
+
+
+	/**
+	 * Scrolls the text area so the line at a y-coordinate in this minimap
+	 * is centered.
+	 *
+	 * @param y The y-coordinate.
+	 */
+	private void scrollTo(int y) {
+
+		if (viewport==null || image==null || lineCount==0) {
+			return;
+		}
+
+		int line = bandHeight==LINE_HEIGHT ? y/LINE_HEIGHT :
+				(int)((long)Math.max(0, y)*lineCount/Math.max(1, bandCount));
+		line = Math.max(0, Math.min(line, lineCount-1));
+
+		Rectangle visible = viewport.getViewRect();
+		int offs = doc.getDefaultRootElement().getElement(line).
+										getStartOffset();
+		try {
+			Rectangle r = textArea.modelToView(offs);
+			if (r==null) { // Not yet laid out
+				return;
+			}
+			int viewY = Math.max(0, r.y - visible.height/2);
+			int maxY = Math.max(0, textArea.getHeight()-visible.height);
+			viewport.setViewPosition(new Point(visible.x,
+										Math.min(viewY, maxY)));
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+
+	}
+
+
+	/**
+	 * Starts listening to a new document.
+	 *
+	 * @param doc The document.
+	 */
+	private void setDocument(Document doc) {
+		if (this.doc!=null) {
+			this.doc.removeDocumentListener(this);
+		}
+		this.doc = doc;
+		doc.addDocumentListener(this);
+	}
+
+
+	/**
+	 * Sets whether the user wants this minimap to be visible.  It is still
+	 * hidden if the text area's performance profile doesn't allow it.
+	 *
+	 * @param visible Whether this minimap should be visible.
+	 * @see AbstractMainView#setMinimapEnabled(boolean)
+	 */
+	void setUserVisible(boolean visible) {
+		if (visible!=userVisible) {
+			userVisible = visible;
+			profileChanged();
+		}
+	}
+
+
+	/**
+	 * Called when the text area is scrolled.
+	 *
+	 * @param e The event.
+	 */
+	public void stateChanged(ChangeEvent e) {
+		repaint();
+	}
+
+
+	/**
+	 * Renders a set of bands on the minimap thread.
+	 */
+	private class RenderJob implements Runnable {
+
+		private int[] bands;
+		private int[] initialTokenTypes;
+		private char[][] text;
+		private int[] colors;
+		private String syntaxStyle;
+		private int tabSize;
+		private int generation;
+
+		public void run() {
+
+			TokenMaker tm = TokenMakerFactory.getDefaultInstance().
+										getTokenMaker(syntaxStyle);
+			final int[][] rows = new int[bands.length][];
+			for (int i=0; i<bands.length; i++) {
+				Segment s = new Segment(text[i], 0, text[i].length);
+				Token t = tm.getTokenList(s, initialTokenTypes[i], 0);
+				rows[i] = renderLine(text[i], t, colors, tabSize);
+			}
+
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					apply(RenderJob.this, rows);
+				}
+			});
+
+		}
+
+	}
+
+
+}
@@ -0,0 +1,298 @@
+/*
+ * 10/19/2026
+ *
+ * OpenDocumentIndex.java - Fast lookups of open documents by path.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fife.ui.OS;
+
+
+/**
+ * Maps file paths to the text areas editing them, and text areas to their
+ * indices in a main view.  This keeps looking up an open document (e.g. to
+ * reuse its tab when a file is opened again) from scanning every open text
+ * area, which adds up quickly with thousands of open files.<p>
+ *
+ * The index is updated in place as text areas are added to or removed from
+ * the view, and as their files are renamed.  Any other change (reordering
+ * tabs, etc.) is detected by a cheap check of the document count and the
+ * indexed positions, and causes the index to be rebuilt on the next lookup.
+ * Paths are normalized so that, on case insensitive file systems,
+ * differently-cased paths to the same file match.<p>
+ *
+ * This class should only be used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class OpenDocumentIndex {
+
+	private AbstractMainView view;
+
+	/**
+	 * Text areas by normalized path, in the order they appear in the view.
+	 */
+	private Map<String, List<RTextEditorPane>> panesByPath;
+
+	/**
+	 * Text areas and their indices in the view.
+	 */
+	private Map<RTextEditorPane, Integer> indices;
+
+	/**
+	 * The normalized path each text area is indexed under.
+	 */
+	private Map<RTextEditorPane, String> paths;
+
+	private boolean valid;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param view The main view whose documents to index.
+	 */
+	public OpenDocumentIndex(AbstractMainView view) {
+		this.view = view;
+		panesByPath = new HashMap<String, List<RTextEditorPane>>();
+		indices = new IdentityHashMap<RTextEditorPane, Integer>();
+		paths = new IdentityHashMap<RTextEditorPane, String>();
+	}
+
+
+	/**
+	 * Adds a text area to the index.
+	 *
+	 * @param textArea The text area.
+	 * @param index Its index in the view.
+	 */
+	private void add(RTextEditorPane textArea, int index) {
+		indices.put(textArea, Integer.valueOf(index));
+		String path = normalize(textArea.getFileFullPath());
+		paths.put(textArea, path);
+		List<RTextEditorPane> panes = panesByPath.get(path);
+		if (panes==null) {
+			panes = new ArrayList<RTextEditorPane>(1);
+			panesByPath.put(path, panes);
+		}
+		panes.add(textArea);
+	}
+
+
+	/**
+	 * Ensures the index reflects the documents in the view, rebuilding it if
+	 * necessary.
+	 */
+	private void ensureValid() {
+		if (!valid || indices.size()!=view.getNumDocuments()) {
+			rebuild();
+		}
+	}
+
+
+	/**
+	 * Returns the index of the first document editing the specified file.
+	 *
+	 * @param fileFullPath The file.
+	 * @return The index of the document, or <code>-1</code> if the file is
+	 *         not open.
+	 */
+	public int getFileIndex(String fileFullPath) {
+		List<RTextEditorPane> panes = getTextAreasFor(fileFullPath);
+		return panes.isEmpty() ? -1 : getIndexOf(panes.get(0));
+	}
+
+
+	/**
+	 * Returns the index of a text area in the view.
+	 *
+	 * @param textArea The text area.
+	 * @return Its index, or <code>-1</code> if it isn't in the view.
+	 */
+	public int getIndexOf(RTextEditorPane textArea) {
+		ensureValid();
+		Integer index = indices.get(textArea);
+		if (index!=null && !isAt(textArea, index.intValue())) {
+			// Tabs were moved around.
+			rebuild();
+			index = indices.get(textArea);
+		}
+		return index!=null ? index.intValue() : -1;
+	}
+
+
+	/**
+	 * Returns all text areas editing a file, in the order they appear in the
+	 * view.
+	 *
+	 * @param fileFullPath The file.
+	 * @return The text areas.  This will be empty if the file isn't open.
+	 */
+	public List<RTextEditorPane> getTextAreasFor(String fileFullPath) {
+		ensureValid();
+		List<RTextEditorPane> panes = panesByPath.get(
+										normalize(fileFullPath));
+		if (panes==null) {
+			return Collections.emptyList();
+		}
+		for (RTextEditorPane textArea : panes) {
+			if (!isAt(textArea, indices.get(textArea).intValue())) {
+				rebuild();
+				panes = panesByPath.get(normalize(fileFullPath));
+				break;
+			}
+		}
+		return panes!=null ? panes : Collections.<RTextEditorPane>emptyList();
+	}
+
+
+	/**
+	 * Marks the index as needing to be rebuilt.
+	 */
+	public void invalidate() {
+		valid = false;
+	}
+
+
+	private boolean isAt(RTextEditorPane textArea, int index) {
+		return index<view.getNumDocuments() &&
+				view.getRTextEditorPaneAt(index)==textArea;
+	}
+
+
+	/**
+	 * Normalizes a path for lookups.
+	 *
+	 * @param path The path.
+	 * @return The normalized path.
+	 */
+	private static String normalize(String path) {
+		return OS.get().isCaseSensitive() ? path : path.toLowerCase();
+	}
+
+
+	/**
+	 * Called when a text area's file changes, e.g. on "Save As."
+	 *
+	 * @param textArea The text area.
+	 */
+	public void pathChanged(RTextEditorPane textArea) {
+
+		String oldPath = paths.get(textArea);
+		if (!valid || oldPath==null) {
+			return; // Picked up by the next rebuild
+		}
+		String path = normalize(textArea.getFileFullPath());
+		if (path.equals(oldPath)) {
+			return;
+		}
+
+		removePath(textArea, oldPath);
+		paths.put(textArea, path);
+
+		// Keep text areas editing the same file in view order.
+		List<RTextEditorPane> panes = panesByPath.get(path);
+		if (panes==null) {
+			panes = new ArrayList<RTextEditorPane>(1);
+			panesByPath.put(path, panes);
+		}
+		int index = indices.get(textArea).intValue();
+		int pos = 0;
+		while (pos<panes.size() &&
+				indices.get(panes.get(pos)).intValue()<index) {
+			pos++;
+		}
+		panes.add(pos, textArea);
+
+	}
+
+
+	/**
+	 * Rebuilds the index from scratch.
+	 */
+	private void rebuild() {
+		panesByPath.clear();
+		indices.clear();
+		paths.clear();
+		int count = view.getNumDocuments();
+		for (int i=0; i<count; i++) {
+			add(view.getRTextEditorPaneAt(i), i);
+		}
+		valid = true;
+	}
+
+
+	/**
+	 * Removes a text area from the list of those editing a file.
+	 *
+	 * @param textArea The text area.
+	 * @param path The normalized path it was indexed under.
+	 */
+	private void removePath(RTextEditorPane textArea, String path) {
+		List<RTextEditorPane> panes = panesByPath.get(path);
+		panes.remove(textArea);
+		if (panes.isEmpty()) {
+			panesByPath.remove(path);
+		}
+	}
+
+
+	/**
+	 * Called just before a text area is appended to the view.
+	 *
+	 * @param textArea The text area.
+	 */
+	public void textAreaAdded(RTextEditorPane textArea) {
+		if (valid && indices.size()==view.getNumDocuments()) {
+			add(textArea, indices.size());
+		}
+		else {
+			invalidate();
+		}
+	}
+
+
+	/**
+	 * Called just before a text area is removed from the view.
+	 *
+	 * @param index The index of the text area.
+	 */
+	public void textAreaRemoved(int index) {
+
+		if (!valid || indices.size()!=view.getNumDocuments()) {
+			return; // Will be rebuilt anyway
+		}
+		RTextEditorPane textArea = view.getRTextEditorPaneAt(index);
+		Integer oldIndex = indices.get(textArea);
+		if (oldIndex==null || oldIndex.intValue()!=index) {
+			invalidate(); // Tabs were moved around
+			return;
+		}
+
+		indices.remove(textArea);
+		removePath(textArea, paths.remove(textArea));
+
+		// Documents after it move up one position.
+		for (Map.Entry<RTextEditorPane, Integer> entry : indices.entrySet()) {
+			int i = entry.getValue().intValue();
+			if (i>index) {
+				entry.setValue(Integer.valueOf(i-1));
+			}
+		}
+
+	}
+
+
+}
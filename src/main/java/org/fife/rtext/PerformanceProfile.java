@@ -0,0 +1,151 @@
+/*
+ * 10/19/2026
+ *
+ * PerformanceProfile.java - Editor features enabled for a document.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+
+/**
+ * Which of the more expensive editor features are enabled for a document.
+ * Large files, and files with very long lines (e.g. minified sources),
+ * still open fine but make typing lag if every feature is active, so a
+ * profile is picked for each text area when it is created, based on the
+ * file's size and longest line.  The user can always switch a document
+ * back to {@link #FULL} from the status bar.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see AbstractMainView#getPerformanceProfile(long, Document)
+ */
+public enum PerformanceProfile {
+
+	/**
+	 * All features are enabled, as configured by the user.
+	 */
+	FULL(true, true, true, true, true, true),
+
+	/**
+	 * Code folding, occurrence marking, parsers (spell checking, tasks,
+	 * language support, etc.) and the minimap are disabled.
+	 */
+	REDUCED(true, false, false, false, true, false),
+
+	/**
+	 * As {@link #REDUCED}, and bracket matching and line wrapping are also
+	 * disabled.
+	 */
+	MINIMAL(false, false, false, false, false, false);
+
+	private boolean bracketMatching;
+	private boolean codeFolding;
+	private boolean markOccurrences;
+	private boolean parsers;
+	private boolean lineWrap;
+	private boolean minimap;
+
+
+	private PerformanceProfile(boolean bracketMatching, boolean codeFolding,
+			boolean markOccurrences, boolean parsers, boolean lineWrap,
+			boolean minimap) {
+		this.bracketMatching = bracketMatching;
+		this.codeFolding = codeFolding;
+		this.markOccurrences = markOccurrences;
+		this.parsers = parsers;
+		this.lineWrap = lineWrap;
+		this.minimap = minimap;
+	}
+
+
+	/**
+	 * Returns the length of the longest line in a document.  This only
+	 * looks at the document's line elements, not its text.
+	 *
+	 * @param doc The document.
+	 * @return The length of the longest line.
+	 */
+	static int getLongestLineLength(Document doc) {
+		Element root = doc.getDefaultRootElement();
+		int lineCount = root.getElementCount();
+		int longest = 0;
+		for (int i=0; i<lineCount; i++) {
+			Element line = root.getElement(i);
+			longest = Math.max(longest,
+					line.getEndOffset()-line.getStartOffset());
+		}
+		return longest;
+	}
+
+
+	/**
+	 * Returns whether bracket matching is allowed.
+	 *
+	 * @return Whether bracket matching is allowed.
+	 */
+	public boolean isBracketMatchingAllowed() {
+		return bracketMatching;
+	}
+
+
+	/**
+	 * Returns whether code folding is allowed.
+	 *
+	 * @return Whether code folding is allowed.
+	 */
+	public boolean isCodeFoldingAllowed() {
+		return codeFolding;
+	}
+
+
+	/**
+	 * Returns whether line wrapping is allowed.
+	 *
+	 * @return Whether line wrapping is allowed.
+	 */
+	public boolean isLineWrapAllowed() {
+		return lineWrap;
+	}
+
+
+	/**
+	 * Returns whether occurrences of the identifier at the caret are
+	 * marked.
+	 *
+	 * @return Whether marking occurrences is allowed.
+	 */
+	public boolean isMarkOccurrencesAllowed() {
+		return markOccurrences;
+	}
+
+
+	/**
+	 * Returns whether a minimap is shown next to the text area.
+	 *
+	 * @return Whether the minimap is allowed.
+	 * @see Minimap
+	 */
+	public boolean isMinimapAllowed() {
+		return minimap;
+	}
+
+
+	/**
+	 * Returns whether parsers are installed.  If they aren't, they are
+	 * held by the text area until its profile changes.
+	 *
+	 * @return Whether parsers are allowed.
+	 * @see RTextEditorPane#setPerformanceProfile(PerformanceProfile)
+	 */
+	public boolean isParsingAllowed() {
+		return parsers;
+	}
+
+
+}
@@ -15,6 +15,7 @@ import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Map;
@@ -114,6 +115,9 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 	private SpellingErrorWindow spellingWindow;
 
+	private HexViewerWindow hexViewerWindow;
+	private LineFilterWindow lineFilterWindow;
+
 	private SyntaxScheme colorScheme;
 
 	private IconGroup iconGroup;
@@ -165,6 +169,8 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 	private RecentFileManager recentFileManager;
 
+	private RecoveryJournal recoveryJournal;
+
 	/**
 	 * Used as a "hack" to re-load the Options dialog if the user opens it
 	 * too early, before all plugins have added their options to it.
@@ -261,14 +267,16 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		Element map = textArea.getDocument().getDefaultRootElement();
 		int line = map.getElementIndex(dot);
 		int lineStartOffset = map.getElement(line).getStartOffset();
-		((StatusBar)getStatusBar()).setRowAndColumn(
-									line+1, dot-lineStartOffset+1);
+		StatusBar statusBar = (StatusBar)getStatusBar();
+		statusBar.setRowAndColumn(line+1, dot-lineStartOffset+1);
+		statusBar.updateStatistics(textArea);
+		statusBar.updatePerformanceProfile(textArea);
 
 	}
 
 
 	/**
-	 * Converts all instances of a number of spaces equal to a tab in all open
+	 * Converts spaces in the leading whitespace of lines in all open
 	 * documents into tabs.
 	 *
 	 * @see #convertOpenFilesTabsToSpaces
@@ -442,6 +450,9 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		// didn't click "Cancel")...
 		if (allDocumentsClosed==true) {
 
+			// No unsaved changes to recover.
+			recoveryJournal.shutdown();
+
 			// If there will be no more rtext's running, stop the JVM.
 			if (StoreKeeper.getInstanceCount()==1) {
 				savePreferences();
@@ -675,6 +686,16 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Returns the journal used to recover unsaved changes after a crash.
+	 *
+	 * @return The recovery journal.
+	 */
+	RecoveryJournal getRecoveryJournal() {
+		return recoveryJournal;
+	}
+
+
 	/**
 	 * Returns the file chooser used to select remote files.
 	 *
@@ -874,6 +895,12 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	private void init(String[] filesToOpen) {
 		lastPluginCount = -1;
 		openFiles(filesToOpen);
+		// After any files passed in have been opened.
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				recoveryJournal.offerRecovery();
+			}
+		});
 	}
 
 
@@ -947,6 +974,29 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Shows a binary file in the hex viewer window, adding that window if
+	 * it hasn't been yet.
+	 *
+	 * @param file The file to view.
+	 * @throws IOException If an I/O error occurs mapping the file.
+	 * @see CharsetDetector#isBinary(File)
+	 */
+	public void openInHexViewer(File file) throws IOException {
+		if (hexViewerWindow==null) {
+			HexViewerWindow window = new HexViewerWindow(this);
+			window.open(file); // Don't add an empty window if this fails
+			hexViewerWindow = window;
+			addDockableWindow(hexViewerWindow);
+		}
+		else {
+			hexViewerWindow.open(file);
+			hexViewerWindow.setActive(true);
+		}
+		hexViewerWindow.focusInDockableWindowGroup();
+	}
+
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -993,6 +1043,7 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		setSearchWindowOpacityRule(prefs.searchWindowOpacityRule);
 
 		recentFileManager = new RecentFileManager(this);
+		recoveryJournal = new RecoveryJournal(this);
 
 		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
 			System.err.println("preDisplayInit: " + (System.currentTimeMillis()-start));
@@ -1583,6 +1634,26 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Shows the window that filters the current document to the lines
+	 * matching a regular expression, adding that window if it hasn't been
+	 * yet.
+	 *
+	 * @see LineFilter
+	 */
+	public void showLineFilterWindow() {
+		if (lineFilterWindow==null) {
+			lineFilterWindow = new LineFilterWindow(this);
+			addDockableWindow(lineFilterWindow);
+		}
+		else {
+			lineFilterWindow.setActive(true);
+		}
+		lineFilterWindow.focusInDockableWindowGroup();
+		lineFilterWindow.focusPatternField();
+	}
+
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -45,6 +45,17 @@ public interface RTextActionInfo {
 	public static final String NEXT_DOCUMENT_ACTION		= "nextDocumentAction";
 	public static final String PREVIOUS_DOCUMENT_ACTION = "prevDocumentAction";
 	public static final String FILE_PROPERTIES_ACTION	= "filePropertiesAction";
+	public static final String FOLLOW_FILE_ACTION		= "followFileAction";
+	public static final String COMPARE_ACTION			= "compareAction";
+	public static final String SORT_LINES_ACTION		= "sortLinesAction";
+	public static final String UNIQUE_LINES_ACTION		= "uniqueLinesAction";
+	public static final String REVERSE_LINES_ACTION		= "reverseLinesAction";
+	public static final String KEEP_LINES_ACTION		= "keepLinesAction";
+	public static final String REMOVE_LINES_ACTION		= "removeLinesAction";
+	public static final String TRIM_LINES_ACTION		= "trimLinesAction";
+	public static final String TABS_TO_SPACES_ACTION	= "tabsToSpacesAction";
+	public static final String SPACES_TO_TABS_ACTION	= "spacesToTabsAction";
+	public static final String FILTER_LINES_ACTION		= "filterLinesAction";
 	public static final String OPTIONS_ACTION			= "optionsAction";
 	public static final String HOME_PAGE_ACTION			= "homePageAction";
 	public static final String UPDATES_ACTION			= "checkForUpdatesAction";
@@ -93,6 +104,17 @@ public interface RTextActionInfo {
 		NEXT_DOCUMENT_ACTION,
 		PREVIOUS_DOCUMENT_ACTION,
 		FILE_PROPERTIES_ACTION,
+		FOLLOW_FILE_ACTION,
+		COMPARE_ACTION,
+		SORT_LINES_ACTION,
+		UNIQUE_LINES_ACTION,
+		REVERSE_LINES_ACTION,
+		KEEP_LINES_ACTION,
+		REMOVE_LINES_ACTION,
+		TRIM_LINES_ACTION,
+		TABS_TO_SPACES_ACTION,
+		SPACES_TO_TABS_ACTION,
+		FILTER_LINES_ACTION,
 		RText.HELP_ACTION_KEY,
 		RText.ABOUT_ACTION_KEY,
 		OPTIONS_ACTION,
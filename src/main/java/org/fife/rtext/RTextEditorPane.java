@@ -11,16 +11,49 @@ package org.fife.rtext;
 
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Point;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.awt.print.PageFormat;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
 
 import org.fife.print.RPrintUtilities;
 import org.fife.ui.rsyntaxtextarea.FileLocation;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
 import org.fife.ui.rsyntaxtextarea.TextEditorPane;
+import org.fife.ui.rsyntaxtextarea.folding.Fold;
+import org.fife.ui.rsyntaxtextarea.folding.FoldManager;
+import org.fife.ui.rsyntaxtextarea.parser.Parser;
+import org.fife.ui.rtextarea.Gutter;
+import org.fife.ui.rtextarea.GutterIconInfo;
 import org.fife.ui.rtextarea.RTATextTransferHandler;
+import org.fife.ui.rtextarea.RTextScrollPane;
+import org.fife.ui.rtextarea.RUndoManager;
 
 
 /**
@@ -31,14 +64,69 @@ import org.fife.ui.rtextarea.RTATextTransferHandler;
  */
 public class RTextEditorPane extends TextEditorPane {
 
+	/**
+	 * Property fired when this text area starts or stops following its
+	 * file.
+	 */
+	public static final String FOLLOWING_PROPERTY =
+									"RTextEditorPane.following";
+
+	/**
+	 * Property fired when this text area's performance profile changes.
+	 */
+	public static final String PERFORMANCE_PROFILE_PROPERTY =
+									"RTextEditorPane.performanceProfile";
+
+	/**
+	 * Property fired when this text area starts or stops being saved in the
+	 * background, or when the result of its last save changes.
+	 */
+	public static final String SAVE_STATE_PROPERTY =
+									"RTextEditorPane.saveState";
+
 	private RText rtext;
+	private volatile long modificationStamp;
+	private boolean saving;
+	private Exception lastSaveError;
+	private long lastShownTime;
+	private CompactedState compactedState;
+	private boolean swappingDocument;
+	private DocumentStatistics statistics;
+	private DocumentSnapshot snapshot;
+	private Document snapshotDocument;
+	private final Object snapshotLock = new Object();
+
+	/**
+	 * The length of the file when it was last loaded or saved, used to
+	 * detect files that were only appended to.
+	 */
+	private long diskLength = -1;
+
+	private PerformanceProfile performanceProfile = PerformanceProfile.FULL;
+
+	/**
+	 * Parsers held back because the performance profile doesn't allow
+	 * parsing.
+	 */
+	private List<Parser> suspendedParsers = new ArrayList<Parser>();
+
+	private LogFollower follower;
+	private boolean readOnlyBeforeFollowing;
+
+	/**
+	 * Whether the document is being replaced with the file's content.
+	 */
+	private boolean loading;
+
+	/**
+	 * Inserts very large pasted text, or <code>null</code> if no such
+	 * text has been pasted.
+	 */
+	private ChunkedTextImporter importer;
 
 
 	/**
-	 * Creates a new <code>RTextEditorPane</code>.  Syntax highlighting will
-	 * be selected as follows:  filenames ending in <code>".java"</code>
-	 * default to Java syntax highlighting; all others default to no syntax
-	 * highlighting.
+	 * Creates a new <code>RTextEditorPane</code>.
 	 *
 	 * @param rtext The owning RText instance.
 	 * @param wordWrapEnabled Whether or not to use word wrap in this pane.
@@ -46,15 +134,506 @@ public class RTextEditorPane extends TextEditorPane {
 	 *        <code>OVERWRITE_MODE</code>.
 	 * @param loc The location of the file to open.
 	 * @param encoding The encoding of the file.
+	 * @param style The syntax style of the file.  This is set before the
+	 *        file is loaded, so the document doesn't have to be
+	 *        re-tokenized afterward.
 	 * @throws IOException If an IO error occurs reading the file to load.
 	 */
 	public RTextEditorPane(RText rtext, boolean wordWrapEnabled,
-		int textMode, FileLocation loc, String encoding) throws IOException {
-		super(textMode, wordWrapEnabled, loc, encoding);
+		int textMode, FileLocation loc, String encoding, String style)
+		throws IOException {
+		super(textMode, wordWrapEnabled);
+		setSyntaxEditingStyle(style);
+		load(loc, encoding);
 		this.rtext = rtext;
 		// Change the transfer handler to one that recognizes drag-and-dropped
 		// files as needing to be opened in the parent main view.
 		setTransferHandler(new RTextEditorPaneTransferHandler());
+		ModificationListener l = new ModificationListener();
+		getDocument().addDocumentListener(l);
+		addPropertyChangeListener("document", l);
+		addHierarchyListener(l);
+		lastShownTime = System.currentTimeMillis();
+	}
+
+
+	/**
+	 * Overridden so parsers added while this text area is compacted are
+	 * only installed once it is rehydrated, and parsers added while the
+	 * performance profile doesn't allow parsing are only installed once it
+	 * does.
+	 *
+	 * @param parser The parser to add.
+	 * @see #setPerformanceProfile(PerformanceProfile)
+	 */
+	@Override
+	public void addParser(Parser parser) {
+		if (compactedState!=null) {
+			compactedState.parsers.add(parser);
+		}
+		else {
+			installParser(parser);
+		}
+	}
+
+
+	/**
+	 * Overridden to also forget any parsers detached while this text area
+	 * is compacted, or held back by its performance profile.
+	 */
+	@Override
+	public void clearParsers() {
+		if (compactedState!=null) {
+			compactedState.parsers.clear();
+		}
+		suspendedParsers.clear();
+		super.clearParsers();
+	}
+
+
+	/**
+	 * Compacts this text area to save memory.  Its text is stored as
+	 * compressed UTF-8, and its document, with its token caches, folds,
+	 * parsers and undo history, is replaced by an empty one.  The caret
+	 * position, collapsed folds and bookmarks are remembered.  The text
+	 * area is restored via {@link #rehydrate()}, which happens automatically
+	 * when it is next shown.<p>
+	 *
+	 * Only unmodified text areas are compacted, since undo history is not
+	 * preserved.
+	 *
+	 * @return Whether this text area was compacted.
+	 * @see #isCompacted()
+	 * @see DormantTabManager
+	 */
+	boolean compact() {
+
+		if (compactedState!=null || isDirty() || isSaving() ||
+				follower!=null) {
+			return false;
+		}
+
+		Document doc = getDocument();
+		CompactedState state = new CompactedState();
+		state.length = doc.getLength();
+
+		try {
+			ByteArrayOutputStream bout = new ByteArrayOutputStream(
+											state.length/4 + 64);
+			Writer w = new OutputStreamWriter(new DeflaterOutputStream(bout,
+					new Deflater(Deflater.BEST_SPEED)), "UTF-8");
+			Segment s = new Segment();
+			s.setPartialReturn(true);
+			int offs = 0;
+			while (offs<state.length) {
+				doc.getText(offs, state.length-offs, s);
+				w.write(s.array, s.offset, s.count);
+				offs += s.count;
+			}
+			w.close();
+			state.text = bout.toByteArray();
+		} catch (IOException ioe) { // Never happens
+			ioe.printStackTrace();
+			return false;
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return false;
+		}
+
+		state.dot = getCaret().getDot();
+		state.mark = getCaret().getMark();
+		JViewport viewport = getViewport();
+		if (viewport!=null) {
+			state.viewPosition = viewport.getViewPosition();
+		}
+
+		List<Integer> lines = new ArrayList<Integer>();
+		FoldManager fm = getFoldManager();
+		for (int i=0; i<fm.getFoldCount(); i++) {
+			getCollapsedFoldLines(fm.getFold(i), lines);
+		}
+		state.collapsedFoldLines = lines;
+
+		lines = new ArrayList<Integer>();
+		Gutter gutter = getGutter();
+		if (gutter!=null) {
+			GutterIconInfo[] bookmarks = gutter.getBookmarks();
+			for (int i=0; i<bookmarks.length; i++) {
+				int offset = bookmarks[i].getMarkedOffset();
+				lines.add(Integer.valueOf(
+						doc.getDefaultRootElement().getElementIndex(offset)));
+			}
+		}
+		state.bookmarkLines = lines;
+
+		// Parsers are re-added when we're rehydrated, so they don't hold
+		// onto any notices (or get run) while we're dormant.
+		state.parsers = new ArrayList<Parser>();
+		for (int i=0; i<getParserCount(); i++) {
+			state.parsers.add(getParser(i));
+		}
+		for (Parser parser : state.parsers) {
+			super.removeParser(parser);
+		}
+
+		synchronized (snapshotLock) {
+			snapshot = null; // Don't hold onto a copy of the text
+			snapshotDocument = null;
+			compactedState = state;
+			swappingDocument = true;
+			try {
+				setDocument(createEmptyDocument(doc));
+			} finally {
+				swappingDocument = false;
+			}
+		}
+		discardAllEdits();
+		return true;
+
+	}
+
+
+	/**
+	 * Returns the text of a compacted text area.
+	 *
+	 * @param state The compacted state.
+	 * @return The text.
+	 * @throws IOException If an I/O error occurs (which should never happen).
+	 */
+	private static char[] decompress(CompactedState state) throws IOException {
+		char[] text = new char[state.length];
+		Reader r = new InputStreamReader(new InflaterInputStream(
+				new ByteArrayInputStream(state.text)), "UTF-8");
+		try {
+			int offs = 0;
+			int count = 0;
+			while (offs<text.length &&
+					(count=r.read(text, offs, text.length-offs))>-1) {
+				offs += count;
+			}
+		} finally {
+			r.close();
+		}
+		return text;
+	}
+
+
+	/**
+	 * Overridden to use an undo manager whose history is limited by memory
+	 * use.
+	 *
+	 * @return The undo manager.
+	 * @see BoundedUndoManager
+	 */
+	@Override
+	protected RUndoManager createUndoManager() {
+		return new BoundedUndoManager(this);
+	}
+
+
+	/**
+	 * Returns an empty document with the same properties (line separator,
+	 * tab size, etc.) as another document.
+	 *
+	 * @param old The document to copy properties from.
+	 * @return The new document.
+	 */
+	private RSyntaxDocument createEmptyDocument(Document old) {
+		RSyntaxDocument doc = new RSyntaxDocument(getSyntaxEditingStyle());
+		doc.setDocumentProperties(
+				((AbstractDocument)old).getDocumentProperties());
+		return doc;
+	}
+
+
+	private static void getCollapsedFoldLines(Fold fold, List<Integer> lines) {
+		if (fold.isCollapsed()) {
+			lines.add(Integer.valueOf(fold.getStartLine()));
+		}
+		for (int i=0; i<fold.getChildCount(); i++) {
+			getCollapsedFoldLines(fold.getChild(i), lines);
+		}
+	}
+
+
+	/**
+	 * Returns an estimate of the memory used by this text area's text, in
+	 * bytes.
+	 *
+	 * @return The estimated memory use.
+	 */
+	long getEstimatedTextMemory() {
+		if (compactedState!=null) {
+			return compactedState.text.length;
+		}
+		return 2L * getDocument().getLength();
+	}
+
+
+	private Gutter getGutter() {
+		RTextScrollPane sp = (RTextScrollPane)SwingUtilities.
+				getAncestorOfClass(RTextScrollPane.class, this);
+		return sp!=null ? sp.getGutter() : null;
+	}
+
+
+	/**
+	 * Returns the error that occurred the last time this file was saved in
+	 * the background, if any.
+	 *
+	 * @return The error, or <code>null</code> if the last save was
+	 *         successful.
+	 * @see BackgroundSaver
+	 */
+	public Exception getLastSaveError() {
+		return lastSaveError;
+	}
+
+
+	/**
+	 * Returns the last time this text area was visible on screen.  If it is
+	 * currently visible, this is the time it was made visible.
+	 *
+	 * @return The time, in milliseconds since the epoch.
+	 */
+	long getLastShownTime() {
+		return lastShownTime;
+	}
+
+
+	/**
+	 * Returns a counter that is incremented each time this text area's
+	 * document is modified.  This can be used to determine whether the
+	 * document changed between two points in time, for example while it was
+	 * being saved in the background.
+	 *
+	 * @return The modification stamp.
+	 */
+	public long getModificationStamp() {
+		return modificationStamp;
+	}
+
+
+	/**
+	 * Returns which of the more expensive editor features are enabled for
+	 * this text area.
+	 *
+	 * @return The performance profile.
+	 * @see #setPerformanceProfile(PerformanceProfile)
+	 */
+	public PerformanceProfile getPerformanceProfile() {
+		return performanceProfile;
+	}
+
+
+	/**
+	 * Returns an immutable snapshot of this text area's content.  The
+	 * document is only copied if it was modified since the last snapshot
+	 * was taken; otherwise, that snapshot is returned.  The copy is made
+	 * under the document's read lock, but readers of the snapshot don't
+	 * need any lock.<p>
+	 *
+	 * The cached snapshot is dropped as soon as the document is modified,
+	 * so a stale copy of a large document isn't kept in memory.  This means
+	 * the first call after each modification copies the entire document.
+	 * Callers on the EDT pay this O(n) cost once per version of the
+	 * document, so they shouldn't call this method on every edit of a large
+	 * document.<p>
+	 *
+	 * This method can be called from any thread.
+	 *
+	 * @return The snapshot.
+	 */
+	public DocumentSnapshot getSnapshot() {
+
+		// Compaction and rehydration swap documents while holding this lock,
+		// so we see a consistent state.  We never hold it while waiting for
+		// the document's lock, since edits may call us while holding that.
+		final CompactedState state;
+		final Document doc;
+		final DocumentSnapshot cached;
+		final Document cachedDoc;
+		synchronized (snapshotLock) {
+			state = compactedState;
+			doc = getDocument();
+			cached = snapshot;
+			cachedDoc = snapshotDocument;
+		}
+
+		// Compacted text areas aren't rehydrated just to be read, and don't
+		// cache the copy, since the point is to save memory.
+		if (state!=null) {
+			try {
+				return new DocumentSnapshot(this, modificationStamp,
+											decompress(state));
+			} catch (IOException ioe) { // Never happens
+				ioe.printStackTrace();
+			}
+		}
+
+		final DocumentSnapshot[] result = new DocumentSnapshot[1];
+		doc.render(new Runnable() {
+			public void run() {
+				// Checking the length too catches being called by a document
+				// listener notified before our stamp is incremented.
+				long stamp = modificationStamp;
+				if (cached!=null && cachedDoc==doc &&
+						cached.getModificationStamp()==stamp &&
+						cached.length()==doc.getLength()) {
+					result[0] = cached;
+					return;
+				}
+				char[] text = new char[doc.getLength()];
+				Segment seg = new Segment();
+				seg.setPartialReturn(true);
+				int offs = 0;
+				try {
+					while (offs<text.length) {
+						doc.getText(offs, text.length-offs, seg);
+						System.arraycopy(seg.array, seg.offset, text, offs,
+										seg.count);
+						offs += seg.count;
+					}
+				} catch (BadLocationException ble) { // Never happens
+					ble.printStackTrace();
+				}
+				result[0] = new DocumentSnapshot(RTextEditorPane.this,
+												stamp, text);
+			}
+		});
+
+		if (result[0]!=cached) {
+			synchronized (snapshotLock) {
+				// Don't cache the copy if it's already out of date.
+				if (getDocument()==doc &&
+						result[0].getModificationStamp()==modificationStamp) {
+					snapshot = result[0];
+					snapshotDocument = doc;
+				}
+			}
+		}
+		return result[0];
+
+	}
+
+
+	/**
+	 * Returns line, word and character counts for this text area.  These
+	 * are kept up to date as the document changes.
+	 *
+	 * @return The statistics.
+	 */
+	public DocumentStatistics getStatistics() {
+		if (statistics==null) {
+			statistics = new DocumentStatistics(this);
+		}
+		return statistics;
+	}
+
+
+	private JViewport getViewport() {
+		return getParent() instanceof JViewport ? (JViewport)getParent() :
+					null;
+	}
+
+
+	/**
+	 * Installs a parser, or holds it back if the performance profile
+	 * doesn't allow parsing.
+	 *
+	 * @param parser The parser.
+	 */
+	private void installParser(Parser parser) {
+		if (performanceProfile.isParsingAllowed()) {
+			super.addParser(parser);
+		}
+		else {
+			suspendedParsers.add(parser);
+		}
+	}
+
+
+	/**
+	 * Returns whether this text area has been compacted to save memory.
+	 *
+	 * @return Whether this text area is compacted.
+	 * @see #compact()
+	 * @see #rehydrate()
+	 */
+	public boolean isCompacted() {
+		return compactedState!=null;
+	}
+
+
+	/**
+	 * Returns whether this text area's file is gzipped, or an entry in a
+	 * zip file.  Such files are decompressed when loaded.
+	 *
+	 * @return Whether this text area's file is compressed.
+	 * @see CompressedFileLocation
+	 */
+	public boolean isCompressed() {
+		return isLocal() && CompressedFileLocation.create(
+					FileLocation.create(getFileFullPath()))!=null;
+	}
+
+
+	/**
+	 * Returns whether this text area is following its file, i.e. showing
+	 * content as it is appended to the file.
+	 *
+	 * @return Whether this text area is following its file.
+	 * @see #startFollowing(int)
+	 * @see #stopFollowing()
+	 */
+	public boolean isFollowing() {
+		return follower!=null;
+	}
+
+
+	/**
+	 * Returns whether this text area's file is being loaded or reloaded,
+	 * i.e. whether changes to the document are the file's content being
+	 * read in, rather than edits.
+	 *
+	 * @return Whether this text area's file is being loaded.
+	 * @see #load(FileLocation, String)
+	 * @see #reload()
+	 * @see #reloadIncrementally()
+	 */
+	public boolean isLoading() {
+		return loading;
+	}
+
+
+	/**
+	 * Returns whether this file is currently being saved in the background.
+	 *
+	 * @return Whether this file is being saved.
+	 * @see BackgroundSaver
+	 */
+	public boolean isSaving() {
+		return saving;
+	}
+
+
+	/**
+	 * Overridden to remember the size of the file loaded, and so listeners
+	 * can tell the file is being loaded.
+	 *
+	 * @param loc The location of the file to load.
+	 * @param defaultEnc The encoding to use when loading/saving the file.
+	 * @throws IOException If an IO error occurs.
+	 */
+	@Override
+	public void load(FileLocation loc, String defaultEnc) throws IOException {
+		loading = true;
+		try {
+			super.load(loc, defaultEnc);
+		} finally {
+			loading = false;
+		}
+		updateDiskLength();
 	}
 
 
@@ -77,24 +656,456 @@ public class RTextEditorPane extends TextEditorPane {
 	}
 
 
+	/**
+	 * Restores a compacted text area to its normal state.  If this text
+	 * area is not compacted, this method does nothing.
+	 *
+	 * @see #compact()
+	 * @see #isCompacted()
+	 */
+	public void rehydrate() {
+
+		CompactedState state = compactedState;
+		if (state==null) {
+			return;
+		}
+
+		RSyntaxDocument doc = null;
+		synchronized (snapshotLock) {
+
+			compactedState = null;
+
+			Document old = getDocument();
+			doc = createEmptyDocument(old);
+			try {
+				doc.insertString(0, new String(decompress(state)), null);
+			} catch (IOException ioe) { // Never happens
+				ioe.printStackTrace();
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+
+			swappingDocument = true;
+			try {
+				setDocument(doc);
+			} finally {
+				swappingDocument = false;
+			}
+
+		}
+		discardAllEdits();
+
+		int length = doc.getLength();
+		setCaretPosition(Math.min(state.mark, length));
+		moveCaretPosition(Math.min(state.dot, length));
+
+		FoldManager fm = getFoldManager();
+		fm.reparse();
+		for (Integer line : state.collapsedFoldLines) {
+			Fold fold = fm.getFoldForLine(line.intValue());
+			if (fold!=null) {
+				fold.setCollapsed(true);
+			}
+		}
+
+		Gutter gutter = getGutter();
+		if (gutter!=null) {
+			for (Integer line : state.bookmarkLines) {
+				try {
+					gutter.toggleBookmark(line.intValue());
+				} catch (BadLocationException ble) { // Never happens
+					ble.printStackTrace();
+				}
+			}
+		}
+
+		for (Parser parser : state.parsers) {
+			installParser(parser);
+		}
+
+		JViewport viewport = getViewport();
+		if (viewport!=null && state.viewPosition!=null) {
+			viewport.setViewPosition(state.viewPosition);
+		}
+
+	}
+
+
+	/**
+	 * Overridden to remember the size of the file loaded, and so listeners
+	 * can tell the file is being loaded.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 * @see #reloadIncrementally()
+	 */
+	@Override
+	public void reload() throws IOException {
+		loading = true;
+		try {
+			super.reload();
+		} finally {
+			loading = false;
+		}
+		updateDiskLength();
+	}
+
+
+	/**
+	 * Reloads this text area's file from disk, changing only the lines that
+	 * differ, so the caret, scroll position, folds and bookmarks in
+	 * unchanged parts of the document are kept.  If only new content was
+	 * appended to the file (as with log files), only that content is read.
+	 * If the file changed too much to be worth diffing, or isn't a local
+	 * uncompressed file, it is simply reloaded.<p>
+	 *
+	 * As with {@link #reload()}, any unsaved changes are lost, and the undo
+	 * history is discarded.
+	 *
+	 * @return Whether the file was reloaded incrementally.  If this is
+	 *         <code>false</code>, the entire document was replaced.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public boolean reloadIncrementally() throws IOException {
+		rehydrate();
+		boolean reloaded = false;
+		if (isLocal() && !isCompressed()) {
+			loading = true;
+			try {
+				reloaded = IncrementalReloader.reload(this, diskLength);
+			} finally {
+				loading = false;
+			}
+		}
+		if (!reloaded) {
+			reload();
+			return false;
+		}
+		setDirty(false);
+		syncLastSaveOrLoadTimeToActualFile();
+		discardAllEdits();
+		return true;
+	}
+
+
+	/**
+	 * Overridden so parsers removed while this text area is compacted, or
+	 * while they're held back by its performance profile, aren't installed
+	 * later.
+	 *
+	 * @param parser The parser to remove.
+	 * @return Whether the parser was found and removed.
+	 */
+	@Override
+	public boolean removeParser(Parser parser) {
+		if (compactedState!=null) {
+			return compactedState.parsers.remove(parser);
+		}
+		if (suspendedParsers.remove(parser)) {
+			return true;
+		}
+		return super.removeParser(parser);
+	}
+
+
+	void setLastSaveError(Exception e) {
+		Exception old = lastSaveError;
+		lastSaveError = e;
+		firePropertyChange(SAVE_STATE_PROPERTY, old, e);
+	}
+
+
+	/**
+	 * Sets which of the more expensive editor features are enabled for
+	 * this text area.  This method only installs or removes parsers; the
+	 * main view applies the other features.  This method fires a property
+	 * change event of type {@link #PERFORMANCE_PROFILE_PROPERTY}.
+	 *
+	 * @param profile The new performance profile.
+	 * @see #getPerformanceProfile()
+	 * @see AbstractMainView#setPerformanceProfile(RTextEditorPane,
+	 *      PerformanceProfile)
+	 */
+	void setPerformanceProfile(PerformanceProfile profile) {
+
+		PerformanceProfile old = performanceProfile;
+		if (profile==old) {
+			return;
+		}
+		performanceProfile = profile;
+
+		if (profile.isParsingAllowed()) {
+			List<Parser> parsers = new ArrayList<Parser>(suspendedParsers);
+			suspendedParsers.clear();
+			for (Parser parser : parsers) {
+				addParser(parser);
+			}
+		}
+		// Parsers held by a compacted text area are held back when it is
+		// rehydrated.
+		else if (compactedState==null) {
+			for (int i=0; i<getParserCount(); i++) {
+				suspendedParsers.add(getParser(i));
+			}
+			for (Parser parser : suspendedParsers) {
+				super.removeParser(parser);
+			}
+		}
+
+		firePropertyChange(PERFORMANCE_PROFILE_PROPERTY, old, profile);
+
+	}
+
+
+	void setSaving(boolean saving) {
+		if (saving!=this.saving) {
+			this.saving = saving;
+			firePropertyChange(SAVE_STATE_PROPERTY, !saving, saving);
+		}
+	}
+
+
+	/**
+	 * Starts following this text area's file, like <code>tail -f</code>.
+	 * Content appended to the file is added to the document, and the text
+	 * area is read-only until {@link #stopFollowing()} is called.  The
+	 * document should be up to date with the file, and not dirty.
+	 *
+	 * @param maxLines The maximum number of lines to keep in the document,
+	 *        or <code>0</code> for no maximum.  The oldest lines are
+	 *        removed first.
+	 * @throws IOException If an IO error occurs.
+	 * @see #isFollowing()
+	 */
+	void startFollowing(int maxLines) throws IOException {
+		if (follower==null) {
+			rehydrate();
+			LogFollower follower = new LogFollower(this, maxLines);
+			follower.start();
+			this.follower = follower;
+			readOnlyBeforeFollowing = isReadOnly();
+			setReadOnly(true);
+			firePropertyChange(FOLLOWING_PROPERTY, false, true);
+		}
+	}
+
+
+	/**
+	 * Stops following this text area's file.  If this text area isn't
+	 * following its file, this method does nothing.
+	 *
+	 * @see #startFollowing(int)
+	 */
+	void stopFollowing() {
+		if (follower!=null) {
+			follower.stop();
+			follower = null;
+			setReadOnly(readOnlyBeforeFollowing);
+			firePropertyChange(FOLLOWING_PROPERTY, true, false);
+		}
+	}
+
+
+	/**
+	 * Stops inserting very large text pasted into this text area, keeping
+	 * what was inserted so far.  This should be called when this text area
+	 * is closed.  If no text is being inserted, this method does nothing.
+	 */
+	void stopImporting() {
+		if (importer!=null) {
+			importer.cancel();
+			importer = null;
+		}
+	}
+
+
+	/**
+	 * Overridden to remember the size of the file, since this is called
+	 * after it is saved.
+	 */
+	@Override
+	public void syncLastSaveOrLoadTimeToActualFile() {
+		super.syncLastSaveOrLoadTimeToActualFile();
+		updateDiskLength();
+	}
+
+
+	/**
+	 * Remembers the current size of this text area's file.
+	 */
+	private void updateDiskLength() {
+		diskLength = isLocal() ? new File(getFileFullPath()).length() : -1;
+	}
+
+
+	/**
+	 * The state of a text area while it is compacted.
+	 */
+	private static class CompactedState {
+		private byte[] text;
+		private int length;
+		private int dot;
+		private int mark;
+		private Point viewPosition;
+		private List<Integer> collapsedFoldLines;
+		private List<Integer> bookmarkLines;
+		private List<Parser> parsers;
+	}
+
+
+	/**
+	 * Increments the modification stamp whenever the document changes, and
+	 * follows the text area to new documents.  Also rehydrates the text area
+	 * when it is shown, if it was compacted.
+	 */
+	private class ModificationListener implements DocumentListener,
+							HierarchyListener, PropertyChangeListener {
+
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		public void hierarchyChanged(HierarchyEvent e) {
+			if ((e.getChangeFlags()&HierarchyEvent.SHOWING_CHANGED)!=0) {
+				// Either way, the last time we were seen is now.
+				lastShownTime = System.currentTimeMillis();
+				if (isShowing()) {
+					rehydrate();
+				}
+			}
+		}
+
+		public void insertUpdate(DocumentEvent e) {
+			modified();
+		}
+
+		/**
+		 * Called when our content changes.  Drops our snapshot, since it's
+		 * now out of date.  This is called while the document is locked, so
+		 * we don't wait for <code>snapshotLock</code> here; a snapshot
+		 * cached concurrently is never used anyway, since its stamp is out
+		 * of date.
+		 */
+		private void modified() {
+			modificationStamp++;
+			snapshot = null;
+			snapshotDocument = null;
+		}
+
+		public void propertyChange(PropertyChangeEvent e) {
+			Document old = (Document)e.getOldValue();
+			if (old!=null) {
+				old.removeDocumentListener(this);
+			}
+			Document doc = (Document)e.getNewValue();
+			if (doc!=null) {
+				doc.addDocumentListener(this);
+			}
+			// Compacting and rehydrating don't change our content.
+			if (!swappingDocument) {
+				modified();
+			}
+			// If someone else gives us a new document (e.g. reload()) while
+			// we're compacted, the compacted text is stale.
+			if (compactedState!=null && !swappingDocument) {
+				List<Parser> parsers = compactedState.parsers;
+				compactedState = null;
+				for (Parser parser : parsers) {
+					installParser(parser);
+				}
+			}
+		}
+
+		public void removeUpdate(DocumentEvent e) {
+			modified();
+		}
+
+	}
+
+
 	/**
 	 * Transfer handler for editor panes.  Overrides the default transfer
 	 * handler so we can drag-and-drop files into a text area, and know to
-	 * open it in the parent main view.
+	 * open it in the parent main view.  Very large text is imported in
+	 * chunks in the background by a {@link ChunkedTextImporter}, rather than
+	 * read into a single string and inserted all at once.
 	 */
 	class RTextEditorPaneTransferHandler extends RTATextTransferHandler {
 
+		/**
+		 * Whether text is being dragged from this text area.  Such text is
+		 * always imported normally, so it can be moved.
+		 */
+		private boolean exporting;
+
 		@Override
 		public boolean canImport(JComponent c, DataFlavor[] flavors) {
 			return MainPanelTransferHandler.hasFileFlavor(flavors) ||
 					super.canImport(c, flavors);
 		}
 
+		@Override
+		protected Transferable createTransferable(JComponent c) {
+			exporting = true;
+			return super.createTransferable(c);
+		}
+
+		@Override
+		protected void exportDone(JComponent source, Transferable data,
+								int action) {
+			exporting = false;
+			super.exportDone(source, data, action);
+		}
+
 		@Override
 		public boolean importData(JComponent c, Transferable t) {
 			return MainPanelTransferHandler.
 				importDataImpl(rtext.getMainView(), c, t) ||
-						super.importData(c, t);
+					importLargeText(t) || super.importData(c, t);
+		}
+
+		/**
+		 * Imports text in the background if there is a lot of it.
+		 *
+		 * @param t The data being imported.
+		 * @return Whether the text was large, and is being imported.  If
+		 *         this is <code>false</code>, the text should be imported
+		 *         normally.
+		 */
+		private boolean importLargeText(Transferable t) {
+
+			if (exporting || !isEditable() || !isEnabled()) {
+				return false;
+			}
+			DataFlavor flavor = DataFlavor.selectBestTextFlavor(
+										t.getTransferDataFlavors());
+			if (flavor==null) {
+				return false;
+			}
+
+			// Read just enough to see whether the text is large.  The
+			// transferable hands out a new reader each time it's asked, so
+			// if it isn't, the normal import can start over.
+			try {
+				Reader r = flavor.getReaderForText(t);
+				StringBuilder sb = new StringBuilder();
+				char[] buf = new char[8192];
+				int count = 0;
+				while (sb.length()<ChunkedTextImporter.THRESHOLD &&
+						(count=r.read(buf))>-1) {
+					sb.append(buf, 0, count);
+				}
+				if (sb.length()<ChunkedTextImporter.THRESHOLD) {
+					r.close();
+					return false;
+				}
+				importer = new ChunkedTextImporter(rtext,
+							RTextEditorPane.this, sb.toString(), r);
+				importer.start();
+				return true;
+			} catch (Exception e) {
+				e.printStackTrace();
+				return false;
+			}
+
 		}
 
 	}
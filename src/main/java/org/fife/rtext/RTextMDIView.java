@@ -19,7 +19,6 @@ import javax.swing.*;
 import javax.swing.event.InternalFrameEvent;
 import javax.swing.event.InternalFrameListener;
 
-import org.fife.ui.rsyntaxtextarea.ErrorStrip;
 import org.fife.ui.rtextarea.RTextScrollPane;
 
 
@@ -89,12 +88,7 @@ class RTextMDIView extends AbstractMainView implements InternalFrameListener {
 	protected void addTextAreaImpl(String title, Component component,
 							String fileFullPath) {
 
-		JPanel temp = new JPanel(new BorderLayout());
-		temp.add(component);
-		RTextScrollPane sp = (RTextScrollPane)component;
-		RTextEditorPane textArea = (RTextEditorPane)sp.getTextArea();
-		ErrorStrip es = createErrorStrip(textArea);
-		temp.add(es, BorderLayout.LINE_END);
+		JPanel temp = getDocumentPanel((RTextScrollPane)component);
 
 		// "Physically" add the frame.
 		InternalFrame frame = new InternalFrame(title, temp);
@@ -102,33 +96,16 @@ class RTextMDIView extends AbstractMainView implements InternalFrameListener {
 		frame.addInternalFrameListener(this);
 		desktopPane.add(frame);
 		frames.add(frame);
-
-		// Loop through all tabs (documents) except the last (the one just added).
-		int numDocuments = getNumDocuments();
-		for (int i=0; i<numDocuments-1; i++) {
-
-			// If any of them is the same physical file as the just added one, do the numbering.
-			if (getRTextEditorPaneAt(i).getFileFullPath().equals(fileFullPath)) {
-				int count = 0;
-				for (int j=i; j<numDocuments; j++) {
-					RTextEditorPane pane = getRTextEditorPaneAt(j);
-					if (pane.getFileFullPath().equals(fileFullPath)) {
-						String newTitle = title + " (" + (++count) + ")";
-						if (pane.isDirty())
-							newTitle = newTitle + "*";
-						try {
-							setDocumentDisplayNameAt(j, newTitle);
-						} catch (Exception e) { System.err.println("Exception: " + e); }
-					}
-				}
-				break;
-			}
-
+		if (isCopyingData()) {
+			return; // Selected once all documents are moved over.
 		}
 
+		// If this file is open more than once, number its display names.
+		renumberDisplayNames(fileFullPath);
+
 		// Do any extra stuff.
 		// This updates currentTextArea and shifts focus too.
-		setSelectedIndex(numDocuments-1);
+		setSelectedIndex(getNumDocuments()-1);
 		if (getCurrentTextArea().isDirty())
 			owner.setMessages(fileFullPath + "*", "Opened document '" + fileFullPath + "'");
 		else
@@ -448,6 +425,7 @@ class RTextMDIView extends AbstractMainView implements InternalFrameListener {
 	@Override
 	protected void removeComponentAt(int index) {
 		if (index>=0 && index<getNumDocuments()) {
+			removingComponentAt(index);
 			((JInternalFrame)frames.get(index)).dispose();
 			frames.remove(index);
 			//tabbedPane.removeTabAt(index);
@@ -466,7 +444,9 @@ class RTextMDIView extends AbstractMainView implements InternalFrameListener {
 	@Override
 	public void setDocumentDisplayNameAt(int index, String displayName) {
 		if (index>=0 && index<getNumDocuments()) {
-			((JInternalFrame)frames.get(index)).setTitle(displayName);
+			JInternalFrame frame = (JInternalFrame)frames.get(index);
+			frame.setTitle(displayName);
+			frame.setFrameIcon(getIconFor(getRTextScrollPaneAt(index)));
 		}
 	}
 
@@ -87,6 +87,20 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 	 */
 	public static final String MENU_HELP		= "Help";
 
+	/**
+	 * The actions in the Edit -> Text -> Lines menu.
+	 */
+	private static final String[] LINE_ACTIONS = {
+		RText.SORT_LINES_ACTION,
+		RText.REVERSE_LINES_ACTION,
+		RText.UNIQUE_LINES_ACTION,
+		RText.KEEP_LINES_ACTION,
+		RText.REMOVE_LINES_ACTION,
+		RText.TRIM_LINES_ACTION,
+		RText.TABS_TO_SPACES_ACTION,
+		RText.SPACES_TO_TABS_ACTION,
+	};
+
 	// These items correspond to actions belonging to RTextEditorPanes, and are
 	// changed in disableEditorActions() below, so we need to remember them.
 	private JMenuItem newItem;
@@ -118,6 +132,7 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 	private JMenuItem findInFilesItem;
 	private JMenuItem replaceInFilesItem;
 	private JMenuItem goToItem;
+	private JMenuItem filterLinesItem;
 	private JMenuItem selectAllItem;
 	private JMenuItem timeDateItem;
 	private JMenuItem optionsItem;
@@ -136,6 +151,9 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 	private JMenuItem updatesItem;
 	private JMenuItem aboutItem;
 	private JMenuItem filePropItem;
+	private JCheckBoxMenuItem followFileItem;
+	private JMenuItem compareItem;
+	private JMenuItem[] lineItems;
 
 	private JMenu fileMenu;
 	private JMenu viewMenu;
@@ -335,6 +353,17 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 				menuMsg, "InvertCase", "InvertCaseMnemonic");
 		UIUtil.setDescription(menuItem, menuMsg, "DescInvertCase");
 		textMenu.add(menuItem);
+		textMenu.addSeparator();
+		JMenu linesMenu = createMenu(menuMsg, "MenuLines");
+		lineItems = new JMenuItem[LINE_ACTIONS.length];
+		for (int i=0; i<LINE_ACTIONS.length; i++) {
+			lineItems[i] = createMenuItem(rtext.getAction(LINE_ACTIONS[i]));
+			linesMenu.add(lineItems[i]);
+			if (i==2 || i==4) { // Group reordering and filtering actions
+				linesMenu.addSeparator();
+			}
+		}
+		textMenu.add(linesMenu);
 		menu.add(textMenu);
 
 		// The "indent" menu.  Note that keystrokes are okay here, because
@@ -393,6 +422,10 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 				rtext.getAction(RText.REPLACE_IN_FILES_ACTION));
 		menu.add(replaceInFilesItem);
 
+		filterLinesItem = createMenuItem(rtext.getAction(
+										RText.FILTER_LINES_ACTION));
+		menu.add(filterLinesItem);
+
 		menu.addSeparator();
 
 		goToItem = createMenuItem(rtext.getAction(RText.GOTO_ACTION));
@@ -532,6 +565,12 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 		filePropItem = createMenuItem(rtext.getAction(
 										RText.FILE_PROPERTIES_ACTION));
 		viewMenu.add(filePropItem);
+		followFileItem = new JCheckBoxMenuItem(rtext.getAction(
+										RText.FOLLOW_FILE_ACTION));
+		followFileItem.setToolTipText(null);
+		viewMenu.add(followFileItem);
+		compareItem = createMenuItem(rtext.getAction(RText.COMPARE_ACTION));
+		viewMenu.add(compareItem);
 
 		// Window menu (only visible when in MDI mode).
 		windowMenu = createMenu(menuMsg, "MenuWindow");
@@ -770,6 +809,7 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 		updateAction(findInFilesItem, RText.FIND_IN_FILES_ACTION);
 		updateAction(replaceInFilesItem, RText.REPLACE_IN_FILES_ACTION);
 		updateAction(goToItem, RText.GOTO_ACTION);
+		updateAction(filterLinesItem, RText.FILTER_LINES_ACTION);
 		updateAction(copyAsRtfItem, RText.COPY_AS_RTF_ACTION);
 		updateAction(timeDateItem, RText.TIME_DATE_ACTION);
 		if (rtext.getOS()!=OS.MAC_OS_X) {
@@ -781,6 +821,11 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 		updateAction(nextDocItem, RText.NEXT_DOCUMENT_ACTION);
 		updateAction(prevDocItem, RText.PREVIOUS_DOCUMENT_ACTION);
 		updateAction(filePropItem, RText.FILE_PROPERTIES_ACTION);
+		updateAction(followFileItem, RText.FOLLOW_FILE_ACTION);
+		updateAction(compareItem, RText.COMPARE_ACTION);
+		for (int i=0; i<LINE_ACTIONS.length; i++) {
+			updateAction(lineItems[i], LINE_ACTIONS[i]);
+		}
 		updateAction(helpItem, RText.HELP_ACTION_KEY);
 		updateAction(homePageItem, RText.HOME_PAGE_ACTION);
 		updateAction(updatesItem, RText.UPDATES_ACTION);
@@ -825,6 +870,8 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 		if (source==viewMenu.getPopupMenu()) {
 			AbstractMainView mainView = rtext.getMainView();
 			lineNumbersItem.setSelected(mainView.getLineNumbersEnabled());
+			followFileItem.setSelected(
+					mainView.getCurrentTextArea().isFollowing());
 		}
 
 		// If the "window" menu is becoming visible (MDI view only)...
@@ -58,6 +58,7 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 
 	public String iconGroupName;
 	public boolean lineNumbersVisible;
+	public boolean minimapVisible;
 	public int tabSize;							// In spaces.
 	public boolean emulateTabsWithSpaces;			// Whether or not to emulate tabs with spaces.
 	public int textMode;						// Either RTextArea.INSERT_MODE (1) or RTextArea.OVERWRITE_MODE (2).
@@ -114,6 +115,15 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 	public boolean guessFileContentType;
 	public boolean doFileSizeCheck;
 	public float maxFileSize;					// In MB.
+	public boolean fsyncOnSave;
+	public int dormantTabMinutes;				// 0 => never compact tabs.
+	public int dormantTabMemoryBudget;			// In MB.
+	public int followMaxLines;					// 0 => unlimited.
+	public float reducedProfileFileSize;		// In MB, 0 => never.
+	public float minimalProfileFileSize;		// In MB, 0 => never.
+	public int reducedProfileLineLength;		// 0 => never.
+	public int undoMemoryBudget;				// Per document, in MB.
+	public int undoGlobalMemoryBudget;			// All documents, in MB.
 	public boolean ignoreBackupExtensions;
 	public Font textAreaFont;					// Default text area font.
 	public boolean textAreaUnderline;				// Is default font underlined?
@@ -163,6 +173,7 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 		populateCommonPreferences(rtext, lnfString);
 		iconGroupName				= rtext.getIconGroup().getName();
 		lineNumbersVisible			= mainView.getLineNumbersEnabled();
+		minimapVisible				= mainView.getMinimapEnabled();
 		tabSize					= mainView.getTabSize();
 		emulateTabsWithSpaces		= mainView.areTabsEmulated();
 		textMode					= mainView.getTextMode();
@@ -226,6 +237,15 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 		guessFileContentType		= mainView.getGuessFileContentType();
 		doFileSizeCheck			= mainView.getDoFileSizeCheck();
 		maxFileSize				= mainView.getMaxFileSize();
+		fsyncOnSave				= mainView.getFsyncOnSave();
+		dormantTabMinutes			= mainView.getDormantTabMinutes();
+		dormantTabMemoryBudget	= mainView.getDormantTabMemoryBudget();
+		followMaxLines			= mainView.getFollowMaxLines();
+		reducedProfileFileSize	= mainView.getReducedProfileFileSize();
+		minimalProfileFileSize	= mainView.getMinimalProfileFileSize();
+		reducedProfileLineLength	= mainView.getReducedProfileLineLength();
+		undoMemoryBudget			= mainView.getUndoMemoryBudget();
+		undoGlobalMemoryBudget	= mainView.getUndoGlobalMemoryBudget();
 		ignoreBackupExtensions	= mainView.getIgnoreBackupExtensions();
 		textAreaFont				= mainView.getTextAreaFont();
 		textAreaUnderline			= mainView.getTextAreaUnderline();
@@ -315,6 +335,7 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 			loadCommonPreferences(prefs);
 			iconGroupName				= prefs.get("iconGroupName", iconGroupName);
 			lineNumbersVisible			= prefs.getBoolean("lineNumbersVisible", lineNumbersVisible);
+			minimapVisible				= prefs.getBoolean("minimapVisible", minimapVisible);
 			tabSize					= prefs.getInt("tabSize", tabSize);
 			mainView					= prefs.getInt("mainView", mainView);
 			String temp					= prefs.get("colorScheme", null);
@@ -424,6 +445,15 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 			guessFileContentType	= prefs.getBoolean("guessFileContentType", guessFileContentType);
 			doFileSizeCheck		= prefs.getBoolean("fileSizeCheck", doFileSizeCheck);
 			maxFileSize			= prefs.getFloat("maxFileSize", maxFileSize);
+			fsyncOnSave			= prefs.getBoolean("fsyncOnSave", fsyncOnSave);
+			dormantTabMinutes		= prefs.getInt("dormantTabMinutes", dormantTabMinutes);
+			dormantTabMemoryBudget	= prefs.getInt("dormantTabMemoryBudget", dormantTabMemoryBudget);
+			followMaxLines			= prefs.getInt("followMaxLines", followMaxLines);
+			reducedProfileFileSize	= prefs.getFloat("reducedProfileFileSize", reducedProfileFileSize);
+			minimalProfileFileSize	= prefs.getFloat("minimalProfileFileSize", minimalProfileFileSize);
+			reducedProfileLineLength	= prefs.getInt("reducedProfileLineLength", reducedProfileLineLength);
+			undoMemoryBudget		= prefs.getInt("undoMemoryBudget", undoMemoryBudget);
+			undoGlobalMemoryBudget	= prefs.getInt("undoGlobalMemoryBudget", undoGlobalMemoryBudget);
 			ignoreBackupExtensions= prefs.getBoolean("ignoreBackupExtensions", ignoreBackupExtensions);
 			temp						= prefs.get("textAreaFont", null);
 			if (temp!=null) {
@@ -521,6 +551,7 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 		prefs.put("colorScheme",						colorScheme.toCommaSeparatedString());
 		prefs.put("iconGroupName",					iconGroupName);
 		prefs.putBoolean("lineNumbersVisible",			lineNumbersVisible);
+		prefs.putBoolean("minimapVisible",				minimapVisible);
 		prefs.putInt("mainView",						mainView);
 		prefs.putInt("statusBarStyle",				statusBarStyle);
 		prefs.put("workingDirectory",				workingDirectory);
@@ -601,6 +632,15 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 		prefs.putBoolean("guessFileContentType",		guessFileContentType);
 		prefs.putBoolean("fileSizeCheck",				doFileSizeCheck);
 		prefs.putFloat("maxFileSize",					maxFileSize);
+		prefs.putBoolean("fsyncOnSave",				fsyncOnSave);
+		prefs.putInt("dormantTabMinutes",				dormantTabMinutes);
+		prefs.putInt("dormantTabMemoryBudget",			dormantTabMemoryBudget);
+		prefs.putInt("followMaxLines",				followMaxLines);
+		prefs.putFloat("reducedProfileFileSize",		reducedProfileFileSize);
+		prefs.putFloat("minimalProfileFileSize",		minimalProfileFileSize);
+		prefs.putInt("reducedProfileLineLength",		reducedProfileLineLength);
+		prefs.putInt("undoMemoryBudget",				undoMemoryBudget);
+		prefs.putInt("undoGlobalMemoryBudget",			undoGlobalMemoryBudget);
 		prefs.putBoolean("ignoreBackupExtensions",		ignoreBackupExtensions);
 		prefs.put("textAreaFont",					textAreaFont==null ? "null" : textAreaFont.getName() + ","
 													+ textAreaFont.getSize() + "," + textAreaFont.isBold() +
@@ -644,6 +684,7 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 		toolbarVisible = true;
 		statusBarVisible = true;
 		lineNumbersVisible = false;
+		minimapVisible = true;
 		tabSize = 5;
 		emulateTabsWithSpaces = false;
 		textMode = RTextArea.INSERT_MODE;
@@ -712,6 +753,15 @@ public class RTextPrefs extends GUIApplicationPrefs<RText>
 		guessFileContentType = true;
 		doFileSizeCheck	= true;
 		maxFileSize		= 10f;	// MB.
+		fsyncOnSave		= false;
+		dormantTabMinutes	= 30;
+		dormantTabMemoryBudget = 64;	// MB.
+		followMaxLines = 100000;
+		reducedProfileFileSize = 5f;	// MB.
+		minimalProfileFileSize = 50f;	// MB.
+		reducedProfileLineLength = 10000;
+		undoMemoryBudget	= 32;	// MB.
+		undoGlobalMemoryBudget = 256;	// MB.
 		ignoreBackupExtensions = true;
 		textAreaFont		= RTextArea.getDefaultFont();
 		textAreaUnderline	= false;
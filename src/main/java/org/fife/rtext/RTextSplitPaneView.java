@@ -21,7 +21,9 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.DefaultListModel;
@@ -42,7 +44,6 @@ import org.fife.ui.RScrollPane;
 import org.fife.ui.UIUtil;
 import org.fife.ui.dockablewindows.DockableWindow;
 import org.fife.ui.dockablewindows.DockableWindowScrollPane;
-import org.fife.ui.rsyntaxtextarea.ErrorStrip;
 import org.fife.ui.rtextarea.RTextScrollPane;
 
 
@@ -134,41 +135,20 @@ class RTextSplitPaneView extends AbstractMainView
 	protected void addTextAreaImpl(String title, Component component,
 							String fileFullPath) {
 
-		JPanel temp = new JPanel(new BorderLayout());
-		temp.add(component);
 		RTextScrollPane sp = (RTextScrollPane)component;
-		RTextEditorPane textArea = (RTextEditorPane)sp.getTextArea();
-		ErrorStrip es = createErrorStrip(textArea);
-		temp.add(es, BorderLayout.LINE_END);
+		JPanel temp = getDocumentPanel(sp);
 
 		int numDocuments = getNumDocuments();
-		listModel.addElement(new DocumentInfo(
-						title, getIconFor((RTextScrollPane)component)));
+		listModel.addElement(new DocumentInfo(title, getIconFor(sp)));
 		add(temp, new Integer(numDocuments).toString());
 		scrollPanes.add(component);
+		if (isCopyingData()) {
+			return; // Selected once all documents are moved over.
+		}
 		setSelectedIndex(numDocuments);		// Sets currentTextArea.
-		numDocuments++;					// We just added a document.
-
-		// Loop through all tabs (documents) except the last (the one just added).
-		for (int i=0; i<numDocuments-1; i++) {
-			// If any of them is the same physical file as the just added one, do the numbering.
-			if (getRTextEditorPaneAt(i).getFileFullPath().equals(fileFullPath)) {
-				int count = 0;
-				for (int j=i; j<numDocuments; j++) {
-					RTextEditorPane pane = getRTextEditorPaneAt(j);
-					if (pane.getFileFullPath().equals(fileFullPath)) {
-						String newTitle = title + " (" + (++count) + ")";
-						if (pane.isDirty())
-							newTitle = newTitle + "*";
-						try {
-							setDocumentDisplayNameAt(j, newTitle);
-						} catch (Exception e) { System.err.println("Exception: " + e); }
-					}
-				}
-				break;
-			}
 
-		} // End of for (int i=0; i<numDocuments-1; i++).
+		// If this file is open more than once, number its display names.
+		renumberDisplayNames(fileFullPath);
 
 	}
 
@@ -318,6 +298,7 @@ class RTextSplitPaneView extends AbstractMainView
 	protected void removeComponentAt(final int index) {
 		int numDocuments = getNumDocuments();
 		if (index>=0 && index<numDocuments) {
+			removingComponentAt(index);
 			scrollPanes.remove(index);		// Remove text area from array list.
 			numDocuments--;				// We just removed one.
 			Component[] comps = getComponents();
@@ -347,6 +328,42 @@ class RTextSplitPaneView extends AbstractMainView
 	}
 
 
+	/**
+	 * Overridden to rebuild the <code>CardLayout</code> only once, no matter
+	 * how many documents are removed.
+	 *
+	 * @param indices The indices of the documents to remove, in ascending
+	 *        order.
+	 */
+	@Override
+	protected void removeComponentsAt(int[] indices) {
+
+		// Don't select anything while the list is changing.
+		documentList.clearSelection();
+
+		for (int i=indices.length-1; i>=0; i--) {
+			int index = indices[i];
+			if (index>=0 && index<scrollPanes.size()) {
+				removingComponentAt(index);
+				scrollPanes.remove(index);
+				listModel.remove(index);
+			}
+		}
+
+		Map<Component, Component> panels =
+				new IdentityHashMap<Component, Component>();
+		Component[] comps = getComponents();
+		for (int i=0; i<comps.length; i++) {
+			panels.put(((JPanel)comps[i]).getComponent(0), comps[i]);
+		}
+		removeAll();
+		for (int i=0; i<scrollPanes.size(); i++) {
+			add(panels.get(scrollPanes.get(i)), Integer.toString(i));
+		}
+
+	}
+
+
 	/**
 	 * Sets the name of the document displayed on the document's tree listing.
 	 *
@@ -502,6 +519,7 @@ class RTextSplitPaneView extends AbstractMainView
 							boolean isSelected, boolean cellHasFocus) {
 
 			setComponentOrientation(list.getComponentOrientation());
+			RTextEditorPane textArea = getRTextEditorPaneAt(index);
 
 			if (isSelected) {
 				setBackground(list.getSelectionBackground());
@@ -511,7 +529,6 @@ class RTextSplitPaneView extends AbstractMainView
 
 				setBackground(list.getBackground());
 
-				RTextEditorPane textArea = getRTextEditorPaneAt(index);
 				if (textArea==null) // Happens in JRE 1.5.0, not in 1.4.x...
 					setForeground(list.getForeground());
 				else if (textArea.isDirty()==true && highlightModifiedDocumentDisplayNames())
@@ -529,6 +546,8 @@ class RTextSplitPaneView extends AbstractMainView
 				setText("");
 			}
 
+			setToolTipText(textArea==null ? null :
+									getDocumentToolTipText(textArea));
 			setEnabled(list.isEnabled());
 			setFont(list.getFont());
 			setBorder((cellHasFocus) ?
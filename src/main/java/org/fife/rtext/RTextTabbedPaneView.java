@@ -12,7 +12,6 @@ package org.fife.rtext;
 
 import java.awt.AWTEvent;
 import java.awt.BasicStroke;
-import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics;
@@ -137,37 +136,15 @@ class RTextTabbedPaneView extends AbstractMainView implements ChangeListener {
 							String fileFullPath) {
 
 		// "Physically" add the tab.
-		JPanel temp = new JPanel(new BorderLayout());
-		temp.add(component);
 		RTextScrollPane sp = (RTextScrollPane)component;
-		RTextEditorPane textArea = (RTextEditorPane)sp.getTextArea();
-		temp.add(createErrorStrip(textArea), BorderLayout.LINE_END);
-		tabbedPane.addTab(title, getIconFor(sp), temp);
+		tabbedPane.addTab(title, getIconFor(sp), getDocumentPanel(sp));
+		if (isCopyingData()) {
+			return; // Selected once all documents are moved over.
+		}
 
-		// Loop through all tabs (documents) except the last (the one just added).
+		// If this file is open more than once, number its display names.
+		renumberDisplayNames(fileFullPath);
 		int tabCount = getNumDocuments();
-		for (int i=0; i<tabCount-1; i++) {
-
-			// If any of them is the same physical file as the just added one, do the numbering.
-			if (getRTextEditorPaneAt(i).getFileFullPath().equals(fileFullPath)) {
-				int count = 0;
-				for (int j=i; j<tabCount; j++) {
-					RTextEditorPane pane = getRTextEditorPaneAt(j);
-					if (pane.getFileFullPath().equals(fileFullPath)) {
-						String newTitle = title + " (" + (++count) + ")";
-						if (pane.isDirty())
-							newTitle = newTitle + "*";
-						try {
-							setDocumentDisplayNameAt(j, newTitle);
-						} catch (Exception e) {
-							owner.displayException(e);
-						}
-					}
-				}
-				break;
-			}
-
-		}
 
 		// Do any extra stuff.
 		// This updates currentTextArea and shifts focus too.
@@ -394,12 +371,33 @@ inCloseCurrentDocument = false;
 	@Override
 	protected void removeComponentAt(int index) {
 		if (index>=0 && index<getNumDocuments()) {
+			removingComponentAt(index);
 			tabbedPane.removeTabAt(index);
 			//currentTextArea = getRTextEditorPaneAt(getSelectedIndex());
 		}
 	}
 
 
+	/**
+	 * Overridden to only update the current document once, after all tabs
+	 * are removed.
+	 *
+	 * @param indices The indices of the tabs to remove, in ascending order.
+	 */
+	@Override
+	protected void removeComponentsAt(int[] indices) {
+		inCloseCurrentDocument = true;
+		try {
+			super.removeComponentsAt(indices);
+		} finally {
+			inCloseCurrentDocument = false;
+		}
+		if (getNumDocuments()>0) {
+			stateChanged(null);
+		}
+	}
+
+
 	/**
 	 * Removes a container listener from this tabbed pane.
 	 *
@@ -589,7 +587,7 @@ inCloseCurrentDocument = false;
 			if (ui != null) {
 				int index = ui.tabForCoordinate(this, e.getX(), e.getY());
 				if (index!=-1) {
-					return getRTextEditorPaneAt(index).getFileFullPath();
+					return getDocumentToolTipText(getRTextEditorPaneAt(index));
 				}
 			}
 			return super.getToolTipText(e);
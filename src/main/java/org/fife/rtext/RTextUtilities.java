@@ -18,6 +18,7 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Insets;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
@@ -732,9 +733,32 @@ public class RTextUtilities {
 	 * @param alpha The alpha value to use when defining how translucent you
 	 *        want the image to be. This should be in the range 0.0f to 1.0f.
 	 * @return The translucent version of the image.
+	 * @see #getTranslucentImage(RText, Image, float, int, int)
 	 */
 	public static BufferedImage getTranslucentImage(RText rtext, Image image,
 												float alpha) {
+		return getTranslucentImage(rtext, image, alpha,
+						image.getWidth(null), image.getHeight(null));
+	}
+
+
+	/**
+	 * Returns a translucent version of a given <code>java.awt.Image</code>,
+	 * scaled to a specific size.  Scaling and compositing are done in a
+	 * single pass.
+	 *
+	 * @param rtext The parent RText instance.
+	 * @param image The <code>java.awt.Image</code> on which to apply the
+	 *        alpha filter.
+	 * @param alpha The alpha value to use when defining how translucent you
+	 *        want the image to be. This should be in the range 0.0f to 1.0f.
+	 * @param w The width of the returned image.
+	 * @param h The height of the returned image.
+	 * @return The translucent, scaled version of the image.
+	 * @see #getTranslucentImage(RText, Image, float)
+	 */
+	public static BufferedImage getTranslucentImage(RText rtext, Image image,
+											float alpha, int w, int h) {
 
 		// Ensure valid alpha value
 		alpha = Math.max(0, alpha);
@@ -742,8 +766,6 @@ public class RTextUtilities {
 
 		// Create fast image
 		BufferedImage bi = null;
-		int w = image.getWidth(null);
-		int h = image.getHeight(null);
 		bi = rtext.getGraphicsConfiguration().createCompatibleImage(w, h);
 		Graphics2D g2d = bi.createGraphics();
 		try {
@@ -751,7 +773,9 @@ public class RTextUtilities {
 			g2d.fillRect(0, 0, w, h);
 			g2d.setComposite(AlphaComposite.getInstance(
 									AlphaComposite.SRC_OVER, alpha));
-			g2d.drawImage(image, 0,0, null);
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+							RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2d.drawImage(image, 0,0, w,h, null);
 		} finally {
 			g2d.dispose();
 		}
@@ -13,7 +13,9 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.fife.ui.rsyntaxtextarea.FileLocation;
 
@@ -29,6 +31,7 @@ public class RecentFileManager implements PropertyChangeListener {
 
 	private RText rtext;
 	private List<FileLocation> files;
+	private Map<String, FileLocation> filesByPath;
 
 	/**
 	 * The number of files we remember.
@@ -45,6 +48,7 @@ public class RecentFileManager implements PropertyChangeListener {
 
 		this.rtext = rtext;
 		files = new ArrayList<FileLocation>();
+		filesByPath = new HashMap<String, FileLocation>();
 
 		rtext.getMainView().addPropertyChangeListener(
 				AbstractMainView.TEXT_AREA_ADDED_PROPERTY, this);
@@ -123,10 +127,12 @@ public class RecentFileManager implements PropertyChangeListener {
 			return;
 		}
 		files.add(0, loc);
+		filesByPath.put(file, loc);
 
 		// Too many files?  Oust the file in history added least recently.
 		if (files.size() > MAX_FILE_COUNT) {
-			files.remove(files.size() - 1);
+			loc = files.remove(files.size() - 1);
+			filesByPath.remove(loc.getFileFullPath());
 		}
 
 	}
@@ -140,13 +146,9 @@ public class RecentFileManager implements PropertyChangeListener {
 	 *         currently in the list.
 	 */
 	private int indexOf(String file) {
-		for (int i=0; i<files.size(); i++) {
-			FileLocation loc = files.get(i);
-			if (file.equals(loc.getFileFullPath())) {
-				return i;
-			}
-		}
-		return -1;
+		// Most files opened aren't in the history yet, so avoid a scan.
+		FileLocation loc = filesByPath.get(file);
+		return loc!=null ? files.indexOf(loc) : -1;
 	}
 
 
@@ -0,0 +1,916 @@
+/*
+ * 10/19/2026
+ *
+ * RecoveryJournal.java - Logs edits to open documents so unsaved work can be
+ * recovered after a crash.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import javax.swing.JOptionPane;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.GapContent;
+
+import org.fife.io.UnicodeReader;
+import org.fife.ui.rsyntaxtextarea.TextEditorPane;
+
+
+/**
+ * Keeps an append-only journal of the edits made to each open document, so
+ * unsaved changes can be recovered if RText or the JVM dies.<p>
+ *
+ * Rather than periodically dumping entire documents, each insertion and
+ * removal is logged as a small record.  A document's journal starts with a
+ * reference to the file on disk (when the document has no unsaved changes at
+ * that point) or with a snapshot of its text.  Once a journal grows larger
+ * than its document, it is compacted into a new snapshot.  Records are
+ * written to disk by a single background thread, so typing never waits on
+ * disk I/O.<p>
+ *
+ * Journals live in a per-session directory under the preferences directory.
+ * The session directory is locked while RText is running; on startup, any
+ * unlocked session directories were left behind by a crash, and the user is
+ * offered the chance to recover their contents.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class RecoveryJournal implements PropertyChangeListener {
+
+	private RText rtext;
+	private String newFileName;
+	private File sessionDir;
+	private FileLock sessionLock;
+	private Map<RTextEditorPane, DocumentJournal> journals;
+	private BlockingQueue<Command> queue;
+	private Thread writerThread;
+	private int journalCount;
+
+	/**
+	 * Journals smaller than this are never compacted, to avoid constantly
+	 * re-snapshotting tiny documents.
+	 */
+	private static final int MIN_COMPACT_SIZE		= 16*1024;
+
+	static final int MAGIC							= 0x52544a31; // "RTJ1"
+
+	static final byte RECORD_BASE_FILE				= 'B';
+	static final byte RECORD_SNAPSHOT				= 'S';
+	static final byte RECORD_INSERT					= 'I';
+	static final byte RECORD_REMOVE					= 'R';
+
+	// Commands for the writer thread that aren't written to the journal.
+	private static final byte DELETE_JOURNAL		= 'D';
+	private static final byte STOP_WRITING			= 'X';
+	private static final byte SYNC					= 'Y';
+
+	private static final String JOURNAL_EXTENSION	= ".rtj";
+	private static final String LOCK_FILE			= "session.lock";
+
+	/**
+	 * Marks the end of the command queue.
+	 */
+	private static final Command STOP				= new Command(null,
+														STOP_WRITING);
+
+
+	/**
+	 * Constructor.  This starts journaling all documents currently open in
+	 * the application, as well as any opened later.
+	 *
+	 * @param rtext The parent application.
+	 */
+	public RecoveryJournal(RText rtext) {
+
+		this(new File(getRecoveryDirectory(),
+						Long.toString(System.currentTimeMillis())),
+				rtext.getNewFileName());
+		this.rtext = rtext;
+		if (sessionDir==null) { // Journaling disabled
+			return;
+		}
+
+		AbstractMainView mainView = rtext.getMainView();
+		mainView.addPropertyChangeListener(
+				AbstractMainView.TEXT_AREA_ADDED_PROPERTY, this);
+		mainView.addPropertyChangeListener(
+				AbstractMainView.TEXT_AREA_REMOVED_PROPERTY, this);
+		for (int i=0; i<mainView.getNumDocuments(); i++) {
+			addTextArea(mainView.getRTextEditorPaneAt(i));
+		}
+
+	}
+
+
+	/**
+	 * Constructor.  This only journals text areas passed to
+	 * {@link #propertyChange(PropertyChangeEvent)}, and cannot offer
+	 * recovery.
+	 *
+	 * @param sessionDir The directory to write journals to.  This should
+	 *        not exist yet.
+	 * @param newFileName The file name of untitled documents.
+	 */
+	RecoveryJournal(File sessionDir, String newFileName) {
+
+		this.sessionDir = sessionDir;
+		this.newFileName = newFileName;
+		journals = new HashMap<RTextEditorPane, DocumentJournal>();
+		queue = new LinkedBlockingQueue<Command>();
+
+		if (!sessionDir.mkdirs() || !lockSession()) {
+			this.sessionDir = null; // Journaling disabled
+			return;
+		}
+
+		writerThread = new Thread(new Writer(), "RText Recovery Journal");
+		writerThread.setDaemon(true);
+		writerThread.start();
+
+	}
+
+
+	private void addTextArea(RTextEditorPane textArea) {
+		if (!journals.containsKey(textArea)) {
+			journals.put(textArea, new DocumentJournal(textArea));
+		}
+	}
+
+
+	/**
+	 * Should be called when a document is saved in the background.  If the
+	 * document was edited while it was being saved, its journal no longer
+	 * corresponds to the file on disk, so it is restarted from a snapshot.
+	 *
+	 * @param textArea The text area that was saved.
+	 */
+	public void documentSaved(RTextEditorPane textArea) {
+		DocumentJournal journal = journals.get(textArea);
+		if (journal!=null && textArea.isDirty()) {
+			journal.snapshot();
+		}
+	}
+
+
+	private void enqueue(Command command) {
+		if (sessionDir!=null) {
+			queue.add(command);
+		}
+	}
+
+
+	private static File getRecoveryDirectory() {
+		return new File(RTextUtilities.getPreferencesDirectory(), "recovery");
+	}
+
+
+	private boolean lockSession() {
+		sessionLock = tryLock(new File(sessionDir, LOCK_FILE));
+		return sessionLock!=null;
+	}
+
+
+	/**
+	 * Looks for journals left behind by RText instances that did not shut
+	 * down cleanly, and offers to recover them.  This should be called on the
+	 * EDT once the application is visible.
+	 */
+	public void offerRecovery() {
+
+		File[] dirs = getRecoveryDirectory().listFiles();
+		if (dirs==null) {
+			return;
+		}
+
+		List<File> orphans = new ArrayList<File>();
+		List<FileLock> locks = new ArrayList<FileLock>();
+		List<File> lockedDirs = new ArrayList<File>();
+		for (File dir : dirs) {
+			if (!dir.isDirectory() || dir.equals(sessionDir)) {
+				continue;
+			}
+			FileLock lock = tryLock(new File(dir, LOCK_FILE));
+			if (lock!=null) { // Session is no longer running.
+				locks.add(lock);
+				lockedDirs.add(dir);
+				File[] files = dir.listFiles();
+				for (int i=0; files!=null && i<files.length; i++) {
+					if (files[i].getName().endsWith(JOURNAL_EXTENSION)) {
+						orphans.add(files[i]);
+					}
+				}
+			}
+		}
+
+		try {
+
+			List<Recovered> recovered = new ArrayList<Recovered>();
+			for (File journal : orphans) {
+				try {
+					Recovered r = replay(journal);
+					if (r!=null) {
+						recovered.add(r);
+					}
+				} catch (IOException ioe) {
+					ioe.printStackTrace(); // Corrupt or obsolete journal
+				}
+			}
+
+			if (!recovered.isEmpty()) {
+				StringBuilder sb = new StringBuilder();
+				for (Recovered r : recovered) {
+					sb.append(r.path).append('\n');
+				}
+				String msg = rtext.getString("RecoverFilesPrompt",
+										sb.toString());
+				int rc = JOptionPane.showConfirmDialog(rtext, msg,
+						rtext.getString("ConfDialogTitle"),
+						JOptionPane.YES_NO_OPTION);
+				if (rc==JOptionPane.YES_OPTION) {
+					for (Recovered r : recovered) {
+						restore(r);
+					}
+				}
+			}
+
+		} finally {
+			for (File journal : orphans) {
+				journal.delete();
+			}
+			for (FileLock lock : locks) {
+				release(lock);
+			}
+			for (File dir : lockedDirs) {
+				new File(dir, LOCK_FILE).delete();
+				dir.delete();
+			}
+		}
+
+	}
+
+
+	private static void release(FileLock lock) {
+		try {
+			lock.release();
+			lock.channel().close();
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Called when a text area is added to or removed from the main view.
+	 *
+	 * @param e The event.
+	 */
+	public void propertyChange(PropertyChangeEvent e) {
+
+		String prop = e.getPropertyName();
+
+		if (AbstractMainView.TEXT_AREA_ADDED_PROPERTY.equals(prop)) {
+			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
+			if (textArea!=null) {
+				addTextArea(textArea);
+			}
+		}
+
+		else if (AbstractMainView.TEXT_AREA_REMOVED_PROPERTY.equals(prop)) {
+			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
+			DocumentJournal journal = journals.remove(textArea);
+			if (journal!=null) {
+				journal.uninstall();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Reads a file into a string the same way a text area would, i.e.,
+	 * with all line endings converted to <code>'\n'</code>.
+	 */
+	private static String readFile(File file, String encoding)
+									throws IOException {
+		StringBuilder sb = new StringBuilder((int)file.length());
+		BufferedReader r = new BufferedReader(
+									new UnicodeReader(file, encoding));
+		try {
+			char[] buf = new char[8192];
+			boolean lastWasCR = false;
+			int count = 0;
+			while ((count=r.read(buf))!=-1) {
+				for (int i=0; i<count; i++) {
+					char ch = buf[i];
+					if (ch=='\r') {
+						sb.append('\n');
+						lastWasCR = true;
+					}
+					else {
+						if (ch!='\n' || !lastWasCR) {
+							sb.append(ch);
+						}
+						lastWasCR = false;
+					}
+				}
+			}
+		} finally {
+			r.close();
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Replays a journal.
+	 *
+	 * @param journal The journal file.
+	 * @return The recovered document, or <code>null</code> if the journal
+	 *         has no usable content.
+	 * @throws IOException If an I/O error occurs, or the journal is
+	 *         corrupt.
+	 */
+	static Recovered replay(File journal) throws IOException {
+
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+									new FileInputStream(journal)));
+		try {
+
+			if (in.readInt()!=MAGIC) {
+				throw new IOException("Not a journal: " + journal);
+			}
+			Recovered r = new Recovered();
+			r.path = in.readUTF();
+			r.encoding = in.readUTF();
+			r.untitled = in.readBoolean();
+
+			GapContent content = null;
+			try {
+				while (true) {
+					byte type = in.readByte();
+					switch (type) {
+						case RECORD_BASE_FILE:
+							long length = in.readLong();
+							long lastModified = in.readLong();
+							String text = "";
+							if (!r.untitled) {
+								File file = new File(r.path);
+								if (file.length()!=length ||
+										file.lastModified()!=lastModified) {
+									// File changed, can't apply our edits
+									return null;
+								}
+								text = readFile(file, r.encoding);
+							}
+							content = new GapContent(text.length() + 1);
+							content.insertString(0, text);
+							break;
+						case RECORD_SNAPSHOT:
+							text = readText(in);
+							content = new GapContent(text.length() + 1);
+							content.insertString(0, text);
+							break;
+						case RECORD_INSERT:
+							int offs = in.readInt();
+							text = readText(in);
+							content.insertString(offs, text);
+							break;
+						case RECORD_REMOVE:
+							offs = in.readInt();
+							int len = in.readInt();
+							content.remove(offs, len);
+							break;
+						default:
+							throw new IOException("Unknown record: " + type);
+					}
+				}
+			} catch (EOFException eofe) {
+				// Done, or the last record was only partially written.
+			} catch (BadLocationException ble) {
+				throw new IOException("Invalid record: " + ble.getMessage());
+			} catch (NullPointerException npe) {
+				throw new IOException("Journal has no base: " + journal);
+			}
+
+			if (content==null) {
+				return null;
+			}
+			try {
+				// GapContent always contains a trailing newline
+				r.text = content.getString(0, content.length()-1);
+			} catch (BadLocationException ble) { // Never happens
+				throw new IOException(ble.getMessage());
+			}
+			return r;
+
+		} finally {
+			in.close();
+		}
+
+	}
+
+
+	private static String readText(DataInputStream in) throws IOException {
+		int len = in.readInt();
+		byte[] bytes = new byte[len];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+
+	/**
+	 * Opens a recovered document in the main view.  The recovered text is
+	 * set as a single, undoable edit.
+	 *
+	 * @param r The recovered document.
+	 */
+	private void restore(Recovered r) {
+		AbstractMainView mainView = rtext.getMainView();
+		if (r.untitled || !new File(r.path).isFile()) {
+			mainView.addNewEmptyUntitledFile();
+		}
+		else if (!mainView.openFile(r.path, r.encoding, true)) {
+			return;
+		}
+		RTextEditorPane textArea = mainView.getCurrentTextArea();
+		if (!r.text.equals(textArea.getText())) {
+			textArea.beginAtomicEdit();
+			try {
+				textArea.setText(r.text);
+			} finally {
+				textArea.endAtomicEdit();
+			}
+			textArea.setCaretPosition(0);
+		}
+	}
+
+
+	/**
+	 * Stops journaling and deletes this session's journals.  This should be
+	 * called when the application exits normally, after all documents are
+	 * closed.
+	 */
+	public void shutdown() {
+		if (sessionDir==null) {
+			return;
+		}
+		for (DocumentJournal journal : journals.values()) {
+			journal.uninstall();
+		}
+		journals.clear();
+		enqueue(STOP);
+		try {
+			writerThread.join(5000);
+		} catch (InterruptedException ie) {
+			// Give up
+		}
+		release(sessionLock);
+		new File(sessionDir, LOCK_FILE).delete();
+		sessionDir.delete();
+		sessionDir = null;
+	}
+
+
+	/**
+	 * Waits until all journal records queued so far are written to disk.
+	 *
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	void sync() throws InterruptedException {
+		if (sessionDir!=null) {
+			Command c = new Command(null, SYNC);
+			c.written = new CountDownLatch(1);
+			enqueue(c);
+			c.written.await();
+		}
+	}
+
+
+	/**
+	 * Attempts to lock a file.
+	 *
+	 * @param file The file to lock.  It is created if it does not exist.
+	 * @return The lock, or <code>null</code> if the file is locked by
+	 *         another process (or another RText window in this JVM).
+	 */
+	private static FileLock tryLock(File file) {
+		FileChannel channel = null;
+		FileLock lock = null;
+		try {
+			channel = new RandomAccessFile(file, "rw").getChannel();
+			lock = channel.tryLock();
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		} catch (OverlappingFileLockException ofle) {
+			// Another RText window in this JVM owns it.
+		}
+		if (lock==null && channel!=null) {
+			try {
+				channel.close();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+		return lock;
+	}
+
+
+	/**
+	 * An operation for the writer thread.
+	 */
+	private static class Command {
+
+		private DocumentJournal journal;
+		private byte type;
+		private int offset;
+		private int length;
+		private CharSequence text;
+
+		// Header information for new journal files.
+		private String path;
+		private String encoding;
+		private boolean untitled;
+		private long fileLength;
+		private long fileLastModified;
+
+		// Counted down when a SYNC command is reached.
+		private CountDownLatch written;
+
+		public Command(DocumentJournal journal, byte type) {
+			this.journal = journal;
+			this.type = type;
+		}
+
+	}
+
+
+	/**
+	 * Journals the edits to a single text area.  Reading the file in when it
+	 * is loaded, reloaded or followed isn't an edit, so it isn't journaled.
+	 * All methods of this class are called on the EDT.
+	 */
+	private class DocumentJournal implements DocumentListener,
+										PropertyChangeListener {
+
+		private RTextEditorPane textArea;
+		private File file;
+		private boolean started;
+		private boolean cleanBase;
+		private long size;
+
+		// Only accessed by the writer thread.
+		private DataOutputStream out;
+
+		public DocumentJournal(RTextEditorPane textArea) {
+			this.textArea = textArea;
+			file = new File(sessionDir, (++journalCount) + JOURNAL_EXTENSION);
+			cleanBase = textArea.isLocal() && !textArea.isCompressed() &&
+					!textArea.isDirty();
+			textArea.getDocument().addDocumentListener(this);
+			textArea.addPropertyChangeListener(this);
+		}
+
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		/**
+		 * Deletes this journal, e.g. because the document was saved.
+		 */
+		private void delete() {
+			if (started) {
+				enqueue(new Command(this, DELETE_JOURNAL));
+				started = false;
+			}
+		}
+
+		/**
+		 * Creates a command that starts a new journal file.
+		 */
+		private Command createStartCommand(byte type) {
+			Command c = new Command(this, type);
+			c.path = textArea.getFileFullPath();
+			c.encoding = textArea.getEncoding();
+			c.untitled = textArea.getFileName().equals(newFileName);
+			return c;
+		}
+
+		public void insertUpdate(DocumentEvent e) {
+			if (!isEdit() || !start()) {
+				return;
+			}
+			Command c = new Command(this, RECORD_INSERT);
+			c.offset = e.getOffset();
+			try {
+				c.text = e.getDocument().getText(c.offset, e.getLength());
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+				return;
+			}
+			record(c, 9 + c.text.length());
+		}
+
+		/**
+		 * Returns whether a change to the document is an edit that should
+		 * be journaled.  Changes made while the file is being loaded, or
+		 * followed, only mirror what is on disk.
+		 */
+		private boolean isEdit() {
+			return !textArea.isLoading() && !textArea.isFollowing();
+		}
+
+		public void propertyChange(PropertyChangeEvent e) {
+			String prop = e.getPropertyName();
+			if (TextEditorPane.DIRTY_PROPERTY.equals(prop)) {
+				if (!((Boolean)e.getNewValue()).booleanValue()) {
+					// Saved or reloaded, disk now matches the document
+					delete();
+					cleanBase = textArea.isLocal() &&
+							!textArea.isCompressed() && !textArea.isFollowing();
+				}
+			}
+			else if (RTextEditorPane.FOLLOWING_PROPERTY.equals(prop)) {
+				// A followed document may only hold the end of the file, so
+				// once following stops, it's journaled from a snapshot.
+				delete();
+				cleanBase = false;
+			}
+			else if (TextEditorPane.FULL_PATH_PROPERTY.equals(prop)) {
+				// Loaded or saved as another file; our journal is for the
+				// old one.
+				delete();
+				cleanBase = textArea.isLocal() &&
+						!textArea.isCompressed() && !textArea.isDirty();
+			}
+			else if ("document".equals(prop)) {
+				Document old = (Document)e.getOldValue();
+				if (old!=null) {
+					old.removeDocumentListener(this);
+				}
+				Document doc = (Document)e.getNewValue();
+				if (doc!=null) {
+					doc.addDocumentListener(this);
+				}
+			}
+		}
+
+		private void record(Command c, int bytes) {
+			enqueue(c);
+			size += bytes;
+			if (size>Math.max(MIN_COMPACT_SIZE,
+					textArea.getDocument().getLength())) {
+				snapshot();
+			}
+		}
+
+		public void removeUpdate(DocumentEvent e) {
+			if (!isEdit() || !start()) {
+				return;
+			}
+			Command c = new Command(this, RECORD_REMOVE);
+			c.offset = e.getOffset();
+			c.length = e.getLength();
+			record(c, 9);
+		}
+
+		/**
+		 * Starts a new journal file if one isn't already open.
+		 *
+		 * @return Whether the caller should record the current edit.  This
+		 *         is <code>false</code> if the journal was started with a
+		 *         snapshot that already contains it.
+		 */
+		private boolean start() {
+			if (started) {
+				return true;
+			}
+			started = true;
+			// If the file changed since it was loaded, it no longer matches
+			// the document.
+			if (cleanBase && !textArea.isModifiedOutsideEditor()) {
+				File f = new File(textArea.getFileFullPath());
+				Command c = createStartCommand(RECORD_BASE_FILE);
+				c.fileLength = f.length();
+				c.fileLastModified = f.lastModified();
+				enqueue(c);
+				size = 0;
+				return true;
+			}
+			snapshot();
+			return false;
+		}
+
+		/**
+		 * Replaces this journal with a snapshot of the document's current
+		 * contents.
+		 */
+		private void snapshot() {
+			Command c = createStartCommand(RECORD_SNAPSHOT);
+			// Shared with saving, and only encoded on the writer thread.
+			c.text = textArea.getSnapshot();
+			enqueue(c);
+			started = true;
+			size = c.text.length();
+		}
+
+		public void uninstall() {
+			textArea.getDocument().removeDocumentListener(this);
+			textArea.removePropertyChangeListener(this);
+			delete();
+		}
+
+	}
+
+
+	/**
+	 * Writes journal records to disk.  All file I/O happens on this thread.
+	 */
+	private class Writer implements Runnable {
+
+		private List<DocumentJournal> open = new ArrayList<DocumentJournal>();
+
+		private void close(DocumentJournal journal) throws IOException {
+			if (journal.out!=null) {
+				journal.out.close();
+				journal.out = null;
+				open.remove(journal);
+			}
+		}
+
+		private void flushAll() {
+			for (DocumentJournal journal : open) {
+				try {
+					journal.out.flush();
+				} catch (IOException ioe) {
+					ioe.printStackTrace();
+				}
+			}
+		}
+
+		/**
+		 * Writes a new journal file, starting with a base file reference or
+		 * snapshot.  The new journal is written to a temporary file first so
+		 * the old one remains valid until the new one is complete.
+		 */
+		private void start(Command c) throws IOException {
+
+			DocumentJournal journal = c.journal;
+			close(journal);
+
+			File temp = new File(journal.file.getAbsolutePath() + ".tmp");
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeUTF(c.path);
+				out.writeUTF(c.encoding);
+				out.writeBoolean(c.untitled);
+				out.writeByte(c.type);
+				if (c.type==RECORD_BASE_FILE) {
+					out.writeLong(c.fileLength);
+					out.writeLong(c.fileLastModified);
+				}
+				else {
+					writeText(out, c.text);
+				}
+			} finally {
+				out.close();
+			}
+
+			if (!temp.renameTo(journal.file)) {
+				journal.file.delete();
+				if (!temp.renameTo(journal.file)) {
+					throw new IOException("Cannot rename " + temp);
+				}
+			}
+
+			journal.out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(journal.file, true)));
+			open.add(journal);
+
+		}
+
+		public void run() {
+
+			while (true) {
+
+				Command c = null;
+				try {
+					c = queue.take();
+				} catch (InterruptedException ie) {
+					continue;
+				}
+
+				if (c.type==SYNC) {
+					flushAll();
+					c.written.countDown();
+					continue;
+				}
+
+				if (c==STOP) {
+					flushAll();
+					for (DocumentJournal journal : open) {
+						try {
+							journal.out.close();
+						} catch (IOException ioe) {
+							ioe.printStackTrace();
+						}
+						journal.file.delete();
+					}
+					return;
+				}
+
+				try {
+					write(c);
+				} catch (IOException ioe) {
+					ioe.printStackTrace();
+				}
+
+				// Batch records into as few disk writes as possible.
+				if (queue.isEmpty()) {
+					flushAll();
+				}
+
+			}
+
+		}
+
+		private void write(Command c) throws IOException {
+			DocumentJournal journal = c.journal;
+			DataOutputStream out = journal.out;
+			switch (c.type) {
+				case RECORD_BASE_FILE:
+				case RECORD_SNAPSHOT:
+					start(c);
+					break;
+				case RECORD_INSERT:
+					if (out!=null) {
+						out.writeByte(c.type);
+						out.writeInt(c.offset);
+						writeText(out, c.text);
+					}
+					break;
+				case RECORD_REMOVE:
+					if (out!=null) {
+						out.writeByte(c.type);
+						out.writeInt(c.offset);
+						out.writeInt(c.length);
+					}
+					break;
+				case DELETE_JOURNAL:
+					close(journal);
+					journal.file.delete();
+					break;
+			}
+		}
+
+		private void writeText(DataOutputStream out, CharSequence text)
+								throws IOException {
+			byte[] bytes = text.toString().getBytes("UTF-8");
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+	}
+
+
+	/**
+	 * A document recovered from a journal.
+	 */
+	static class Recovered {
+		String path;
+		String encoding;
+		boolean untitled;
+		String text;
+	}
+
+
+}
@@ -12,13 +12,19 @@ package org.fife.rtext;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
+import java.awt.Cursor;
 import java.awt.Toolkit;
 import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.text.MessageFormat;
 import java.util.ResourceBundle;
 import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import org.fife.ui.StatusBarPanel;
 
@@ -31,18 +37,23 @@ import org.fife.ui.StatusBarPanel;
  *    <li>An overwrite (insert) mode indicator.
  *    <li>A Caps Lock indicator.
  *    <li>A file "Read Only" mode indicator.
+ *    <li>Line, word and character counts for the document or selection.
+ *    <li>The current document's performance profile, if some features are
+ *        disabled for it.
  * </ul>
  *
  * @author Robert Futrell
  * @version 1.0
  */
 public class StatusBar extends org.fife.ui.StatusBar
-					implements PropertyChangeListener {
+					implements PropertyChangeListener, ChangeListener {
 
 	private JLabel rowAndColumnIndicator;
 	private JLabel overwriteModeIndicator;
 	private JLabel capsLockIndicator;
 	private JLabel readOnlyIndicator;
+	private JLabel statisticsIndicator;
+	private JLabel profileIndicator;
 
 	private int row, column;
 
@@ -51,9 +62,20 @@ public class StatusBar extends org.fife.ui.StatusBar
 	private StatusBarPanel overwritePanel;
 	private StatusBarPanel capsLockPanel;
 	private StatusBarPanel readOnlyPanel;
+	private StatusBarPanel profilePanel;
 
 	private String fileSaveSuccessfulText;
 	private String openedFileText;
+	private MessageFormat statisticsFormat;
+	private MessageFormat selectionStatisticsFormat;
+	private MessageFormat noWordsStatisticsFormat;
+	private MessageFormat noWordsSelectionStatisticsFormat;
+
+	private RTextEditorPane statisticsTextArea;
+	private boolean statisticsUpdatePending;
+
+	private RTextEditorPane profileTextArea;
+	private ResourceBundle msg;
 
 	// Hack: Sine row/column can change so frequently, we break apart
 	// the row/column text in the status bar for speedy updating.
@@ -78,16 +100,24 @@ public class StatusBar extends org.fife.ui.StatusBar
 	 * @param overwriteModeEnabled If <code>true</code>, overwrite mode
 	 *        indicator ("OVR") is enabled.
 	 */
-	public StatusBar(RText rtext, String defaultMessage, boolean showRowColumn,
+	public StatusBar(final RText rtext, String defaultMessage, boolean showRowColumn,
 				int newRow, int newColumn, boolean overwriteModeEnabled) {
 
 		super(defaultMessage);
 
-		ResourceBundle msg= ResourceBundle.getBundle(StatusBar.class.getName());
+		msg = ResourceBundle.getBundle(StatusBar.class.getName());
 
 		// Initialize private variables.
 		fileSaveSuccessfulText = msg.getString("FileSaveSuccessful");
 		openedFileText = msg.getString("OpenedFile");
+		statisticsFormat = new MessageFormat(
+						msg.getString("StatisticsIndicator"));
+		selectionStatisticsFormat = new MessageFormat(
+						msg.getString("SelectionStatisticsIndicator"));
+		noWordsStatisticsFormat = new MessageFormat(
+						msg.getString("NoWordsStatisticsIndicator"));
+		noWordsSelectionStatisticsFormat = new MessageFormat(
+						msg.getString("NoWordsSelectionStatisticsIndicator"));
 		initRowColumnTextStuff(msg);
 		row = newRow;
 		column = newColumn; // DON'T call setRowAndColumn() yet!
@@ -103,6 +133,35 @@ public class StatusBar extends org.fife.ui.StatusBar
 		GridBagConstraints c = new GridBagConstraints();
 		c.fill = GridBagConstraints.BOTH;
 
+		// Create the document statistics indicator.
+		c.weightx = 0.0;
+		statisticsIndicator = new JLabel();
+		statisticsIndicator.setHorizontalAlignment(JLabel.CENTER);
+		addStatusBarComponent(new StatusBarPanel(new BorderLayout(),
+								statisticsIndicator), c);
+
+		// Create the performance profile indicator.  Clicking it enables all
+		// features for the current document.
+		c.weightx = 0.0;
+		profileIndicator = createLabel(msg, "PerformanceProfile.FULL");
+		profileIndicator.setToolTipText(
+						msg.getString("PerformanceProfileToolTip"));
+		profileIndicator.setCursor(
+						Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+		profileIndicator.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (profileTextArea!=null) {
+					rtext.getMainView().setPerformanceProfile(
+							profileTextArea, PerformanceProfile.FULL);
+				}
+			}
+		});
+		profilePanel = new StatusBarPanel(new BorderLayout(),
+									profileIndicator);
+		profilePanel.setVisible(false);
+		addStatusBarComponent(profilePanel, c);
+
 		// Create a Read Only indicator.
 		c.weightx = 0.0;
 		readOnlyPanel = new StatusBarPanel(new BorderLayout(),
@@ -282,6 +341,16 @@ public class StatusBar extends org.fife.ui.StatusBar
 			setReadOnlyIndicatorEnabled(enabled);
 		}
 
+		else if (property.equals(
+				RTextEditorPane.PERFORMANCE_PROFILE_PROPERTY)) {
+			if (e.getSource()==profileTextArea) {
+				updatePerformanceProfile(profileTextArea);
+			}
+			if (e.getSource()==statisticsTextArea) {
+				updateStatistics(statisticsTextArea);
+			}
+		}
+
 	}
 
 
@@ -370,6 +439,43 @@ public class StatusBar extends org.fife.ui.StatusBar
 	}
 
 
+	/**
+	 * Called when the statistics of the text area being shown change.
+	 * The indicator is updated after the change is complete, so that
+	 * several changes in a row only update it once.
+	 *
+	 * @param e The event.
+	 */
+	public void stateChanged(ChangeEvent e) {
+		if (!statisticsUpdatePending) {
+			statisticsUpdatePending = true;
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					statisticsUpdatePending = false;
+					if (statisticsTextArea!=null) {
+						updateStatistics(statisticsTextArea);
+					}
+				}
+			});
+		}
+	}
+
+
+	/**
+	 * Updates the performance profile indicator for a text area.  The
+	 * indicator is only shown if some features are disabled for it.
+	 *
+	 * @param textArea The text area, usually the current one.
+	 */
+	public void updatePerformanceProfile(RTextEditorPane textArea) {
+		profileTextArea = textArea;
+		PerformanceProfile profile = textArea.getPerformanceProfile();
+		profileIndicator.setText(msg.getString("PerformanceProfile." +
+												profile.name()));
+		profilePanel.setVisible(profile!=PerformanceProfile.FULL);
+	}
+
+
 	/**
 	 * Updates the row/column indicator to reflect the current caret
 	 * location, if it is enabled.
@@ -385,4 +491,56 @@ public class StatusBar extends org.fife.ui.StatusBar
 	}
 
 
+	/**
+	 * Updates the statistics indicator to show the line, word and character
+	 * counts of a text area, or of its selection if it has one.  The
+	 * indicator then follows changes to that text area's document.  Words
+	 * are only counted for text areas with the full performance profile,
+	 * since the first count scans the entire document on the EDT.
+	 *
+	 * @param textArea The text area, usually the current one.
+	 */
+	public void updateStatistics(RTextEditorPane textArea) {
+
+		if (textArea!=statisticsTextArea) {
+			if (statisticsTextArea!=null) {
+				statisticsTextArea.getStatistics().removeChangeListener(this);
+			}
+			statisticsTextArea = textArea;
+			textArea.getStatistics().addChangeListener(this);
+		}
+
+		DocumentStatistics stats = textArea.getStatistics();
+		int start = textArea.getSelectionStart();
+		int end = textArea.getSelectionEnd();
+		String text = null;
+		if (textArea.getPerformanceProfile()!=PerformanceProfile.FULL) {
+			if (start==end) {
+				text = noWordsStatisticsFormat.format(new Object[] {
+						Integer.valueOf(stats.getLineCount()),
+						Integer.valueOf(stats.getCharCount()) });
+			}
+			else {
+				text = noWordsSelectionStatisticsFormat.format(new Object[] {
+						Integer.valueOf(stats.getLineCount(start, end)),
+						Integer.valueOf(end-start) });
+			}
+		}
+		else if (start==end) {
+			text = statisticsFormat.format(new Object[] {
+					Integer.valueOf(stats.getLineCount()),
+					Integer.valueOf(stats.getWordCount()),
+					Integer.valueOf(stats.getCharCount()) });
+		}
+		else {
+			text = selectionStatisticsFormat.format(new Object[] {
+					Integer.valueOf(stats.getLineCount(start, end)),
+					Integer.valueOf(stats.getWordCount(start, end)),
+					Integer.valueOf(end-start) });
+		}
+		statisticsIndicator.setText(text);
+
+	}
+
+
 }
\ No newline at end of file
@@ -13,16 +13,25 @@ package org.fife.rtext;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
 
 /**
  * Manages a list of wildcard file filters and what syntax highlighting
- * styles they map to.
+ * styles they map to.<p>
+ *
+ * Since looking up a file's syntax style happens a lot (for every file
+ * opened, searched in Find in Files, shown in a project tree, etc.), the
+ * filters are compiled into lookup tables the first time they're needed,
+ * and recent lookups are cached.  Both are discarded whenever the filters
+ * change.  This class is thread safe.
  *
  * @author Robert Futrell
  * @version 0.1
@@ -40,6 +49,24 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	private Map<String, List<String>> addedFilters;
 
+	/**
+	 * Compiled versions of <code>filters</code> and
+	 * <code>addedFilters</code>, or <code>null</code> if they need to be
+	 * (re)compiled.
+	 */
+	private CompiledFilters compiledFilters;
+	private CompiledFilters compiledAddedFilters;
+
+	/**
+	 * Recently looked up file names and their syntax styles.
+	 */
+	private Map<String, String> styleCache;
+
+	/**
+	 * The maximum number of file names in <code>styleCache</code>.
+	 */
+	private static final int STYLE_CACHE_SIZE		= 256;
+
 	/**
 	 * Creates a new <code>SyntaxFilters</code> with default values for
 	 * all filters.
@@ -60,6 +87,13 @@ public class SyntaxFilters implements SyntaxConstants {
 
 		// One filter set for every file type except plain text.
 		filters = new HashMap<String, List<String>>();
+		styleCache = new LinkedHashMap<String, String>(STYLE_CACHE_SIZE,
+													0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> e) {
+				return size()>STYLE_CACHE_SIZE;
+			}
+		};
 		restoreDefaultFileFilters();
 
 		if (filterStr!=null) {
@@ -116,8 +150,9 @@ public class SyntaxFilters implements SyntaxConstants {
 	 *        be done.
 	 * @throws IllegalArgumentException If <code>style</code> is invalid.
 	 */
-	public void addFileFilter(String style, String filter) {
+	public synchronized void addFileFilter(String style, String filter) {
 		getFiltersForStyle(style).add(filter);
+		filtersChanged();
 	}
 
 
@@ -137,6 +172,16 @@ public class SyntaxFilters implements SyntaxConstants {
 	}
 
 
+	/**
+	 * Called whenever the filters change.  Discards the compiled filters
+	 * and cached lookups.
+	 */
+	private void filtersChanged() {
+		compiledFilters = compiledAddedFilters = null;
+		styleCache.clear();
+	}
+
+
 	/**
 	 * Returns the list of filename filters for highlighting with the given
 	 * style.
@@ -175,7 +220,7 @@ public class SyntaxFilters implements SyntaxConstants {
 	 * @return The list of wildcard file filters.
 	 * @throws IllegalArgumentException If <code>style</code> is invalid.
 	 */
-	public String getFilterString(String style) {
+	public synchronized String getFilterString(String style) {
 		StringBuilder filterString = new StringBuilder();
 		List<String> filters = getFiltersForStyle(style);
 		for (String filter : filters) {
@@ -198,7 +243,7 @@ public class SyntaxFilters implements SyntaxConstants {
 	 * @see org.fife.ui.rsyntaxtextarea.RSyntaxTextArea
 	 * @see org.fife.ui.rsyntaxtextarea.SyntaxConstants
 	 */
-	public String getSyntaxStyleForFile(String fileName,
+	public synchronized String getSyntaxStyleForFile(String fileName,
 									boolean ignoreBackupExtensions) {
 
 		if (fileName==null) {
@@ -220,35 +265,25 @@ public class SyntaxFilters implements SyntaxConstants {
 			fileName = RTextUtilities.stripBackupExtensions(fileName);
 		}
 
-		String style = getSyntaxStyleForFileImpl(fileName, filters);
-		if (style==null && addedFilters!=null) {
-			style = getSyntaxStyleForFileImpl(fileName, addedFilters);
-		}
-		return style!=null ? style : SYNTAX_STYLE_NONE;
-
-	}
-
-
-	/**
-	 * Looks for a syntax style for a file name in a given map.
-	 *
-	 * @param fileName The file name.
-	 * @param filters The map of filters.
-	 * @return The syntax style for the file, or <code>null</code> if not found
-	 *         in that map.
-	 */
-	private static final String getSyntaxStyleForFileImpl(String fileName,
-			Map<String, List<String>> filters) {
-		for (Map.Entry<String, List<String>> entry : filters.entrySet()) {
-			for (String filter : entry.getValue()) {
-				Pattern p = RTextUtilities.getPatternForFileFilter(
-									filter, true);
-				if (p!=null && p.matcher(fileName).matches()) {
-					return entry.getKey();
+		String style = styleCache.get(fileName);
+		if (style==null) {
+			if (compiledFilters==null) {
+				compiledFilters = new CompiledFilters(filters);
+			}
+			style = compiledFilters.getSyntaxStyle(fileName);
+			if (style==null && addedFilters!=null) {
+				if (compiledAddedFilters==null) {
+					compiledAddedFilters = new CompiledFilters(addedFilters);
 				}
+				style = compiledAddedFilters.getSyntaxStyle(fileName);
+			}
+			if (style==null) {
+				style = SYNTAX_STYLE_NONE;
 			}
+			styleCache.put(fileName, style);
 		}
-		return null;
+		return style;
+
 	}
 
 
@@ -288,9 +323,10 @@ public class SyntaxFilters implements SyntaxConstants {
 	/**
 	 * Sets default values for syntax filters.
 	 */
-	public void restoreDefaultFileFilters() {
+	public synchronized void restoreDefaultFileFilters() {
 
 		filters.clear();
+		filtersChanged();
 
 		//filters.put(SYNTAX_STYLE_NONE,			createValue());
 		filters.put(SYNTAX_STYLE_ACTIONSCRIPT,		createValue("*.as", "*.asc"));
@@ -349,10 +385,12 @@ public class SyntaxFilters implements SyntaxConstants {
 	 *        by spaces.  If <code>null</code>, nothing happens.
 	 * @throws IllegalArgumentException If <code>style</code> is invalid.
 	 */
-	public void setFiltersForSyntaxStyle(String style, String filterString) {
+	public synchronized void setFiltersForSyntaxStyle(String style,
+											String filterString) {
 
 		List<String> filters = getFiltersForStyle(style);
 		filters.clear();
+		filtersChanged();
 		
 		int oldSpacePos = 0;
 		int spacePos = filterString.indexOf(' ', 0);
@@ -375,8 +413,9 @@ public class SyntaxFilters implements SyntaxConstants {
 	 *
 	 * @param filters The new values for filters.
 	 */
-	public void setPreservingPluginAdded(SyntaxFilters filters) {
+	public synchronized void setPreservingPluginAdded(SyntaxFilters filters) {
 		this.filters = new HashMap<String, List<String>>(filters.filters);
+		filtersChanged();
 	}
 
 
@@ -387,7 +426,7 @@ public class SyntaxFilters implements SyntaxConstants {
 	 * @return A string representing this <code>SyntaxFilters</code>.
 	 */
 	@Override
-	public String toString() {
+	public synchronized String toString() {
 		String retVal = "";
 		for (String style : filters.keySet()) {
 			retVal += style + ":" + getFilterString(style) + ",";
@@ -398,4 +437,137 @@ public class SyntaxFilters implements SyntaxConstants {
 	}
 
 
+
+	/**
+	 * A map of filters compiled for fast lookups.  Filters that are exact
+	 * file names (e.g. "<code>makefile</code>") and simple extensions (e.g.
+	 * "<code>*.java</code>") are looked up in hash maps.  All other filters
+	 * are combined into a single regular expression, with one capturing
+	 * group per syntax style.
+	 */
+	static class CompiledFilters {
+
+		private Map<String, String> exactNames;
+		private Map<String, String> extensions;
+		private Pattern wildcards;
+		private List<String> wildcardStyles;
+		private List<Integer> wildcardGroups;
+		private boolean caseSensitive;
+
+		public CompiledFilters(Map<String, List<String>> filters) {
+
+			caseSensitive = OS.get().isCaseSensitive();
+			exactNames = new HashMap<String, String>();
+			extensions = new HashMap<String, String>();
+			wildcardStyles = new ArrayList<String>();
+			wildcardGroups = new ArrayList<Integer>();
+			StringBuilder regex = new StringBuilder();
+			int group = 1;
+
+			for (Map.Entry<String, List<String>> entry : filters.entrySet()) {
+
+				String style = entry.getKey();
+				StringBuilder styleRegex = new StringBuilder();
+				int styleGroupCount = 0;
+
+				for (String filter : entry.getValue()) {
+					String key = caseSensitive ? filter : filter.toLowerCase();
+					if (!hasWildcards(key)) {
+						addIfAbsent(exactNames, key, style);
+					}
+					else if (key.startsWith("*.") &&
+							!hasWildcards(key.substring(2))) {
+						addIfAbsent(extensions, key.substring(2), style);
+					}
+					else {
+						Pattern p = RTextUtilities.getPatternForFileFilter(
+															filter, true);
+						if (p!=null) {
+							if (styleRegex.length()>0) {
+								styleRegex.append('|');
+							}
+							// Filters may contain groups of their own, e.g.
+							// "report(1)*", so don't assume a style's group
+							// index.
+							styleRegex.append("(?:").append(p.pattern()).
+																append(')');
+							styleGroupCount += p.matcher("").groupCount();
+						}
+					}
+				}
+
+				if (styleRegex.length()>0) {
+					if (regex.length()>0) {
+						regex.append('|');
+					}
+					regex.append('(').append(styleRegex).append(')');
+					wildcardStyles.add(style);
+					wildcardGroups.add(group);
+					group += 1 + styleGroupCount;
+				}
+
+			}
+
+			if (regex.length()>0) {
+				int flags = caseSensitive ? 0 :
+					(Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
+				wildcards = Pattern.compile(regex.toString(), flags);
+			}
+
+		}
+
+		private static void addIfAbsent(Map<String, String> map, String key,
+										String style) {
+			if (!map.containsKey(key)) {
+				map.put(key, style);
+			}
+		}
+
+		/**
+		 * Returns the syntax style for a file name.
+		 *
+		 * @param fileName The file name, without any path.
+		 * @return The syntax style, or <code>null</code> if no filter
+		 *         matches.
+		 */
+		public String getSyntaxStyle(String fileName) {
+
+			String key = caseSensitive ? fileName : fileName.toLowerCase();
+			String style = exactNames.get(key);
+			if (style!=null) {
+				return style;
+			}
+
+			// "*.gz" matches "foo.tar.gz", so check each possible extension.
+			int dot = key.indexOf('.');
+			while (dot>-1) {
+				style = extensions.get(key.substring(dot+1));
+				if (style!=null) {
+					return style;
+				}
+				dot = key.indexOf('.', dot+1);
+			}
+
+			if (wildcards!=null) {
+				Matcher m = wildcards.matcher(fileName);
+				if (m.matches()) {
+					for (int i=0; i<wildcardStyles.size(); i++) {
+						if (m.group(wildcardGroups.get(i))!=null) {
+							return wildcardStyles.get(i);
+						}
+					}
+				}
+			}
+
+			return null;
+
+		}
+
+		private static boolean hasWildcards(String filter) {
+			return filter.indexOf('*')>-1 || filter.indexOf('?')>-1;
+		}
+
+	}
+
+
 }
\ No newline at end of file
@@ -0,0 +1,416 @@
+/*
+ * 10/19/2026
+ *
+ * TextTransformer.java - Transforms the lines of documents in the background.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.regex.Pattern;
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+
+
+/**
+ * Applies a line-based transformation, such as sorting, to documents.<p>
+ *
+ * Each document's new text is computed on a background thread from a
+ * snapshot of it, and several documents are processed in parallel.  The new
+ * text is then diffed against the snapshot, and only the lines that changed
+ * are edited, as a single undoable edit.  If a document is modified while
+ * it is being transformed, the transformation is started over for it.<p>
+ *
+ * Instances of this class should be created and used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class TextTransformer {
+
+	/**
+	 * The transformations available.
+	 */
+	public enum Operation {
+
+		/**
+		 * Sorts lines in ascending order.
+		 */
+		SORT,
+
+		/**
+		 * Removes lines that are duplicates of earlier ones.
+		 */
+		UNIQUE,
+
+		/**
+		 * Reverses the order of lines.
+		 */
+		REVERSE,
+
+		/**
+		 * Removes lines not matching a regular expression.
+		 */
+		KEEP_MATCHING,
+
+		/**
+		 * Removes lines matching a regular expression.
+		 */
+		REMOVE_MATCHING,
+
+		/**
+		 * Removes whitespace from the end of lines.
+		 */
+		TRIM_TRAILING_WHITESPACE,
+
+		/**
+		 * Replaces tabs with spaces, up to the next tab stop.
+		 */
+		TABS_TO_SPACES,
+
+		/**
+		 * Replaces spaces in leading whitespace with tabs.  Spaces elsewhere
+		 * are left alone, since they may be in string literals.
+		 */
+		SPACES_TO_TABS
+
+	}
+
+	/**
+	 * How many times a document is transformed again if it keeps getting
+	 * modified while being transformed.
+	 */
+	private static final int MAX_ATTEMPTS		= 3;
+
+	private static ExecutorService executor;
+
+	private RText rtext;
+	private Operation operation;
+	private Pattern pattern;
+	private int pending;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rtext The parent application.
+	 * @param operation The transformation to apply.
+	 * @param pattern The regular expression for
+	 *        {@link Operation#KEEP_MATCHING} and
+	 *        {@link Operation#REMOVE_MATCHING}.  This is ignored for other
+	 *        operations.
+	 */
+	public TextTransformer(RText rtext, Operation operation, Pattern pattern) {
+		this.rtext = rtext;
+		this.operation = operation;
+		this.pattern = pattern;
+		if ((operation==Operation.KEEP_MATCHING ||
+				operation==Operation.REMOVE_MATCHING) && pattern==null) {
+			throw new IllegalArgumentException("pattern required for " +
+											operation);
+		}
+	}
+
+
+	/**
+	 * Called on the EDT with the result of transforming a document.
+	 *
+	 * @param snapshot The snapshot of the document that was transformed.
+	 * @param oldLines The lines of the snapshot.
+	 * @param newLines The lines of the transformed text.
+	 * @param hunks The differences between the two.
+	 * @param attempt How many times this document has been transformed.
+	 */
+	private void apply(DocumentSnapshot snapshot, LineDiff.Lines oldLines,
+			LineDiff.Lines newLines, List<int[]> hunks, int attempt) {
+
+		RTextEditorPane textArea = snapshot.getTextArea();
+
+		if (snapshot.isStale()) {
+			// Edited while we were working (e.g. the user typed, or the
+			// file was reloaded), so our diff no longer applies.
+			if (attempt<MAX_ATTEMPTS) {
+				submit(textArea, attempt+1);
+			}
+		}
+
+		else if (!hunks.isEmpty() && textArea.isEditable()) {
+			// Rehydrating doesn't change the content, so the snapshot is
+			// still valid.
+			textArea.rehydrate();
+			textArea.beginAtomicEdit();
+			try {
+				LineDiff.apply(textArea.getDocument(), hunks, oldLines,
+								newLines);
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			} finally {
+				textArea.endAtomicEdit();
+			}
+		}
+
+		pending--;
+		updateStatusMessage();
+
+	}
+
+
+	/**
+	 * Appends spaces to a buffer.
+	 */
+	private static void appendSpaces(StringBuilder sb, int count) {
+		for (int i=0; i<count; i++) {
+			sb.append(' ');
+		}
+	}
+
+
+	/**
+	 * Returns the thread pool that transforms documents.  It has a thread
+	 * per processor, since transformations are CPU bound.
+	 *
+	 * @return The thread pool.
+	 */
+	private static synchronized ExecutorService getExecutor() {
+		if (executor==null) {
+			int threadCount = Runtime.getRuntime().availableProcessors();
+			executor = Executors.newFixedThreadPool(threadCount,
+					new ThreadFactory() {
+						private int count;
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r,
+									"RText Transformer " + (++count));
+							t.setDaemon(true);
+							t.setPriority(Thread.MIN_PRIORITY);
+							return t;
+						}
+					});
+		}
+		return executor;
+	}
+
+
+	/**
+	 * Converts leading spaces in a line to tabs.
+	 *
+	 * @param line The line, without its newline.
+	 * @param tabSize The tab size.
+	 * @return The converted line.
+	 */
+	private static String spacesToTabs(String line, int tabSize) {
+
+		// Find the width of the leading whitespace.
+		int len = line.length();
+		int i = 0;
+		int col = 0;
+		boolean hasSpaces = false;
+		for (; i<len; i++) {
+			char ch = line.charAt(i);
+			if (ch==' ') {
+				col++;
+				hasSpaces = true;
+			}
+			else if (ch=='\t') {
+				col += tabSize - (col%tabSize);
+			}
+			else {
+				break;
+			}
+		}
+		if (!hasSpaces) {
+			return line;
+		}
+
+		StringBuilder sb = new StringBuilder(col/tabSize + col%tabSize +
+										len - i);
+		for (int j=0; j<col/tabSize; j++) {
+			sb.append('\t');
+		}
+		appendSpaces(sb, col%tabSize);
+		return sb.append(line, i, len).toString();
+
+	}
+
+
+	/**
+	 * Starts transforming a document on a background thread.
+	 *
+	 * @param textArea The text area containing the document.
+	 * @param attempt How many times this document has been transformed.
+	 */
+	private void submit(RTextEditorPane textArea, final int attempt) {
+
+		final DocumentSnapshot snapshot = textArea.getSnapshot();
+		// Hidden text areas may not have picked up a new tab size yet.
+		final int tabSize = rtext.getMainView().getTabSize();
+		pending++;
+
+		getExecutor().execute(new Runnable() {
+			public void run() {
+				String text = transform(snapshot, tabSize);
+				final LineDiff.Lines oldLines = new LineDiff.Lines(snapshot);
+				final LineDiff.Lines newLines = new LineDiff.Lines(text);
+				final List<int[]> hunks = LineDiff.diff(oldLines, newLines);
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						apply(snapshot, oldLines, newLines, hunks, attempt);
+					}
+				});
+			}
+		});
+
+	}
+
+
+	/**
+	 * Replaces tabs in a line with spaces, up to the next tab stop.
+	 *
+	 * @param line The line, without its newline.
+	 * @param tabSize The tab size.
+	 * @return The converted line.
+	 */
+	private static String tabsToSpaces(String line, int tabSize) {
+		if (line.indexOf('\t')==-1) {
+			return line;
+		}
+		int len = line.length();
+		StringBuilder sb = new StringBuilder(len + 3*tabSize);
+		for (int i=0; i<len; i++) {
+			char ch = line.charAt(i);
+			if (ch=='\t') {
+				appendSpaces(sb, tabSize - (sb.length()%tabSize));
+			}
+			else {
+				sb.append(ch);
+			}
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Transforms the documents in text areas.  This method returns
+	 * immediately; the documents are updated when their transformations
+	 * complete.
+	 *
+	 * @param textAreas The text areas.
+	 */
+	public void transform(List<RTextEditorPane> textAreas) {
+		for (RTextEditorPane textArea : textAreas) {
+			submit(textArea, 1);
+		}
+		updateStatusMessage();
+	}
+
+
+	/**
+	 * Transforms text.  This method is thread safe.
+	 *
+	 * @param text The text to transform.
+	 * @param tabSize The tab size, for converting between tabs and spaces.
+	 * @return The transformed text.
+	 */
+	String transform(CharSequence text, int tabSize) {
+
+		// Split into lines, remembering whether the last one was terminated.
+		int len = text.length();
+		List<String> lines = new ArrayList<String>();
+		int start = 0;
+		for (int i=0; i<len; i++) {
+			if (text.charAt(i)=='\n') {
+				lines.add(text.subSequence(start, i).toString());
+				start = i + 1;
+			}
+		}
+		boolean trailingNewline = start==len;
+		if (start<len) {
+			lines.add(text.subSequence(start, len).toString());
+		}
+
+		switch (operation) {
+			case SORT:
+				Collections.sort(lines);
+				break;
+			case UNIQUE:
+				Set<String> seen = new HashSet<String>();
+				List<String> unique = new ArrayList<String>();
+				for (String line : lines) {
+					if (seen.add(line)) {
+						unique.add(line);
+					}
+				}
+				lines = unique;
+				break;
+			case REVERSE:
+				Collections.reverse(lines);
+				break;
+			case KEEP_MATCHING:
+			case REMOVE_MATCHING:
+				boolean keep = operation==Operation.KEEP_MATCHING;
+				List<String> kept = new ArrayList<String>();
+				for (String line : lines) {
+					if (pattern.matcher(line).find()==keep) {
+						kept.add(line);
+					}
+				}
+				lines = kept;
+				break;
+			case TRIM_TRAILING_WHITESPACE:
+				for (int i=0; i<lines.size(); i++) {
+					String line = lines.get(i);
+					int end = line.length();
+					while (end>0 && Character.isWhitespace(line.charAt(end-1))) {
+						end--;
+					}
+					lines.set(i, line.substring(0, end));
+				}
+				break;
+			case TABS_TO_SPACES:
+				for (int i=0; i<lines.size(); i++) {
+					lines.set(i, tabsToSpaces(lines.get(i), tabSize));
+				}
+				break;
+			case SPACES_TO_TABS:
+				for (int i=0; i<lines.size(); i++) {
+					lines.set(i, spacesToTabs(lines.get(i), tabSize));
+				}
+				break;
+		}
+
+		StringBuilder sb = new StringBuilder(len);
+		for (int i=0; i<lines.size(); i++) {
+			if (i>0) {
+				sb.append('\n');
+			}
+			sb.append(lines.get(i));
+		}
+		if (trailingNewline && !lines.isEmpty()) {
+			sb.append('\n');
+		}
+		return sb.toString();
+
+	}
+
+
+	private void updateStatusMessage() {
+		if (pending>0) {
+			rtext.setMessages(null, rtext.getString("TransformingFiles",
+									Integer.toString(pending)));
+		}
+		else {
+			rtext.setMessages(null, rtext.getString("Ready"));
+		}
+	}
+
+
+}
@@ -17,6 +17,7 @@ import javax.swing.ImageIcon;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextActionInfo;
 import org.fife.rtext.RTextPrefs;
+import org.fife.rtext.TextTransformer;
 import org.fife.ui.app.AbstractGUIApplication;
 import org.fife.ui.app.AppAction;
 import org.fife.ui.app.GUIApplication.AboutAction;
@@ -121,6 +122,47 @@ public class ActionFactory implements RTextActionInfo {
 		a = new FilePropertiesAction(rtext, msg);
 		rtext.addAction(FILE_PROPERTIES_ACTION, a);
 
+		a = new FollowFileAction(rtext, msg, null);
+		rtext.addAction(FOLLOW_FILE_ACTION, a);
+
+		a = new CompareAction(rtext, msg, null);
+		rtext.addAction(COMPARE_ACTION, a);
+
+		a = new TransformLinesAction(rtext, msg, "SortLinesAction",
+								TextTransformer.Operation.SORT);
+		rtext.addAction(SORT_LINES_ACTION, a);
+
+		a = new TransformLinesAction(rtext, msg, "UniqueLinesAction",
+								TextTransformer.Operation.UNIQUE);
+		rtext.addAction(UNIQUE_LINES_ACTION, a);
+
+		a = new TransformLinesAction(rtext, msg, "ReverseLinesAction",
+								TextTransformer.Operation.REVERSE);
+		rtext.addAction(REVERSE_LINES_ACTION, a);
+
+		a = new TransformLinesAction(rtext, msg, "KeepLinesAction",
+								TextTransformer.Operation.KEEP_MATCHING);
+		rtext.addAction(KEEP_LINES_ACTION, a);
+
+		a = new TransformLinesAction(rtext, msg, "RemoveLinesAction",
+								TextTransformer.Operation.REMOVE_MATCHING);
+		rtext.addAction(REMOVE_LINES_ACTION, a);
+
+		a = new TransformLinesAction(rtext, msg, "TrimLinesAction",
+							TextTransformer.Operation.TRIM_TRAILING_WHITESPACE);
+		rtext.addAction(TRIM_LINES_ACTION, a);
+
+		a = new TransformLinesAction(rtext, msg, "TabsToSpacesAction",
+								TextTransformer.Operation.TABS_TO_SPACES);
+		rtext.addAction(TABS_TO_SPACES_ACTION, a);
+
+		a = new TransformLinesAction(rtext, msg, "SpacesToTabsAction",
+								TextTransformer.Operation.SPACES_TO_TABS);
+		rtext.addAction(SPACES_TO_TABS_ACTION, a);
+
+		a = new FilterLinesAction(rtext, msg, null);
+		rtext.addAction(FILTER_LINES_ACTION, a);
+
 		a = new HelpAction<RText>(rtext, msg, "HelpAction");
 		rtext.addAction(RText.HELP_ACTION_KEY, a);
 
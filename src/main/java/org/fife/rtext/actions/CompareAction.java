@@ -0,0 +1,88 @@
+/*
+ * 10/19/2026
+ *
+ * CompareAction.java - Action to compare the current document with another.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+import javax.swing.Icon;
+import javax.swing.JOptionPane;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.CompareDialog;
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that compares the current document with another open document,
+ * side by side.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class CompareAction extends AppAction<RText> {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 * @param icon The icon associated with the action.
+	 */
+	public CompareAction(RText owner, ResourceBundle msg, Icon icon) {
+		super(owner, msg, "CompareAction");
+		setIcon(icon);
+	}
+
+
+	public void actionPerformed(ActionEvent e) {
+
+		RText owner = getApplication();
+		AbstractMainView mainView = owner.getMainView();
+		RTextEditorPane current = mainView.getCurrentTextArea();
+
+		int count = mainView.getNumDocuments();
+		if (count<2) {
+			JOptionPane.showMessageDialog(owner,
+					owner.getString("Compare.NeedTwoDocuments"),
+					owner.getString("ErrorDialogTitle"),
+					JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+
+		RTextEditorPane[] others = new RTextEditorPane[count-1];
+		String[] paths = new String[count-1];
+		int j = 0;
+		for (int i=0; i<count; i++) {
+			RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
+			if (textArea!=current && j<others.length) {
+				others[j] = textArea;
+				paths[j++] = textArea.getFileFullPath();
+			}
+		}
+
+		Object choice = JOptionPane.showInputDialog(owner,
+				owner.getString("Compare.ChooseDocument",
+								current.getFileName()),
+				owner.getString("Compare.ChooseDocumentTitle"),
+				JOptionPane.QUESTION_MESSAGE, null, paths, paths[0]);
+		for (int i=0; i<paths.length; i++) {
+			if (paths[i]==choice) {
+				new CompareDialog(owner, current, others[i]).setVisible(true);
+				break;
+			}
+		}
+
+	}
+
+
+}
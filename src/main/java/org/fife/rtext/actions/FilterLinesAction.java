@@ -0,0 +1,48 @@
+/*
+ * 10/19/2026
+ *
+ * FilterLinesAction.java - Action to show only the lines matching a pattern.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+import javax.swing.Icon;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that shows the window listing the lines of the current document
+ * that match a regular expression.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class FilterLinesAction extends AppAction<RText> {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 * @param icon The icon associated with the action.
+	 */
+	public FilterLinesAction(RText owner, ResourceBundle msg, Icon icon) {
+		super(owner, msg, "FilterLinesAction");
+		setIcon(icon);
+	}
+
+
+	public void actionPerformed(ActionEvent e) {
+		getApplication().showLineFilterWindow();
+	}
+
+
+}
@@ -0,0 +1,53 @@
+/*
+ * 10/19/2026
+ *
+ * FollowFileAction.java - Action to toggle following the current file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+import javax.swing.Icon;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that toggles whether the current document follows its file, i.e.
+ * shows content as it is appended to the file, like <code>tail -f</code>.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class FollowFileAction extends AppAction<RText> {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 * @param icon The icon associated with the action.
+	 */
+	public FollowFileAction(RText owner, ResourceBundle msg, Icon icon) {
+		super(owner, msg, "FollowFileAction");
+		setIcon(icon);
+	}
+
+
+	public void actionPerformed(ActionEvent e) {
+		RText owner = getApplication();
+		AbstractMainView mainView = owner.getMainView();
+		RTextEditorPane textArea = mainView.getCurrentTextArea();
+		mainView.setFollowingFile(textArea, !textArea.isFollowing());
+	}
+
+
+}
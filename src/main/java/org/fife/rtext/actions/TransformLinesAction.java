@@ -0,0 +1,91 @@
+/*
+ * 10/19/2026
+ *
+ * TransformLinesAction.java - Action to transform the lines of a document.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.Collections;
+import java.util.ResourceBundle;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.JOptionPane;
+import javax.swing.UIManager;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.TextTransformer;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that transforms the lines of the current document, for example by
+ * sorting them.  The work is done in the background by a
+ * {@link TextTransformer}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class TransformLinesAction extends AppAction<RText> {
+
+	private TextTransformer.Operation operation;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 * @param nameKey The key for the action's name in <code>msg</code>.
+	 * @param operation The transformation to apply.
+	 */
+	public TransformLinesAction(RText owner, ResourceBundle msg,
+						String nameKey, TextTransformer.Operation operation) {
+		super(owner, msg, nameKey);
+		this.operation = operation;
+	}
+
+
+	public void actionPerformed(ActionEvent e) {
+
+		RText owner = getApplication();
+		RTextEditorPane textArea = owner.getMainView().getCurrentTextArea();
+		if (!textArea.isEditable()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(textArea);
+			return;
+		}
+
+		Pattern pattern = null;
+		if (operation==TextTransformer.Operation.KEEP_MATCHING ||
+				operation==TextTransformer.Operation.REMOVE_MATCHING) {
+			String title = (String)getValue(NAME);
+			String regex = JOptionPane.showInputDialog(owner,
+					owner.getString("TransformLines.EnterRegex"), title,
+					JOptionPane.QUESTION_MESSAGE);
+			if (regex==null || regex.length()==0) {
+				return;
+			}
+			try {
+				pattern = Pattern.compile(regex);
+			} catch (PatternSyntaxException pse) {
+				JOptionPane.showMessageDialog(owner,
+						owner.getString("TransformLines.InvalidRegex",
+										pse.getMessage()),
+						owner.getString("ErrorDialogTitle"),
+						JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+		}
+
+		new TextTransformer(owner, operation, pattern).transform(
+								Collections.singletonList(textArea));
+
+	}
+
+
+}
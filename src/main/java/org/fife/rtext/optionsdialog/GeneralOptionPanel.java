@@ -49,9 +49,13 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	private JCheckBox utf8BomCB;
 	private JCheckBox sizeCheckCB;
 	private JFormattedTextField sizeField;
+	private JFormattedTextField reducedSizeField;
+	private JFormattedTextField minimalSizeField;
+	private JFormattedTextField lineLengthField;
 	private JCheckBox dropShadowsInEditorCB;
 
 	private String fileSizeError;
+	private String largeFileError;
 
 	public static final String TERM_CR		= "\r";
 	public static final String TERM_LF		= "\n";
@@ -71,6 +75,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 
 		super(msg.getString("OptGenName"));
 		fileSizeError = msg.getString("OptGenFileSizeError");
+		largeFileError = msg.getString("OptLargeFileError");
 
 		ComponentOrientation orientation = ComponentOrientation.
 									getOrientation(getLocale());
@@ -185,6 +190,29 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		temp2.add(temp, BorderLayout.LINE_START);
 		otherPanel.add(temp2);
 		topPanel.add(otherPanel);
+		topPanel.add(Box.createVerticalStrut(5));
+
+		// A panel for when to disable expensive features in large files.
+		temp = new JPanel(new BorderLayout());
+		temp.setBorder(new OptionPanelBorder(
+				msg.getString("OptLargeFilesTitle")));
+		JPanel largeFilePanel = new JPanel(new SpringLayout());
+		temp.add(largeFilePanel);
+		reducedSizeField = createNumberField(format);
+		addLabeledField(largeFilePanel, orientation,
+				msg.getString("OptReducedProfileFileSize"), reducedSizeField);
+		minimalSizeField = createNumberField(format);
+		addLabeledField(largeFilePanel, orientation,
+				msg.getString("OptMinimalProfileFileSize"), minimalSizeField);
+		NumberFormat intFormat = NumberFormat.getIntegerInstance();
+		intFormat.setGroupingUsed(false);
+		lineLengthField = createNumberField(intFormat);
+		addLabeledField(largeFilePanel, orientation,
+				msg.getString("OptReducedProfileLineLength"), lineLengthField);
+		UIUtil.makeSpringCompactGrid(largeFilePanel, 3,2, 5,5, 5,5);
+		addLeftAligned(temp, largeFilePanel);
+		topPanel.add(temp);
+		topPanel.add(Box.createVerticalStrut(5));
 
 		// A panel for "experimental" options.
 		Box expPanel = Box.createVerticalBox();
@@ -278,6 +306,9 @@ class GeneralOptionPanel extends OptionsDialogPanel
 			String defaultEnc = Charset.forName(defaultEncName).name();
 			boolean defaultUtf8BomSelected = false;
 			final String defaultSizeFieldText = "10";
+			final String defaultReducedSizeFieldText = "5";
+			final String defaultMinimalSizeFieldText = "50";
+			final String defaultLineLengthFieldText = "10000";
 			// Only default to this experimental option if > Java 6 and running
 			// on Windows
 			boolean defaultDropShadowsInEditor =
@@ -289,6 +320,9 @@ class GeneralOptionPanel extends OptionsDialogPanel
 				utf8BomCB.isSelected()!=defaultUtf8BomSelected ||
 				!sizeCheckCB.isSelected() ||
 				!defaultSizeFieldText.equals(sizeField.getText()) ||
+				!defaultReducedSizeFieldText.equals(reducedSizeField.getText()) ||
+				!defaultMinimalSizeFieldText.equals(minimalSizeField.getText()) ||
+				!defaultLineLengthFieldText.equals(lineLengthField.getText()) ||
 				dropShadowsInEditorCB.isSelected()!=defaultDropShadowsInEditor) {
 
 				dirField.setText(null);
@@ -298,6 +332,9 @@ class GeneralOptionPanel extends OptionsDialogPanel
 				utf8BomCB.setSelected(defaultUtf8BomSelected);
 				setDoFileSizeCheck(true);
 				sizeField.setText(defaultSizeFieldText);
+				reducedSizeField.setText(defaultReducedSizeFieldText);
+				minimalSizeField.setText(defaultMinimalSizeFieldText);
+				lineLengthField.setText(defaultLineLengthFieldText);
 				dropShadowsInEditorCB.setSelected(defaultDropShadowsInEditor);
 
 				hasUnsavedChanges = true;
@@ -309,6 +346,31 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	}
 
 
+	/**
+	 * Adds a label and a text field to a row of a panel.
+	 *
+	 * @param panel The panel, which uses a <code>SpringLayout</code>.
+	 * @param o The component orientation.
+	 * @param text The label's text.
+	 * @param field The text field.
+	 */
+	private static void addLabeledField(JPanel panel, ComponentOrientation o,
+						String text, JFormattedTextField field) {
+		JLabel label = new JLabel(text);
+		label.setLabelFor(field);
+		JPanel temp = new JPanel(new BorderLayout());
+		temp.add(field, BorderLayout.LINE_START);
+		if (o.isLeftToRight()) {
+			panel.add(label);
+			panel.add(temp);
+		}
+		else {
+			panel.add(temp);
+			panel.add(label);
+		}
+	}
+
+
 	/**
 	 * Never called since we don't have JEditorPanes.
 	 */
@@ -316,6 +378,20 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	}
 
 
+	/**
+	 * Creates a text field for a number.
+	 *
+	 * @param format The format of the number.
+	 * @return The text field.
+	 */
+	private JFormattedTextField createNumberField(NumberFormat format) {
+		JFormattedTextField field = new JFormattedTextField(format);
+		field.getDocument().addDocumentListener(this);
+		field.setColumns(8);
+		return field;
+	}
+
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -331,6 +407,10 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		mainView.setWriteBOMInUtf8Files(getWriteUtf8BOM()); // Ditto.
 		mainView.setDoFileSizeCheck(getDoFileSizeCheck()); // Ditto.
 		mainView.setMaxFileSize(getMaxFileSize());		// Ditto.
+		mainView.setReducedProfileFileSize(getNumber(reducedSizeField));
+		mainView.setMinimalProfileFileSize(getNumber(minimalSizeField));
+		mainView.setReducedProfileLineLength(
+				(int)getNumber(lineLengthField));
 
 		// Experimental options
 		RTextUtilities.setDropShadowsEnabledInEditor(
@@ -348,6 +428,13 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		if (maxFileSize<0) {
 			return new OptionsPanelCheckResult(this,sizeField,fileSizeError);
 		}
+		JFormattedTextField[] fields = { reducedSizeField, minimalSizeField,
+										lineLengthField };
+		for (JFormattedTextField field : fields) {
+			if (getNumber(field)<0) {
+				return new OptionsPanelCheckResult(this,field,largeFileError);
+			}
+		}
 		return null;
 	}
 
@@ -400,6 +487,20 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	}
 
 
+	/**
+	 * Returns the number in a text field.
+	 *
+	 * @param field The text field.
+	 * @return The number, or <code>-1</code> if the field does not contain
+	 *         a valid number.
+	 */
+	private static float getNumber(JFormattedTextField field) {
+		// JFormattedTextField.getValue() gets last GOOD value.
+		Number num = (Number)field.getValue();
+		return num==null ? -1 : num.floatValue();
+	}
+
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -543,6 +644,12 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		setWriteUtf8BOM(mainView.getWriteBOMInUtf8Files());
 		setDoFileSizeCheck(mainView.getDoFileSizeCheck());
 		setMaxFileSize(mainView.getMaxFileSize());
+		reducedSizeField.setValue(
+				new Float(mainView.getReducedProfileFileSize()));
+		minimalSizeField.setValue(
+				new Float(mainView.getMinimalProfileFileSize()));
+		lineLengthField.setValue(
+				new Integer(mainView.getReducedProfileLineLength()));
 
 		// Experimental options
 		dropShadowsInEditorCB.setSelected(RTextUtilities.
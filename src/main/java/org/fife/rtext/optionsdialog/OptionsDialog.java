@@ -9,11 +9,13 @@
  */
 package org.fife.rtext.optionsdialog;
 
+import java.awt.event.ActionEvent;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 import javax.swing.ImageIcon;
 
+import org.fife.rtext.AbstractMainView;
 import org.fife.rtext.RText;
 import org.fife.ui.OptionsDialogPanel;
 import org.fife.ui.app.Plugin;
@@ -35,6 +37,8 @@ import org.fife.ui.rtextfilechooser.RTextFileChooserOptionPanel;
  */
 public class OptionsDialog extends org.fife.ui.OptionsDialog {
 
+	private RText rtext;
+
 
 	/**
 	 * Constructor.
@@ -44,6 +48,7 @@ public class OptionsDialog extends org.fife.ui.OptionsDialog {
 	public OptionsDialog(RText rtext) {
 
 		super(rtext);
+		this.rtext = rtext;
 
 		ResourceBundle msg = ResourceBundle.getBundle(
 								"org.fife.rtext.OptionsDialog");
@@ -130,6 +135,25 @@ public class OptionsDialog extends org.fife.ui.OptionsDialog {
 	}
 
 
+	/**
+	 * Overridden so that when the user clicks OK or Apply, the changes from
+	 * all option panels are applied to the open documents in a single pass,
+	 * rather than one pass per panel.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		AbstractMainView mainView = rtext.getMainView();
+		mainView.beginSettingsTransaction();
+		try {
+			super.actionPerformed(e);
+		} finally {
+			mainView.commitSettingsTransaction();
+		}
+	}
+
+
 	/**
 	 * Returns the options dialog panel with the specified ID.
 	 *
@@ -171,43 +171,50 @@ public class ThemeOptionPanel extends OptionsDialogPanel {
 	 */
 	private static void installRstaTheme(RText rtext, Theme theme) {
 
-		rtext.setSyntaxScheme(theme.scheme);
 		AbstractMainView mainView = rtext.getMainView();
-
-		//themeObj.activeLineRangeColor;
-		mainView.setBackgroundObject(theme.bgColor);
-		mainView.setCaretColor(theme.caretColor);
-		mainView.setCurrentLineHighlightColor(theme.currentLineHighlight);
-		//themeObj.fadeCurrentLineHighlight
-		//themeObj.foldBG
-		mainView.setGutterBorderColor(theme.gutterBorderColor);
-		mainView.setHyperlinkColor(theme.hyperlinkFG);
-		//themeObj.iconRowHeaderInheritsGutterBG
-		mainView.setLineNumberColor(theme.lineNumberColor);
-		if (theme.lineNumberFont != null) {
-			int fontSize = theme.lineNumberFontSize > 0 ? theme.lineNumberFontSize : 11;
-			mainView.setLineNumberFont(new Font(theme.lineNumberFont, Font.PLAIN, fontSize));
-		}
-		mainView.setMarginLineColor(theme.marginLineColor);
-		mainView.setMarkAllHighlightColor(theme.markAllHighlightColor);
-		//themeObj.markOccurrencesBorder;
-		mainView.setMarkOccurrencesColor(theme.markOccurrencesColor);
-		//themeObj.matchedBracketAnimate;
-		if (theme.matchedBracketBG != null) {
-			mainView.setMatchedBracketBorderColor(theme.matchedBracketFG);
-		}
-		mainView.setMatchedBracketBGColor(theme.matchedBracketBG);
-		if (theme.secondaryLanguages != null) {
-			for (int i = 0; i < theme.secondaryLanguages.length; i++) {
-				mainView.setSecondaryLanguageColor(i, theme.secondaryLanguages[i]);
+		mainView.beginSettingsTransaction();
+		try {
+
+			rtext.setSyntaxScheme(theme.scheme);
+
+			//themeObj.activeLineRangeColor;
+			mainView.setBackgroundObject(theme.bgColor);
+			mainView.setCaretColor(theme.caretColor);
+			mainView.setCurrentLineHighlightColor(theme.currentLineHighlight);
+			//themeObj.fadeCurrentLineHighlight
+			//themeObj.foldBG
+			mainView.setGutterBorderColor(theme.gutterBorderColor);
+			mainView.setHyperlinkColor(theme.hyperlinkFG);
+			//themeObj.iconRowHeaderInheritsGutterBG
+			mainView.setLineNumberColor(theme.lineNumberColor);
+			if (theme.lineNumberFont != null) {
+				int fontSize = theme.lineNumberFontSize > 0 ? theme.lineNumberFontSize : 11;
+				mainView.setLineNumberFont(new Font(theme.lineNumberFont, Font.PLAIN, fontSize));
 			}
+			mainView.setMarginLineColor(theme.marginLineColor);
+			mainView.setMarkAllHighlightColor(theme.markAllHighlightColor);
+			//themeObj.markOccurrencesBorder;
+			mainView.setMarkOccurrencesColor(theme.markOccurrencesColor);
+			//themeObj.matchedBracketAnimate;
+			if (theme.matchedBracketBG != null) {
+				mainView.setMatchedBracketBorderColor(theme.matchedBracketFG);
+			}
+			mainView.setMatchedBracketBGColor(theme.matchedBracketBG);
+			if (theme.secondaryLanguages != null) {
+				for (int i = 0; i < theme.secondaryLanguages.length; i++) {
+					mainView.setSecondaryLanguageColor(i, theme.secondaryLanguages[i]);
+				}
+			}
+			mainView.setSelectionColor(theme.selectionBG);
+			if (theme.selectionFG != null) {
+				mainView.setSelectedTextColor(theme.selectionFG);
+			}
+			mainView.setUseSelectedTextColor(theme.useSelctionFG);
+			mainView.setRoundedSelectionEdges(theme.selectionRoundedEdges);
+
+		} finally {
+			mainView.commitSettingsTransaction();
 		}
-		mainView.setSelectionColor(theme.selectionBG);
-		if (theme.selectionFG != null) {
-			mainView.setSelectedTextColor(theme.selectionFG);
-		}
-		mainView.setUseSelectedTextColor(theme.useSelctionFG);
-		mainView.setRoundedSelectionEdges(theme.selectionRoundedEdges);
 
 	}
 
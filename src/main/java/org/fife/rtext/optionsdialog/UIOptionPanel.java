@@ -76,6 +76,7 @@ class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 	private RColorSwatchesButton hmColorButton;
 
 	private JCheckBox showHostNameCheckBox;
+	private JCheckBox showMinimapCheckBox;
 
 
 	/**
@@ -204,6 +205,14 @@ class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 		miscPanel.add(showHostNameCheckBox, BorderLayout.LINE_START);
 		everything.add(miscPanel);
 
+		// A panel for the "Show minimap" check box.
+		miscPanel = new JPanel(new BorderLayout());
+		showMinimapCheckBox = new JCheckBox(msg.getString("OptUIShowMinimap"));
+		showMinimapCheckBox.setActionCommand("ShowMinimapCB");
+		showMinimapCheckBox.addActionListener(this);
+		miscPanel.add(showMinimapCheckBox, BorderLayout.LINE_START);
+		everything.add(miscPanel);
+
 		// Add everything "to the north" so the spacing between stuff doesn't
 		// change then the user stretches the dialog.
 		add(everything, BorderLayout.NORTH);
@@ -267,6 +276,12 @@ class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 			firePropertyChange("UIOptionPanel.showHostName", !show, show);
 		}
 
+		else if (actionCommand.equals("ShowMinimapCB")) {
+			boolean show = getShowMinimap();
+			hasUnsavedChanges = true;
+			firePropertyChange("UIOptionPanel.showMinimap", !show, show);
+		}
+
 	}
 
 
@@ -346,6 +361,7 @@ class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 		rtext.setIconGroupByName(getIconGroupName());		// Doesn't update if it doesn't have to.
 		mainView.setHighlightModifiedDocumentDisplayNames(highlightModifiedDocumentDisplayNames());
 		mainView.setModifiedDocumentDisplayNamesColor(getModifiedDocumentDisplayNamesColor());
+		mainView.setMinimapEnabled(getShowMinimap());	// Doesn't update if it doesn't have to.
 		rtext.setMainViewStyle(getMainViewStyle());			// Doesn't update if it doesn't have to.
 		rtext.getStatusBar().setStyle(getStatusBarStyle());
 		rtext.setShowHostName(getShowHostName());	// Doesn't update if doesn't have to.
@@ -433,6 +449,17 @@ class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 	}
 
 
+	/**
+	 * Returns whether the user wants minimaps displayed next to documents.
+	 *
+	 * @return Whether to show minimaps.
+	 * @see #setShowMinimap(boolean)
+	 */
+	public boolean getShowMinimap() {
+		return showMinimapCheckBox.isSelected();
+	}
+
+
 	/**
 	 * Returns the status bar style selected by the user.
 	 *
@@ -614,6 +641,17 @@ class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 	}
 
 
+	/**
+	 * Sets the "show minimap" checkbox's state.
+	 *
+	 * @param show Whether the checkbox should be enabled.
+	 * @see #getShowMinimap()
+	 */
+	public void setShowMinimap(boolean show) {
+		showMinimapCheckBox.setSelected(show);
+	}
+
+
 	/**
 	 * Sets the status bar style selected.
 	 *
@@ -647,6 +685,7 @@ class UIOptionPanel extends OptionsDialogPanel implements ActionListener,
 		setHighlightModifiedDocumentDisplayNames(mainView.highlightModifiedDocumentDisplayNames());
 		setStatusBarStyle(rtext.getStatusBar().getStyle());
 		setModifiedDocumentDisplayNamesColor(mainView.getModifiedDocumentDisplayNamesColor());
+		setShowMinimap(mainView.getMinimapEnabled());
 		setShowHostName(rtext.getShowHostName());
 	}
 
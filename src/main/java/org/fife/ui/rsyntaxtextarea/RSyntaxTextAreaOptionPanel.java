@@ -413,11 +413,16 @@ public class RSyntaxTextAreaOptionPanel extends OptionsDialogPanel
 	protected void doApplyImpl(Frame owner) {
 		RText rtext = (RText)owner;
 		AbstractMainView mainView = rtext.getMainView();
-		mainView.setTextAreaForeground(getTextAreaForeground());
-		mainView.setTextAreaFont(getTextAreaFont(), getUnderline());
-		mainView.setBackgroundObject(getBackgroundObject());
-		mainView.setBackgroundImageFileName(getBackgroundImageFileName());
-		rtext.setSyntaxScheme(getSyntaxScheme()); // Doesn't update if it doesn't have to.
+		mainView.beginSettingsTransaction();
+		try {
+			mainView.setTextAreaForeground(getTextAreaForeground());
+			mainView.setTextAreaFont(getTextAreaFont(), getUnderline());
+			mainView.setBackgroundObject(getBackgroundObject());
+			mainView.setBackgroundImageFileName(getBackgroundImageFileName());
+			rtext.setSyntaxScheme(getSyntaxScheme()); // Doesn't update if it doesn't have to.
+		} finally {
+			mainView.commitSettingsTransaction();
+		}
 	}
 
 
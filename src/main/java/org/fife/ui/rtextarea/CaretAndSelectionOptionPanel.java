@@ -466,23 +466,27 @@ public class CaretAndSelectionOptionPanel extends OptionsDialogPanel
 	protected void doApplyImpl(Frame owner) {
 		RText rtext = (RText)owner;
 		AbstractMainView mainView = rtext.getMainView();
-		mainView.setCaretColor(getCaretColor());
-		mainView.setSelectionColor(getSelectionColor());
-		mainView.setMarkAllHighlightColor(getMarkAllHighlightColor());
-		mainView.setRoundedSelectionEdges(getRoundedSelection());
-		mainView.setCaretStyle(RTextArea.INSERT_MODE, getCaretStyle(RTextArea.INSERT_MODE));
-		mainView.setCaretStyle(RTextArea.OVERWRITE_MODE, getCaretStyle(RTextArea.OVERWRITE_MODE));
-		mainView.setCaretBlinkRate(getBlinkRate());
-		mainView.setMarkOccurrences(enableMOCheckBox.isSelected());
-		mainView.setMarkOccurrencesColor(moColorButton.getColor());
-		mainView.setSelectedTextColor(getColor(selectedTextColorButton));
-		mainView.setUseSelectedTextColor(selectedTextColorCB.isSelected());
-
-		mainView.setHighlightSecondaryLanguages(secLangCB.isSelected());
-		for (int i=0; i<SEC_LANG_COUNT; i++) {
-			mainView.setSecondaryLanguageColor(i, secLangButtons[i].getColor());
+		mainView.beginSettingsTransaction();
+		try {
+			mainView.setCaretColor(getCaretColor());
+			mainView.setSelectionColor(getSelectionColor());
+			mainView.setMarkAllHighlightColor(getMarkAllHighlightColor());
+			mainView.setRoundedSelectionEdges(getRoundedSelection());
+			mainView.setCaretStyle(RTextArea.INSERT_MODE, getCaretStyle(RTextArea.INSERT_MODE));
+			mainView.setCaretStyle(RTextArea.OVERWRITE_MODE, getCaretStyle(RTextArea.OVERWRITE_MODE));
+			mainView.setCaretBlinkRate(getBlinkRate());
+			mainView.setMarkOccurrences(enableMOCheckBox.isSelected());
+			mainView.setMarkOccurrencesColor(moColorButton.getColor());
+			mainView.setSelectedTextColor(getColor(selectedTextColorButton));
+			mainView.setUseSelectedTextColor(selectedTextColorCB.isSelected());
+
+			mainView.setHighlightSecondaryLanguages(secLangCB.isSelected());
+			for (int i=0; i<SEC_LANG_COUNT; i++) {
+				mainView.setSecondaryLanguageColor(i, secLangButtons[i].getColor());
+			}
+		} finally {
+			mainView.commitSettingsTransaction();
 		}
-
 	}
 
 
@@ -185,11 +185,16 @@ public class GutterOptionPanel extends OptionsDialogPanel
 	protected void doApplyImpl(Frame owner) {
 		RText rtext = (RText)owner;
 		AbstractMainView mainView = rtext.getMainView();
-		mainView.setLineNumbersEnabled(lnEnabledCB.isSelected());
-		mainView.setLineNumberFont(fontSelector.getDisplayedFont());
-		mainView.setLineNumberColor(lnColorButton.getColor());
-		mainView.setGutterBorderColor(borderColorButton.getColor());
-		mainView.setBookmarksEnabled(enableBookmarkingCB.isSelected());
+		mainView.beginSettingsTransaction();
+		try {
+			mainView.setLineNumbersEnabled(lnEnabledCB.isSelected());
+			mainView.setLineNumberFont(fontSelector.getDisplayedFont());
+			mainView.setLineNumberColor(lnColorButton.getColor());
+			mainView.setGutterBorderColor(borderColorButton.getColor());
+			mainView.setBookmarksEnabled(enableBookmarkingCB.isSelected());
+		} finally {
+			mainView.commitSettingsTransaction();
+		}
 	}
 
 
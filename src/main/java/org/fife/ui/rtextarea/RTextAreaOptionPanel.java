@@ -514,38 +514,41 @@ public class RTextAreaOptionPanel extends OptionsDialogPanel
 
 		RText rtext = (RText)owner;
 		AbstractMainView mainView = rtext.getMainView();
-
-		mainView.setLineWrap(getWordWrap());
-		rtext.setRowColumnIndicatorVisible(!mainView.getLineWrap());
-		if (isCurrentLineHighlightCheckboxSelected()==true) {
-			mainView.setCurrentLineHighlightEnabled(true);
-			mainView.setCurrentLineHighlightColor(getCurrentLineHighlightColor());
-		}
-		else {
-			mainView.setCurrentLineHighlightEnabled(false);
+		mainView.beginSettingsTransaction();
+		try {
+			mainView.setLineWrap(getWordWrap());
+			rtext.setRowColumnIndicatorVisible(!mainView.getLineWrap());
+			if (isCurrentLineHighlightCheckboxSelected()==true) {
+				mainView.setCurrentLineHighlightEnabled(true);
+				mainView.setCurrentLineHighlightColor(getCurrentLineHighlightColor());
+			}
+			else {
+				mainView.setCurrentLineHighlightEnabled(false);
+			}
+			mainView.setTabSize(getTabSize());				// Doesn't update if unnecessary.
+			mainView.setTabsEmulated(getEmulateTabs());		// Doesn't update if unnecessary.
+			mainView.setMarginLineEnabled(isMarginLineEnabled());	// Doesn't update if unnecessary.
+			mainView.setMarginLinePosition(getMarginLinePosition()); // Doesn't update if unnecessary.
+			mainView.setMarginLineColor(getMarginLineColor());	// Doesn't update if unnecessary.
+			mainView.setHyperlinksEnabled(getHyperlinksEnabled()); // Doesn't update if unnecessary.
+			mainView.setHyperlinkColor(getHyperlinkColor()); // Doesn't update if unnecessary.
+			mainView.setHyperlinkModifierKey(getHyperlinkModifierKey()); // Doesn't update if unnecessary.
+			mainView.setRememberWhitespaceLines(!remWhitespaceLinesCheckBox.isSelected()); // Doesn't update if it doesn't have to.
+			mainView.setAutoInsertClosingCurlys(autoInsertClosingCurlyCheckBox.isSelected()); // Doesn't update if it doesn't have to.
+			mainView.setWhitespaceVisible(isWhitespaceVisible()); // (RSyntaxTextArea) doesn't update if not necessary.
+			mainView.setShowEOLMarkers(visibleEOLCheckBox.isSelected());
+			mainView.setAntiAliasEnabled(aaCheckBox.isSelected());
+			mainView.setFractionalFontMetricsEnabled(fractionalMetricsCheckBox.isSelected()); // Doesn't update if not necessary.
+			boolean bmEnabled = isBracketMatchCheckboxSelected();
+			mainView.setBracketMatchingEnabled(bmEnabled);	// Doesn't update if it doesn't have to.
+			mainView.setMatchedBracketBGColor(getBracketMatchBGColor()); // Doesn't update if it doesn't have to.
+			mainView.setMatchedBracketBorderColor(bmBorderColorButton.getColor()); // Doesn't update if it doesn't have to.
+			mainView.setMatchBothBrackets(bothBracketsCB.isSelected());
+			mainView.setShowTabLines(showTabLinesCheckBox.isSelected());
+			mainView.setTabLinesColor(tabLineColorButton.getColor());
+		} finally {
+			mainView.commitSettingsTransaction();
 		}
-		mainView.setTabSize(getTabSize());				// Doesn't update if unnecessary.
-		mainView.setTabsEmulated(getEmulateTabs());		// Doesn't update if unnecessary.
-		mainView.setMarginLineEnabled(isMarginLineEnabled());	// Doesn't update if unnecessary.
-		mainView.setMarginLinePosition(getMarginLinePosition()); // Doesn't update if unnecessary.
-		mainView.setMarginLineColor(getMarginLineColor());	// Doesn't update if unnecessary.
-		mainView.setHyperlinksEnabled(getHyperlinksEnabled()); // Doesn't update if unnecessary.
-		mainView.setHyperlinkColor(getHyperlinkColor()); // Doesn't update if unnecessary.
-		mainView.setHyperlinkModifierKey(getHyperlinkModifierKey()); // Doesn't update if unnecessary.
-		mainView.setRememberWhitespaceLines(!remWhitespaceLinesCheckBox.isSelected()); // Doesn't update if it doesn't have to.
-		mainView.setAutoInsertClosingCurlys(autoInsertClosingCurlyCheckBox.isSelected()); // Doesn't update if it doesn't have to.
-		mainView.setWhitespaceVisible(isWhitespaceVisible()); // (RSyntaxTextArea) doesn't update if not necessary.
-		mainView.setShowEOLMarkers(visibleEOLCheckBox.isSelected());
-		mainView.setAntiAliasEnabled(aaCheckBox.isSelected());
-		mainView.setFractionalFontMetricsEnabled(fractionalMetricsCheckBox.isSelected()); // Doesn't update if not necessary.
-		boolean bmEnabled = isBracketMatchCheckboxSelected();
-		mainView.setBracketMatchingEnabled(bmEnabled);	// Doesn't update if it doesn't have to.
-		mainView.setMatchedBracketBGColor(getBracketMatchBGColor()); // Doesn't update if it doesn't have to.
-		mainView.setMatchedBracketBorderColor(bmBorderColorButton.getColor()); // Doesn't update if it doesn't have to.
-		mainView.setMatchBothBrackets(bothBracketsCB.isSelected());
-		mainView.setShowTabLines(showTabLinesCheckBox.isSelected());
-		mainView.setTabLinesColor(tabLineColorButton.getColor());
-
 	}
 
 
@@ -32,6 +32,7 @@ import javax.swing.text.Segment;
 import org.fife.io.UnicodeReader;
 import org.fife.rsta.ui.search.FindDialog;
 import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.CharsetDetector;
 import org.fife.rtext.RText;
 import org.fife.ui.GUIWorkerThread;
 import org.fife.ui.OS;
@@ -54,6 +55,7 @@ class FindInFilesThread extends GUIWorkerThread {
 
 	protected FindInFilesDialog dialog;
 	protected File directory;
+	protected String defaultEncoding;
 	private Set<String> folderNamesToSkip;
 
 	private String verboseLabelString;
@@ -77,6 +79,8 @@ class FindInFilesThread extends GUIWorkerThread {
 
 		this.dialog = dialog;
 		this.directory = directory;
+		defaultEncoding = ((RText)dialog.getOwner()).getMainView().
+											getDefaultEncoding();
 
 		folderNamesToSkip = new HashSet<String>();
 		String[] tempFoldersToSkip = dialog.getSkipFolders();
@@ -185,12 +189,12 @@ class FindInFilesThread extends GUIWorkerThread {
 								": " + fileFullPath);
 
 				try {
-					// Use a UnicodeReader to auto-detect whether this
-					// is a Unicode file.
-					// FIXME:  Allow the user to specify the default
-					// encoding, instead of assuming system default,
-					// somehow.
-					Reader r = new BufferedReader(new UnicodeReader(temp));
+					// Guess the file's encoding, falling back on the
+					// user's default encoding.
+					String encoding = CharsetDetector.detect(temp,
+												defaultEncoding);
+					Reader r = new BufferedReader(
+									new UnicodeReader(temp, encoding));
 					String style = view.getSyntaxStyleForFile(temp.getName());
 					textArea.read(r, null);	// Clears all old text.
 					// Important!  Clear undo history, or RSTA's undo manager
@@ -16,6 +16,7 @@ import java.util.regex.*;
 
 import org.fife.io.*;
 import org.fife.rsta.ui.search.FindDialog;
+import org.fife.rtext.CharsetDetector;
 import org.fife.ui.rtextarea.SearchEngine;
 
 
@@ -110,12 +111,10 @@ class ReplaceInFilesThread extends FindInFilesThread {
 				String encoding = null;
 
 				try {
-					// Use a UnicodeReader to auto-detect whether this
-					// is a Unicode file.
-					// FIXME:  Allow the user to specify the default
-					// encoding, instead of assuming system default,
-					// somehow.
-					UnicodeReader ur = new UnicodeReader(temp);
+					// Guess the file's encoding, falling back on the
+					// user's default encoding.
+					encoding = CharsetDetector.detect(temp, defaultEncoding);
+					UnicodeReader ur = new UnicodeReader(temp, encoding);
 					encoding = ur.getEncoding();
 					Reader r = new BufferedReader(ur);
 					try {
@@ -0,0 +1,215 @@
+/*
+ * 10/19/2026
+ *
+ * CharsetDetectorTest.java - Unit tests for CharsetDetector.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link CharsetDetector} class.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class CharsetDetectorTest {
+
+	private static final String DEFAULT	= "ISO-8859-1";
+
+
+	private static byte[] bytes(int... values) {
+		byte[] b = new byte[values.length];
+		for (int i=0; i<values.length; i++) {
+			b[i] = (byte)values[i];
+		}
+		return b;
+	}
+
+
+	private static byte[] concat(byte[] a, byte[] b) {
+		byte[] result = new byte[a.length + b.length];
+		System.arraycopy(a, 0, result, 0, a.length);
+		System.arraycopy(b, 0, result, a.length, b.length);
+		return result;
+	}
+
+
+	private static String detect(byte[] b) {
+		return CharsetDetector.detect(b, b.length, true, DEFAULT);
+	}
+
+
+	private static File createTempFile(byte[] content) throws IOException {
+		File file = File.createTempFile("rtext", ".txt");
+		file.deleteOnExit();
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content);
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+
+	@Test
+	public void testDetect_ascii() throws IOException {
+		Assert.assertEquals(DEFAULT, detect("Hello world\n".getBytes("US-ASCII")));
+		Assert.assertEquals(DEFAULT, detect(new byte[0]));
+	}
+
+
+	@Test
+	public void testDetect_bom() throws IOException {
+		byte[] text = "abc".getBytes("US-ASCII");
+		Assert.assertEquals("UTF-8", detect(concat(bytes(0xef, 0xbb, 0xbf), text)));
+		Assert.assertEquals("UTF-16BE", detect(concat(bytes(0xfe, 0xff), text)));
+		Assert.assertEquals("UTF-16LE", detect(concat(bytes(0xff, 0xfe), text)));
+		Assert.assertEquals("UTF-32BE", detect(bytes(0, 0, 0xfe, 0xff, 0, 0, 0, 'a')));
+		Assert.assertEquals("UTF-32LE", detect(bytes(0xff, 0xfe, 0, 0, 'a', 0, 0, 0)));
+	}
+
+
+	@Test
+	public void testDetect_eightBit() throws IOException {
+		byte[] latin1 = "caf\u00e9 cr\u00e8me".getBytes("ISO-8859-1");
+		Assert.assertEquals(DEFAULT, detect(latin1));
+		Assert.assertEquals("Cp1252",
+				CharsetDetector.detect(latin1, latin1.length, true, "Cp1252"));
+	}
+
+
+	@Test
+	public void testDetect_eightBitWithUtf8Default() throws IOException {
+		// UTF-8 can't decode these, so an 8-bit encoding is used instead.
+		byte[] latin1 = "caf\u00e9".getBytes("ISO-8859-1");
+		Assert.assertEquals("ISO-8859-1",
+				CharsetDetector.detect(latin1, latin1.length, true, "UTF-8"));
+		byte[] quotes = "\u201cquoted\u201d".getBytes("windows-1252");
+		Assert.assertEquals("windows-1252",
+				CharsetDetector.detect(quotes, quotes.length, true, "UTF-8"));
+	}
+
+
+	@Test
+	public void testDetect_invalidUtf8() throws IOException {
+		// Overlong encoding
+		Assert.assertEquals(DEFAULT, detect(bytes('a', 0xc0, 0xaf)));
+		// Missing continuation byte
+		Assert.assertEquals(DEFAULT, detect(bytes(0xe2, 0x82, 'a')));
+		// Invalid lead byte
+		Assert.assertEquals(DEFAULT, detect(bytes(0xf8, 0x80, 0x80, 0x80)));
+	}
+
+
+	@Test
+	public void testDetect_truncatedUtf8() throws IOException {
+		byte[] b = "\u20ac\u20ac".getBytes("UTF-8");
+		int len = b.length - 1;
+		// Cut off by the end of the prefix, so still considered valid...
+		Assert.assertEquals("UTF-8",
+				CharsetDetector.detect(b, len, false, DEFAULT));
+		// ... but not if it's really the end of the file.
+		Assert.assertEquals(DEFAULT,
+				CharsetDetector.detect(b, len, true, DEFAULT));
+	}
+
+
+	@Test
+	public void testDetect_utf16WithoutBom() throws IOException {
+		String text = "public class Foo {}\n";
+		Assert.assertEquals("UTF-16BE", detect(text.getBytes("UTF-16BE")));
+		Assert.assertEquals("UTF-16LE", detect(text.getBytes("UTF-16LE")));
+	}
+
+
+	@Test
+	public void testDetect_utf8() throws IOException {
+		Assert.assertEquals("UTF-8",
+				detect("caf\u00e9 \u20ac \ud83d\ude00".getBytes("UTF-8")));
+	}
+
+
+	@Test
+	public void testDetectFile() throws IOException {
+		File file = createTempFile("na\u00efve".getBytes("UTF-8"));
+		try {
+			Assert.assertEquals("UTF-8", CharsetDetector.detect(file, DEFAULT));
+			// The cached verdict must not be used once the file changes.
+			OutputStream out = new FileOutputStream(file);
+			try {
+				out.write("na\u00efve text".getBytes("ISO-8859-1"));
+			} finally {
+				out.close();
+			}
+			Assert.assertEquals(DEFAULT, CharsetDetector.detect(file, DEFAULT));
+		} finally {
+			file.delete();
+		}
+	}
+
+
+	@Test
+	public void testIsBinary() throws IOException {
+		byte[] text = "line 1\r\n\tline 2\f\n".getBytes("US-ASCII");
+		Assert.assertFalse(CharsetDetector.isBinary(text, text.length));
+		byte[] nul = bytes('a', 'b', 0, 'c');
+		Assert.assertTrue(CharsetDetector.isBinary(nul, nul.length));
+	}
+
+
+	@Test
+	public void testIsBinary_controlCharacterRatio() throws IOException {
+		// 1 control character in 10 bytes is still text...
+		byte[] b = bytes('a', 'b', 'c', 'd', 1, 'f', 'g', 'h', 'i', 'j');
+		Assert.assertFalse(CharsetDetector.isBinary(b, b.length));
+		// ... but 2 are not.
+		b[5] = 2;
+		Assert.assertTrue(CharsetDetector.isBinary(b, b.length));
+	}
+
+
+	@Test
+	public void testIsBinary_escapesAndHighBytes() throws IOException {
+		// ANSI color codes in logs are text.
+		byte[] ansi = "\u001b[31mERROR\u001b[0m\n".getBytes("US-ASCII");
+		Assert.assertFalse(CharsetDetector.isBinary(ansi, ansi.length));
+		byte[] latin1 = "\u00e9\u00e8\u00ea\u0080\u009f".getBytes("ISO-8859-1");
+		Assert.assertFalse(CharsetDetector.isBinary(latin1, latin1.length));
+	}
+
+
+	@Test
+	public void testIsBinary_unicode() throws IOException {
+		// NUL bytes in UTF-16 text don't make it binary.
+		byte[] utf16 = "Hello, world\n".getBytes("UTF-16LE");
+		Assert.assertFalse(CharsetDetector.isBinary(utf16, utf16.length));
+		byte[] bom = concat(bytes(0xfe, 0xff), "Hi".getBytes("UTF-16BE"));
+		Assert.assertFalse(CharsetDetector.isBinary(bom, bom.length));
+	}
+
+
+	@Test
+	public void testIsBinaryFile() throws IOException {
+		File file = createTempFile(bytes(0x7f, 'E', 'L', 'F', 2, 1, 1, 0));
+		try {
+			Assert.assertTrue(CharsetDetector.isBinary(file));
+		} finally {
+			file.delete();
+		}
+	}
+
+
+}
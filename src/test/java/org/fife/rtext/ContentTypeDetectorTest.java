@@ -0,0 +1,146 @@
+/*
+ * 10/19/2026
+ *
+ * ContentTypeDetectorTest.java - Unit tests for ContentTypeDetector.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link ContentTypeDetector} class.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class ContentTypeDetectorTest {
+
+
+	private static void assertStyle(String expected, String text) {
+		Assert.assertEquals(expected, ContentTypeDetector.detect(text, true));
+	}
+
+
+	@Test
+	public void testAddSignature() {
+		ContentTypeDetector.Signature signature =
+				new ContentTypeDetector.Signature() {
+			public String getSyntaxStyle(String prefix, boolean complete) {
+				return prefix.startsWith("#!") ?
+						SyntaxConstants.SYNTAX_STYLE_LUA : null;
+			}
+		};
+		ContentTypeDetector.addSignature(signature);
+		try {
+			// Added signatures are checked before the built-in ones.
+			assertStyle(SyntaxConstants.SYNTAX_STYLE_LUA, "#!/bin/sh\n");
+		} finally {
+			ContentTypeDetector.removeSignature(signature);
+		}
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL, "#!/bin/sh\n");
+	}
+
+
+	@Test
+	public void testDetect_json() {
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_JSON, "{\n  \"name\": 1\n}");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_JSON, "  [ {\"a\": 1} ]");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_JSON, "{}");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_NONE, "{ not json }");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_NONE, "[section]\nkey=value");
+	}
+
+
+	@Test
+	public void testDetect_markup() {
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_XML,
+				"<?xml version=\"1.0\"?>\n<root/>");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_PHP, "<?php echo 1; ?>");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_HTML,
+				"\n<!DOCTYPE html>\n<html></html>");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_HTML, "<HTML><body>");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_NONE, "<p>fragment</p>");
+	}
+
+
+	@Test
+	public void testDetect_modeline() {
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_PYTHON,
+				"# vim: set ft=python :\nprint(1)\n");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_RUBY,
+				"# -*- ruby -*-\nputs 1\n");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_PERL,
+				"# -*- mode: cperl; coding: utf-8 -*-\n");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_NONE,
+				"# vim: set ts=4 :\n");
+	}
+
+
+	@Test
+	public void testDetect_modelineAtEnd() {
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<20; i++) {
+			sb.append("line ").append(i).append('\n');
+		}
+		sb.append("/* vim: syntax=c */\n");
+		String text = sb.toString();
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_C, text);
+		// The end of the text isn't known when only a prefix is available.
+		Assert.assertEquals(SyntaxConstants.SYNTAX_STYLE_NONE,
+				ContentTypeDetector.detect(text, false));
+	}
+
+
+	@Test
+	public void testDetect_none() {
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_NONE, "");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_NONE, "Just some text.\n");
+	}
+
+
+	@Test
+	public void testDetect_shebang() {
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL, "#!/bin/bash\n");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_PERL, "#!/usr/bin/perl -w\n");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_PYTHON,
+				"#!/usr/bin/env python3.11\nimport os\n");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT,
+				"#!/usr/bin/env -S node --harmony\n");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_TCL, "#! /usr/bin/tclsh");
+		assertStyle(SyntaxConstants.SYNTAX_STYLE_NONE, "#!/usr/bin/unknown\n");
+	}
+
+
+	@Test
+	public void testDetectFile() throws IOException {
+		File file = File.createTempFile("rtext", null);
+		try {
+			OutputStream out = new FileOutputStream(file);
+			try {
+				// UTF-8 BOM, which Java doesn't strip.
+				out.write(new byte[] { (byte)0xef, (byte)0xbb, (byte)0xbf });
+				out.write("#!/bin/sh\necho hi\n".getBytes("UTF-8"));
+			} finally {
+				out.close();
+			}
+			Assert.assertEquals(SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL,
+					ContentTypeDetector.detect(file, "UTF-8"));
+		} finally {
+			file.delete();
+		}
+	}
+
+
+}
@@ -0,0 +1,191 @@
+/*
+ * 10/19/2026
+ *
+ * DocumentStatisticsTest.java - Unit tests for DocumentStatistics.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.Random;
+import javax.swing.JTextArea;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link DocumentStatistics} class.  Edits are checked
+ * against a brute force count of the document, with enough lines that the
+ * document is split into many blocks.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class DocumentStatisticsTest {
+
+	private JTextArea textArea;
+	private DocumentStatistics stats;
+	private Random random;
+
+
+	@Before
+	public void setUp() {
+		textArea = new JTextArea();
+		stats = new DocumentStatistics(textArea);
+		random = new Random(42);
+	}
+
+
+	private void assertCountsCorrect() throws BadLocationException {
+		Document doc = textArea.getDocument();
+		String text = doc.getText(0, doc.getLength());
+		Assert.assertEquals(countWords(text), stats.getWordCount());
+		Assert.assertEquals(text.length(), stats.getCharCount());
+		Assert.assertEquals(doc.getDefaultRootElement().getElementCount(),
+				stats.getLineCount());
+		for (int i=0; i<20; i++) {
+			int start = random.nextInt(text.length()+1);
+			int end = start + random.nextInt(text.length()-start+1);
+			Assert.assertEquals("Range " + start + "-" + end,
+					countWords(text.substring(start, end)),
+					stats.getWordCount(start, end));
+		}
+	}
+
+
+	private static int countWords(String text) {
+		int words = 0;
+		boolean inWord = false;
+		for (int i=0; i<text.length(); i++) {
+			boolean ws = Character.isWhitespace(text.charAt(i));
+			if (!ws && !inWord) {
+				words++;
+			}
+			inWord = !ws;
+		}
+		return words;
+	}
+
+
+	private String createText(int lines) {
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<lines; i++) {
+			int words = random.nextInt(6);
+			for (int j=0; j<words; j++) {
+				sb.append(j==0 ? "" : random.nextBoolean() ? " " : "\t ");
+				sb.append("word").append(random.nextInt(100));
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+
+	@Test
+	public void testEmptyDocument() {
+		Assert.assertEquals(0, stats.getWordCount());
+		Assert.assertEquals(0, stats.getWordCount(0, 0));
+		Assert.assertEquals(0, stats.getCharCount());
+		Assert.assertEquals(1, stats.getLineCount());
+	}
+
+
+	@Test
+	public void testGetLineCount_range() {
+		textArea.setText("one\ntwo\nthree\n");
+		Assert.assertEquals(1, stats.getLineCount(0, 3));
+		Assert.assertEquals(2, stats.getLineCount(0, 4));
+		Assert.assertEquals(3, stats.getLineCount(2, 9));
+	}
+
+
+	@Test
+	public void testGetWordCount() {
+		textArea.setText("The quick  brown\tfox\n\njumps.");
+		Assert.assertEquals(5, stats.getWordCount());
+		// Words partially in the range count.
+		Assert.assertEquals(2, stats.getWordCount(1, 6));
+		Assert.assertEquals(0, stats.getWordCount(9, 11));
+	}
+
+
+	@Test
+	public void testGetWordCount_manyBlocks() throws BadLocationException {
+		textArea.setText(createText(5000));
+		assertCountsCorrect();
+	}
+
+
+	@Test
+	public void testEdits() throws BadLocationException {
+
+		textArea.setText(createText(3000));
+		stats.getWordCount(); // Start counting
+		Document doc = textArea.getDocument();
+
+		for (int i=0; i<200; i++) {
+			int offs = random.nextInt(doc.getLength()+1);
+			switch (random.nextInt(4)) {
+				case 0: // Multi-line insertion, possibly many blocks
+					doc.insertString(offs, createText(random.nextInt(600)),
+									null);
+					break;
+				case 1: // Small insertion, possibly splitting a word
+					doc.insertString(offs, random.nextBoolean() ? "x" : " ",
+									null);
+					break;
+				default: // Removal, possibly merging blocks
+					int max = Math.min(doc.getLength()-offs, 20000);
+					doc.remove(offs, random.nextInt(max+1));
+					break;
+			}
+			if (i%10==0) {
+				assertCountsCorrect();
+			}
+		}
+		assertCountsCorrect();
+
+		doc.remove(0, doc.getLength());
+		assertCountsCorrect();
+
+	}
+
+
+	@Test
+	public void testListener() throws BadLocationException {
+		final int[] count = { 0 };
+		stats.addChangeListener(new ChangeListener() {
+			public void stateChanged(ChangeEvent e) {
+				count[0]++;
+			}
+		});
+		textArea.getDocument().insertString(0, "hello", null);
+		Assert.assertEquals(1, count[0]);
+		textArea.setDocument(new PlainDocument());
+		Assert.assertEquals(2, count[0]);
+	}
+
+
+	@Test
+	public void testNewDocument() throws BadLocationException {
+		textArea.setText("one two three");
+		Assert.assertEquals(3, stats.getWordCount());
+		PlainDocument doc = new PlainDocument();
+		doc.insertString(0, "four five", null);
+		textArea.setDocument(doc);
+		Assert.assertEquals(2, stats.getWordCount());
+		doc.insertString(0, "six ", null);
+		Assert.assertEquals(3, stats.getWordCount());
+	}
+
+
+}
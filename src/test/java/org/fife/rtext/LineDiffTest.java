@@ -0,0 +1,297 @@
+/*
+ * 10/19/2026
+ *
+ * LineDiffTest.java - Unit tests for LineDiff.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link LineDiff} class.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class LineDiffTest {
+
+
+	/**
+	 * Applies hunks to a document containing <code>a</code>, and returns
+	 * the result.
+	 */
+	private static String apply(String a, String b, List<int[]> hunks)
+								throws BadLocationException {
+		Document doc = new PlainDocument();
+		doc.insertString(0, a, null);
+		LineDiff.apply(doc, hunks, new LineDiff.Lines(a),
+						new LineDiff.Lines(b));
+		return doc.getText(0, doc.getLength());
+	}
+
+
+	private static void assertHunks(int[][] expected, List<int[]> actual) {
+		Assert.assertEquals(expected.length, actual.size());
+		for (int i=0; i<expected.length; i++) {
+			int[] hunk = actual.get(i);
+			for (int j=0; j<4; j++) {
+				Assert.assertEquals("hunk " + i, expected[i][j], hunk[j]);
+			}
+		}
+	}
+
+
+	/**
+	 * Verifies that hunks are ascending, not adjacent, and change
+	 * <code>a</code> into <code>b</code>.
+	 */
+	private static void assertValid(String a, String b, List<int[]> hunks)
+								throws BadLocationException {
+		for (int i=1; i<hunks.size(); i++) {
+			int[] prev = hunks.get(i-1);
+			int[] hunk = hunks.get(i);
+			Assert.assertTrue(prev[1]<=hunk[0] && prev[3]<=hunk[2]);
+			Assert.assertFalse(prev[1]==hunk[0] && prev[3]==hunk[2]);
+		}
+		Assert.assertEquals(b, apply(a, b, hunks));
+	}
+
+
+	private static List<int[]> diff(String a, String b) {
+		return LineDiff.diff(new LineDiff.Lines(a), new LineDiff.Lines(b));
+	}
+
+
+	/**
+	 * Returns text with lines "1" through "count".
+	 */
+	private static String numbers(int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i=1; i<=count; i++) {
+			sb.append(i).append('\n');
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Returns random text of lines from a small alphabet, so the text has
+	 * many lines in common with other random text.
+	 */
+	private static String randomText(Random random) {
+		StringBuilder sb = new StringBuilder();
+		int count = random.nextInt(30);
+		for (int i=0; i<count; i++) {
+			sb.append((char)('a' + random.nextInt(4))).append('\n');
+		}
+		if (random.nextBoolean()) {
+			sb.append('e'); // No trailing newline
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Replaces, inserts or removes a few random lines.
+	 */
+	private static String randomEdit(Random random, String text) {
+		List<String> lines = new ArrayList<String>();
+		int start = 0;
+		int newline = 0;
+		while ((newline=text.indexOf('\n', start))>-1) {
+			lines.add(text.substring(start, newline+1));
+			start = newline + 1;
+		}
+		String last = text.substring(start);
+		int edits = 1 + random.nextInt(3);
+		for (int i=0; i<edits; i++) {
+			int index = random.nextInt(lines.size()+1);
+			String line = (char)('a' + random.nextInt(6)) + "\n";
+			switch (random.nextInt(3)) {
+				case 0:
+					lines.add(index, line);
+					break;
+				case 1:
+					if (index<lines.size()) {
+						lines.remove(index);
+					}
+					break;
+				default:
+					if (index<lines.size()) {
+						lines.set(index, line);
+					}
+					break;
+			}
+		}
+		StringBuilder sb = new StringBuilder();
+		for (String line : lines) {
+			sb.append(line);
+		}
+		return sb.append(last).toString();
+	}
+
+
+	/**
+	 * Replaces or removes the first line with specific content.
+	 */
+	private static String replaceLine(String text, String line,
+									String replacement) {
+		String temp = "\n" + text;
+		int index = temp.indexOf("\n" + line + "\n");
+		String newLine = replacement==null ? "" : (replacement + "\n");
+		return text.substring(0, index) + newLine +
+				text.substring(index + line.length() + 1);
+	}
+
+
+	private static List<int[]> rediff(String oldA, String oldB,
+					List<int[]> oldHunks, String a, String b) {
+		return LineDiff.rediff(new LineDiff.Lines(oldA),
+				new LineDiff.Lines(oldB), oldHunks,
+				new LineDiff.Lines(a), new LineDiff.Lines(b));
+	}
+
+
+	@Test
+	public void testDiff_identical() {
+		Assert.assertTrue(diff("", "").isEmpty());
+		Assert.assertTrue(diff("a\nb\nc", "a\nb\nc").isEmpty());
+	}
+
+
+	@Test
+	public void testDiff_insertion() {
+		assertHunks(new int[][] { { 1, 1, 1, 2 } },
+				diff("a\nb\nc\n", "a\nx\nb\nc\n"));
+		assertHunks(new int[][] { { 3, 3, 3, 4 } },
+				diff("a\nb\nc\n", "a\nb\nc\nd"));
+	}
+
+
+	@Test
+	public void testDiff_maxWorkExceeded() throws BadLocationException {
+		String a = "a\nb\nc\nd\ne\n";
+		String b = "a\nc\nx\nd\ne\n";
+		List<int[]> hunks = LineDiff.diff(new LineDiff.Lines(a),
+				new LineDiff.Lines(b), 0);
+		// The unmatched region is reported as changed as a whole.
+		assertHunks(new int[][] { { 1, 3, 1, 3 } }, hunks);
+		assertValid(a, b, hunks);
+	}
+
+
+	@Test
+	public void testDiff_random() throws BadLocationException {
+		Random random = new Random(42);
+		for (int i=0; i<500; i++) {
+			String a = randomText(random);
+			String b = randomText(random);
+			assertValid(a, b, diff(a, b));
+		}
+	}
+
+
+	@Test
+	public void testDiff_removal() {
+		assertHunks(new int[][] { { 1, 2, 1, 1 } },
+				diff("a\nb\nc\n", "a\nc\n"));
+	}
+
+
+	@Test
+	public void testDiff_replacement() {
+		assertHunks(new int[][] { { 0, 1, 0, 1 }, { 2, 3, 2, 3 } },
+				diff("a\nb\nc\n", "x\nb\ny\n"));
+	}
+
+
+	@Test
+	public void testRediff_bothTextsUnchanged() {
+		String a = numbers(10);
+		String b = "x\n" + a.substring(2);
+		List<int[]> oldHunks = new ArrayList<int[]>();
+		oldHunks.add(new int[] { 0, 1, 0, 1 });
+		oldHunks.add(new int[] { 8, 10, 8, 10 });
+		assertHunks(new int[][] { { 0, 1, 0, 1 }, { 8, 10, 8, 10 } },
+				rediff(a, b, oldHunks, a, b));
+	}
+
+
+	@Test
+	public void testRediff_firstTextUnchanged() {
+
+		// The old hunks deliberately include one that a full diff would
+		// not find, to verify that it isn't diffed again.
+		String a = numbers(10);
+		String oldB = "x\n" + a.substring(2);
+		List<int[]> oldHunks = new ArrayList<int[]>();
+		oldHunks.add(new int[] { 0, 1, 0, 1 });
+		oldHunks.add(new int[] { 8, 10, 8, 10 });
+
+		String b = replaceLine(oldB, "3", "y");
+		assertHunks(new int[][] { { 0, 1, 0, 1 }, { 2, 3, 2, 3 },
+					{ 8, 10, 8, 10 } },
+				rediff(a, oldB, oldHunks, a, b));
+
+	}
+
+
+	@Test
+	public void testRediff_random() throws BadLocationException {
+		Random random = new Random(42);
+		for (int i=0; i<500; i++) {
+			String oldA = randomText(random);
+			String oldB = randomText(random);
+			List<int[]> oldHunks = diff(oldA, oldB);
+			int which = random.nextInt(3);
+			String a = which==1 ? oldA : randomEdit(random, oldA);
+			String b = which==0 ? oldB : randomEdit(random, oldB);
+			assertValid(a, b, rediff(oldA, oldB, oldHunks, a, b));
+		}
+	}
+
+
+	@Test
+	public void testRediff_sameAsDiff() {
+		String oldA = numbers(20);
+		String oldB = replaceLine(replaceLine(oldA, "5", "five"), "15", null);
+		List<int[]> oldHunks = diff(oldA, oldB);
+		String a = replaceLine(oldA, "10", "ten");
+		String b = replaceLine(oldB, "1", null);
+		List<int[]> expected = diff(a, b);
+		List<int[]> actual = rediff(oldA, oldB, oldHunks, a, b);
+		assertHunks(expected.toArray(new int[expected.size()][]), actual);
+	}
+
+
+	@Test
+	public void testRediff_secondTextUnchanged() {
+
+		String b = numbers(10);
+		String oldA = "x\n" + b.substring(2);
+		List<int[]> oldHunks = new ArrayList<int[]>();
+		oldHunks.add(new int[] { 0, 1, 0, 1 });
+		oldHunks.add(new int[] { 8, 10, 8, 10 });
+
+		String a = replaceLine(replaceLine(oldA, "3", "y"), "4", null);
+		assertHunks(new int[][] { { 0, 1, 0, 1 }, { 2, 3, 2, 4 },
+					{ 7, 9, 8, 10 } },
+				rediff(oldA, b, oldHunks, a, b));
+
+	}
+
+
+}
@@ -0,0 +1,270 @@
+/*
+ * 10/19/2026
+ *
+ * OpenDocumentIndexTest.java - Unit tests for OpenDocumentIndex.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Component;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.RTextScrollPane;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link OpenDocumentIndex} class.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class OpenDocumentIndexTest {
+
+	private TestView view;
+	private OpenDocumentIndex index;
+	private String dir;
+
+
+	@Before
+	public void setUp() {
+		view = new TestView();
+		index = new OpenDocumentIndex(view);
+		dir = System.getProperty("java.io.tmpdir") + File.separatorChar +
+				"rtext-index-test" + File.separatorChar;
+	}
+
+
+	private TestPane add(String fileName) throws IOException {
+		TestPane textArea = new TestPane(dir + fileName);
+		index.textAreaAdded(textArea);
+		view.textAreas.add(textArea);
+		return textArea;
+	}
+
+
+	private void assertIndicesCorrect() {
+		for (int i=0; i<view.getNumDocuments(); i++) {
+			RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
+			Assert.assertEquals(i, index.getIndexOf(textArea));
+			Assert.assertTrue(index.getTextAreasFor(
+					textArea.getFileFullPath()).contains(textArea));
+		}
+	}
+
+
+	private void remove(int i) {
+		index.textAreaRemoved(i);
+		view.textAreas.remove(i);
+	}
+
+
+	private void rename(TestPane textArea, String fileName) {
+		textArea.path = dir + fileName;
+		index.pathChanged(textArea);
+	}
+
+
+	@Test
+	public void testGetFileIndex() throws IOException {
+		add("a.txt");
+		add("b.txt");
+		add("c.txt");
+		Assert.assertEquals(1, index.getFileIndex(dir + "b.txt"));
+		Assert.assertEquals(-1, index.getFileIndex(dir + "d.txt"));
+	}
+
+
+	@Test
+	public void testGetTextAreasFor_duplicates() throws IOException {
+		TestPane a1 = add("a.txt");
+		add("b.txt");
+		TestPane a2 = add("a.txt");
+		Assert.assertEquals(Arrays.asList(a1, a2),
+				index.getTextAreasFor(dir + "a.txt"));
+		Assert.assertEquals(0, index.getFileIndex(dir + "a.txt"));
+	}
+
+
+	@Test
+	public void testGetTextAreasFor_notOpen() throws IOException {
+		add("a.txt");
+		Assert.assertTrue(index.getTextAreasFor(dir + "b.txt").isEmpty());
+	}
+
+
+	@Test
+	public void testMovedDocuments() throws IOException {
+		TestPane a = add("a.txt");
+		TestPane b = add("b.txt");
+		TestPane c = add("c.txt");
+		// Tabs reordered behind the index's back.
+		view.textAreas.set(0, c);
+		view.textAreas.set(2, a);
+		Assert.assertEquals(0, index.getIndexOf(c));
+		Assert.assertEquals(1, index.getIndexOf(b));
+		Assert.assertEquals(2, index.getFileIndex(dir + "a.txt"));
+	}
+
+
+	@Test
+	public void testPathChanged() throws IOException {
+		TestPane a = add("a.txt");
+		TestPane b = add("b.txt");
+		TestPane c = add("c.txt");
+		rename(b, "renamed.txt");
+		Assert.assertEquals(-1, index.getFileIndex(dir + "b.txt"));
+		Assert.assertEquals(1, index.getFileIndex(dir + "renamed.txt"));
+		// Documents editing the same file stay in view order.
+		rename(c, "a.txt");
+		Assert.assertEquals(Arrays.asList(a, c),
+				index.getTextAreasFor(dir + "a.txt"));
+		rename(a, "c.txt");
+		rename(a, "a.txt");
+		Assert.assertEquals(Arrays.asList(a, c),
+				index.getTextAreasFor(dir + "a.txt"));
+		assertIndicesCorrect();
+	}
+
+
+	@Test
+	public void testTextAreaRemoved() throws IOException {
+		TestPane a = add("a.txt");
+		add("b.txt");
+		TestPane c = add("c.txt");
+		TestPane d = add("a.txt");
+		remove(1);
+		Assert.assertEquals(-1, index.getFileIndex(dir + "b.txt"));
+		Assert.assertEquals(1, index.getIndexOf(c));
+		Assert.assertEquals(2, index.getIndexOf(d));
+		remove(0);
+		Assert.assertEquals(-1, index.getIndexOf(a));
+		Assert.assertEquals(Arrays.asList(d),
+				index.getTextAreasFor(dir + "a.txt"));
+		assertIndicesCorrect();
+	}
+
+
+	@Test
+	public void testTextAreaRemoved_all() throws IOException {
+		add("a.txt");
+		add("b.txt");
+		remove(1);
+		remove(0);
+		Assert.assertEquals(-1, index.getFileIndex(dir + "a.txt"));
+		add("b.txt");
+		Assert.assertEquals(0, index.getFileIndex(dir + "b.txt"));
+	}
+
+
+	/**
+	 * A text area whose file can be changed without saving it.
+	 */
+	private static class TestPane extends RTextEditorPane {
+
+		private String path;
+
+		public TestPane(String path) throws IOException {
+			super(null, false, RTextArea.INSERT_MODE,
+					FileLocation.create(path), "UTF-8",
+					SyntaxConstants.SYNTAX_STYLE_NONE);
+			this.path = path;
+		}
+
+		@Override
+		public String getFileFullPath() {
+			return path;
+		}
+
+	}
+
+
+	/**
+	 * A main view that just keeps a list of text areas.
+	 */
+	private static class TestView extends AbstractMainView {
+
+		private List<RTextEditorPane> textAreas =
+				new ArrayList<RTextEditorPane>();
+
+		@Override
+		protected void addTextAreaImpl(String title, Component component,
+								String fileFullPath) {
+		}
+
+		@Override
+		protected boolean closeCurrentDocumentImpl() {
+			return false;
+		}
+
+		@Override
+		public String getDocumentDisplayNameAt(int index) {
+			return null;
+		}
+
+		@Override
+		public int getDocumentSelectionPlacement() {
+			return 0;
+		}
+
+		@Override
+		public int getNumDocuments() {
+			return textAreas.size();
+		}
+
+		@Override
+		public RTextEditorPane getRTextEditorPaneAt(int index) {
+			return textAreas.get(index);
+		}
+
+		@Override
+		public RTextScrollPane getRTextScrollPaneAt(int index) {
+			return null;
+		}
+
+		@Override
+		public Component getSelectedComponent() {
+			return null;
+		}
+
+		@Override
+		public int getSelectedIndex() {
+			return 0;
+		}
+
+		@Override
+		public void refreshDisplayNames() {
+		}
+
+		@Override
+		protected void removeComponentAt(int index) {
+		}
+
+		@Override
+		public void setDocumentDisplayNameAt(int index, String displayName) {
+		}
+
+		@Override
+		public void setDocumentSelectionPlacement(int location) {
+		}
+
+		@Override
+		public void setSelectedIndex(int index) {
+		}
+
+	}
+
+
+}
@@ -0,0 +1,298 @@
+/*
+ * 10/19/2026
+ *
+ * RecoveryJournalTest.java - Unit tests for RecoveryJournal.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.beans.PropertyChangeEvent;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rtextarea.RTextArea;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link RecoveryJournal} class.  Journals are written
+ * by hand here, so these tests also pin down the journal file format.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class RecoveryJournalTest {
+
+	private File journal;
+	private File file;
+	private DataOutputStream out;
+	private File sessionDir;
+	private RecoveryJournal recoveryJournal;
+
+
+	@Before
+	public void setUp() throws IOException {
+		journal = File.createTempFile("rtext", ".rtj");
+		file = File.createTempFile("rtext", ".txt");
+	}
+
+
+	@After
+	public void tearDown() throws IOException {
+		if (out!=null) {
+			out.close();
+		}
+		if (recoveryJournal!=null) {
+			recoveryJournal.shutdown();
+		}
+		if (sessionDir!=null) {
+			File[] files = sessionDir.listFiles();
+			for (int i=0; files!=null && i<files.length; i++) {
+				files[i].delete();
+			}
+			sessionDir.delete();
+		}
+		journal.delete();
+		file.delete();
+	}
+
+
+	/**
+	 * Journals a text area editing <code>file</code>.
+	 */
+	private RTextEditorPane createJournaledTextArea() throws IOException {
+		sessionDir = new File(System.getProperty("java.io.tmpdir"),
+						"rtext-session-" + System.nanoTime());
+		recoveryJournal = new RecoveryJournal(sessionDir, "Untitled.txt");
+		RTextEditorPane textArea = new RTextEditorPane(null, false,
+				RTextArea.INSERT_MODE, FileLocation.create(file), "UTF-8",
+				SyntaxConstants.SYNTAX_STYLE_NONE);
+		recoveryJournal.propertyChange(new PropertyChangeEvent(this,
+				AbstractMainView.TEXT_AREA_ADDED_PROPERTY, null, textArea));
+		return textArea;
+	}
+
+
+	private void close() throws IOException {
+		out.close();
+		out = null;
+	}
+
+
+	/**
+	 * Returns the journals written so far.
+	 */
+	private File[] getJournals() throws InterruptedException {
+		recoveryJournal.sync();
+		return sessionDir.listFiles(new FilenameFilter() {
+			public boolean accept(File dir, String name) {
+				return name.endsWith(".rtj");
+			}
+		});
+	}
+
+
+	private void insert(int offs, String text) throws IOException {
+		out.writeByte(RecoveryJournal.RECORD_INSERT);
+		out.writeInt(offs);
+		writeText(text);
+	}
+
+
+	private void remove(int offs, int len) throws IOException {
+		out.writeByte(RecoveryJournal.RECORD_REMOVE);
+		out.writeInt(offs);
+		out.writeInt(len);
+	}
+
+
+	private void startWithBaseFile(String path, boolean untitled)
+			throws IOException {
+		startJournal(path, untitled);
+		out.writeByte(RecoveryJournal.RECORD_BASE_FILE);
+		out.writeLong(file.length());
+		out.writeLong(file.lastModified());
+	}
+
+
+	private void startJournal(String path, boolean untitled)
+			throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(
+									new FileOutputStream(journal)));
+		out.writeInt(RecoveryJournal.MAGIC);
+		out.writeUTF(path);
+		out.writeUTF("UTF-8");
+		out.writeBoolean(untitled);
+	}
+
+
+	private void startWithSnapshot(String text) throws IOException {
+		startJournal(file.getAbsolutePath(), false);
+		out.writeByte(RecoveryJournal.RECORD_SNAPSHOT);
+		writeText(text);
+	}
+
+
+	private void writeFile(String text) throws IOException {
+		Writer w = new OutputStreamWriter(new FileOutputStream(file),
+										"UTF-8");
+		try {
+			w.write(text);
+		} finally {
+			w.close();
+		}
+	}
+
+
+	private void writeText(String text) throws IOException {
+		byte[] bytes = text.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+
+	@Test
+	public void testReload_cleanDocument() throws Exception {
+
+		writeFile("old text\n");
+		RTextEditorPane textArea = createJournaledTextArea();
+
+		// Reading the new content in isn't an edit.
+		writeFile("new, longer text\n");
+		textArea.reload();
+		Assert.assertEquals(0, getJournals().length);
+
+		textArea.insert("edited ", 0);
+		File[] journals = getJournals();
+		Assert.assertEquals(1, journals.length);
+		Assert.assertEquals("edited new, longer text\n",
+				RecoveryJournal.replay(journals[0]).text);
+
+	}
+
+
+	@Test
+	public void testReplay_baseFile() throws IOException {
+		writeFile("line one\r\nline two\r\n");
+		startWithBaseFile(file.getAbsolutePath(), false);
+		insert(0, "new ");
+		remove(9, 3);
+		close();
+		RecoveryJournal.Recovered r = RecoveryJournal.replay(journal);
+		Assert.assertEquals(file.getAbsolutePath(), r.path);
+		Assert.assertEquals("UTF-8", r.encoding);
+		Assert.assertFalse(r.untitled);
+		// Line terminators are normalized, as they are in the document.
+		Assert.assertEquals("new line \nline two\n", r.text);
+	}
+
+
+	@Test
+	public void testReplay_baseFileModified() throws IOException {
+		writeFile("line one\n");
+		startWithBaseFile(file.getAbsolutePath(), false);
+		insert(0, "new ");
+		close();
+		writeFile("line one, changed\n");
+		Assert.assertNull(RecoveryJournal.replay(journal));
+	}
+
+
+	@Test
+	public void testReplay_badMagic() throws IOException {
+		out = new DataOutputStream(new FileOutputStream(journal));
+		out.writeInt(0);
+		close();
+		try {
+			RecoveryJournal.replay(journal);
+			Assert.fail("Expected an IOException");
+		} catch (IOException ioe) {
+			// Expected
+		}
+	}
+
+
+	@Test
+	public void testReplay_noBase() throws IOException {
+		startJournal(file.getAbsolutePath(), false);
+		insert(0, "text");
+		close();
+		try {
+			RecoveryJournal.replay(journal);
+			Assert.fail("Expected an IOException");
+		} catch (IOException ioe) {
+			// Expected
+		}
+	}
+
+
+	@Test
+	public void testReplay_noRecords() throws IOException {
+		startJournal(file.getAbsolutePath(), false);
+		close();
+		Assert.assertNull(RecoveryJournal.replay(journal));
+	}
+
+
+	@Test
+	public void testReplay_partialLastRecord() throws IOException {
+		startWithSnapshot("hello");
+		insert(5, " world");
+		out.writeByte(RecoveryJournal.RECORD_INSERT);
+		out.writeInt(0); // Crashed before writing the text
+		close();
+		Assert.assertEquals("hello world",
+				RecoveryJournal.replay(journal).text);
+	}
+
+
+	@Test
+	public void testReplay_snapshot() throws IOException {
+		startWithSnapshot("The quick brown fox");
+		remove(4, 6);
+		insert(4, "slow ");
+		insert(18, "\n\u00e9t\u00e9");
+		close();
+		RecoveryJournal.Recovered r = RecoveryJournal.replay(journal);
+		Assert.assertEquals("The slow brown fox\n\u00e9t\u00e9", r.text);
+	}
+
+
+	@Test
+	public void testReplay_snapshotReplacesEarlierContent() throws IOException {
+		startWithSnapshot("old");
+		insert(3, " text");
+		out.writeByte(RecoveryJournal.RECORD_SNAPSHOT);
+		writeText("new");
+		insert(3, " text");
+		close();
+		Assert.assertEquals("new text", RecoveryJournal.replay(journal).text);
+	}
+
+
+	@Test
+	public void testReplay_untitled() throws IOException {
+		startWithBaseFile("Untitled.txt", true);
+		insert(0, "typed");
+		close();
+		RecoveryJournal.Recovered r = RecoveryJournal.replay(journal);
+		Assert.assertTrue(r.untitled);
+		Assert.assertEquals("typed", r.text);
+	}
+
+
+}
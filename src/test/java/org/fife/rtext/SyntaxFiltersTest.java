@@ -0,0 +1,113 @@
+/*
+ * 10/19/2026
+ *
+ * SyntaxFiltersTest.java - Unit tests for SyntaxFilters.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link SyntaxFilters.CompiledFilters} class.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class SyntaxFiltersTest {
+
+	private Map<String, List<String>> filters;
+
+
+	@Before
+	public void setUp() {
+		filters = new LinkedHashMap<String, List<String>>();
+	}
+
+
+	private void addFilters(String style, String... styleFilters) {
+		filters.put(style, Arrays.asList(styleFilters));
+	}
+
+
+	private String getSyntaxStyle(String fileName) {
+		return new SyntaxFilters.CompiledFilters(filters).
+											getSyntaxStyle(fileName);
+	}
+
+
+	@Test
+	public void testGetSyntaxStyle_exactName() {
+		addFilters("make", "makefile", "GNUmakefile");
+		Assert.assertEquals("make", getSyntaxStyle("makefile"));
+		Assert.assertEquals("make", getSyntaxStyle("GNUmakefile"));
+		Assert.assertNull(getSyntaxStyle("makefile2"));
+	}
+
+
+	@Test
+	public void testGetSyntaxStyle_extension() {
+		addFilters("java", "*.java");
+		addFilters("gzip", "*.gz");
+		Assert.assertEquals("java", getSyntaxStyle("Foo.java"));
+		// Every extension of a multi-part one is checked.
+		Assert.assertEquals("gzip", getSyntaxStyle("archive.tar.gz"));
+		Assert.assertNull(getSyntaxStyle("Foo.javax"));
+		Assert.assertNull(getSyntaxStyle("java"));
+	}
+
+
+	@Test
+	public void testGetSyntaxStyle_firstFilterWins() {
+		addFilters("c", "*.h");
+		addFilters("cpp", "*.h", "*.cpp");
+		Assert.assertEquals("c", getSyntaxStyle("foo.h"));
+		Assert.assertEquals("cpp", getSyntaxStyle("foo.cpp"));
+	}
+
+
+	@Test
+	public void testGetSyntaxStyle_noFilters() {
+		Assert.assertNull(getSyntaxStyle("foo.txt"));
+	}
+
+
+	@Test
+	public void testGetSyntaxStyle_wildcards() {
+		addFilters("make", "Makefile.*", "*.mk?");
+		addFilters("shell", "*rc", "?profile");
+		Assert.assertEquals("make", getSyntaxStyle("Makefile.am"));
+		Assert.assertEquals("make", getSyntaxStyle("rules.mkx"));
+		Assert.assertEquals("shell", getSyntaxStyle(".bashrc"));
+		Assert.assertEquals("shell", getSyntaxStyle(".profile"));
+		Assert.assertNull(getSyntaxStyle("rules.mk"));
+		Assert.assertNull(getSyntaxStyle("..profile"));
+	}
+
+
+	@Test
+	public void testGetSyntaxStyle_wildcardsWithGroups() {
+		// Filters with groups of their own mustn't shift the group used to
+		// identify later styles.
+		addFilters("text", "report(1)*.txt", "(draft)*");
+		addFilters("shell", "build-*");
+		addFilters("xml", "*.xml?");
+		Assert.assertEquals("text", getSyntaxStyle("report1 final.txt"));
+		Assert.assertEquals("text", getSyntaxStyle("draft 2"));
+		Assert.assertEquals("shell", getSyntaxStyle("build-linux"));
+		Assert.assertEquals("xml", getSyntaxStyle("layout.xmlx"));
+	}
+
+
+}
@@ -0,0 +1,140 @@
+/*
+ * 10/19/2026
+ *
+ * TextTransformerTest.java - Unit tests for TextTransformer.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.regex.Pattern;
+
+import org.fife.rtext.TextTransformer.Operation;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the {@link TextTransformer} class.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class TextTransformerTest {
+
+
+	private static String transform(Operation operation, String text) {
+		return transform(operation, null, text, 4);
+	}
+
+
+	private static String transform(Operation operation, String regex,
+									String text, int tabSize) {
+		Pattern pattern = regex==null ? null : Pattern.compile(regex);
+		return new TextTransformer(null, operation, pattern).
+											transform(text, tabSize);
+	}
+
+
+	@Test
+	public void testTransform_emptyText() {
+		for (Operation operation : Operation.values()) {
+			Assert.assertEquals("", transform(operation, ".", "", 4));
+		}
+	}
+
+
+	@Test
+	public void testTransform_keepMatching() {
+		Assert.assertEquals("#a\n#c\n",
+				transform(Operation.KEEP_MATCHING, "^#", "#a\nb\n#c\n", 4));
+		// Partial matches count.
+		Assert.assertEquals("foo bar",
+				transform(Operation.KEEP_MATCHING, "bar", "baz\nfoo bar", 4));
+		Assert.assertEquals("",
+				transform(Operation.KEEP_MATCHING, "x", "a\nb\n", 4));
+	}
+
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTransform_patternRequired() {
+		new TextTransformer(null, Operation.REMOVE_MATCHING, null);
+	}
+
+
+	@Test
+	public void testTransform_removeMatching() {
+		Assert.assertEquals("b\n",
+				transform(Operation.REMOVE_MATCHING, "^#", "#a\nb\n#c\n", 4));
+		Assert.assertEquals("",
+				transform(Operation.REMOVE_MATCHING, "", "a\nb\n", 4));
+	}
+
+
+	@Test
+	public void testTransform_reverse() {
+		Assert.assertEquals("c\nb\na\n",
+				transform(Operation.REVERSE, "a\nb\nc\n"));
+		// The last line's missing newline stays at the end.
+		Assert.assertEquals("c\nb\na", transform(Operation.REVERSE, "a\nb\nc"));
+	}
+
+
+	@Test
+	public void testTransform_sort() {
+		Assert.assertEquals("a\nb\nc\n", transform(Operation.SORT, "b\nc\na\n"));
+		Assert.assertEquals("a\nb", transform(Operation.SORT, "b\na"));
+		Assert.assertEquals("\n\na\n", transform(Operation.SORT, "a\n\n\n"));
+	}
+
+
+	@Test
+	public void testTransform_spacesToTabs() {
+		Assert.assertEquals("\t  x\n",
+				transform(Operation.SPACES_TO_TABS, null, "      x\n", 4));
+		// Tabs in leading whitespace count up to the next tab stop.
+		Assert.assertEquals("\t y\n",
+				transform(Operation.SPACES_TO_TABS, null, "  \t y\n", 4));
+		Assert.assertEquals("\t\tx",
+				transform(Operation.SPACES_TO_TABS, null, "        x", 4));
+		// Spaces after the leading whitespace are left alone.
+		Assert.assertEquals("\tz\nab    c\n",
+				transform(Operation.SPACES_TO_TABS, null, "\tz\nab    c\n", 4));
+		Assert.assertEquals("\tx",
+				transform(Operation.SPACES_TO_TABS, null, "        x", 8));
+	}
+
+
+	@Test
+	public void testTransform_tabsToSpaces() {
+		Assert.assertEquals("    x\nab  c\n",
+				transform(Operation.TABS_TO_SPACES, null, "\tx\nab\tc\n", 4));
+		Assert.assertEquals("abcd    e",
+				transform(Operation.TABS_TO_SPACES, null, "abcd\te", 4));
+		Assert.assertEquals("  x",
+				transform(Operation.TABS_TO_SPACES, null, "\tx", 2));
+	}
+
+
+	@Test
+	public void testTransform_trimTrailingWhitespace() {
+		Assert.assertEquals("a\nb\n\nc",
+				transform(Operation.TRIM_TRAILING_WHITESPACE,
+						"a  \nb\t\n  \nc"));
+		Assert.assertEquals("  a\n",
+				transform(Operation.TRIM_TRAILING_WHITESPACE, "  a \t\n"));
+	}
+
+
+	@Test
+	public void testTransform_unique() {
+		Assert.assertEquals("a\nb\nc\n",
+				transform(Operation.UNIQUE, "a\nb\na\nc\nb\n"));
+		// The first occurrence of each line is kept.
+		Assert.assertEquals("b\na", transform(Operation.UNIQUE, "b\na\nb"));
+	}
+
+
+}